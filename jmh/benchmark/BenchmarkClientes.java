@@ -0,0 +1,115 @@
+package benchmark;
+
+import exception.BancoException;
+import model.Cliente;
+import repository.IRepositorioClientes;
+import repository.RepositorioClientes;
+import repository.RepositorioClientesIndexado;
+import validator.ClienteValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clientes: carga em massa de um repositório vazio e validação de CPF
+ * (válido sem formatação, válido formatado e inválido).
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BenchmarkClientes {
+    private static final int AMOSTRAS_CPF = 1 << 10;
+
+    /**
+     * Clientes a carregar, por implementação de repositório.
+     */
+    @State(Scope.Benchmark)
+    public static class Carga {
+        @Param({"linear", "indexado"})
+        public String implementacao;
+
+        @Param({"10000", "100000"})
+        public int quantidade;
+
+        private Cliente[] clientes;
+
+        @Setup(Level.Trial)
+        public void preparar() throws BancoException {
+            clientes = DadosBenchmark.clientes(quantidade);
+        }
+
+        private IRepositorioClientes novoRepositorio() {
+            return "linear".equals(implementacao) ? new RepositorioClientes() : new RepositorioClientesIndexado();
+        }
+    }
+
+    /**
+     * CPFs de cada categoria, percorridos em ciclo.
+     */
+    @State(Scope.Benchmark)
+    public static class Cpfs {
+        private final String[] validos = new String[AMOSTRAS_CPF];
+        private final String[] formatados = new String[AMOSTRAS_CPF];
+        private final String[] invalidos = new String[AMOSTRAS_CPF];
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            for (int i = 0; i < AMOSTRAS_CPF; i++) {
+                String cpf = DadosBenchmark.cpf(i);
+                validos[i] = cpf;
+                formatados[i] = cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "."
+                        + cpf.substring(6, 9) + "-" + cpf.substring(9);
+                char ultimo = cpf.charAt(10);
+                invalidos[i] = cpf.substring(0, 10) + (char) (ultimo == '9' ? '0' : ultimo + 1);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int carregar(Carga carga) throws BancoException {
+        IRepositorioClientes repositorio = carga.novoRepositorio();
+        for (Cliente cliente : carga.clientes) {
+            repositorio.adicionar(cliente);
+        }
+        return repositorio.listarTodos().size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void validarCpfValido(Cpfs cpfs, SequenciaContas sequencia) throws BancoException {
+        ClienteValidator.validarCpf(cpfs.validos[(int) (sequencia.avancar() & (AMOSTRAS_CPF - 1))]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void validarCpfFormatado(Cpfs cpfs, SequenciaContas sequencia) throws BancoException {
+        ClienteValidator.validarCpf(cpfs.formatados[(int) (sequencia.avancar() & (AMOSTRAS_CPF - 1))]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public boolean validarCpfInvalido(Cpfs cpfs, SequenciaContas sequencia) {
+        try {
+            ClienteValidator.validarCpf(cpfs.invalidos[(int) (sequencia.avancar() & (AMOSTRAS_CPF - 1))]);
+            throw new IllegalStateException("CPF inválido aceito");
+        } catch (BancoException e) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package benchmark;
+
+import exception.BancoException;
+import model.Conta;
+import repository.IRepositorioContas;
+import repository.RepositorioClientesIndexado;
+import repository.RepositorioContasIndexado;
+import service.BancoServico;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking por saldo: as maiores contas após cada depósito (o índice reposiciona
+ * só a conta alterada) e, para comparação, a listagem completa ordenada.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkRanking {
+    private static final int CONTAS = 100_000;
+    private static final int TAMANHO_TOPO = 10;
+    private static final double VALOR_OPERACAO = 1.0;
+
+    private BancoServico servico;
+    private IRepositorioContas repositorio;
+
+    @Setup(Level.Trial)
+    public void preparar() throws BancoException {
+        servico = DadosBenchmark.servico(new RepositorioClientesIndexado(), new RepositorioContasIndexado(), CONTAS);
+        repositorio = servico.getRepositorioContas();
+    }
+
+    @Benchmark
+    public List<Conta> maioresSaldosAposDeposito(SequenciaContas sequencia) throws BancoException {
+        servico.depositar(sequencia.proximaConta(CONTAS), VALOR_OPERACAO);
+        return repositorio.listarMaioresSaldos(TAMANHO_TOPO);
+    }
+
+    @Benchmark
+    public List<Conta> listarOrdenadas() {
+        return repositorio.listarOrdenadasPorSaldo();
+    }
+}
@@ -0,0 +1,68 @@
+package benchmark;
+
+import exception.BancoException;
+import exception.ValorInvalidoException;
+import repository.RepositorioClientesIndexado;
+import repository.RepositorioContasIndexado;
+import service.BancoServico;
+import service.RelatorioServico;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operações sobre o banco inteiro: relatório de consolidação (saída descartada)
+ * e rendimento sobre todas as poupanças (metade das contas).
+ */
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkRelatorio {
+    private static final int CONTAS = 100_000;
+    private static final double PERCENTUAL_RENDIMENTO = 0.01;
+
+    private BancoServico servico;
+    private RelatorioServico relatorio;
+    private PrintStream saidaOriginal;
+
+    @Setup(Level.Trial)
+    public void preparar() throws BancoException {
+        servico = DadosBenchmark.servico(new RepositorioClientesIndexado(), new RepositorioContasIndexado(), CONTAS);
+        relatorio = new RelatorioServico();
+        saidaOriginal = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        System.setOut(saidaOriginal);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void relatorioConsolidacao() {
+        relatorio.gerarRelatorioConsolidacao(servico.getRepositorioContas());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int aplicarRendimentoPoupancas() throws ValorInvalidoException {
+        return servico.aplicarRendimentoPoupancas(PERCENTUAL_RENDIMENTO);
+    }
+}
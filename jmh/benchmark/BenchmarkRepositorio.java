@@ -0,0 +1,87 @@
+package benchmark;
+
+import constants.Constantes;
+import exception.BancoException;
+import model.Cliente;
+import repository.IRepositorioContas;
+import repository.RepositorioContas;
+import repository.RepositorioContasComCache;
+import repository.RepositorioContasIndexado;
+import repository.RepositorioContasMapeado;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca por número (seguida da leitura do saldo) em cada implementação de
+ * repositório de contas, em três tamanhos.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkRepositorio {
+    private static final int TITULARES = 1_000;
+
+    @Param({"linear", "indexado", "mapeado", "mapeadoCache"})
+    public String implementacao;
+
+    @Param({"1000", "100000", "1000000"})
+    public int tamanho;
+
+    private IRepositorioContas repositorio;
+    private RepositorioContasMapeado mapeado;
+    private Path arquivo;
+
+    @Setup(Level.Trial)
+    public void preparar() throws BancoException, IOException {
+        Cliente[] titulares = DadosBenchmark.clientes(TITULARES);
+        switch (implementacao) {
+            case "linear":
+                repositorio = new RepositorioContas();
+                break;
+            case "indexado":
+                repositorio = new RepositorioContasIndexado();
+                break;
+            default:
+                arquivo = Files.createTempFile("benchmark-contas", ".dat");
+                mapeado = new RepositorioContasMapeado(arquivo);
+                repositorio = "mapeadoCache".equals(implementacao)
+                        ? new RepositorioContasComCache(mapeado, Constantes.CAPACIDADE_CACHE_CONTAS_PADRAO)
+                        : mapeado;
+        }
+        DadosBenchmark.contas(repositorio, titulares, tamanho);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        if (mapeado != null) {
+            mapeado.close();
+            Files.deleteIfExists(arquivo);
+        }
+    }
+
+    @Benchmark
+    public long buscarPorNumero(SequenciaContas sequencia) {
+        return repositorio.buscarPorNumero(sequencia.proximaConta(tamanho))
+                .orElseThrow(IllegalStateException::new)
+                .getSaldoCentavos();
+    }
+}
@@ -0,0 +1,107 @@
+package benchmark;
+
+import constants.Constantes;
+import exception.BancoException;
+import repository.RepositorioClientesIndexado;
+import repository.RepositorioContasIndexado;
+import service.BancoServico;
+import service.BancoServicoParticionado;
+import service.IOperacoesBancarias;
+import service.ResultadoLote;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Depósito, saque e transferência pelo serviço, com contas espalhadas (pouca
+ * disputa) e concentradas em poucas contas (disputa máxima), no modo direto
+ * (compare-and-set) e no particionado (escritor único por partição).
+ * Threads: opção {@code -t} do JMH.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BenchmarkServico {
+    private static final int CONTAS = 100_000;
+    private static final int TAMANHO_LOTE = 64;
+    private static final double VALOR_OPERACAO = 1.0;
+
+    @Param({"direto", "particionado"})
+    public String execucao;
+
+    private IOperacoesBancarias servico;
+    private BancoServicoParticionado particionado;
+    private int primeira;
+
+    @Setup(Level.Trial)
+    public void preparar() throws BancoException {
+        BancoServico base = DadosBenchmark.servico(new RepositorioClientesIndexado(),
+                new RepositorioContasIndexado(), CONTAS);
+        if ("particionado".equals(execucao)) {
+            particionado = new BancoServicoParticionado(base, Runtime.getRuntime().availableProcessors());
+            servico = particionado;
+        } else {
+            servico = base;
+        }
+        primeira = Constantes.NUMERO_CONTA_INICIAL;
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        if (particionado != null) {
+            particionado.close();
+        }
+    }
+
+    @Benchmark
+    public void depositarEspalhado(SequenciaContas sequencia) throws BancoException {
+        servico.depositar(sequencia.proximaConta(CONTAS), VALOR_OPERACAO);
+    }
+
+    @Benchmark
+    public void depositarContendido() throws BancoException {
+        servico.depositar(primeira, VALOR_OPERACAO);
+    }
+
+    @Benchmark
+    public void sacarEspalhado(SequenciaContas sequencia) throws BancoException {
+        servico.sacar(sequencia.proximaConta(CONTAS), VALOR_OPERACAO);
+    }
+
+    @Benchmark
+    public void transferirEspalhado(SequenciaContas sequencia) throws BancoException {
+        int origem = sequencia.proximaConta(CONTAS);
+        int destino = origem + 1 < primeira + CONTAS ? origem + 1 : primeira;
+        servico.transferir(origem, destino, VALOR_OPERACAO);
+    }
+
+    @Benchmark
+    public void transferirContendido(SequenciaContas sequencia) throws BancoException {
+        // Alterna o sentido entre as duas contas para manter os saldos estáveis
+        boolean ida = (sequencia.avancar() & 1) == 0;
+        servico.transferir(ida ? primeira : primeira + 1, ida ? primeira + 1 : primeira, VALOR_OPERACAO);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TAMANHO_LOTE)
+    public ResultadoLote loteDepositos(SequenciaContas sequencia) {
+        return servico.executarLote(DadosBenchmark.depositos(sequencia.getIndiceThread(), sequencia.avancar(),
+                TAMANHO_LOTE, CONTAS, VALOR_OPERACAO));
+    }
+}
@@ -0,0 +1,133 @@
+package benchmark;
+
+import constants.Constantes;
+import exception.BancoException;
+import factory.ContaFactory;
+import model.Cliente;
+import repository.IRepositorioClientes;
+import repository.IRepositorioContas;
+import service.BancoServico;
+import service.OperacaoLote;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Massa de dados determinística para os benchmarks.
+ * Boa Prática: Mesmos CPFs, contas e saldos em toda execução, para que
+ * resultados de versões diferentes do código sejam comparáveis.
+ */
+final class DadosBenchmark {
+    /** Saldo inicial alto o bastante para que saques não esgotem as contas. */
+    static final double SALDO_INICIAL = 1_000_000.0;
+
+    private static final String NOME_CLIENTE = "Cliente Benchmark";
+    private static final int BASE_CPF = 100_000_000;
+
+    /**
+     * Construtor privado para prevenir instanciação.
+     */
+    private DadosBenchmark() {
+        throw new AssertionError("Classe DadosBenchmark não deve ser instanciada");
+    }
+
+    /**
+     * Gera o i-ésimo CPF válido da sequência (11 dígitos, sem formatação).
+     *
+     * @param indice Posição na sequência (0 a 899.999.999)
+     * @return CPF com dígitos verificadores corretos
+     */
+    static String cpf(int indice) {
+        char[] digitos = new char[Constantes.CPF_TAMANHO];
+        int base = BASE_CPF + indice;
+        for (int i = 8; i >= 0; i--) {
+            digitos[i] = (char) ('0' + base % 10);
+            base /= 10;
+        }
+        digitos[9] = digitoVerificador(digitos, 9);
+        digitos[10] = digitoVerificador(digitos, 10);
+        return new String(digitos);
+    }
+
+    /**
+     * Cria clientes com CPFs da sequência.
+     *
+     * @param quantidade Quantidade de clientes
+     * @return Clientes já validados
+     */
+    static Cliente[] clientes(int quantidade) throws BancoException {
+        Cliente[] clientes = new Cliente[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            clientes[i] = new Cliente(NOME_CLIENTE, cpf(i));
+        }
+        return clientes;
+    }
+
+    /**
+     * Monta um serviço com a quantidade de contas informada, alternando
+     * corrente e poupança, um cliente a cada duas contas.
+     *
+     * @return Serviço populado; as contas vão de NUMERO_CONTA_INICIAL em diante
+     */
+    static BancoServico servico(IRepositorioClientes repositorioClientes,
+                                IRepositorioContas repositorioContas,
+                                int quantidadeContas) throws BancoException {
+        BancoServico servico = new BancoServico(repositorioClientes, repositorioContas);
+        for (int i = 0; i < quantidadeContas; i++) {
+            String cpf = cpf(i / 2);
+            if (i % 2 == 0) {
+                servico.cadastrarCliente(NOME_CLIENTE, cpf);
+            }
+            String tipo = i % 2 == 0 ? Constantes.TIPO_CONTA_CORRENTE : Constantes.TIPO_CONTA_POUPANCA;
+            servico.cadastrarConta(cpf, tipo, SALDO_INICIAL);
+        }
+        return servico;
+    }
+
+    /**
+     * Adiciona contas diretamente ao repositório, sem passar pelo serviço.
+     * Os titulares se repetem a cada {@code titulares.length} contas.
+     *
+     * @return O próprio repositório, populado
+     */
+    static IRepositorioContas contas(IRepositorioContas repositorio, Cliente[] titulares,
+                                     int quantidadeContas) throws BancoException {
+        for (int i = 0; i < quantidadeContas; i++) {
+            String tipo = i % 2 == 0 ? Constantes.TIPO_CONTA_CORRENTE : Constantes.TIPO_CONTA_POUPANCA;
+            repositorio.adicionar(ContaFactory.criarConta(Constantes.NUMERO_CONTA_INICIAL + i,
+                    titulares[i % titulares.length], tipo, SALDO_INICIAL));
+        }
+        return repositorio;
+    }
+
+    /**
+     * Número de conta pseudoaleatório e reprodutível para a iteração de uma thread.
+     * Threads diferentes percorrem as contas em ordens diferentes.
+     */
+    static int numeroConta(int indiceThread, long iteracao, int quantidadeContas) {
+        long mistura = (iteracao + 1) * 0x9E3779B97F4A7C15L + indiceThread * 0xBF58476D1CE4E5B9L;
+        mistura ^= mistura >>> 31;
+        return Constantes.NUMERO_CONTA_INICIAL + (int) Long.remainderUnsigned(mistura, quantidadeContas);
+    }
+
+    /**
+     * Lote de depósitos em contas pseudoaleatórias (as mesmas de {@link #numeroConta}).
+     */
+    static List<OperacaoLote> depositos(int indiceThread, long iteracao, int tamanho,
+                                        int quantidadeContas, double valor) {
+        List<OperacaoLote> lote = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            lote.add(OperacaoLote.deposito(numeroConta(indiceThread, iteracao * tamanho + i, quantidadeContas), valor));
+        }
+        return lote;
+    }
+
+    private static char digitoVerificador(char[] digitos, int posicao) {
+        int soma = 0;
+        for (int i = 0; i < posicao; i++) {
+            soma += (digitos[i] - '0') * (posicao + 1 - i);
+        }
+        int digito = 11 - soma % 11;
+        return (char) ('0' + (digito >= 10 ? 0 : digito));
+    }
+}
@@ -0,0 +1,234 @@
+package benchmark;
+
+import metricas.HistogramaLatencia;
+import rede.ProtocoloBinario;
+import rede.ServidorBanco;
+import rede.ServidorBinario;
+import rede.ServidorTcp;
+import repository.RepositorioClientesIndexado;
+import repository.RepositorioContasIndexado;
+import service.IOperacoesBancarias;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gerador de carga para o {@link ServidorBanco}: muitas conexões simultâneas,
+ * cada uma numa thread virtual, enviando requisições e medindo a latência de cada resposta.
+ *
+ * Uso: {@code java -cp <classes> benchmark.GeradorCargaRede [host porta]}.
+ * Sem argumentos, sobe um servidor local em memória já populado.
+ * Parâmetros via propriedades de sistema: {@code banco.carga.conexoes},
+ * {@code banco.carga.duracaoMs}, {@code banco.carga.contas} (contas existentes no
+ * servidor, a partir de NUMERO_CONTA_INICIAL), {@code banco.carga.pipeline}
+ * (requisições enviadas antes de ler as respostas) e {@code banco.carga.protocolo}
+ * ({@code texto} ou {@code binario}).
+ */
+public final class GeradorCargaRede {
+    private static final String PREFIXO_PROPRIEDADE = "banco.carga.";
+
+    private final String host;
+    private final int porta;
+    private final int quantidadeContas;
+    private final int pipeline;
+    private final boolean binario;
+    private final HistogramaLatencia latencias;
+    private final LongAdder erros;
+
+    private GeradorCargaRede(String host, int porta, int quantidadeContas, int pipeline, boolean binario) {
+        this.host = host;
+        this.porta = porta;
+        this.quantidadeContas = quantidadeContas;
+        this.pipeline = pipeline;
+        this.binario = binario;
+        this.latencias = new HistogramaLatencia();
+        this.erros = new LongAdder();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int conexoes = Integer.getInteger(PREFIXO_PROPRIEDADE + "conexoes", 1_000);
+        long duracaoMs = Long.getLong(PREFIXO_PROPRIEDADE + "duracaoMs", 10_000L);
+        int contas = Integer.getInteger(PREFIXO_PROPRIEDADE + "contas", 100_000);
+        int pipeline = Math.max(1, Integer.getInteger(PREFIXO_PROPRIEDADE + "pipeline", 1));
+        boolean binario = "binario".equals(System.getProperty(PREFIXO_PROPRIEDADE + "protocolo", "texto"));
+
+        ServidorTcp servidorLocal = null;
+        String host;
+        int porta;
+        if (args.length >= 2) {
+            host = args[0];
+            porta = Integer.parseInt(args[1]);
+        } else {
+            IOperacoesBancarias servico = DadosBenchmark.servico(new RepositorioClientesIndexado(),
+                    new RepositorioContasIndexado(), contas);
+            servidorLocal = binario
+                    ? new ServidorBinario(servico, InetAddress.getLoopbackAddress(), 0)
+                    : new ServidorBanco(servico, InetAddress.getLoopbackAddress(), 0);
+            host = InetAddress.getLoopbackAddress().getHostAddress();
+            porta = servidorLocal.iniciar();
+        }
+
+        System.out.printf(Locale.ROOT, "# alvo=%s:%d protocolo=%s conexoes=%d duracaoMs=%d contas=%d pipeline=%d%n",
+                host, porta, binario ? "binario" : "texto", conexoes, duracaoMs, contas, pipeline);
+        try {
+            new GeradorCargaRede(host, porta, contas, pipeline, binario).executar(conexoes, duracaoMs);
+        } finally {
+            if (servidorLocal != null) {
+                servidorLocal.close();
+            }
+        }
+    }
+
+    private void executar(int conexoes, long duracaoMs) throws InterruptedException {
+        long inicio = System.nanoTime();
+        long limite = inicio + duracaoMs * 1_000_000L;
+        List<Thread> clientes = new ArrayList<>(conexoes);
+        for (int i = 0; i < conexoes; i++) {
+            int indiceCliente = i;
+            Runnable cliente = binario
+                    ? () -> simularClienteBinario(indiceCliente, limite)
+                    : () -> simularCliente(indiceCliente, limite);
+            clientes.add(Thread.ofVirtual().name("carga-" + i).start(cliente));
+        }
+        for (Thread cliente : clientes) {
+            cliente.join();
+        }
+        long decorrido = System.nanoTime() - inicio;
+
+        long requisicoes = latencias.total();
+        System.out.printf(Locale.ROOT, "requisicoes=%d erros=%d vazao=%.1f req/s%n",
+                requisicoes, erros.sum(), requisicoes * 1e9 / decorrido);
+        System.out.printf(Locale.ROOT, "latencia(us) p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f%n",
+                latencias.percentil(50) / 1e3, latencias.percentil(90) / 1e3, latencias.percentil(99) / 1e3,
+                latencias.percentil(99.9) / 1e3, latencias.percentil(100) / 1e3);
+    }
+
+    /**
+     * Um cliente: envia lotes de {@link #pipeline} requisições e lê as respostas,
+     * até o limite de tempo. Mistura: 50% saldo, 30% depósito, 20% transferência.
+     */
+    private void simularCliente(int indiceCliente, long limite) {
+        try (Socket socket = new Socket(host, porta);
+             BufferedReader entrada = new BufferedReader(new InputStreamReader(
+                     socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter saida = new BufferedWriter(new OutputStreamWriter(
+                     socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            long[] enviadas = new long[pipeline];
+            long iteracao = 0;
+            while (System.nanoTime() < limite) {
+                for (int i = 0; i < pipeline; i++) {
+                    saida.write(requisicao(indiceCliente, iteracao++));
+                    saida.write('\n');
+                    enviadas[i] = System.nanoTime();
+                }
+                saida.flush();
+                for (int i = 0; i < pipeline; i++) {
+                    String resposta = entrada.readLine();
+                    latencias.registrar(System.nanoTime() - enviadas[i]);
+                    if (resposta == null || !resposta.startsWith("OK")) {
+                        erros.increment();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            erros.increment();
+        }
+    }
+
+    /**
+     * Mesmo cliente de {@link #simularCliente}, no {@link ProtocoloBinario}:
+     * o id de cada requisição é o seu índice no lote.
+     */
+    private void simularClienteBinario(int indiceCliente, long limite) {
+        try (SocketChannel canal = SocketChannel.open(new InetSocketAddress(host, porta))) {
+            canal.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            ByteBuffer saida = ByteBuffer.allocateDirect(pipeline * ProtocoloBinario.TAMANHO_MAXIMO_REQUISICAO);
+            ByteBuffer entrada = ByteBuffer.allocateDirect(pipeline * ProtocoloBinario.TAMANHO_MAXIMO_RESPOSTA);
+            long[] enviadas = new long[pipeline];
+            long iteracao = 0;
+            while (System.nanoTime() < limite) {
+                saida.clear();
+                for (int i = 0; i < pipeline; i++) {
+                    escreverRequisicao(saida, i, indiceCliente, iteracao++);
+                    enviadas[i] = System.nanoTime();
+                }
+                saida.flip();
+                while (saida.hasRemaining()) {
+                    canal.write(saida);
+                }
+                entrada.clear();
+                int inicio = 0;
+                for (int i = 0; i < pipeline; i++) {
+                    int proxima = aguardarResposta(canal, entrada, inicio);
+                    latencias.registrar(System.nanoTime() - enviadas[i]);
+                    byte status = entrada.get(inicio + ProtocoloBinario.TAMANHO_PREFIXO);
+                    inicio = proxima;
+                    if (status != ProtocoloBinario.STATUS_SUCESSO) {
+                        erros.increment();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            erros.increment();
+        }
+    }
+
+    private void escreverRequisicao(ByteBuffer saida, int id, int indiceCliente, long iteracao) {
+        int conta = DadosBenchmark.numeroConta(indiceCliente, iteracao, quantidadeContas);
+        int destino = DadosBenchmark.numeroConta(indiceCliente, iteracao + 1, quantidadeContas);
+        int sorteio = (int) (iteracao % 10);
+        if (sorteio < 5 || (sorteio >= 8 && destino == conta)) {
+            saida.putInt(ProtocoloBinario.TAMANHO_CABECALHO + Integer.BYTES)
+                    .put(ProtocoloBinario.OP_SALDO).putInt(id).putInt(conta);
+        } else if (sorteio < 8) {
+            saida.putInt(ProtocoloBinario.TAMANHO_CABECALHO + Integer.BYTES + Long.BYTES)
+                    .put(ProtocoloBinario.OP_DEPOSITAR).putInt(id).putInt(conta).putLong(100);
+        } else {
+            saida.putInt(ProtocoloBinario.TAMANHO_CABECALHO + 2 * Integer.BYTES + Long.BYTES)
+                    .put(ProtocoloBinario.OP_TRANSFERIR).putInt(id).putInt(conta).putInt(destino).putLong(100);
+        }
+    }
+
+    /**
+     * Lê do canal até a resposta que começa em {@code inicio} estar completa.
+     *
+     * @return Posição onde começa a resposta seguinte
+     */
+    private static int aguardarResposta(SocketChannel canal, ByteBuffer entrada, int inicio) throws IOException {
+        while (entrada.position() - inicio < ProtocoloBinario.TAMANHO_PREFIXO
+                || entrada.position() - inicio < ProtocoloBinario.TAMANHO_PREFIXO + entrada.getInt(inicio)) {
+            if (canal.read(entrada) < 0) {
+                throw new IOException("Conexão encerrada pelo servidor");
+            }
+        }
+        return inicio + ProtocoloBinario.TAMANHO_PREFIXO + entrada.getInt(inicio);
+    }
+
+    private String requisicao(int indiceCliente, long iteracao) {
+        int conta = DadosBenchmark.numeroConta(indiceCliente, iteracao, quantidadeContas);
+        int sorteio = (int) (iteracao % 10);
+        if (sorteio < 5) {
+            return "SALDO " + conta;
+        }
+        if (sorteio < 8) {
+            return "DEPOSITAR " + conta + " 1.00";
+        }
+        int destino = DadosBenchmark.numeroConta(indiceCliente, iteracao + 1, quantidadeContas);
+        return destino == conta ? "SALDO " + conta : "TRANSFERIR " + conta + " " + destino + " 1.00";
+    }
+}
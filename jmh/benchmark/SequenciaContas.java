@@ -0,0 +1,44 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * Estado por thread: a sequência pseudoaleatória de contas que a thread percorre.
+ * Boa Prática: Mesma sequência em toda execução ({@link DadosBenchmark#numeroConta}),
+ * e sequências diferentes entre threads.
+ */
+@State(Scope.Thread)
+public class SequenciaContas {
+    private int indiceThread;
+    private long iteracao;
+
+    @Setup
+    public void preparar(ThreadParams parametros) {
+        indiceThread = parametros.getThreadIndex();
+        iteracao = 0;
+    }
+
+    /**
+     * @param quantidadeContas Contas existentes, a partir de NUMERO_CONTA_INICIAL
+     * @return Próxima conta da sequência desta thread
+     */
+    int proximaConta(int quantidadeContas) {
+        return DadosBenchmark.numeroConta(indiceThread, iteracao++, quantidadeContas);
+    }
+
+    int getIndiceThread() {
+        return indiceThread;
+    }
+
+    /**
+     * Avança a sequência sem escolher conta (ex: lote montado por quem chama).
+     *
+     * @return Iteração antes do avanço
+     */
+    long avancar() {
+        return iteracao++;
+    }
+}
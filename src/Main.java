@@ -1,12 +1,37 @@
+import constants.Constantes;
+import exception.BancoException;
+import metricas.BancoServicoInstrumentado;
+import metricas.MetricasBanco;
+import persistencia.ArmazenamentoBanco;
+import persistencia.BancoServicoPersistente;
+import rede.ServidorBanco;
+import rede.ServidorBinario;
+import rede.ServidorTcp;
 import repository.IRepositorioClientes;
 import repository.IRepositorioContas;
-import repository.RepositorioClientes;
-import repository.RepositorioContas;
+import repository.LivroRazao;
+import repository.RepositorioClientesIndexado;
+import repository.RepositorioContasComCache;
+import repository.RepositorioContasIndexado;
+import repository.RepositorioContasMapeado;
 import service.BancoServico;
+import service.BancoServicoParticionado;
+import service.CacheIdempotencia;
+import service.ExportacaoServico;
 import service.IOperacoesBancarias;
+import service.ImportacaoCsvServico;
 import service.RelatorioServico;
 import ui.Menu;
 
+import javax.management.JMException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 /**
  * Classe principal do sistema bancário.
  * Boa Prática: Responsabilidade única de inicializar sistema.
@@ -46,23 +71,189 @@ public class Main {
     /**
      * Executa a aplicação.
      * Boa Prática: Separação de responsabilidades.
+     *
+     * @throws IOException se os dados persistidos não puderem ser lidos ou gravados
+     * @throws BancoException se o estado recuperado for inconsistente
      */
-    private void executar() {
+    private void executar() throws IOException, BancoException {
+        // O arquivo mapeado (se configurado) é sincronizado e fechado ao encerrar
+        RepositorioContasMapeado contasMapeadas = criarRepositorioContasMapeado();
+        try {
+            executar(criarRepositorioContas(contasMapeadas));
+        } finally {
+            if (contasMapeadas != null) {
+                contasMapeadas.close();
+            }
+        }
+    }
+
+    /**
+     * Monta as camadas sobre o repositório de contas e inicia a interface.
+     *
+     * @param repositorioContas Repositório de contas (vazio)
+     * @throws IOException se os dados persistidos não puderem ser lidos ou gravados
+     * @throws BancoException se o estado recuperado for inconsistente
+     */
+    private void executar(IRepositorioContas repositorioContas) throws IOException, BancoException {
         // Cria dependências (camada de infraestrutura)
-        IRepositorioClientes repositorioClientes = new RepositorioClientes();
-        IRepositorioContas repositorioContas = new RepositorioContas();
+        IRepositorioClientes repositorioClientes = new RepositorioClientesIndexado();
+
+        // Recupera estado persistido (snapshot + diário)
+        try (ArmazenamentoBanco armazenamento = ArmazenamentoBanco.abrir(Paths.get(Constantes.DIRETORIO_DADOS))) {
+            // Chaves de idempotência registradas no diário voltam ao cache junto com o estado
+            CacheIdempotencia cacheIdempotencia = new CacheIdempotencia(Constantes.CAPACIDADE_CACHE_IDEMPOTENCIA,
+                    TimeUnit.MINUTES.toMillis(Constantes.JANELA_IDEMPOTENCIA_MINUTOS));
+            int proximoNumeroConta = armazenamento.materializar(repositorioClientes, repositorioContas,
+                    cacheIdempotencia);
+
+            // Cria serviços (camada de negócio) com injeção de dependências
+            LivroRazao livroRazao = criarLivroRazao();
+            // Um único cache de idempotência para todas as camadas que deduplicam por chave
+            IOperacoesBancarias servico = new BancoServico(repositorioClientes, repositorioContas,
+                    proximoNumeroConta, Boolean.getBoolean(Constantes.PROPRIEDADE_RENDIMENTO_DIFERIDO),
+                    livroRazao, cacheIdempotencia);
+            BancoServicoParticionado servicoParticionado = criarServicoParticionado(servico, livroRazao,
+                    cacheIdempotencia);
+            BancoServicoPersistente servicoPersistente = new BancoServicoPersistente(
+                    servicoParticionado != null ? servicoParticionado : servico,
+                    armazenamento.getDiario(),
+                    cacheIdempotencia
+            );
+            armazenamento.agendarCompactacao(servicoPersistente,
+                    Constantes.INTERVALO_COMPACTACAO_MINUTOS, TimeUnit.MINUTES);
+            // Camada mais externa: as latências medidas incluem o aguardo do diário
+            BancoServicoInstrumentado operacoesBancarias = new BancoServicoInstrumentado(servicoPersistente,
+                    cacheIdempotencia);
+            registrarMetricasJmx(operacoesBancarias.getMetricas());
+            RelatorioServico relatorioServico = new RelatorioServico();
+            ImportacaoCsvServico importacaoServico = new ImportacaoCsvServico(operacoesBancarias);
+            ExportacaoServico exportacaoServico = new ExportacaoServico(operacoesBancarias, livroRazao);
 
-        // Cria serviços (camada de negócio) com injeção de dependências
-        IOperacoesBancarias operacoesBancarias = new BancoServico(
-                repositorioClientes,
-                repositorioContas
-        );
-        RelatorioServico relatorioServico = new RelatorioServico();
+            // Cria UI (camada de apresentação) com injeção de dependências
+            Menu menuUI = new Menu(operacoesBancarias, relatorioServico, importacaoServico,
+                    exportacaoServico, operacoesBancarias.getMetricas());
 
-        // Cria UI (camada de apresentação) com injeção de dependências
-        Menu menuUI = new Menu(operacoesBancarias, relatorioServico);
+            // Inicia aplicação (e os servidores de rede, se configurados)
+            List<ServidorTcp> servidores = iniciarServidoresRede(operacoesBancarias);
+            try {
+                menuUI.iniciar();
+            } finally {
+                for (ServidorTcp servidor : servidores) {
+                    servidor.close();
+                }
+                if (servicoParticionado != null) {
+                    servicoParticionado.close();
+                }
+            }
+        }
+    }
 
-        // Inicia aplicação
-        menuUI.iniciar();
+    /**
+     * Cria o livro razão dos extratos com -Dbanco.livroRazao.capacidade=N movimentos
+     * (potência de 2; 0 desativa os extratos e o custo de registrar cada movimento).
+     * O livro guarda apenas os movimentos desde a inicialização.
+     *
+     * @return Livro razão com a capacidade configurada, ou o livro desativado
+     */
+    private LivroRazao criarLivroRazao() {
+        int capacidade = Integer.getInteger(Constantes.PROPRIEDADE_CAPACIDADE_LIVRO_RAZAO,
+                Constantes.CAPACIDADE_LIVRO_RAZAO_PADRAO);
+        return capacidade == 0 ? LivroRazao.DESATIVADO : new LivroRazao(capacidade);
+    }
+
+    /**
+     * Cria o modo de execução particionado quando -Dbanco.particoes=N é informado
+     * (0 usa uma partição por processador).
+     *
+     * @param servico Serviço bancário a decorar
+     * @param livroRazao Livro razão do serviço decorado
+     * @param cacheIdempotencia Cache de idempotência do serviço decorado
+     * @return Serviço particionado, ou null se o modo não foi configurado
+     */
+    private BancoServicoParticionado criarServicoParticionado(IOperacoesBancarias servico,
+                                                              LivroRazao livroRazao,
+                                                              CacheIdempotencia cacheIdempotencia) {
+        Integer particoes = Integer.getInteger(Constantes.PROPRIEDADE_PARTICOES);
+        if (particoes == null) {
+            return null;
+        }
+        int quantidade = particoes == 0 ? Runtime.getRuntime().availableProcessors() : particoes;
+        System.out.println("Execução particionada com " + quantidade + " partições");
+        return new BancoServicoParticionado(servico, quantidade, livroRazao, cacheIdempotencia);
+    }
+
+    /**
+     * Publica as métricas no JMX da plataforma (ex: jconsole, domínio "banco").
+     * Sem JMX o banco funciona normalmente: o relatório continua disponível no menu.
+     *
+     * @param metricas Métricas das operações
+     */
+    private void registrarMetricasJmx(MetricasBanco metricas) {
+        try {
+            metricas.registrarJmx();
+        } catch (JMException e) {
+            System.err.println("Métricas indisponíveis via JMX: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Inicia os servidores TCP configurados: texto com -Dbanco.rede.porta=N e
+     * binário com -Dbanco.rede.portaBinaria=N (0 escolhe uma porta livre qualquer).
+     *
+     * @param operacoesBancarias Operações expostas pela rede
+     * @return Servidores iniciados (vazia se a rede não foi configurada)
+     * @throws IOException se uma porta não puder ser aberta
+     */
+    private List<ServidorTcp> iniciarServidoresRede(IOperacoesBancarias operacoesBancarias) throws IOException {
+        List<ServidorTcp> servidores = new ArrayList<>();
+        Integer portaTexto = Integer.getInteger(Constantes.PROPRIEDADE_PORTA_REDE);
+        if (portaTexto != null) {
+            ServidorTcp servidor = new ServidorBanco(operacoesBancarias, null, portaTexto);
+            servidores.add(servidor);
+            System.out.println("Servidor de rede (texto) atendendo na porta " + servidor.iniciar());
+        }
+        Integer portaBinaria = Integer.getInteger(Constantes.PROPRIEDADE_PORTA_REDE_BINARIA);
+        if (portaBinaria != null) {
+            ServidorTcp servidor = new ServidorBinario(operacoesBancarias, null, portaBinaria);
+            servidores.add(servidor);
+            System.out.println("Servidor de rede (binário) atendendo na porta " + servidor.iniciar());
+        }
+        return servidores;
+    }
+
+    /**
+     * Cria o repositório de contas em arquivo mapeado quando -Dbanco.contas.mapeadas=true
+     * (heap constante para dezenas de milhões de contas).
+     *
+     * @return Repositório mapeado, ou null se o modo não foi configurado
+     * @throws IOException se o arquivo mapeado não puder ser criado
+     */
+    private RepositorioContasMapeado criarRepositorioContasMapeado() throws IOException {
+        if (!Boolean.getBoolean(Constantes.PROPRIEDADE_CONTAS_MAPEADAS)) {
+            return null;
+        }
+        Path diretorio = Files.createDirectories(Paths.get(Constantes.DIRETORIO_DADOS));
+        return new RepositorioContasMapeado(diretorio.resolve(Constantes.ARQUIVO_CONTAS_MAPEADAS));
+    }
+
+    /**
+     * Escolhe a implementação do repositório de contas.
+     * Com -Dbanco.contas.cache=N o repositório mapeado ganha à frente um cache das N
+     * contas mais acessadas (0 usa a capacidade padrão).
+     *
+     * @param contasMapeadas Repositório mapeado, ou null para contas em memória
+     * @return Repositório de contas
+     */
+    private IRepositorioContas criarRepositorioContas(RepositorioContasMapeado contasMapeadas) {
+        if (contasMapeadas == null) {
+            return new RepositorioContasIndexado();
+        }
+        // Contas em memória já são o próprio cache; só o repositório mapeado pode ganhar um
+        Integer capacidadeCache = Integer.getInteger(Constantes.PROPRIEDADE_CACHE_CONTAS);
+        if (capacidadeCache == null) {
+            return contasMapeadas;
+        }
+        return new RepositorioContasComCache(contasMapeadas,
+                capacidadeCache == 0 ? Constantes.CAPACIDADE_CACHE_CONTAS_PADRAO : capacidadeCache);
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ public final class Constantes {
     public static final int NUMERO_CONTA_INICIAL = 1001;
     public static final double SALDO_MINIMO = 0.0;
     public static final double SALDO_MAXIMO = 1_000_000_000.0; // 1 bilhão
+    public static final long CENTAVOS_POR_REAL = 100L;
 
     // ============= CONSTANTES DE CLIENTE =============
     public static final int CPF_TAMANHO = 11;
@@ -28,9 +29,31 @@ public final class Constantes {
     public static final double VALOR_MINIMO_OPERACAO = 0.01;
     public static final double VALOR_MAXIMO_OPERACAO = 100_000.0;
 
+    // ============= PERSISTÊNCIA =============
+    public static final String DIRETORIO_DADOS = "dados";
+    public static final long INTERVALO_COMPACTACAO_MINUTOS = 10;
+    public static final String ARQUIVO_CONTAS_MAPEADAS = "contas.dat";
+    public static final String PROPRIEDADE_CONTAS_MAPEADAS = "banco.contas.mapeadas";
+    public static final String PROPRIEDADE_CACHE_CONTAS = "banco.contas.cache";
+    public static final int CAPACIDADE_CACHE_CONTAS_PADRAO = 1 << 16;
+    public static final String PROPRIEDADE_CAPACIDADE_LIVRO_RAZAO = "banco.livroRazao.capacidade";
+    public static final int CAPACIDADE_LIVRO_RAZAO_PADRAO = 1 << 20;
+
+    // ============= EXECUÇÃO =============
+    public static final String PROPRIEDADE_PARTICOES = "banco.particoes";
+
+    // ============= IDEMPOTÊNCIA =============
+    public static final int CAPACIDADE_CACHE_IDEMPOTENCIA = 1 << 18;
+    public static final long JANELA_IDEMPOTENCIA_MINUTOS = 15;
+
+    // ============= REDE =============
+    public static final String PROPRIEDADE_PORTA_REDE = "banco.rede.porta";
+    public static final String PROPRIEDADE_PORTA_REDE_BINARIA = "banco.rede.portaBinaria";
+
     // ============= PERCENTUAIS =============
     public static final double RENDIMENTO_MINIMO = 0.01;
     public static final double RENDIMENTO_MAXIMO = 50.0;
+    public static final String PROPRIEDADE_RENDIMENTO_DIFERIDO = "banco.rendimento.diferido";
 
     /**
      * Construtor privado para prevenir instanciação.
@@ -6,6 +6,15 @@ package exception;
  */
 public class BancoException extends Exception {
     private static final long serialVersionUID = 1L;
+
+    /**
+     * Se falhas de negócio esperadas (saldo insuficiente, conta inexistente)
+     * registram a pilha de chamadas. Desligado por padrão: sob carga, capturar a
+     * pilha domina o custo dessas falhas. Ative com -Dbanco.excecoes.pilha=true.
+     */
+    protected static final boolean REGISTRAR_PILHA_FALHAS_ESPERADAS =
+            Boolean.getBoolean("banco.excecoes.pilha");
+
     public BancoException(String mensagem) {
         super(mensagem);
     }
@@ -13,4 +22,15 @@ public class BancoException extends Exception {
     public BancoException(String mensagem, Throwable causa) {
         super(mensagem, causa);
     }
+
+    /**
+     * Construtor para falhas esperadas de negócio.
+     * A mensagem pode ser nula se a subclasse a montar sob demanda em {@link #getMessage()}.
+     *
+     * @param mensagem Mensagem (ou null)
+     * @param registrarPilha Se a pilha de chamadas deve ser capturada
+     */
+    protected BancoException(String mensagem, boolean registrarPilha) {
+        super(mensagem, null, false, registrarPilha);
+    }
 }
@@ -2,10 +2,19 @@ package exception;
 
 /**
  * Lançada quando conta não é encontrada.
+ * Boa Prática: Falha esperada - mensagem montada apenas se consultada.
  */
 public class ContaNaoEncontradaException extends BancoException {
     private static final long serialVersionUID = 1L;
+    private final int numeroConta;
+
     public ContaNaoEncontradaException(int numeroConta) {
-        super("Conta número " + numeroConta + " não encontrada");
+        super(null, REGISTRAR_PILHA_FALHAS_ESPERADAS);
+        this.numeroConta = numeroConta;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Conta número " + numeroConta + " não encontrada";
     }
 }
@@ -2,11 +2,24 @@ package exception;
 
 /**
  * Lançada quando há saldo insuficiente para operação.
+ * Boa Prática: Falha esperada - mensagem montada apenas se consultada.
  */
 public class SaldoInsuficienteException extends BancoException {
     private static final long serialVersionUID = 1L;
+    private final int numeroConta;
+    private final double saldoAtual;
+    private final double valorSolicitado;
+
     public SaldoInsuficienteException(int numeroConta, double saldoAtual, double valorSolicitado) {
-        super(String.format("Saldo insuficiente na conta %d. Saldo: R$ %.2f, Solicitado: R$ %.2f",
-                numeroConta, saldoAtual, valorSolicitado));
+        super(null, REGISTRAR_PILHA_FALHAS_ESPERADAS);
+        this.numeroConta = numeroConta;
+        this.saldoAtual = saldoAtual;
+        this.valorSolicitado = valorSolicitado;
+    }
+
+    @Override
+    public String getMessage() {
+        return String.format("Saldo insuficiente na conta %d. Saldo: R$ %.2f, Solicitado: R$ %.2f",
+                numeroConta, saldoAtual, valorSolicitado);
     }
 }
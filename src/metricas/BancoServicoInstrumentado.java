@@ -0,0 +1,429 @@
+package metricas;
+
+import exception.*;
+import model.Cliente;
+import model.Conta;
+import model.Movimento;
+import repository.IRepositorioContas;
+import service.CacheIdempotencia;
+import service.CadastroLote;
+import service.ContasDoCliente;
+import service.IOperacoesBancarias;
+import service.OperacaoLote;
+import service.ProgressoRendimento;
+import service.ResultadoCadastroLote;
+import service.ResultadoLote;
+import service.StatusOperacao;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Decorador que mede cada operação do banco: chamadas, falhas por motivo e latência.
+ * Boa Prática: Open/Closed - BancoServico não conhece as métricas; o registro é
+ * feito com contadores sem trava ({@link MetricasOperacao}) e custa duas leituras
+ * de {@link System#nanoTime()} por chamada.
+ *
+ * A latência medida inclui tudo o que está abaixo do decorador (ex: aguardo de
+ * durabilidade do diário, fila da partição). Exceções são contadas por tipo e
+ * relançadas sem alteração; status de falha são contados pelo nome.
+ */
+public class BancoServicoInstrumentado implements IOperacoesBancarias {
+    private final IOperacoesBancarias operacoes;
+    private final MetricasBanco metricas;
+    private final MetricasOperacao cadastroCliente;
+    private final MetricasOperacao cadastroConta;
+    private final MetricasOperacao cadastroLote;
+    private final MetricasOperacao deposito;
+    private final MetricasOperacao saque;
+    private final MetricasOperacao transferencia;
+    private final MetricasOperacao lote;
+    private final MetricasOperacao consultaSaldo;
+    private final MetricasOperacao rendimento;
+    private final MetricasOperacao contasDoCliente;
+    private final MetricasOperacao ranking;
+    private final MetricasOperacao extrato;
+    private final MetricasOperacao listagemClientes;
+
+    /**
+     * Construtor com injeção de dependências.
+     *
+     * @param operacoes Serviço bancário decorado
+     */
+    public BancoServicoInstrumentado(IOperacoesBancarias operacoes) {
+        this(operacoes, null);
+    }
+
+    /**
+     * Construtor que também acompanha o cache de idempotência do serviço.
+     *
+     * @param operacoes Serviço bancário decorado
+     * @param cacheIdempotencia Cache que deduplica as operações com chave (null para não relatar)
+     */
+    public BancoServicoInstrumentado(IOperacoesBancarias operacoes, CacheIdempotencia cacheIdempotencia) {
+        this.operacoes = Objects.requireNonNull(operacoes, "Operações bancárias não podem ser nulas");
+        this.metricas = new MetricasBanco(cacheIdempotencia, operacoes.getRepositorioContas());
+        this.cadastroCliente = metricas.getOperacao(OperacaoMonitorada.CADASTRO_CLIENTE);
+        this.cadastroConta = metricas.getOperacao(OperacaoMonitorada.CADASTRO_CONTA);
+        this.cadastroLote = metricas.getOperacao(OperacaoMonitorada.CADASTRO_LOTE);
+        this.deposito = metricas.getOperacao(OperacaoMonitorada.DEPOSITO);
+        this.saque = metricas.getOperacao(OperacaoMonitorada.SAQUE);
+        this.transferencia = metricas.getOperacao(OperacaoMonitorada.TRANSFERENCIA);
+        this.lote = metricas.getOperacao(OperacaoMonitorada.LOTE);
+        this.consultaSaldo = metricas.getOperacao(OperacaoMonitorada.CONSULTA_SALDO);
+        this.rendimento = metricas.getOperacao(OperacaoMonitorada.RENDIMENTO);
+        this.contasDoCliente = metricas.getOperacao(OperacaoMonitorada.CONTAS_DO_CLIENTE);
+        this.ranking = metricas.getOperacao(OperacaoMonitorada.RANKING);
+        this.extrato = metricas.getOperacao(OperacaoMonitorada.EXTRATO);
+        this.listagemClientes = metricas.getOperacao(OperacaoMonitorada.LISTAGEM_CLIENTES);
+    }
+
+    /**
+     * @return Métricas registradas por este decorador
+     */
+    public MetricasBanco getMetricas() {
+        return metricas;
+    }
+
+    @Override
+    public Cliente cadastrarCliente(String nome, String cpf)
+            throws DadosInvalidosException, CpfInvalidoException, ClienteJaExisteException {
+        long inicio = System.nanoTime();
+        Cliente cliente;
+        try {
+            cliente = operacoes.cadastrarCliente(nome, cpf);
+        } catch (BancoException | RuntimeException e) {
+            cadastroCliente.registrarFalha(inicio, e);
+            throw e;
+        }
+        cadastroCliente.registrarSucesso(inicio);
+        return cliente;
+    }
+
+    @Override
+    public Conta cadastrarConta(String cpfCliente, String tipoConta, double saldoInicial)
+            throws ClienteNaoEncontradoException, TipoContaInvalidoException, DadosInvalidosException {
+        long inicio = System.nanoTime();
+        Conta conta;
+        try {
+            conta = operacoes.cadastrarConta(cpfCliente, tipoConta, saldoInicial);
+        } catch (BancoException | RuntimeException e) {
+            cadastroConta.registrarFalha(inicio, e);
+            throw e;
+        }
+        cadastroConta.registrarSucesso(inicio);
+        return conta;
+    }
+
+    @Override
+    public void depositar(int numeroConta, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException {
+        long inicio = System.nanoTime();
+        try {
+            operacoes.depositar(numeroConta, valor);
+        } catch (BancoException | RuntimeException e) {
+            deposito.registrarFalha(inicio, e);
+            throw e;
+        }
+        deposito.registrarSucesso(inicio);
+    }
+
+    @Override
+    public void sacar(int numeroConta, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException, SaldoInsuficienteException {
+        long inicio = System.nanoTime();
+        try {
+            operacoes.sacar(numeroConta, valor);
+        } catch (BancoException | RuntimeException e) {
+            saque.registrarFalha(inicio, e);
+            throw e;
+        }
+        saque.registrarSucesso(inicio);
+    }
+
+    @Override
+    public void transferir(int numeroContaOrigem, int numeroContaDestino, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException, SaldoInsuficienteException {
+        long inicio = System.nanoTime();
+        try {
+            operacoes.transferir(numeroContaOrigem, numeroContaDestino, valor);
+        } catch (BancoException | RuntimeException e) {
+            transferencia.registrarFalha(inicio, e);
+            throw e;
+        }
+        transferencia.registrarSucesso(inicio);
+    }
+
+    @Override
+    public StatusOperacao tentarDepositar(int numeroConta, double valor) {
+        long inicio = System.nanoTime();
+        StatusOperacao status;
+        try {
+            status = operacoes.tentarDepositar(numeroConta, valor);
+        } catch (RuntimeException e) {
+            deposito.registrarFalha(inicio, e);
+            throw e;
+        }
+        deposito.registrarStatus(inicio, status);
+        return status;
+    }
+
+    @Override
+    public StatusOperacao tentarSacar(int numeroConta, double valor) {
+        long inicio = System.nanoTime();
+        StatusOperacao status;
+        try {
+            status = operacoes.tentarSacar(numeroConta, valor);
+        } catch (RuntimeException e) {
+            saque.registrarFalha(inicio, e);
+            throw e;
+        }
+        saque.registrarStatus(inicio, status);
+        return status;
+    }
+
+    @Override
+    public StatusOperacao tentarTransferir(int numeroContaOrigem, int numeroContaDestino, double valor) {
+        long inicio = System.nanoTime();
+        StatusOperacao status;
+        try {
+            status = operacoes.tentarTransferir(numeroContaOrigem, numeroContaDestino, valor);
+        } catch (RuntimeException e) {
+            transferencia.registrarFalha(inicio, e);
+            throw e;
+        }
+        transferencia.registrarStatus(inicio, status);
+        return status;
+    }
+
+    /**
+     * Delega a deduplicação ao serviço decorado (que também deduplica o que ele
+     * acrescenta, como o diário); um reenvio conta como chamada, com o status original.
+     */
+    @Override
+    public StatusOperacao tentarDepositar(long chaveIdempotencia, int numeroConta, double valor) {
+        long inicio = System.nanoTime();
+        StatusOperacao status;
+        try {
+            status = operacoes.tentarDepositar(chaveIdempotencia, numeroConta, valor);
+        } catch (RuntimeException e) {
+            deposito.registrarFalha(inicio, e);
+            throw e;
+        }
+        deposito.registrarStatus(inicio, status);
+        return status;
+    }
+
+    @Override
+    public StatusOperacao tentarSacar(long chaveIdempotencia, int numeroConta, double valor) {
+        long inicio = System.nanoTime();
+        StatusOperacao status;
+        try {
+            status = operacoes.tentarSacar(chaveIdempotencia, numeroConta, valor);
+        } catch (RuntimeException e) {
+            saque.registrarFalha(inicio, e);
+            throw e;
+        }
+        saque.registrarStatus(inicio, status);
+        return status;
+    }
+
+    @Override
+    public StatusOperacao tentarTransferir(long chaveIdempotencia, int numeroContaOrigem,
+                                           int numeroContaDestino, double valor) {
+        long inicio = System.nanoTime();
+        StatusOperacao status;
+        try {
+            status = operacoes.tentarTransferir(chaveIdempotencia, numeroContaOrigem, numeroContaDestino, valor);
+        } catch (RuntimeException e) {
+            transferencia.registrarFalha(inicio, e);
+            throw e;
+        }
+        transferencia.registrarStatus(inicio, status);
+        return status;
+    }
+
+    /**
+     * Mede o lote inteiro como uma chamada; o status de cada item fica no resultado.
+     */
+    @Override
+    public ResultadoLote executarLote(List<OperacaoLote> operacoesLote) {
+        long inicio = System.nanoTime();
+        ResultadoLote resultado;
+        try {
+            resultado = operacoes.executarLote(operacoesLote);
+        } catch (RuntimeException e) {
+            lote.registrarFalha(inicio, e);
+            throw e;
+        }
+        lote.registrarSucesso(inicio);
+        return resultado;
+    }
+
+    @Override
+    public ResultadoCadastroLote cadastrarLote(List<CadastroLote> cadastros) {
+        long inicio = System.nanoTime();
+        ResultadoCadastroLote resultado;
+        try {
+            resultado = operacoes.cadastrarLote(cadastros);
+        } catch (RuntimeException e) {
+            cadastroLote.registrarFalha(inicio, e);
+            throw e;
+        }
+        cadastroLote.registrarSucesso(inicio);
+        return resultado;
+    }
+
+    @Override
+    public double consultarSaldo(int numeroConta) throws ContaNaoEncontradaException {
+        long inicio = System.nanoTime();
+        double saldo;
+        try {
+            saldo = operacoes.consultarSaldo(numeroConta);
+        } catch (BancoException | RuntimeException e) {
+            consultaSaldo.registrarFalha(inicio, e);
+            throw e;
+        }
+        consultaSaldo.registrarSucesso(inicio);
+        return saldo;
+    }
+
+    @Override
+    public int aplicarRendimentoPoupancas(double percentual) throws ValorInvalidoException {
+        return aplicarRendimentoPoupancas(percentual, ProgressoRendimento.NENHUM);
+    }
+
+    @Override
+    public int aplicarRendimentoPoupancas(double percentual, ProgressoRendimento progresso)
+            throws ValorInvalidoException {
+        long inicio = System.nanoTime();
+        int contasAtualizadas;
+        try {
+            contasAtualizadas = operacoes.aplicarRendimentoPoupancas(percentual, progresso);
+        } catch (BancoException | RuntimeException e) {
+            rendimento.registrarFalha(inicio, e);
+            throw e;
+        }
+        rendimento.registrarSucesso(inicio);
+        return contasAtualizadas;
+    }
+
+    @Override
+    public ContasDoCliente consultarContasDoCliente(String cpf) throws ClienteNaoEncontradoException {
+        long inicio = System.nanoTime();
+        ContasDoCliente contas;
+        try {
+            contas = operacoes.consultarContasDoCliente(cpf);
+        } catch (BancoException | RuntimeException e) {
+            contasDoCliente.registrarFalha(inicio, e);
+            throw e;
+        }
+        contasDoCliente.registrarSucesso(inicio);
+        return contas;
+    }
+
+    @Override
+    public List<Conta> listarContasOrdenadasPorSaldo() {
+        long inicio = System.nanoTime();
+        List<Conta> contas;
+        try {
+            contas = operacoes.listarContasOrdenadasPorSaldo();
+        } catch (RuntimeException e) {
+            ranking.registrarFalha(inicio, e);
+            throw e;
+        }
+        ranking.registrarSucesso(inicio);
+        return contas;
+    }
+
+    @Override
+    public List<Conta> listarContasOrdenadasPorSaldo(int inicioPagina, int quantidade) {
+        long inicio = System.nanoTime();
+        List<Conta> contas;
+        try {
+            contas = operacoes.listarContasOrdenadasPorSaldo(inicioPagina, quantidade);
+        } catch (RuntimeException e) {
+            ranking.registrarFalha(inicio, e);
+            throw e;
+        }
+        ranking.registrarSucesso(inicio);
+        return contas;
+    }
+
+    @Override
+    public int consultarPosicaoPorSaldo(int numeroConta) throws ContaNaoEncontradaException {
+        long inicio = System.nanoTime();
+        int posicao;
+        try {
+            posicao = operacoes.consultarPosicaoPorSaldo(numeroConta);
+        } catch (BancoException | RuntimeException e) {
+            ranking.registrarFalha(inicio, e);
+            throw e;
+        }
+        ranking.registrarSucesso(inicio);
+        return posicao;
+    }
+
+    @Override
+    public List<Movimento> consultarExtrato(int numeroConta, int quantidade) throws ContaNaoEncontradaException {
+        long inicio = System.nanoTime();
+        List<Movimento> movimentos;
+        try {
+            movimentos = operacoes.consultarExtrato(numeroConta, quantidade);
+        } catch (BancoException | RuntimeException e) {
+            extrato.registrarFalha(inicio, e);
+            throw e;
+        }
+        extrato.registrarSucesso(inicio);
+        return movimentos;
+    }
+
+    @Override
+    public List<Movimento> consultarExtratoPorPeriodo(int numeroConta, long inicioPeriodo, long fimPeriodo)
+            throws ContaNaoEncontradaException {
+        long inicio = System.nanoTime();
+        List<Movimento> movimentos;
+        try {
+            movimentos = operacoes.consultarExtratoPorPeriodo(numeroConta, inicioPeriodo, fimPeriodo);
+        } catch (BancoException | RuntimeException e) {
+            extrato.registrarFalha(inicio, e);
+            throw e;
+        }
+        extrato.registrarSucesso(inicio);
+        return movimentos;
+    }
+
+    @Override
+    public List<Movimento> consultarExtratoPorSequencia(int numeroConta, long primeira, long ultima)
+            throws ContaNaoEncontradaException {
+        long inicio = System.nanoTime();
+        List<Movimento> movimentos;
+        try {
+            movimentos = operacoes.consultarExtratoPorSequencia(numeroConta, primeira, ultima);
+        } catch (BancoException | RuntimeException e) {
+            extrato.registrarFalha(inicio, e);
+            throw e;
+        }
+        extrato.registrarSucesso(inicio);
+        return movimentos;
+    }
+
+    @Override
+    public List<Cliente> listarClientes() {
+        long inicio = System.nanoTime();
+        List<Cliente> clientes;
+        try {
+            clientes = operacoes.listarClientes();
+        } catch (RuntimeException e) {
+            listagemClientes.registrarFalha(inicio, e);
+            throw e;
+        }
+        listagemClientes.registrarSucesso(inicio);
+        return clientes;
+    }
+
+    @Override
+    public IRepositorioContas getRepositorioContas() {
+        return operacoes.getRepositorioContas();
+    }
+}
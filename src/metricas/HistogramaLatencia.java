@@ -0,0 +1,118 @@
+package metricas;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com faixas logarítmicas (sem dependências externas).
+ * Boa Prática: Memória fixa e registro sem trava, independente do número de amostras;
+ * cada potência de 2 é dividida em {@link #SUBFAIXAS} faixas, então o erro relativo
+ * dos percentis fica abaixo de 1/SUBFAIXAS.
+ *
+ * Cada faixa é um {@link LongAdder}, criado no primeiro registro: threads que medem
+ * latências parecidas caem na mesma faixa e não disputam o mesmo contador. Leituras
+ * (percentis, total) feitas durante registros são aproximadas, nunca bloqueiam.
+ */
+public final class HistogramaLatencia {
+    private static final int BITS_SUBFAIXA = 4;
+    private static final int SUBFAIXAS = 1 << BITS_SUBFAIXA;
+
+    private final AtomicReferenceArray<LongAdder> contagens;
+    private final LongAdder soma;
+    private final LongAccumulator maximo;
+
+    public HistogramaLatencia() {
+        this.contagens = new AtomicReferenceArray<>((Long.SIZE - BITS_SUBFAIXA + 1) * SUBFAIXAS);
+        this.soma = new LongAdder();
+        this.maximo = new LongAccumulator(Math::max, 0);
+    }
+
+    /**
+     * @param nanos Latência medida (negativos contam como zero)
+     */
+    public void registrar(long nanos) {
+        long valor = Math.max(0, nanos);
+        contador(faixaDe(valor)).increment();
+        soma.add(valor);
+        maximo.accumulate(valor);
+    }
+
+    /**
+     * @return Quantidade de amostras
+     */
+    public long total() {
+        long total = 0;
+        for (int i = 0; i < contagens.length(); i++) {
+            LongAdder contagem = contagens.get(i);
+            if (contagem != null) {
+                total += contagem.sum();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return Média das amostras em nanossegundos (0 sem amostras)
+     */
+    public double media() {
+        long total = total();
+        return total == 0 ? 0.0 : (double) soma.sum() / total;
+    }
+
+    /**
+     * @return Maior amostra registrada, em nanossegundos (exata)
+     */
+    public long maximo() {
+        return maximo.get();
+    }
+
+    /**
+     * @param percentil Percentil entre 0 e 100
+     * @return Limite superior da faixa que contém o percentil, em nanossegundos
+     */
+    public long percentil(double percentil) {
+        long total = total();
+        long alvo = Math.max(1, (long) Math.ceil(total * percentil / 100.0));
+        long acumulado = 0;
+        for (int i = 0; i < contagens.length(); i++) {
+            LongAdder contagem = contagens.get(i);
+            acumulado += contagem == null ? 0 : contagem.sum();
+            if (acumulado >= alvo) {
+                return limiteSuperior(i);
+            }
+        }
+        return 0;
+    }
+
+    private LongAdder contador(int faixa) {
+        LongAdder contagem = contagens.get(faixa);
+        if (contagem == null) {
+            contagens.compareAndSet(faixa, null, new LongAdder());
+            contagem = contagens.get(faixa);
+        }
+        return contagem;
+    }
+
+    /**
+     * Valores abaixo de SUBFAIXAS têm faixa própria; acima, a faixa combina
+     * a posição do bit mais alto com os {@link #BITS_SUBFAIXA} bits seguintes.
+     */
+    private static int faixaDe(long valor) {
+        if (valor < SUBFAIXAS) {
+            return (int) valor;
+        }
+        int expoente = Long.SIZE - 1 - Long.numberOfLeadingZeros(valor) - BITS_SUBFAIXA;
+        int subfaixa = (int) (valor >>> expoente) - SUBFAIXAS;
+        return (expoente + 1) * SUBFAIXAS + subfaixa;
+    }
+
+    private static long limiteSuperior(int faixa) {
+        if (faixa < SUBFAIXAS) {
+            return faixa;
+        }
+        int expoente = faixa / SUBFAIXAS - 1;
+        long base = (long) (SUBFAIXAS + faixa % SUBFAIXAS) << expoente;
+        return base + (1L << expoente) - 1;
+    }
+}
@@ -0,0 +1,151 @@
+package metricas;
+
+import repository.IRepositorioContas;
+import repository.RepositorioContasComCache;
+import service.CacheIdempotencia;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Conjunto das métricas de todas as operações do banco.
+ * Boa Prática: Um único ponto de leitura - o mesmo conteúdo sai como relatório em
+ * texto ({@link #relatorio()}) e como MXBeans no servidor JMX da plataforma
+ * ({@code banco:type=Metricas} e {@code banco:type=Operacao,name=...}).
+ *
+ * O relatório também mostra o tamanho do cache de idempotência e, se o repositório
+ * de contas tiver cache ({@link RepositorioContasComCache}), sua taxa de acerto.
+ */
+public final class MetricasBanco implements MetricasBancoMXBean {
+    public static final String DOMINIO_JMX = "banco";
+
+    private final Map<OperacaoMonitorada, MetricasOperacao> operacoes;
+    private final CacheIdempotencia cacheIdempotencia;
+    private final IRepositorioContas repositorioContas;
+
+    /**
+     * @param cacheIdempotencia Cache de idempotência do serviço medido (null se não houver)
+     * @param repositorioContas Repositório de contas do serviço medido
+     */
+    MetricasBanco(CacheIdempotencia cacheIdempotencia, IRepositorioContas repositorioContas) {
+        this.cacheIdempotencia = cacheIdempotencia;
+        this.repositorioContas = Objects.requireNonNull(repositorioContas,
+                "Repositório de contas não pode ser nulo");
+        this.operacoes = new EnumMap<>(OperacaoMonitorada.class);
+        for (OperacaoMonitorada operacao : OperacaoMonitorada.values()) {
+            operacoes.put(operacao, new MetricasOperacao(operacao));
+        }
+    }
+
+    /**
+     * @param operacao Operação
+     * @return Métricas da operação
+     */
+    public MetricasOperacao getOperacao(OperacaoMonitorada operacao) {
+        return operacoes.get(operacao);
+    }
+
+    @Override
+    public long getChamadas() {
+        long chamadas = 0;
+        for (MetricasOperacao metricas : operacoes.values()) {
+            chamadas += metricas.getChamadas();
+        }
+        return chamadas;
+    }
+
+    @Override
+    public long getFalhas() {
+        long falhas = 0;
+        for (MetricasOperacao metricas : operacoes.values()) {
+            falhas += metricas.getFalhas();
+        }
+        return falhas;
+    }
+
+    @Override
+    public String getRelatorio() {
+        return relatorio();
+    }
+
+    /**
+     * Relatório em texto: uma linha por operação já chamada (latências em
+     * microssegundos), seguida das falhas por motivo e dos caches.
+     *
+     * @return Relatório em texto
+     */
+    public String relatorio() {
+        StringBuilder relatorio = new StringBuilder();
+        relatorio.append(String.format(Locale.ROOT, "%-18s %10s %8s %9s %9s %9s %9s %9s %9s%n",
+                "operacao", "chamadas", "falhas", "media_us", "p50_us", "p90_us", "p99_us", "p99.9_us", "max_us"));
+        for (MetricasOperacao metricas : operacoes.values()) {
+            if (metricas.getChamadas() == 0) {
+                continue;
+            }
+            relatorio.append(String.format(Locale.ROOT, "%-18s %10d %8d %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    metricas.getOperacao().getNome(), metricas.getChamadas(), metricas.getFalhas(),
+                    metricas.getLatenciaMediaMicros(), metricas.getLatenciaP50Micros(),
+                    metricas.getLatenciaP90Micros(), metricas.getLatenciaP99Micros(),
+                    metricas.getLatenciaP999Micros(), metricas.getLatenciaMaximaMicros()));
+            for (Map.Entry<String, Long> motivo : metricas.getFalhasPorMotivo().entrySet()) {
+                relatorio.append(String.format(Locale.ROOT, "  %-34s %8d%n", motivo.getKey(), motivo.getValue()));
+            }
+        }
+
+        if (cacheIdempotencia != null) {
+            relatorio.append(String.format(Locale.ROOT, "idempotencia.chaves %d%n", cacheIdempotencia.getQuantidade()));
+        }
+        if (repositorioContas instanceof RepositorioContasComCache) {
+            RepositorioContasComCache cache = (RepositorioContasComCache) repositorioContas;
+            relatorio.append(String.format(Locale.ROOT,
+                    "cacheContas capacidade=%d acertos=%d faltas=%d taxa=%.3f despejos=%d recusas=%d%n",
+                    cache.getCapacidade(), cache.getAcertos(), cache.getFaltas(), cache.getTaxaAcerto(),
+                    cache.getDespejos(), cache.getRecusas()));
+        }
+        return relatorio.toString();
+    }
+
+    /**
+     * Registra as métricas no servidor JMX da plataforma.
+     *
+     * @throws JMException se o registro falhar (ex: nomes já registrados)
+     */
+    public void registrarJmx() throws JMException {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        servidor.registerMBean(this, nomeJmx());
+        for (MetricasOperacao metricas : operacoes.values()) {
+            servidor.registerMBean(metricas, nomeJmx(metricas.getOperacao()));
+        }
+    }
+
+    /**
+     * Remove do servidor JMX da plataforma os nomes registrados por {@link #registrarJmx()}.
+     *
+     * @throws JMException se a remoção falhar
+     */
+    public void removerJmx() throws JMException {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        if (servidor.isRegistered(nomeJmx())) {
+            servidor.unregisterMBean(nomeJmx());
+        }
+        for (OperacaoMonitorada operacao : operacoes.keySet()) {
+            if (servidor.isRegistered(nomeJmx(operacao))) {
+                servidor.unregisterMBean(nomeJmx(operacao));
+            }
+        }
+    }
+
+    private static ObjectName nomeJmx() throws JMException {
+        return new ObjectName(DOMINIO_JMX + ":type=Metricas");
+    }
+
+    private static ObjectName nomeJmx(OperacaoMonitorada operacao) throws JMException {
+        return new ObjectName(DOMINIO_JMX + ":type=Operacao,name=" + operacao.getNome());
+    }
+}
@@ -0,0 +1,15 @@
+package metricas;
+
+/**
+ * Visão geral das métricas do banco via JMX.
+ */
+public interface MetricasBancoMXBean {
+    long getChamadas();
+
+    long getFalhas();
+
+    /**
+     * @return O mesmo relatório em texto de {@link MetricasBanco#relatorio()}
+     */
+    String getRelatorio();
+}
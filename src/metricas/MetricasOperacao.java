@@ -0,0 +1,142 @@
+package metricas;
+
+import service.StatusOperacao;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores e latências de uma operação.
+ * Boa Prática: Registro sem trava - todos os contadores são {@link LongAdder} e o
+ * histograma também; o caminho de sucesso não aloca nada. O mapa de exceções só é
+ * consultado quando a operação falha (uma entrada por tipo de exceção).
+ */
+public final class MetricasOperacao implements MetricasOperacaoMXBean {
+    private static final double NANOS_POR_MICRO = 1_000.0;
+    private static final StatusOperacao[] STATUS = StatusOperacao.values();
+
+    private final OperacaoMonitorada operacao;
+    private final LongAdder chamadas;
+    private final LongAdder falhas;
+    private final LongAdder[] falhasPorStatus;
+    private final Map<Class<?>, LongAdder> falhasPorExcecao;
+    private final HistogramaLatencia latencias;
+
+    MetricasOperacao(OperacaoMonitorada operacao) {
+        this.operacao = operacao;
+        this.chamadas = new LongAdder();
+        this.falhas = new LongAdder();
+        this.falhasPorStatus = new LongAdder[STATUS.length];
+        for (int i = 0; i < STATUS.length; i++) {
+            falhasPorStatus[i] = new LongAdder();
+        }
+        this.falhasPorExcecao = new ConcurrentHashMap<>();
+        this.latencias = new HistogramaLatencia();
+    }
+
+    /**
+     * Registra uma chamada concluída sem falha.
+     *
+     * @param inicio Valor de {@link System#nanoTime()} antes da chamada
+     */
+    void registrarSucesso(long inicio) {
+        latencias.registrar(System.nanoTime() - inicio);
+        chamadas.increment();
+    }
+
+    /**
+     * Registra uma chamada que devolveu status (falha se não for sucesso).
+     *
+     * @param inicio Valor de {@link System#nanoTime()} antes da chamada
+     * @param status Status devolvido
+     */
+    void registrarStatus(long inicio, StatusOperacao status) {
+        latencias.registrar(System.nanoTime() - inicio);
+        chamadas.increment();
+        if (!status.isSucesso()) {
+            falhas.increment();
+            falhasPorStatus[status.ordinal()].increment();
+        }
+    }
+
+    /**
+     * Registra uma chamada que lançou exceção.
+     *
+     * @param inicio Valor de {@link System#nanoTime()} antes da chamada
+     * @param falha Exceção lançada
+     */
+    void registrarFalha(long inicio, Exception falha) {
+        latencias.registrar(System.nanoTime() - inicio);
+        chamadas.increment();
+        falhas.increment();
+        falhasPorExcecao.computeIfAbsent(falha.getClass(), tipo -> new LongAdder()).increment();
+    }
+
+    public OperacaoMonitorada getOperacao() {
+        return operacao;
+    }
+
+    /**
+     * @return Histograma de latências (nanossegundos)
+     */
+    public HistogramaLatencia getLatencias() {
+        return latencias;
+    }
+
+    @Override
+    public long getChamadas() {
+        return chamadas.sum();
+    }
+
+    @Override
+    public long getFalhas() {
+        return falhas.sum();
+    }
+
+    @Override
+    public Map<String, Long> getFalhasPorMotivo() {
+        Map<String, Long> motivos = new TreeMap<>();
+        for (Map.Entry<Class<?>, LongAdder> entrada : falhasPorExcecao.entrySet()) {
+            motivos.put(entrada.getKey().getSimpleName(), entrada.getValue().sum());
+        }
+        for (int i = 0; i < STATUS.length; i++) {
+            long quantidade = falhasPorStatus[i].sum();
+            if (quantidade > 0) {
+                motivos.put(STATUS[i].name(), quantidade);
+            }
+        }
+        return motivos;
+    }
+
+    @Override
+    public double getLatenciaMediaMicros() {
+        return latencias.media() / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getLatenciaP50Micros() {
+        return latencias.percentil(50) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getLatenciaP90Micros() {
+        return latencias.percentil(90) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getLatenciaP99Micros() {
+        return latencias.percentil(99) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getLatenciaP999Micros() {
+        return latencias.percentil(99.9) / NANOS_POR_MICRO;
+    }
+
+    @Override
+    public double getLatenciaMaximaMicros() {
+        return latencias.maximo() / NANOS_POR_MICRO;
+    }
+}
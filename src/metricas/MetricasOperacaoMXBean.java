@@ -0,0 +1,30 @@
+package metricas;
+
+import java.util.Map;
+
+/**
+ * Métricas de uma operação expostas via JMX (ex: jconsole, VisualVM).
+ * Latências em microssegundos; percentis com erro relativo abaixo de 1/16.
+ */
+public interface MetricasOperacaoMXBean {
+    long getChamadas();
+
+    long getFalhas();
+
+    /**
+     * @return Falhas por motivo: nome simples da exceção ou do status de falha
+     */
+    Map<String, Long> getFalhasPorMotivo();
+
+    double getLatenciaMediaMicros();
+
+    double getLatenciaP50Micros();
+
+    double getLatenciaP90Micros();
+
+    double getLatenciaP99Micros();
+
+    double getLatenciaP999Micros();
+
+    double getLatenciaMaximaMicros();
+}
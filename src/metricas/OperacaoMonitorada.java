@@ -0,0 +1,35 @@
+package metricas;
+
+/**
+ * Operações bancárias medidas pelo {@link BancoServicoInstrumentado}.
+ * As variantes de uma mesma operação (com exceção, com status, com chave de
+ * idempotência) são somadas na mesma métrica.
+ */
+public enum OperacaoMonitorada {
+    CADASTRO_CLIENTE("cadastroCliente"),
+    CADASTRO_CONTA("cadastroConta"),
+    CADASTRO_LOTE("cadastroLote"),
+    DEPOSITO("deposito"),
+    SAQUE("saque"),
+    TRANSFERENCIA("transferencia"),
+    LOTE("lote"),
+    CONSULTA_SALDO("consultaSaldo"),
+    RENDIMENTO("rendimento"),
+    CONTAS_DO_CLIENTE("contasDoCliente"),
+    RANKING("ranking"),
+    EXTRATO("extrato"),
+    LISTAGEM_CLIENTES("listagemClientes");
+
+    private final String nome;
+
+    OperacaoMonitorada(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * @return Nome usado no relatório em texto e no JMX
+     */
+    public String getNome() {
+        return nome;
+    }
+}
@@ -0,0 +1,211 @@
+package model;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Totais acumulados (quantidade e saldo) de um grupo de contas.
+ * Boa Prática: As próprias contas informam cada variação de saldo, então
+ * consultar os totais custa O(1) em vez de percorrer todas as contas.
+ * Concorrência: contadores LongAdder - cada variação é somada exatamente uma vez
+ * e threads que movimentam contas diferentes não disputam o mesmo contador.
+ * Os totais são exatos sempre que não há operação em andamento.
+ *
+ * Rendimento diferido: o acumulador também guarda a tabela de épocas de rendimento
+ * do grupo. Abrir uma época custa O(1); cada conta aplica as épocas pendentes quando
+ * é lida ou movimentada. Até lá, o rendimento ainda não aplicado entra nos totais
+ * como projeção (saldo do grupo x percentual), que difere do valor exato só pelo
+ * arredondamento ao centavo de cada conta pendente. O acumulador conta os pares
+ * (conta, época) ainda não aplicados: quando o último é aplicado, a projeção é
+ * zerada e os totais voltam a ser a soma exata dos saldos - o resíduo de
+ * arredondamento das contas que já aplicaram a época nunca se acumula.
+ */
+public final class AcumuladorSaldo {
+    private static final int TRAVAS_CONTAS = 64;
+
+    private final LongAdder quantidade;
+    private final LongAdder saldoCentavos;
+    /** Rendimento projetado e ainda não aplicado pelas contas, em centavos. */
+    private final DoubleAdder rendimentoPendente;
+    /** Pares (conta, época) abertos e ainda não aplicados; a projeção só vale enquanto > 0. */
+    private final AtomicLong epocasPendentes;
+    /** Percentual de cada época; só as primeiras {@link #epocaRendimento} posições valem. */
+    private volatile double[] percentuaisPorEpoca;
+    private volatile int epocaRendimento;
+    private final Object[] travasContas;
+    private volatile ObservadorSaldo observador;
+
+    public AcumuladorSaldo() {
+        this.quantidade = new LongAdder();
+        this.saldoCentavos = new LongAdder();
+        this.rendimentoPendente = new DoubleAdder();
+        this.epocasPendentes = new AtomicLong();
+        this.percentuaisPorEpoca = new double[16];
+        this.travasContas = new Object[TRAVAS_CONTAS];
+        for (int i = 0; i < TRAVAS_CONTAS; i++) {
+            travasContas[i] = new Object();
+        }
+    }
+
+    /**
+     * Contabiliza uma nova conta do grupo e a vincula a este acumulador.
+     * A conta nasce em dia com o rendimento: épocas anteriores não se aplicam a ela.
+     *
+     * @param conta Conta que acabou de entrar no grupo, ainda não visível para operações
+     */
+    public void registrarConta(Conta conta) {
+        conta.vincularAcumulador(this);
+        conta.gravarEpocaRendimento(adicionarConta(conta.getSaldoCentavos()));
+    }
+
+    /**
+     * Contabiliza uma nova conta do grupo, em dia com o rendimento.
+     * Concorrência: exclusivo com a abertura de épocas, para que toda época conte
+     * exatamente as contas que nasceram antes dela.
+     *
+     * @param saldoInicialCentavos Saldo da conta no momento do cadastro
+     * @return Épocas já abertas, a gravar como aplicadas na conta
+     */
+    public synchronized int adicionarConta(long saldoInicialCentavos) {
+        quantidade.increment();
+        saldoCentavos.add(saldoInicialCentavos);
+        return epocaRendimento;
+    }
+
+    /**
+     * Define quem é avisado de cada variação de saldo das contas do grupo.
+     *
+     * @param observador Observador (null para nenhum)
+     */
+    public void observarSaldos(ObservadorSaldo observador) {
+        this.observador = observador;
+    }
+
+    /**
+     * Soma uma variação de saldo (negativa em débitos) e avisa o observador.
+     *
+     * @param conta Conta que variou
+     * @param deltaCentavos Variação em centavos
+     */
+    void somar(Conta conta, long deltaCentavos) {
+        saldoCentavos.add(deltaCentavos);
+        ObservadorSaldo observadorAtual = observador;
+        if (observadorAtual != null) {
+            observadorAtual.saldoAlterado(conta);
+        }
+    }
+
+    /**
+     * Abre uma nova época de rendimento para todas as contas do grupo, sem percorrê-las.
+     * Concorrência: épocas abertas em paralelo com operações podem deslocar a projeção
+     * em frações de centavo por operação, até todas as contas aplicarem a época.
+     *
+     * @param percentual Percentual de rendimento (já validado)
+     * @return Número da época aberta (a partir de 1)
+     */
+    public synchronized int abrirEpocaRendimento(double percentual) {
+        // Projeção: rendimento sobre o saldo do grupo, incluindo o que ainda está pendente
+        double totalProjetado = saldoCentavos.sum() + rendimentoPendente.sum();
+        rendimentoPendente.add(totalProjetado * (percentual / 100.0));
+        epocasPendentes.addAndGet(quantidade.sum());
+
+        int epoca = epocaRendimento;
+        double[] percentuais = percentuaisPorEpoca;
+        if (epoca == percentuais.length) {
+            percentuais = Arrays.copyOf(percentuais, percentuais.length << 1);
+            percentuaisPorEpoca = percentuais;
+        }
+        percentuais[epoca] = percentual;
+        // Escrita volatile por último: quem vê a nova época vê o seu percentual
+        epocaRendimento = epoca + 1;
+        return epoca + 1;
+    }
+
+    /**
+     * @return Quantidade de épocas de rendimento abertas
+     */
+    public int getEpocaRendimento() {
+        return epocaRendimento;
+    }
+
+    /**
+     * @param epoca Época já aberta (0 é a primeira)
+     * @return Percentual de rendimento da época
+     */
+    double getPercentualRendimento(int epoca) {
+        return percentuaisPorEpoca[epoca];
+    }
+
+    /**
+     * Saldo que uma conta terá depois de aplicar as épocas pendentes, com o mesmo
+     * arredondamento da aplicação (ver {@link ContaPoupanca#calcularRendimentoCentavos}).
+     * Com percentuais positivos a projeção preserva a ordem entre saldos diferentes:
+     * quem ordena contas do grupo não precisa reordená-las quando uma época é aberta.
+     *
+     * @param saldoCentavos Saldo da conta com {@code epocaAplicada} épocas aplicadas
+     * @param epocaAplicada Épocas já aplicadas ao saldo
+     * @param epocaAlvo Épocas a considerar (no máximo {@link #getEpocaRendimento()})
+     * @return Saldo com {@code epocaAlvo} épocas aplicadas
+     */
+    public long projetarSaldo(long saldoCentavos, int epocaAplicada, int epocaAlvo) {
+        double[] percentuais = percentuaisPorEpoca;
+        long saldo = saldoCentavos;
+        for (int epoca = epocaAplicada; epoca < epocaAlvo; epoca++) {
+            saldo += ContaPoupanca.calcularRendimentoCentavos(saldo, percentuais[epoca]);
+        }
+        return saldo;
+    }
+
+    /**
+     * Registra que uma conta aplicou o rendimento de uma época: o valor real já
+     * chegou por {@link #somar(Conta, long)}, então a parcela projetada sai da pendência.
+     * Quando a conta era o último par (conta, época) pendente, a projeção é zerada:
+     * o que sobrou nela é só arredondamento, e os saldos já contêm o valor real.
+     *
+     * @param saldoProjetadoCentavos Saldo da conta segundo a projeção, antes da época
+     * @param percentual Percentual da época
+     * @return Saldo projetado após a época
+     */
+    double realizarRendimentoPendente(double saldoProjetadoCentavos, double percentual) {
+        double rendimento = saldoProjetadoCentavos * (percentual / 100.0);
+        rendimentoPendente.add(-rendimento);
+        if (epocasPendentes.decrementAndGet() == 0) {
+            zerarProjecaoSeEmDia();
+        }
+        return saldoProjetadoCentavos + rendimento;
+    }
+
+    /**
+     * Zera a projeção se nenhuma época voltou a ficar pendente desde a última
+     * aplicação (a abertura de épocas é exclusiva com este método).
+     */
+    private synchronized void zerarProjecaoSeEmDia() {
+        if (epocasPendentes.get() == 0) {
+            rendimentoPendente.reset();
+        }
+    }
+
+    /**
+     * Trava que serializa a aplicação de épocas pendentes de uma conta
+     * (visões diferentes da mesma conta compartilham a trava).
+     *
+     * @param numeroConta Número da conta
+     * @return Objeto monitor da conta
+     */
+    Object travaDaConta(int numeroConta) {
+        return travasContas[numeroConta & (TRAVAS_CONTAS - 1)];
+    }
+
+    /**
+     * Retorna uma fotografia imutável dos totais.
+     *
+     * @param tipo Tipo de conta que o acumulador representa
+     * @return Resumo do grupo
+     */
+    public ResumoTipoConta resumir(String tipo) {
+        return new ResumoTipoConta(tipo, quantidade.sum(),
+                saldoCentavos.sum() + Math.round(rendimentoPendente.sum()));
+    }
+}
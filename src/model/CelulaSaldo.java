@@ -0,0 +1,44 @@
+package model;
+
+/**
+ * Local de armazenamento do saldo (em centavos) de uma conta.
+ * Boa Prática: DIP - a conta opera sobre a abstração; o armazenamento
+ * (heap, arquivo mapeado) fica a cargo do repositório.
+ * Todas as operações devem ser atômicas e visíveis entre threads.
+ */
+public interface CelulaSaldo {
+
+    /**
+     * @return Saldo atual em centavos
+     */
+    long ler();
+
+    /**
+     * Troca o saldo se ele ainda for o esperado.
+     *
+     * @param esperado Saldo esperado em centavos
+     * @param novo Novo saldo em centavos
+     * @return true se a troca ocorreu
+     */
+    boolean compararETrocar(long esperado, long novo);
+
+    /**
+     * Substitui o saldo incondicionalmente, de forma atômica.
+     *
+     * @param centavos Novo saldo em centavos
+     * @return Saldo anterior à troca
+     */
+    long trocar(long centavos);
+
+    /**
+     * @return Épocas de rendimento diferido já aplicadas ao saldo
+     */
+    int lerEpocaRendimento();
+
+    /**
+     * Registra as épocas de rendimento diferido já aplicadas ao saldo.
+     *
+     * @param epoca Quantidade de épocas aplicadas
+     */
+    void gravarEpocaRendimento(int epoca);
+}
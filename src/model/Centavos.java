@@ -0,0 +1,37 @@
+package model;
+
+import constants.Constantes;
+
+/**
+ * Conversão entre valores em reais (double) e centavos (long).
+ * Boa Prática: Saldos em ponto fixo evitam o acúmulo de erro de ponto flutuante.
+ */
+public final class Centavos {
+
+    /**
+     * Construtor privado para prevenir instanciação.
+     */
+    private Centavos() {
+        throw new AssertionError("Classe Centavos não deve ser instanciada");
+    }
+
+    /**
+     * Converte valor em reais para centavos, arredondando ao centavo mais próximo.
+     *
+     * @param valor Valor em reais (já validado)
+     * @return Valor em centavos
+     */
+    public static long deReais(double valor) {
+        return Math.round(valor * Constantes.CENTAVOS_POR_REAL);
+    }
+
+    /**
+     * Converte centavos para reais.
+     *
+     * @param centavos Valor em centavos
+     * @return Valor em reais
+     */
+    public static double paraReais(long centavos) {
+        return centavos / (double) Constantes.CENTAVOS_POR_REAL;
+    }
+}
@@ -1,5 +1,7 @@
 package model;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.Objects;
 import exception.SaldoInsuficienteException;
 import exception.ValorInvalidoException;
@@ -9,11 +11,35 @@ import validator.ContaValidator;
 /**
  * Classe abstrata que representa uma conta bancária.
  * Boa Prática: Abstração e Template Method Pattern.
+ * Concorrência: o saldo é mantido em centavos (long) e atualizado por
+ * compare-and-set, sem travas; consultas nunca bloqueiam escritores.
+ * Cada operação sobre uma conta é atômica; a transferência, que envolve duas,
+ * não é (ver {@link #transferir(Conta, double)}).
+ * O saldo fica no próprio objeto ou, em visões de armazenamento externo,
+ * numa {@link CelulaSaldo} (ex: arquivo mapeado em memória).
+ * Toda variação de saldo é repassada ao {@link AcumuladorSaldo} vinculado, se houver.
+ * Subclasses com saldo que cresce por conta própria (ex: rendimento diferido) aplicam
+ * o que estiver pendente em {@link #aplicarPendencias()}, antes de cada leitura ou movimentação.
  */
 public abstract class Conta {
+    private static final VarHandle SALDO_CENTAVOS;
+
+    static {
+        try {
+            SALDO_CENTAVOS = MethodHandles.lookup()
+                    .findVarHandle(Conta.class, "saldoCentavos", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final int numeroConta;
     private final Cliente cliente;
-    protected double saldo;
+    private final CelulaSaldo celulaExterna;
+    private volatile long saldoCentavos;
+    private volatile AcumuladorSaldo acumulador;
+    /** Épocas de rendimento diferido já aplicadas (saldo no heap). */
+    private volatile int epocaRendimento;
 
     /**
      * Construtor protegido com validação defensiva.
@@ -39,12 +65,36 @@ public abstract class Conta {
 
         this.numeroConta = numeroConta;
         this.cliente = cliente;
-        this.saldo = saldoInicial;
+        this.celulaExterna = null;
+        this.saldoCentavos = Centavos.deReais(saldoInicial);
 
         // Assertiva: Estado inicial válido
         validarInvariante();
     }
 
+    /**
+     * Construtor protegido para visões cujo saldo vive fora do heap.
+     * O saldo já está armazenado na célula e não é revalidado aqui.
+     *
+     * @param numeroConta Número único da conta
+     * @param cliente Cliente titular da conta
+     * @param celulaSaldo Célula que guarda o saldo em centavos
+     */
+    protected Conta(int numeroConta, Cliente cliente, CelulaSaldo celulaSaldo) {
+        Objects.requireNonNull(cliente, "Cliente não pode ser nulo");
+        Objects.requireNonNull(celulaSaldo, "Célula de saldo não pode ser nula");
+
+        if (numeroConta <= 0) {
+            throw new IllegalArgumentException("Número da conta deve ser positivo");
+        }
+
+        this.numeroConta = numeroConta;
+        this.cliente = cliente;
+        this.celulaExterna = celulaSaldo;
+
+        validarInvariante();
+    }
+
     /**
      * Valida invariantes da classe.
      * Assertiva: Garante que o estado do objeto é sempre consistente.
@@ -52,9 +102,7 @@ public abstract class Conta {
     protected void validarInvariante() {
         assert numeroConta > 0 : "Número da conta deve ser positivo";
         assert cliente != null : "Cliente não pode ser nulo";
-        assert saldo >= 0 : "Saldo não pode ser negativo: " + saldo;
-        assert !Double.isNaN(saldo) : "Saldo não pode ser NaN";
-        assert !Double.isInfinite(saldo) : "Saldo não pode ser infinito";
+        assert lerSaldoCentavos() >= 0 : "Saldo não pode ser negativo: " + lerSaldoCentavos();
     }
 
     /**
@@ -73,8 +121,19 @@ public abstract class Conta {
      * @return Saldo da conta
      */
     public final double getSaldo() {
+        return Centavos.paraReais(getSaldoCentavos());
+    }
+
+    /**
+     * Retorna o saldo atual em centavos.
+     * Leitura volatile: nunca bloqueia nem é bloqueada por operações.
+     *
+     * @return Saldo da conta em centavos
+     */
+    public final long getSaldoCentavos() {
+        aplicarPendencias();
         validarInvariante();
-        return saldo;
+        return lerSaldoCentavos();
     }
 
     /**
@@ -88,6 +147,40 @@ public abstract class Conta {
         return cliente.getNome();
     }
 
+    /**
+     * Retorna o titular da conta.
+     * Usado por repositórios que armazenam o titular separadamente da conta.
+     *
+     * @return Cliente titular
+     */
+    public final Cliente getCliente() {
+        validarInvariante();
+        return cliente;
+    }
+
+    /**
+     * Vincula o acumulador que recebe as variações de saldo desta conta.
+     * Deve ser chamado antes de a conta ficar visível para operações
+     * (ex: ao adicioná-la a um repositório).
+     *
+     * @param acumulador Acumulador do grupo da conta
+     * @throws IllegalStateException se a conta já tiver acumulador
+     */
+    public final void vincularAcumulador(AcumuladorSaldo acumulador) {
+        Objects.requireNonNull(acumulador, "Acumulador não pode ser nulo");
+        if (this.acumulador != null) {
+            throw new IllegalStateException("Conta " + numeroConta + " já possui acumulador");
+        }
+        this.acumulador = acumulador;
+    }
+
+    /**
+     * @return Acumulador vinculado, ou null se a conta não estiver em um repositório
+     */
+    protected final AcumuladorSaldo getAcumulador() {
+        return acumulador;
+    }
+
     /**
      * Retorna o tipo da conta (Template Method Pattern).
      *
@@ -95,6 +188,13 @@ public abstract class Conta {
      */
     public abstract String getTipo();
 
+    /**
+     * Aplica ao saldo variações pendentes antes de lê-lo ou movimentá-lo
+     * (Template Method Pattern). Por padrão não há pendências.
+     */
+    protected void aplicarPendencias() {
+    }
+
     /**
      * Realiza depósito na conta.
      * Programação Defensiva: Valida valor antes de alterar estado.
@@ -103,17 +203,11 @@ public abstract class Conta {
      * @throws ValorInvalidoException se valor for inválido
      */
     public final void depositar(double valor) throws ValorInvalidoException {
-        // Pré-condição
-        validarInvariante();
-
         // Validação
         ContaValidator.validarValorOperacao(valor, "Valor do depósito");
 
-        // Operação
-        saldo += valor;
-
-        // Pós-condição
-        validarInvariante();
+        // Crédito atômico (compare-and-set)
+        creditar(Centavos.deReais(valor));
     }
 
     /**
@@ -126,30 +220,22 @@ public abstract class Conta {
      */
     public final void sacar(double valor)
             throws ValorInvalidoException, SaldoInsuficienteException {
-        // Pré-condição
-        validarInvariante();
-        double saldoAnterior = saldo;
-
         // Validações
         ContaValidator.validarValorOperacao(valor, "Valor do saque");
 
-        if (saldo < valor) {
-            throw new SaldoInsuficienteException(numeroConta, saldo, valor);
-        }
-
-        // Operação
-        saldo -= valor;
-
-        // Assertiva: Saldo foi reduzido corretamente
-        assert saldo == (saldoAnterior - valor) : "Saldo não foi atualizado corretamente";
-
-        // Pós-condição
-        validarInvariante();
+        // Verificação de saldo e débito em um único passo atômico
+        debitar(Centavos.deReais(valor), valor);
     }
 
     /**
      * Realiza transferência para outra conta.
-     * Boa Prática: Operação atômica (ou ambas acontecem ou nenhuma).
+     * Boa Prática: Ou ambas as contas mudam ou nenhuma - se o crédito falhar,
+     * o débito é desfeito antes de a exceção chegar a quem chamou.
+     * Concorrência: débito e crédito são dois passos atômicos separados, sem trava
+     * comum. Entre eles o valor está em trânsito: outras threads podem ver a origem
+     * já debitada e o destino ainda sem o crédito, e os totais consolidados
+     * ficam menores pelo valor em trânsito. Quando o método retorna, o total
+     * das duas contas é o mesmo de antes.
      *
      * @param contaDestino Conta de destino
      * @param valor Valor a ser transferido
@@ -169,22 +255,186 @@ public abstract class Conta {
         // Validação
         ContaValidator.validarValorOperacao(valor, "Valor da transferência");
 
-        // Operação atômica
-        double saldoOrigemAnterior = this.saldo;
-        double saldoDestinoAnterior = contaDestino.saldo;
-
-        this.sacar(valor);          // Pode lançar exceção
-        contaDestino.depositar(valor);  // Pode lançar exceção
-
-        // Assertivas: Transferência foi realizada corretamente
-        assert this.saldo == (saldoOrigemAnterior - valor) : "Saldo origem incorreto";
-        assert contaDestino.saldo == (saldoDestinoAnterior + valor) : "Saldo destino incorreto";
+        long centavos = Centavos.deReais(valor);
+        if (!tentarTransferir(contaDestino, centavos)) {
+            throw new SaldoInsuficienteException(numeroConta,
+                    Centavos.paraReais(lerSaldoCentavos()), valor);
+        }
 
         // Pós-condições
         validarInvariante();
         contaDestino.validarInvariante();
     }
 
+    /**
+     * Soma centavos ao saldo de forma atômica (compare-and-set).
+     * Para chamadores que já validaram o valor (ex: operações em lote).
+     * O estouro é verificado antes de cada tentativa: um crédito recusado não altera o saldo.
+     *
+     * @param centavos Valor positivo em centavos
+     * @throws IllegalArgumentException se valor não for positivo ou se o saldo estouraria
+     */
+    public final void creditar(long centavos) {
+        if (centavos <= 0) {
+            throw new IllegalArgumentException("Crédito deve ser positivo");
+        }
+        aplicarPendencias();
+        long saldoAtual;
+        do {
+            saldoAtual = lerSaldoCentavos();
+            if (saldoAtual > Long.MAX_VALUE - centavos) {
+                throw new IllegalArgumentException("Crédito estouraria o saldo da conta " + numeroConta);
+            }
+        } while (!compararETrocarSaldo(saldoAtual, saldoAtual + centavos));
+        notificarVariacao(centavos);
+    }
+
+    /**
+     * Verifica saldo e subtrai centavos em um laço compare-and-set, sem lançar
+     * exceção quando falta saldo (falha esperada em operações em lote).
+     *
+     * @param centavos Valor positivo em centavos
+     * @return true se havia saldo e o débito foi feito
+     * @throws IllegalArgumentException se valor não for positivo
+     */
+    public final boolean tentarDebitar(long centavos) {
+        if (centavos <= 0) {
+            throw new IllegalArgumentException("Débito deve ser positivo");
+        }
+        aplicarPendencias();
+        long saldoAtual;
+        do {
+            saldoAtual = lerSaldoCentavos();
+            if (saldoAtual < centavos) {
+                return false;
+            }
+        } while (!compararETrocarSaldo(saldoAtual, saldoAtual - centavos));
+        notificarVariacao(-centavos);
+        return true;
+    }
+
+    /**
+     * Transfere centavos para outra conta sem lançar exceção quando falta saldo.
+     * Mesma garantia de {@link #transferir(Conta, double)}: débito e crédito são
+     * passos atômicos separados, e um crédito recusado devolve o débito.
+     *
+     * @param contaDestino Conta de destino (diferente desta)
+     * @param centavos Valor positivo em centavos
+     * @return true se havia saldo e a transferência foi feita
+     * @throws IllegalArgumentException se valor não for positivo ou se o saldo do destino estouraria
+     */
+    public final boolean tentarTransferir(Conta contaDestino, long centavos) {
+        if (!tentarDebitar(centavos)) {
+            return false;
+        }
+        try {
+            contaDestino.creditar(centavos);
+        } catch (RuntimeException e) {
+            creditar(centavos);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Debita centavos ou lança exceção se saldo for insuficiente.
+     *
+     * @param centavos Valor positivo em centavos
+     * @param valorSolicitado Valor original (para mensagem de erro)
+     * @throws SaldoInsuficienteException se saldo for insuficiente
+     */
+    private void debitar(long centavos, double valorSolicitado) throws SaldoInsuficienteException {
+        if (!tentarDebitar(centavos)) {
+            throw new SaldoInsuficienteException(numeroConta,
+                    Centavos.paraReais(lerSaldoCentavos()), valorSolicitado);
+        }
+    }
+
+    /**
+     * Restaura o saldo a partir de estado persistido (diário ou snapshot).
+     * Não deve ser usado em operações: ignora limites de operação e de saldo inicial.
+     * Concorrência: a troca é atômica e informa ao acumulador a variação exata, mas
+     * substitui o saldo sem considerar operações concorrentes - a recuperação chama
+     * este método de uma única thread, antes de a conta receber operações.
+     *
+     * @param saldoCentavos Saldo recuperado em centavos
+     * @throws IllegalArgumentException se saldo for negativo
+     */
+    public final void restaurarSaldoCentavos(long saldoCentavos) {
+        if (saldoCentavos < 0) {
+            throw new IllegalArgumentException("Saldo restaurado não pode ser negativo");
+        }
+        long saldoAnterior = celulaExterna == null
+                ? (long) SALDO_CENTAVOS.getAndSet(this, saldoCentavos)
+                : celulaExterna.trocar(saldoCentavos);
+        notificarVariacao(saldoCentavos - saldoAnterior);
+        validarInvariante();
+    }
+
+    /**
+     * Substitui o saldo se ele ainda for o esperado (compare-and-set).
+     * Usado por subclasses que recalculam o saldo a partir do valor atual.
+     *
+     * @param esperado Saldo esperado em centavos
+     * @param novo Novo saldo em centavos
+     * @return true se a troca ocorreu
+     */
+    protected final boolean atualizarSaldoSeIgual(long esperado, long novo) {
+        assert novo >= 0 : "Saldo não pode ser negativo: " + novo;
+        if (!compararETrocarSaldo(esperado, novo)) {
+            return false;
+        }
+        notificarVariacao(novo - esperado);
+        return true;
+    }
+
+    /**
+     * Retorna o saldo armazenado, sem aplicar pendências.
+     * Para subclasses que aplicam as próprias pendências.
+     *
+     * @return Saldo em centavos
+     */
+    protected final long lerSaldoArmazenado() {
+        return lerSaldoCentavos();
+    }
+
+    /**
+     * @return Quantidade de épocas de rendimento diferido já aplicadas ao saldo
+     */
+    protected final int lerEpocaRendimento() {
+        return celulaExterna == null ? epocaRendimento : celulaExterna.lerEpocaRendimento();
+    }
+
+    /**
+     * Registra as épocas de rendimento diferido já aplicadas ao saldo.
+     *
+     * @param epoca Quantidade de épocas aplicadas
+     */
+    final void gravarEpocaRendimento(int epoca) {
+        if (celulaExterna == null) {
+            this.epocaRendimento = epoca;
+        } else {
+            celulaExterna.gravarEpocaRendimento(epoca);
+        }
+    }
+
+    private void notificarVariacao(long deltaCentavos) {
+        AcumuladorSaldo acumuladorAtual = acumulador;
+        if (acumuladorAtual != null && deltaCentavos != 0) {
+            acumuladorAtual.somar(this, deltaCentavos);
+        }
+    }
+
+    private long lerSaldoCentavos() {
+        return celulaExterna == null ? saldoCentavos : celulaExterna.ler();
+    }
+
+    private boolean compararETrocarSaldo(long esperado, long novo) {
+        return celulaExterna == null
+                ? SALDO_CENTAVOS.compareAndSet(this, esperado, novo)
+                : celulaExterna.compararETrocar(esperado, novo);
+    }
+
     /**
      * Verifica se duas contas são iguais (pelo número).
      */
@@ -204,6 +454,6 @@ public abstract class Conta {
     @Override
     public String toString() {
         return String.format("Conta{numero=%d, tipo='%s', cliente='%s', saldo=R$ %.2f}",
-                numeroConta, getTipo(), cliente.getNome(), saldo);
+                numeroConta, getTipo(), cliente.getNome(), getSaldo());
     }
 }
\ No newline at end of file
@@ -17,6 +17,17 @@ public final class ContaCorrente extends Conta {
         super(numeroConta, cliente, saldoInicial);
     }
 
+    /**
+     * Construtor de visão com saldo em armazenamento externo.
+     *
+     * @param numeroConta Número único da conta
+     * @param cliente Cliente titular
+     * @param celulaSaldo Célula que guarda o saldo
+     */
+    public ContaCorrente(int numeroConta, Cliente cliente, CelulaSaldo celulaSaldo) {
+        super(numeroConta, cliente, celulaSaldo);
+    }
+
     /**
      * Retorna o tipo da conta.
      *
@@ -6,8 +6,13 @@ import validator.ContaValidator;
 /**
  * Representa uma Conta Poupança com rendimento.
  * Boa Prática: LSP - Não adiciona pré-condições mais restritivas.
+ * Rendimento diferido: épocas abertas no {@link AcumuladorSaldo} do grupo são
+ * aplicadas na próxima leitura ou movimentação da conta, uma a uma e com o mesmo
+ * arredondamento de {@link #aplicarRendimento(double)}.
  */
 public final class ContaPoupanca extends Conta {
+    /** Tipo informado por {@link #getTipo()} (chave dos totais por tipo). */
+    public static final String DESCRICAO_TIPO = "Conta Poupança";
 
     /**
      * Construtor da Conta Poupança.
@@ -20,31 +25,97 @@ public final class ContaPoupanca extends Conta {
         super(numeroConta, cliente, saldoInicial);
     }
 
+    /**
+     * Construtor de visão com saldo em armazenamento externo.
+     *
+     * @param numeroConta Número único da conta
+     * @param cliente Cliente titular
+     * @param celulaSaldo Célula que guarda o saldo
+     */
+    public ContaPoupanca(int numeroConta, Cliente cliente, CelulaSaldo celulaSaldo) {
+        super(numeroConta, cliente, celulaSaldo);
+    }
+
     /**
      * Aplica rendimento percentual ao saldo.
      * Programação Defensiva: Valida percentual e atualiza saldo com segurança.
+     * Concorrência: recalcula a partir do saldo lido e troca por compare-and-set;
+     * o rendimento é arredondado ao centavo, sem deriva de ponto flutuante.
      *
      * @param percentual Percentual de rendimento (ex: 2.5 para 2.5%)
+     * @return Rendimento creditado, em centavos
      * @throws ValorInvalidoException se percentual for inválido
      */
-    public void aplicarRendimento(double percentual) throws ValorInvalidoException {
-        // Pré-condição
-        validarInvariante();
-        double saldoAnterior = saldo;
-
+    public long aplicarRendimento(double percentual) throws ValorInvalidoException {
         // Validação
         ContaValidator.validarPercentualRendimento(percentual);
 
-        // Cálculo do rendimento
-        double valorRendimento = saldo * (percentual / 100.0);
-        saldo += valorRendimento;
-
-        // Assertiva: Saldo aumentou corretamente
-        assert saldo > saldoAnterior : "Saldo deveria ter aumentado após rendimento";
-        assert saldo == (saldoAnterior + valorRendimento) : "Cálculo de rendimento incorreto";
+        aplicarPendencias();
+        long rendimento = somarRendimento(percentual);
 
         // Pós-condição
         validarInvariante();
+        return rendimento;
+    }
+
+    /**
+     * Aplica, em ordem, as épocas de rendimento diferido abertas desde a última
+     * leitura ou movimentação.
+     * Concorrência: a trava da conta impede que duas threads apliquem a mesma época;
+     * operações concorrentes seguem sem trava e apenas repetem o compare-and-set.
+     */
+    @Override
+    protected void aplicarPendencias() {
+        AcumuladorSaldo acumulador = getAcumulador();
+        if (acumulador == null) {
+            return;
+        }
+        int epocaAtual = acumulador.getEpocaRendimento();
+        if (lerEpocaRendimento() >= epocaAtual) {
+            return;
+        }
+        synchronized (acumulador.travaDaConta(getNumero())) {
+            int epoca = lerEpocaRendimento();
+            // Saldo que a projeção do acumulador usou: sem arredondamento entre épocas
+            double saldoProjetado = lerSaldoArmazenado();
+            for (; epoca < epocaAtual; epoca++) {
+                double percentual = acumulador.getPercentualRendimento(epoca);
+                somarRendimento(percentual);
+                saldoProjetado = acumulador.realizarRendimentoPendente(saldoProjetado, percentual);
+                gravarEpocaRendimento(epoca + 1);
+            }
+        }
+    }
+
+    /**
+     * Soma o rendimento ao saldo armazenado (compare-and-set).
+     *
+     * @param percentual Percentual de rendimento (já validado)
+     * @return Rendimento somado, em centavos
+     */
+    private long somarRendimento(double percentual) {
+        long saldoAnterior;
+        long saldoNovo;
+        do {
+            saldoAnterior = lerSaldoArmazenado();
+            saldoNovo = saldoAnterior + calcularRendimentoCentavos(saldoAnterior, percentual);
+        } while (!atualizarSaldoSeIgual(saldoAnterior, saldoNovo));
+
+        // Assertiva: Saldo não diminuiu
+        assert saldoNovo >= saldoAnterior : "Saldo não deveria diminuir após rendimento";
+        return saldoNovo - saldoAnterior;
+    }
+
+    /**
+     * Calcula o rendimento sobre um saldo, arredondado ao centavo.
+     * Boa Prática: Fórmula única, usada também na recuperação de estado persistido.
+     *
+     * @param saldoCentavos Saldo em centavos
+     * @param percentual Percentual de rendimento (já validado)
+     * @return Rendimento em centavos
+     */
+    public static long calcularRendimentoCentavos(long saldoCentavos, double percentual) {
+        return Math.round(saldoCentavos * (percentual / 100.0));
     }
 
     /**
@@ -54,6 +125,6 @@ public final class ContaPoupanca extends Conta {
      */
     @Override
     public String getTipo() {
-        return "Conta Poupança";
+        return DESCRICAO_TIPO;
     }
 }
\ No newline at end of file
@@ -0,0 +1,79 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * Movimento de uma conta, como lido do livro razão.
+ * Boa Prática: Objeto de valor imutável; o livro guarda os campos em colunas
+ * primitivas e só cria o objeto na consulta.
+ */
+public final class Movimento {
+    /** Contraparte de movimentos que não envolvem outra conta. */
+    public static final int SEM_CONTRAPARTE = 0;
+
+    private final long sequencia;
+    private final long instante;
+    private final int numeroConta;
+    private final TipoMovimento tipo;
+    private final long valorCentavos;
+    private final int contraparte;
+
+    /**
+     * @param sequencia Posição no livro (crescente, única)
+     * @param instante Momento do registro (milissegundos desde a época Unix)
+     * @param numeroConta Conta movimentada
+     * @param tipo Tipo do movimento
+     * @param valorCentavos Valor positivo em centavos
+     * @param contraparte Outra conta da transferência, ou {@link #SEM_CONTRAPARTE}
+     */
+    public Movimento(long sequencia, long instante, int numeroConta, TipoMovimento tipo,
+                     long valorCentavos, int contraparte) {
+        this.sequencia = sequencia;
+        this.instante = instante;
+        this.numeroConta = numeroConta;
+        this.tipo = Objects.requireNonNull(tipo, "Tipo não pode ser nulo");
+        this.valorCentavos = valorCentavos;
+        this.contraparte = contraparte;
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public long getInstante() {
+        return instante;
+    }
+
+    public int getNumeroConta() {
+        return numeroConta;
+    }
+
+    public TipoMovimento getTipo() {
+        return tipo;
+    }
+
+    public long getValorCentavos() {
+        return valorCentavos;
+    }
+
+    public double getValor() {
+        return Centavos.paraReais(valorCentavos);
+    }
+
+    /**
+     * @return Variação do saldo: positiva para créditos, negativa para débitos
+     */
+    public long getVariacaoCentavos() {
+        return tipo.isCredito() ? valorCentavos : -valorCentavos;
+    }
+
+    public int getContraparte() {
+        return contraparte;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("#%d %s R$ %.2f%s", sequencia, tipo.getDescricao(), getValor(),
+                contraparte == SEM_CONTRAPARTE ? "" : " (conta " + contraparte + ")");
+    }
+}
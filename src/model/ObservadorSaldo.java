@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Recebe avisos de contas cujo saldo mudou.
+ * Boa Prática: Observer - estruturas derivadas do saldo (ex: índices ordenados)
+ * se atualizam sem que a conta conheça cada uma delas.
+ * Chamado na thread que alterou o saldo, logo após a alteração: deve ser rápido
+ * e não pode bloquear.
+ */
+@FunctionalInterface
+public interface ObservadorSaldo {
+
+    /**
+     * @param conta Conta cujo saldo acabou de mudar
+     */
+    void saldoAlterado(Conta conta);
+}
@@ -0,0 +1,35 @@
+package model;
+
+import java.util.Objects;
+
+/**
+ * Totais de um tipo de conta (quantidade e saldo).
+ * Boa Prática: Objeto de valor imutável.
+ */
+public final class ResumoTipoConta {
+    private final String tipo;
+    private final long quantidade;
+    private final long saldoCentavos;
+
+    public ResumoTipoConta(String tipo, long quantidade, long saldoCentavos) {
+        this.tipo = Objects.requireNonNull(tipo, "Tipo não pode ser nulo");
+        this.quantidade = quantidade;
+        this.saldoCentavos = saldoCentavos;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public long getSaldoCentavos() {
+        return saldoCentavos;
+    }
+
+    public double getSaldo() {
+        return Centavos.paraReais(saldoCentavos);
+    }
+}
@@ -0,0 +1,33 @@
+package model;
+
+/**
+ * Tipo de um movimento do livro razão.
+ * Boa Prática: Cada tipo sabe se entra ou sai da conta, sem ifs espalhados.
+ */
+public enum TipoMovimento {
+    ABERTURA("Saldo inicial", true),
+    DEPOSITO("Depósito", true),
+    SAQUE("Saque", false),
+    TRANSFERENCIA_ENVIADA("Transferência enviada", false),
+    TRANSFERENCIA_RECEBIDA("Transferência recebida", true),
+    RENDIMENTO("Rendimento", true);
+
+    private final String descricao;
+    private final boolean credito;
+
+    TipoMovimento(String descricao, boolean credito) {
+        this.descricao = descricao;
+        this.credito = credito;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    /**
+     * @return true se o movimento soma ao saldo da conta
+     */
+    public boolean isCredito() {
+        return credito;
+    }
+}
@@ -0,0 +1,258 @@
+package persistencia;
+
+import exception.BancoException;
+import repository.IRepositorioClientes;
+import repository.IRepositorioContas;
+import service.CacheIdempotencia;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diretório de dados do banco: snapshot + segmentos de diário.
+ * Boa Prática: A inicialização lê o snapshot e reproduz apenas os segmentos
+ * posteriores a ele, então o tempo de partida depende do número de contas,
+ * não do tamanho do histórico.
+ *
+ * A compactação gira o diário (pausa curta, sem cópia de estado) e monta o
+ * novo snapshot em segundo plano a partir dos arquivos - nunca dos objetos vivos -
+ * removendo em seguida os segmentos incorporados. A troca do snapshot só é dada como
+ * feita depois do fsync do diretório, e só então os segmentos são apagados: uma queda
+ * no meio nunca deixa o diretório sem o snapshot novo e sem os segmentos que ele
+ * substitui. Sem registros novos desde a última compactação, nada é feito.
+ *
+ * Programação Defensiva: dados que não reproduzem um histórico possível (ver
+ * {@link DiarioCorrompidoException}) impedem a abertura - e a compactação, que nunca
+ * apaga segmentos que não conseguiu incorporar. Os arquivos ficam como estão, para
+ * análise; o banco não inventa registros para chegar a um estado "consistente".
+ */
+public final class ArmazenamentoBanco implements Closeable {
+    private static final String ARQUIVO_SNAPSHOT = "banco.snapshot";
+    private static final String SUFIXO_TEMPORARIO = ".tmp";
+    private static final String PREFIXO_SEGMENTO = "diario-";
+    private static final String SUFIXO_SEGMENTO = ".log";
+
+    private final Path diretorio;
+    private final Diario diario;
+    private EstadoRecuperado estadoInicial;
+    private long segmentoAtivo;
+    private long ultimoSegmentoCompactado;
+    /** Sequência do diário já incorporada ao snapshot (-1: há segmentos recuperados a incorporar). */
+    private long sequenciaCompactada;
+    private ScheduledExecutorService agendador;
+
+    private ArmazenamentoBanco(Path diretorio, EstadoRecuperado estadoInicial, Diario diario,
+                               long segmentoAtivo, long ultimoSegmentoCompactado, long sequenciaCompactada) {
+        this.diretorio = diretorio;
+        this.estadoInicial = estadoInicial;
+        this.diario = diario;
+        this.segmentoAtivo = segmentoAtivo;
+        this.ultimoSegmentoCompactado = ultimoSegmentoCompactado;
+        this.sequenciaCompactada = sequenciaCompactada;
+    }
+
+    /**
+     * Abre (ou cria) o diretório de dados e recupera o estado persistido.
+     *
+     * @param diretorio Diretório de dados
+     * @return Armazenamento com diário aberto no segmento mais recente
+     * @throws DiarioCorrompidoException se o snapshot ou o diário estiverem danificados
+     * @throws IOException se os arquivos não puderem ser lidos
+     */
+    public static ArmazenamentoBanco abrir(Path diretorio) throws IOException {
+        Files.createDirectories(diretorio);
+
+        EstadoRecuperado estado = new EstadoRecuperado();
+        long ultimoCompactado = Snapshot.ler(diretorio.resolve(ARQUIVO_SNAPSHOT), estado);
+
+        List<Long> segmentos = listarSegmentos(diretorio);
+        List<Long> pendentes = new ArrayList<>();
+        for (long segmento : segmentos) {
+            if (segmento <= ultimoCompactado) {
+                // Sobra de compactação interrompida após gravar o snapshot
+                Files.deleteIfExists(caminhoSegmento(diretorio, segmento));
+            } else {
+                pendentes.add(segmento);
+            }
+        }
+
+        long segmentoAtivo = pendentes.isEmpty()
+                ? ultimoCompactado + 1
+                : pendentes.get(pendentes.size() - 1);
+        for (long segmento : pendentes) {
+            if (segmento != segmentoAtivo) {
+                Diario.reproduzir(caminhoSegmento(diretorio, segmento), estado);
+            }
+        }
+        Diario diario = Diario.abrir(caminhoSegmento(diretorio, segmentoAtivo), estado);
+
+        return new ArmazenamentoBanco(diretorio, estado, diario, segmentoAtivo, ultimoCompactado,
+                pendentes.isEmpty() ? 0 : -1);
+    }
+
+    /**
+     * Popula os repositórios com o estado recuperado na abertura.
+     * Só pode ser chamado uma vez; o estado é liberado em seguida.
+     *
+     * @param repositorioClientes Repositório de clientes (vazio)
+     * @param repositorioContas Repositório de contas (vazio)
+     * @return Próximo número de conta a ser gerado
+     * @throws BancoException se o estado recuperado for inconsistente
+     */
+    public synchronized int materializar(IRepositorioClientes repositorioClientes,
+                                         IRepositorioContas repositorioContas) throws BancoException {
+        if (estadoInicial == null) {
+            throw new IllegalStateException("Estado recuperado já foi materializado");
+        }
+        int proximoNumeroConta = estadoInicial.materializar(repositorioClientes, repositorioContas);
+        estadoInicial = null;
+        return proximoNumeroConta;
+    }
+
+    /**
+     * Popula os repositórios e devolve ao cache as chaves de idempotência ainda na janela.
+     * Só pode ser chamado uma vez; o estado é liberado em seguida.
+     *
+     * @param repositorioClientes Repositório de clientes (vazio)
+     * @param repositorioContas Repositório de contas (vazio)
+     * @param cacheIdempotencia Cache do {@link BancoServicoPersistente} (ainda sem requisições)
+     * @return Próximo número de conta a ser gerado
+     * @throws BancoException se o estado recuperado for inconsistente
+     */
+    public synchronized int materializar(IRepositorioClientes repositorioClientes,
+                                         IRepositorioContas repositorioContas,
+                                         CacheIdempotencia cacheIdempotencia) throws BancoException {
+        Objects.requireNonNull(cacheIdempotencia, "Cache de idempotência não pode ser nulo");
+        if (estadoInicial == null) {
+            throw new IllegalStateException("Estado recuperado já foi materializado");
+        }
+        estadoInicial.restaurarChaves(cacheIdempotencia, System.currentTimeMillis());
+        return materializar(repositorioClientes, repositorioContas);
+    }
+
+    /**
+     * Retorna o diário ativo, para o decorador persistente do serviço.
+     *
+     * @return Diário aberto
+     */
+    public Diario getDiario() {
+        return diario;
+    }
+
+    /**
+     * Gera novo snapshot e trunca o prefixo do diário já incorporado a ele.
+     * Não faz nada se o diário não recebeu registros desde a última compactação.
+     *
+     * @param servico Serviço persistente que escreve no diário
+     * @throws IOException se a rotação ou a gravação do snapshot falhar
+     */
+    public synchronized void compactar(BancoServicoPersistente servico) throws IOException {
+        // Lida antes do corte: registros anexados entre a leitura e a rotação só fazem a próxima compactação rodar
+        long sequencia = diario.getSequenciaRegistrada();
+        if (sequencia == sequenciaCompactada) {
+            return;
+        }
+        long segmentoEncerrado = segmentoAtivo;
+        servico.rotacionarDiario(caminhoSegmento(diretorio, segmentoEncerrado + 1));
+        segmentoAtivo = segmentoEncerrado + 1;
+
+        // Estado no ponto de corte, montado apenas a partir dos arquivos
+        Path arquivoSnapshot = diretorio.resolve(ARQUIVO_SNAPSHOT);
+        EstadoRecuperado estado = new EstadoRecuperado();
+        Snapshot.ler(arquivoSnapshot, estado);
+        for (long segmento = ultimoSegmentoCompactado + 1; segmento <= segmentoEncerrado; segmento++) {
+            Diario.reproduzir(caminhoSegmento(diretorio, segmento), estado);
+        }
+
+        Path temporario = diretorio.resolve(ARQUIVO_SNAPSHOT + SUFIXO_TEMPORARIO);
+        Snapshot.gravar(temporario, estado, segmentoEncerrado);
+        Files.move(temporario, arquivoSnapshot,
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        // A renomeação precisa ser durável antes de apagar os segmentos que o snapshot substitui
+        Diario.sincronizarDiretorio(arquivoSnapshot);
+
+        for (long segmento = ultimoSegmentoCompactado + 1; segmento <= segmentoEncerrado; segmento++) {
+            Files.deleteIfExists(caminhoSegmento(diretorio, segmento));
+        }
+        ultimoSegmentoCompactado = segmentoEncerrado;
+        sequenciaCompactada = sequencia;
+    }
+
+    /**
+     * Agenda compactações periódicas em uma thread de fundo.
+     *
+     * @param servico Serviço persistente que escreve no diário
+     * @param intervalo Intervalo entre compactações
+     * @param unidade Unidade do intervalo
+     */
+    public synchronized void agendarCompactacao(BancoServicoPersistente servico, long intervalo, TimeUnit unidade) {
+        Objects.requireNonNull(servico, "Serviço persistente não pode ser nulo");
+        if (agendador != null) {
+            throw new IllegalStateException("Compactação já agendada");
+        }
+
+        agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "compactacao-diario");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleWithFixedDelay(() -> {
+            try {
+                compactar(servico);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Falha na compactação do diário: " + e.getMessage());
+            }
+        }, intervalo, intervalo, unidade);
+    }
+
+    /**
+     * Interrompe a compactação agendada e fecha o diário.
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService agendadorAtual;
+        synchronized (this) {
+            agendadorAtual = agendador;
+        }
+        if (agendadorAtual != null) {
+            agendadorAtual.shutdownNow();
+        }
+        // Aguarda compactação em andamento antes de fechar
+        synchronized (this) {
+            diario.close();
+        }
+    }
+
+    private static List<Long> listarSegmentos(Path diretorio) throws IOException {
+        List<Long> segmentos = new ArrayList<>();
+        try (DirectoryStream<Path> arquivos = Files.newDirectoryStream(diretorio,
+                PREFIXO_SEGMENTO + "*" + SUFIXO_SEGMENTO)) {
+            for (Path arquivo : arquivos) {
+                String nome = arquivo.getFileName().toString();
+                String numero = nome.substring(PREFIXO_SEGMENTO.length(), nome.length() - SUFIXO_SEGMENTO.length());
+                try {
+                    segmentos.add(Long.parseLong(numero));
+                } catch (NumberFormatException e) {
+                    // Arquivo alheio com nome parecido: ignorado
+                }
+            }
+        }
+        Collections.sort(segmentos);
+        return segmentos;
+    }
+
+    private static Path caminhoSegmento(Path diretorio, long segmento) {
+        return diretorio.resolve(String.format("%s%06d%s", PREFIXO_SEGMENTO, segmento, SUFIXO_SEGMENTO));
+    }
+}
@@ -0,0 +1,602 @@
+package persistencia;
+
+import constants.Constantes;
+import exception.*;
+import model.Centavos;
+import model.Cliente;
+import model.Conta;
+import model.ContaPoupanca;
+import model.Movimento;
+import repository.IRepositorioClientes;
+import repository.IRepositorioContas;
+import service.CacheIdempotencia;
+import service.CadastroLote;
+import service.ContasDoCliente;
+import service.IOperacoesBancarias;
+import service.OperacaoLote;
+import service.ProgressoRendimento;
+import service.ResultadoCadastroLote;
+import service.ResultadoLote;
+import service.StatusOperacao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Decorador que registra no diário toda mutação bem-sucedida do banco.
+ * Boa Prática: Open/Closed - BancoServico não conhece a persistência.
+ *
+ * Cada operação só retorna depois que seu registro está em disco (commit em grupo).
+ * Operações comuns rodam em paralelo (trava de leitura); o rendimento e os cadastros
+ * são exclusivos (trava de escrita) para ocupar uma posição bem definida no diário:
+ * a criação de um cliente ou conta sempre precede, no diário, as operações que a usam.
+ *
+ * Ordem por conta: a aplicação em memória e a anexação ao diário acontecem sob a
+ * trava da conta (faixas por número), então as operações de uma conta aparecem no
+ * diário na mesma ordem em que mudaram o saldo. Qualquer prefixo durável do diário
+ * é um histórico possível de cada conta - a reprodução nunca vê um saque antes do
+ * depósito que o permitiu. A espera pelo disco fica fora das travas.
+ *
+ * Antes de aplicar, a operação confere se o diário continua disponível: depois de
+ * uma falha de gravação, nada mais é aplicado em memória. Uma operação cujo aguardo
+ * pelo disco falhou já está em memória, mas não foi confirmada a quem chamou e pode
+ * não sobreviver ao reinício.
+ *
+ * Operações com chave de idempotência são deduplicadas no cache deste decorador e
+ * registradas num único registro com a chave e o resultado (inclusive falhas): a
+ * operação e a chave nunca chegam ao disco uma sem a outra. Ao reiniciar, as chaves
+ * ainda na janela voltam ao cache (ver {@link ArmazenamentoBanco#materializar(
+ * IRepositorioClientes, IRepositorioContas, CacheIdempotencia)}), então um reenvio
+ * depois da queda não aplica a operação de novo.
+ */
+public class BancoServicoPersistente implements IOperacoesBancarias {
+    /** Sequência que dispensa aguardo: operação falhou e nada foi registrado. */
+    private static final long SEM_REGISTRO = 0L;
+    private static final int QUANTIDADE_TRAVAS_CONTAS = 1 << 10;
+
+    private final IOperacoesBancarias operacoes;
+    private final Diario diario;
+    private final CacheIdempotencia cacheIdempotencia;
+    private final ReadWriteLock ordemRegistro;
+    private final ReentrantLock[] travasContas;
+
+    /**
+     * Construtor com injeção de dependências.
+     *
+     * @param operacoes Serviço bancário decorado
+     * @param diario Diário aberto para anexação
+     */
+    public BancoServicoPersistente(IOperacoesBancarias operacoes, Diario diario) {
+        this(operacoes, diario, new CacheIdempotencia(Constantes.CAPACIDADE_CACHE_IDEMPOTENCIA,
+                TimeUnit.MINUTES.toMillis(Constantes.JANELA_IDEMPOTENCIA_MINUTOS)));
+    }
+
+    /**
+     * Construtor com o cache de idempotência já populado pela recuperação.
+     *
+     * @param operacoes Serviço bancário decorado
+     * @param diario Diário aberto para anexação
+     * @param cacheIdempotencia Cache passado a {@link ArmazenamentoBanco#materializar(
+     *                          IRepositorioClientes, IRepositorioContas, CacheIdempotencia)}
+     */
+    public BancoServicoPersistente(IOperacoesBancarias operacoes, Diario diario,
+                                   CacheIdempotencia cacheIdempotencia) {
+        this.operacoes = Objects.requireNonNull(operacoes, "Operações bancárias não podem ser nulas");
+        this.diario = Objects.requireNonNull(diario, "Diário não pode ser nulo");
+        this.cacheIdempotencia = Objects.requireNonNull(cacheIdempotencia,
+                "Cache de idempotência não pode ser nulo");
+        this.ordemRegistro = new ReentrantReadWriteLock();
+        this.travasContas = new ReentrantLock[QUANTIDADE_TRAVAS_CONTAS];
+        for (int i = 0; i < QUANTIDADE_TRAVAS_CONTAS; i++) {
+            travasContas[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public Cliente cadastrarCliente(String nome, String cpf)
+            throws DadosInvalidosException, CpfInvalidoException, ClienteJaExisteException {
+        Cliente cliente;
+        long sequencia;
+        ordemRegistro.writeLock().lock();
+        try {
+            verificarDiario();
+            cliente = operacoes.cadastrarCliente(nome, cpf);
+            sequencia = registrar(RegistroDiario.cliente(cliente.getNome(), cliente.getCpf()));
+        } finally {
+            ordemRegistro.writeLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+        return cliente;
+    }
+
+    @Override
+    public Conta cadastrarConta(String cpfCliente, String tipoConta, double saldoInicial)
+            throws ClienteNaoEncontradoException, TipoContaInvalidoException, DadosInvalidosException {
+        Conta conta;
+        long sequencia;
+        ordemRegistro.writeLock().lock();
+        try {
+            verificarDiario();
+            conta = operacoes.cadastrarConta(cpfCliente, tipoConta, saldoInicial);
+            sequencia = registrar(registroConta(conta, saldoInicial));
+        } finally {
+            ordemRegistro.writeLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+        return conta;
+    }
+
+    @Override
+    public void depositar(int numeroConta, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException {
+        long sequencia;
+        ordemRegistro.readLock().lock();
+        ReentrantLock trava = travarConta(numeroConta);
+        try {
+            verificarDiario();
+            operacoes.depositar(numeroConta, valor);
+            sequencia = registrar(RegistroDiario.deposito(numeroConta, Centavos.deReais(valor)));
+        } finally {
+            trava.unlock();
+            ordemRegistro.readLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+    }
+
+    @Override
+    public void sacar(int numeroConta, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException, SaldoInsuficienteException {
+        long sequencia;
+        ordemRegistro.readLock().lock();
+        ReentrantLock trava = travarConta(numeroConta);
+        try {
+            verificarDiario();
+            operacoes.sacar(numeroConta, valor);
+            sequencia = registrar(RegistroDiario.saque(numeroConta, Centavos.deReais(valor)));
+        } finally {
+            trava.unlock();
+            ordemRegistro.readLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+    }
+
+    @Override
+    public void transferir(int numeroContaOrigem, int numeroContaDestino, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException, SaldoInsuficienteException {
+        long sequencia;
+        ordemRegistro.readLock().lock();
+        travarContas(numeroContaOrigem, numeroContaDestino);
+        try {
+            verificarDiario();
+            operacoes.transferir(numeroContaOrigem, numeroContaDestino, valor);
+            sequencia = registrar(RegistroDiario.transferencia(numeroContaOrigem, numeroContaDestino,
+                    Centavos.deReais(valor)));
+        } finally {
+            destravarContas(numeroContaOrigem, numeroContaDestino);
+            ordemRegistro.readLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+    }
+
+    @Override
+    public StatusOperacao tentarDepositar(int numeroConta, double valor) {
+        StatusOperacao status;
+        long sequencia = SEM_REGISTRO;
+        ordemRegistro.readLock().lock();
+        ReentrantLock trava = travarConta(numeroConta);
+        try {
+            verificarDiario();
+            status = operacoes.tentarDepositar(numeroConta, valor);
+            if (status.isSucesso()) {
+                sequencia = registrar(RegistroDiario.deposito(numeroConta, Centavos.deReais(valor)));
+            }
+        } finally {
+            trava.unlock();
+            ordemRegistro.readLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+        return status;
+    }
+
+    @Override
+    public StatusOperacao tentarSacar(int numeroConta, double valor) {
+        StatusOperacao status;
+        long sequencia = SEM_REGISTRO;
+        ordemRegistro.readLock().lock();
+        ReentrantLock trava = travarConta(numeroConta);
+        try {
+            verificarDiario();
+            status = operacoes.tentarSacar(numeroConta, valor);
+            if (status.isSucesso()) {
+                sequencia = registrar(RegistroDiario.saque(numeroConta, Centavos.deReais(valor)));
+            }
+        } finally {
+            trava.unlock();
+            ordemRegistro.readLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+        return status;
+    }
+
+    @Override
+    public StatusOperacao tentarTransferir(int numeroContaOrigem, int numeroContaDestino, double valor) {
+        StatusOperacao status;
+        long sequencia = SEM_REGISTRO;
+        ordemRegistro.readLock().lock();
+        travarContas(numeroContaOrigem, numeroContaDestino);
+        try {
+            verificarDiario();
+            status = operacoes.tentarTransferir(numeroContaOrigem, numeroContaDestino, valor);
+            if (status.isSucesso()) {
+                sequencia = registrar(RegistroDiario.transferencia(numeroContaOrigem, numeroContaDestino,
+                        Centavos.deReais(valor)));
+            }
+        } finally {
+            destravarContas(numeroContaOrigem, numeroContaDestino);
+            ordemRegistro.readLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+        return status;
+    }
+
+    @Override
+    public StatusOperacao tentarDepositar(long chaveIdempotencia, int numeroConta, double valor) {
+        return executarComChave(chaveIdempotencia, OperacaoLote.deposito(numeroConta, valor));
+    }
+
+    @Override
+    public StatusOperacao tentarSacar(long chaveIdempotencia, int numeroConta, double valor) {
+        return executarComChave(chaveIdempotencia, OperacaoLote.saque(numeroConta, valor));
+    }
+
+    @Override
+    public StatusOperacao tentarTransferir(long chaveIdempotencia, int numeroContaOrigem,
+                                           int numeroContaDestino, double valor) {
+        return executarComChave(chaveIdempotencia,
+                OperacaoLote.transferencia(numeroContaOrigem, numeroContaDestino, valor));
+    }
+
+    /**
+     * Executa o lote sob as travas de todas as contas envolvidas, com um único
+     * anexo ao diário e um único aguardo de durabilidade. Os registros seguem a
+     * ordem do lote, que é a ordem de aplicação de cada conta.
+     * Apenas operações bem-sucedidas são registradas; lote sem nenhuma não toca
+     * o diário nem espera o disco.
+     */
+    @Override
+    public ResultadoLote executarLote(List<OperacaoLote> lote) {
+        Objects.requireNonNull(lote, "Lista de operações não pode ser nula");
+
+        BitSet travas = travasDoLote(lote);
+        ResultadoLote resultado;
+        long sequencia;
+        ordemRegistro.readLock().lock();
+        travar(travas);
+        try {
+            verificarDiario();
+            resultado = operacoes.executarLote(lote);
+            List<byte[]> registros = registrosDoLote(lote, resultado);
+            sequencia = registros.isEmpty() ? SEM_REGISTRO : registrar(registros);
+        } finally {
+            destravar(travas);
+            ordemRegistro.readLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+        return resultado;
+    }
+
+    /**
+     * Executa os cadastros um a um no serviço decorado (para conhecer o número
+     * de cada conta criada), com um único anexo ao diário e um único aguardo
+     * de durabilidade para o lote inteiro. Como os demais cadastros, é exclusivo:
+     * as operações esperam o lote (não o disco).
+     */
+    @Override
+    public ResultadoCadastroLote cadastrarLote(List<CadastroLote> cadastros) {
+        Objects.requireNonNull(cadastros, "Lista de cadastros não pode ser nula");
+
+        BancoException[] falhas = new BancoException[cadastros.size()];
+        List<byte[]> registros = new ArrayList<>(falhas.length);
+        long sequencia;
+        ordemRegistro.writeLock().lock();
+        try {
+            verificarDiario();
+            for (int i = 0; i < falhas.length; i++) {
+                CadastroLote cadastro = cadastros.get(i);
+                try {
+                    if (cadastro.getTipo() == CadastroLote.Tipo.CLIENTE) {
+                        Cliente cliente = operacoes.cadastrarCliente(cadastro.getNome(), cadastro.getCpf());
+                        registros.add(RegistroDiario.cliente(cliente.getNome(), cliente.getCpf()));
+                    } else {
+                        Conta conta = operacoes.cadastrarConta(cadastro.getCpf(), cadastro.getTipoConta(),
+                                cadastro.getSaldoInicial());
+                        registros.add(registroConta(conta, cadastro.getSaldoInicial()));
+                    }
+                } catch (BancoException e) {
+                    falhas[i] = e;
+                }
+            }
+            sequencia = registros.isEmpty() ? SEM_REGISTRO : registrar(registros);
+        } finally {
+            ordemRegistro.writeLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+        return new ResultadoCadastroLote(falhas);
+    }
+
+    @Override
+    public double consultarSaldo(int numeroConta) throws ContaNaoEncontradaException {
+        return operacoes.consultarSaldo(numeroConta);
+    }
+
+    @Override
+    public int aplicarRendimentoPoupancas(double percentual) throws ValorInvalidoException {
+        return aplicarRendimentoPoupancas(percentual, ProgressoRendimento.NENHUM);
+    }
+
+    @Override
+    public int aplicarRendimentoPoupancas(double percentual, ProgressoRendimento progresso)
+            throws ValorInvalidoException {
+        int contasAtualizadas;
+        long sequencia;
+        ordemRegistro.writeLock().lock();
+        try {
+            verificarDiario();
+            contasAtualizadas = operacoes.aplicarRendimentoPoupancas(percentual, progresso);
+            sequencia = registrar(RegistroDiario.rendimento(percentual));
+        } finally {
+            ordemRegistro.writeLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+        return contasAtualizadas;
+    }
+
+    @Override
+    public ContasDoCliente consultarContasDoCliente(String cpf) throws ClienteNaoEncontradoException {
+        return operacoes.consultarContasDoCliente(cpf);
+    }
+
+    @Override
+    public List<Conta> listarContasOrdenadasPorSaldo() {
+        return operacoes.listarContasOrdenadasPorSaldo();
+    }
+
+    @Override
+    public List<Conta> listarContasOrdenadasPorSaldo(int inicio, int quantidade) {
+        return operacoes.listarContasOrdenadasPorSaldo(inicio, quantidade);
+    }
+
+    @Override
+    public int consultarPosicaoPorSaldo(int numeroConta) throws ContaNaoEncontradaException {
+        return operacoes.consultarPosicaoPorSaldo(numeroConta);
+    }
+
+    @Override
+    public List<Movimento> consultarExtrato(int numeroConta, int quantidade) throws ContaNaoEncontradaException {
+        return operacoes.consultarExtrato(numeroConta, quantidade);
+    }
+
+    @Override
+    public List<Movimento> consultarExtratoPorPeriodo(int numeroConta, long inicio, long fim)
+            throws ContaNaoEncontradaException {
+        return operacoes.consultarExtratoPorPeriodo(numeroConta, inicio, fim);
+    }
+
+    @Override
+    public List<Movimento> consultarExtratoPorSequencia(int numeroConta, long primeira, long ultima)
+            throws ContaNaoEncontradaException {
+        return operacoes.consultarExtratoPorSequencia(numeroConta, primeira, ultima);
+    }
+
+    @Override
+    public List<Cliente> listarClientes() {
+        return operacoes.listarClientes();
+    }
+
+    @Override
+    public IRepositorioContas getRepositorioContas() {
+        return operacoes.getRepositorioContas();
+    }
+
+    /**
+     * @return Cache que deduplica as operações com chave de idempotência
+     */
+    public CacheIdempotencia getCacheIdempotencia() {
+        return cacheIdempotencia;
+    }
+
+    /**
+     * Passa a registrar em um novo segmento de diário.
+     * Com a trava exclusiva, nenhuma operação está entre aplicação e registro:
+     * o corte entre segmentos nunca separa a criação de uma conta de seus movimentos.
+     *
+     * @param novoSegmento Caminho do novo segmento
+     * @throws IOException se a rotação falhar
+     */
+    public void rotacionarDiario(Path novoSegmento) throws IOException {
+        ordemRegistro.writeLock().lock();
+        try {
+            diario.rotacionar(novoSegmento);
+        } finally {
+            ordemRegistro.writeLock().unlock();
+        }
+    }
+
+    private StatusOperacao executarComChave(long chaveIdempotencia, OperacaoLote operacao) {
+        return cacheIdempotencia.executar(chaveIdempotencia, operacao,
+                () -> aplicarComChave(chaveIdempotencia, operacao));
+    }
+
+    /**
+     * Aplica a operação no serviço decorado (sem chave: a deduplicação é deste decorador)
+     * e registra a chave junto com o resultado, sob as mesmas travas das demais operações.
+     */
+    private StatusOperacao aplicarComChave(long chaveIdempotencia, OperacaoLote operacao) {
+        int numeroConta = operacao.getNumeroConta();
+        // Depósito e saque travam a mesma faixa duas vezes (reentrante)
+        int numeroOutraConta = operacao.getTipo() == OperacaoLote.Tipo.TRANSFERENCIA
+                ? operacao.getNumeroContaDestino()
+                : numeroConta;
+        StatusOperacao status;
+        long sequencia;
+        ordemRegistro.readLock().lock();
+        travarContas(numeroConta, numeroOutraConta);
+        try {
+            verificarDiario();
+            switch (operacao.getTipo()) {
+                case DEPOSITO:
+                    status = operacoes.tentarDepositar(numeroConta, operacao.getValor());
+                    break;
+                case SAQUE:
+                    status = operacoes.tentarSacar(numeroConta, operacao.getValor());
+                    break;
+                default:
+                    status = operacoes.tentarTransferir(numeroConta, numeroOutraConta, operacao.getValor());
+            }
+            sequencia = registrar(RegistroDiario.idempotencia(chaveIdempotencia, System.currentTimeMillis(),
+                    status, operacao));
+        } finally {
+            destravarContas(numeroConta, numeroOutraConta);
+            ordemRegistro.readLock().unlock();
+        }
+        aguardarDurabilidade(sequencia);
+        return status;
+    }
+
+    private ReentrantLock travaDaConta(int numeroConta) {
+        return travasContas[numeroConta & (QUANTIDADE_TRAVAS_CONTAS - 1)];
+    }
+
+    private ReentrantLock travarConta(int numeroConta) {
+        ReentrantLock trava = travaDaConta(numeroConta);
+        trava.lock();
+        return trava;
+    }
+
+    /**
+     * Trava as duas contas em ordem de faixa (sem impasse entre transferências opostas).
+     * Contas na mesma faixa travam a mesma trava duas vezes (reentrante).
+     */
+    private void travarContas(int numeroConta, int numeroOutraConta) {
+        int faixa = numeroConta & (QUANTIDADE_TRAVAS_CONTAS - 1);
+        int outraFaixa = numeroOutraConta & (QUANTIDADE_TRAVAS_CONTAS - 1);
+        travasContas[Math.min(faixa, outraFaixa)].lock();
+        travasContas[Math.max(faixa, outraFaixa)].lock();
+    }
+
+    private void destravarContas(int numeroConta, int numeroOutraConta) {
+        travaDaConta(numeroOutraConta).unlock();
+        travaDaConta(numeroConta).unlock();
+    }
+
+    private static BitSet travasDoLote(List<OperacaoLote> lote) {
+        BitSet travas = new BitSet(QUANTIDADE_TRAVAS_CONTAS);
+        for (OperacaoLote operacao : lote) {
+            travas.set(operacao.getNumeroConta() & (QUANTIDADE_TRAVAS_CONTAS - 1));
+            if (operacao.getTipo() == OperacaoLote.Tipo.TRANSFERENCIA) {
+                travas.set(operacao.getNumeroContaDestino() & (QUANTIDADE_TRAVAS_CONTAS - 1));
+            }
+        }
+        return travas;
+    }
+
+    /**
+     * Trava as faixas em ordem crescente, a mesma de {@link #travarContas(int, int)}.
+     */
+    private void travar(BitSet travas) {
+        for (int faixa = travas.nextSetBit(0); faixa >= 0; faixa = travas.nextSetBit(faixa + 1)) {
+            travasContas[faixa].lock();
+        }
+    }
+
+    private void destravar(BitSet travas) {
+        for (int faixa = travas.nextSetBit(0); faixa >= 0; faixa = travas.nextSetBit(faixa + 1)) {
+            travasContas[faixa].unlock();
+        }
+    }
+
+    /**
+     * Recusa a operação antes de aplicá-la se o diário já falhou.
+     */
+    private void verificarDiario() {
+        try {
+            diario.verificarDisponivel();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Operação recusada: diário indisponível", e);
+        }
+    }
+
+    private long registrar(byte[] registro) {
+        try {
+            return diario.anexar(registro);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao registrar operação no diário", e);
+        }
+    }
+
+    private long registrar(List<byte[]> registros) {
+        try {
+            return diario.anexar(registros);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao registrar lote no diário", e);
+        }
+    }
+
+    /**
+     * Registro de criação de conta, com tipo e CPF do titular já normalizados
+     * (o CPF informado pelo usuário pode conter pontuação).
+     */
+    private static byte[] registroConta(Conta conta, double saldoInicial) {
+        String tipoNormalizado = conta instanceof ContaPoupanca
+                ? Constantes.TIPO_CONTA_POUPANCA
+                : Constantes.TIPO_CONTA_CORRENTE;
+        return RegistroDiario.conta(conta.getNumero(), conta.getCliente().getCpf(),
+                tipoNormalizado, Centavos.deReais(saldoInicial));
+    }
+
+    private static List<byte[]> registrosDoLote(List<OperacaoLote> lote, ResultadoLote resultado) {
+        List<byte[]> registros = new ArrayList<>(resultado.getQuantidadeSucessos());
+        for (int i = 0; i < resultado.getQuantidade(); i++) {
+            if (!resultado.getStatus(i).isSucesso()) {
+                continue;
+            }
+            OperacaoLote operacao = lote.get(i);
+            long centavos = Centavos.deReais(operacao.getValor());
+            switch (operacao.getTipo()) {
+                case DEPOSITO:
+                    registros.add(RegistroDiario.deposito(operacao.getNumeroConta(), centavos));
+                    break;
+                case SAQUE:
+                    registros.add(RegistroDiario.saque(operacao.getNumeroConta(), centavos));
+                    break;
+                case TRANSFERENCIA:
+                    registros.add(RegistroDiario.transferencia(operacao.getNumeroConta(),
+                            operacao.getNumeroContaDestino(), centavos));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Tipo de operação não suportado: " + operacao.getTipo());
+            }
+        }
+        return registros;
+    }
+
+    private void aguardarDurabilidade(long sequencia) {
+        if (sequencia == SEM_REGISTRO) {
+            return;
+        }
+        try {
+            diario.aguardarDurabilidade(sequencia);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar diário em disco", e);
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package persistencia;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Diário (write-ahead log) binário e somente-anexação das mutações do banco.
+ * Boa Prática: Commit em grupo - registros anexados enquanto um fsync está em
+ * andamento são gravados juntos no próximo, com um único fsync por lote.
+ *
+ * Formato de cada registro: [int tamanho][int crc32][conteúdo].
+ * Programação Defensiva: só o fim do segmento ativo pode ter sido cortado por uma
+ * queda durante a gravação - um último registro incompleto, com CRC inválido ou
+ * seguido apenas de zeros é descartado na abertura. Qualquer outro registro inválido
+ * (no meio do arquivo, ou em um segmento já encerrado, que foi sincronizado antes da
+ * rotação) é corrupção: a reprodução falha com {@link DiarioCorrompidoException}
+ * em vez de pular registros em silêncio.
+ */
+public final class Diario implements Closeable {
+    private static final int TAMANHO_CABECALHO = 8;
+    private static final int TAMANHO_MAXIMO_REGISTRO = 1 << 20;
+    private static final int TAMANHO_BUFFER_LEITURA = 1 << 16;
+
+    private FileChannel canal;
+    private final ByteArrayOutputStream pendente;
+    private final DataOutputStream saidaPendente;
+    private final CRC32 crc;
+    private long sequenciaRegistrada;
+    private long sequenciaDuravel;
+    private boolean gravando;
+    private volatile IOException falha;
+
+    private Diario(FileChannel canal) {
+        this.canal = canal;
+        this.pendente = new ByteArrayOutputStream(TAMANHO_BUFFER_LEITURA);
+        this.saidaPendente = new DataOutputStream(pendente);
+        this.crc = new CRC32();
+    }
+
+    /**
+     * Abre (ou cria) o diário, reproduzindo os registros existentes no estado informado.
+     *
+     * @param arquivo Caminho do arquivo do diário
+     * @param estado Estado que recebe os registros reproduzidos
+     * @return Diário posicionado no fim do último registro válido
+     * @throws IOException se o arquivo não puder ser lido ou estiver corrompido
+     */
+    public static Diario abrir(Path arquivo, EstadoRecuperado estado) throws IOException {
+        FileChannel canal = FileChannel.open(arquivo,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long tamanhoValido = reproduzir(arquivo, canal, estado, true);
+            canal.truncate(tamanhoValido);
+            canal.position(tamanhoValido);
+            sincronizarDiretorio(arquivo);
+            return new Diario(canal);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reproduz um segmento de diário já encerrado, sem abri-lo para escrita.
+     *
+     * @param arquivo Caminho do segmento
+     * @param estado Estado que recebe os registros reproduzidos
+     * @throws IOException se o arquivo não puder ser lido
+     * @throws DiarioCorrompidoException se algum registro for inválido (inclusive o último)
+     */
+    static void reproduzir(Path arquivo, EstadoRecuperado estado) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            reproduzir(arquivo, canal, estado, false);
+        }
+    }
+
+    /**
+     * Lê registros do início do canal até o fim.
+     *
+     * @param segmentoAtivo true para aceitar um fim cortado por queda (ver a classe)
+     * @return Tamanho em bytes do prefixo válido
+     * @throws DiarioCorrompidoException se houver registro inválido fora do fim tolerado
+     */
+    private static long reproduzir(Path arquivo, FileChannel canal, EstadoRecuperado estado,
+                                   boolean segmentoAtivo) throws IOException {
+        long tamanhoArquivo = canal.size();
+        // Não fechar: fecharia também o canal
+        DataInputStream entrada = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(canal.position(0)), TAMANHO_BUFFER_LEITURA));
+        CRC32 crcLeitura = new CRC32();
+        byte[] conteudo = new byte[256];
+        long posicao = 0;
+        long registro = 0;
+
+        while (posicao < tamanhoArquivo) {
+            registro++;
+            long restante = tamanhoArquivo - posicao;
+            if (restante < TAMANHO_CABECALHO) {
+                return fimCortado(arquivo, segmentoAtivo, registro, posicao, "cabeçalho incompleto");
+            }
+            int tamanho = entrada.readInt();
+            int crcEsperado = entrada.readInt();
+            if (tamanho <= 0 || tamanho > TAMANHO_MAXIMO_REGISTRO) {
+                // Arquivo estendido pela queda antes de os dados chegarem: só zeros até o fim
+                if (segmentoAtivo && somenteZeros(canal, posicao, tamanhoArquivo)) {
+                    return posicao;
+                }
+                throw new DiarioCorrompidoException(arquivo, registro, posicao,
+                        "tamanho de registro inválido (" + tamanho + ")", null);
+            }
+            if (tamanho > restante - TAMANHO_CABECALHO) {
+                return fimCortado(arquivo, segmentoAtivo, registro, posicao, "registro incompleto");
+            }
+            if (conteudo.length < tamanho) {
+                conteudo = new byte[tamanho];
+            }
+            entrada.readFully(conteudo, 0, tamanho);
+
+            crcLeitura.reset();
+            crcLeitura.update(conteudo, 0, tamanho);
+            if ((int) crcLeitura.getValue() != crcEsperado) {
+                if (tamanho == restante - TAMANHO_CABECALHO) {
+                    return fimCortado(arquivo, segmentoAtivo, registro, posicao, "CRC inválido no último registro");
+                }
+                throw new DiarioCorrompidoException(arquivo, registro, posicao, "CRC inválido", null);
+            }
+
+            try {
+                RegistroDiario.aplicar(new DataInputStream(new ByteArrayInputStream(conteudo, 0, tamanho)), estado);
+            } catch (IOException e) {
+                throw new DiarioCorrompidoException(arquivo, registro, posicao, e.getMessage(), e);
+            }
+            posicao += TAMANHO_CABECALHO + tamanho;
+        }
+        return posicao;
+    }
+
+    /**
+     * Último registro cortado: descartado no segmento ativo, corrupção em segmento encerrado.
+     */
+    private static long fimCortado(Path arquivo, boolean segmentoAtivo, long registro, long posicao,
+                                   String motivo) throws DiarioCorrompidoException {
+        if (!segmentoAtivo) {
+            throw new DiarioCorrompidoException(arquivo, registro, posicao,
+                    motivo + " em segmento encerrado", null);
+        }
+        System.err.println("Diário: " + arquivo + ": " + motivo + " no byte " + posicao
+                + " (gravação interrompida), descartado");
+        return posicao;
+    }
+
+    private static boolean somenteZeros(FileChannel canal, long inicio, long fim) throws IOException {
+        ByteBuffer bloco = ByteBuffer.allocate(TAMANHO_BUFFER_LEITURA);
+        long posicao = inicio;
+        while (posicao < fim) {
+            bloco.clear();
+            int lidos = canal.read(bloco, posicao);
+            if (lidos <= 0) {
+                return false;
+            }
+            for (int i = 0; i < lidos; i++) {
+                if (bloco.get(i) != 0) {
+                    return false;
+                }
+            }
+            posicao += lidos;
+        }
+        return true;
+    }
+
+    /**
+     * Anexa um registro ao lote pendente (ainda não durável).
+     *
+     * @param registro Conteúdo do registro
+     * @return Número de sequência do registro, para {@link #aguardarDurabilidade(long)}
+     * @throws IOException se o diário já falhou anteriormente
+     */
+    public synchronized long anexar(byte[] registro) throws IOException {
+        verificarFalha();
+
+        crc.reset();
+        crc.update(registro);
+        saidaPendente.writeInt(registro.length);
+        saidaPendente.writeInt((int) crc.getValue());
+        saidaPendente.write(registro);
+
+        return ++sequenciaRegistrada;
+    }
+
+    /**
+     * Anexa vários registros com uma única aquisição da trava do diário.
+     *
+     * @param registros Conteúdo dos registros, na ordem
+     * @return Sequência do último registro (ou a atual, se a lista for vazia)
+     * @throws IOException se o diário já falhou anteriormente
+     */
+    public synchronized long anexar(List<byte[]> registros) throws IOException {
+        long sequencia = sequenciaRegistrada;
+        for (byte[] registro : registros) {
+            sequencia = anexar(registro);
+        }
+        return sequencia;
+    }
+
+    /**
+     * Bloqueia até que o registro de sequência informada esteja em disco.
+     * A primeira thread que encontra o diário ocioso grava e sincroniza todo o
+     * lote pendente; as demais aguardam e são liberadas pelo mesmo fsync.
+     *
+     * @param sequencia Sequência retornada por {@link #anexar(byte[])}
+     * @throws IOException se a gravação falhar
+     */
+    public void aguardarDurabilidade(long sequencia) throws IOException {
+        byte[] lote;
+        long ultimaSequenciaDoLote;
+
+        synchronized (this) {
+            while (sequenciaDuravel < sequencia && gravando) {
+                aguardar();
+            }
+            verificarFalha();
+            if (sequenciaDuravel >= sequencia) {
+                return;
+            }
+            // Esta thread lidera o próximo lote
+            gravando = true;
+            lote = pendente.toByteArray();
+            pendente.reset();
+            ultimaSequenciaDoLote = sequenciaRegistrada;
+        }
+
+        IOException erro = null;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(lote);
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        } catch (IOException e) {
+            erro = e;
+        }
+
+        synchronized (this) {
+            gravando = false;
+            if (erro == null) {
+                sequenciaDuravel = ultimaSequenciaDoLote;
+            } else {
+                falha = erro;
+            }
+            notifyAll();
+        }
+
+        if (erro != null) {
+            throw erro;
+        }
+    }
+
+    /**
+     * Encerra o arquivo atual e passa a anexar em um novo segmento.
+     * Os registros pendentes são gravados e sincronizados no segmento antigo,
+     * que depois disso não muda mais e pode ser compactado em segundo plano.
+     *
+     * @param novoArquivo Caminho do novo segmento (não pode existir)
+     * @throws IOException se a gravação ou a criação do novo segmento falhar
+     */
+    public synchronized void rotacionar(Path novoArquivo) throws IOException {
+        while (gravando) {
+            aguardar();
+        }
+        verificarFalha();
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(pendente.toByteArray());
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+            pendente.reset();
+            sequenciaDuravel = sequenciaRegistrada;
+
+            FileChannel novoCanal = FileChannel.open(novoArquivo,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            try {
+                // Sem isso um fsync no novo segmento não garante que o arquivo exista após uma queda
+                sincronizarDiretorio(novoArquivo);
+            } catch (IOException e) {
+                novoCanal.close();
+                throw e;
+            }
+            canal.close();
+            canal = novoCanal;
+        } catch (IOException e) {
+            falha = e;
+            throw e;
+        } finally {
+            notifyAll();
+        }
+    }
+
+    /**
+     * @return Sequência do último registro anexado (cresce também entre segmentos)
+     */
+    synchronized long getSequenciaRegistrada() {
+        return sequenciaRegistrada;
+    }
+
+    /**
+     * Torna duráveis as entradas do diretório do arquivo (criação, renomeação, remoção).
+     * Boa Prática: fsync do arquivo só cobre o conteúdo; a entrada que o nomeia fica
+     * no diretório e precisa do próprio fsync.
+     *
+     * @param arquivo Arquivo cujo diretório deve ser sincronizado
+     * @throws IOException se o diretório não puder ser sincronizado
+     */
+    static void sincronizarDiretorio(Path arquivo) throws IOException {
+        Path diretorio = arquivo.toAbsolutePath().getParent();
+        FileChannel canalDiretorio;
+        try {
+            canalDiretorio = FileChannel.open(diretorio, StandardOpenOption.READ);
+        } catch (IOException e) {
+            // Sistemas que não abrem diretórios (ex: Windows) já gravam as entradas junto com os metadados
+            return;
+        }
+        try (canalDiretorio) {
+            canalDiretorio.force(true);
+        }
+    }
+
+    /**
+     * Grava os registros pendentes e fecha o arquivo.
+     */
+    @Override
+    public void close() throws IOException {
+        long ultimaSequencia;
+        synchronized (this) {
+            ultimaSequencia = sequenciaRegistrada;
+        }
+        try {
+            aguardarDurabilidade(ultimaSequencia);
+        } finally {
+            canal.close();
+        }
+    }
+
+    /**
+     * Confere, sem a trava do diário, se ele ainda aceita registros.
+     * Chamado antes de aplicar uma operação em memória.
+     *
+     * @throws IOException se uma gravação anterior falhou
+     */
+    void verificarDisponivel() throws IOException {
+        verificarFalha();
+    }
+
+    private void verificarFalha() throws IOException {
+        if (falha != null) {
+            throw new IOException("Diário indisponível após falha de gravação", falha);
+        }
+    }
+
+    private void aguardar() throws InterruptedIOException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrompido aguardando gravação do diário");
+        }
+    }
+}
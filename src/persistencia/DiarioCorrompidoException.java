@@ -0,0 +1,32 @@
+package persistencia;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Dados persistidos que não podem ser reproduzidos com segurança: registro inválido
+ * fora do fim do segmento ativo, ou registro que leva o estado a algo impossível
+ * (ex: movimento de conta sem registro de criação, saldo negativo).
+ * Programação Defensiva: a abertura falha apontando o arquivo e o registro, em vez
+ * de adivinhar um estado "consistente" e gravá-lo por cima das evidências.
+ */
+public class DiarioCorrompidoException extends IOException {
+
+    /**
+     * @param mensagem Descrição da inconsistência
+     */
+    public DiarioCorrompidoException(String mensagem) {
+        super(mensagem);
+    }
+
+    /**
+     * @param arquivo Segmento ou snapshot lido
+     * @param registro Número do registro no arquivo (a partir de 1)
+     * @param posicao Posição do registro no arquivo, em bytes
+     * @param motivo Descrição da inconsistência
+     * @param causa Falha original (null se não houver)
+     */
+    public DiarioCorrompidoException(Path arquivo, long registro, long posicao, String motivo, Throwable causa) {
+        super(String.format("%s: registro %d (byte %d): %s", arquivo, registro, posicao, motivo), causa);
+    }
+}
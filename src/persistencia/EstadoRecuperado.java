@@ -0,0 +1,381 @@
+package persistencia;
+
+import constants.Constantes;
+import exception.BancoException;
+import exception.ClienteNaoEncontradoException;
+import factory.ContaFactory;
+import model.Cliente;
+import model.Conta;
+import model.ContaPoupanca;
+import repository.IRepositorioClientes;
+import repository.IRepositorioContas;
+import repository.IndiceLongo;
+import service.CacheIdempotencia;
+import service.StatusOperacao;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estado do banco reconstruído a partir do disco, antes de virar objetos de domínio.
+ * Boa Prática: Acumula saldos em centavos, na ordem do diário. O diário registra as
+ * operações de cada conta na ordem em que foram aplicadas (ver
+ * {@link BancoServicoPersistente}), então qualquer prefixo reproduzido é um histórico
+ * válido de cada conta.
+ *
+ * Memória: colunas primitivas, sem um objeto por conta - as contas são endereçadas
+ * pela linha {@code numero - NUMERO_CONTA_INICIAL} (números gerados em sequência),
+ * com saldo, CPF do titular (long) e tipo (byte): 17 bytes por conta. Clientes ficam
+ * em colunas na ordem de cadastro, indexados por CPF numa tabela primitiva. Textos
+ * e objetos de domínio só são criados por {@link #materializar}, um de cada vez.
+ * As chaves de idempotência também ficam em colunas, na ordem do diário; chaves
+ * mais antigas que a janela de idempotência (contada da criação do estado) nem
+ * são guardadas.
+ *
+ * Programação Defensiva: o diário registra a criação de clientes e contas antes de
+ * qualquer movimento, e cada saque ou débito só é registrado se havia saldo. Um
+ * registro que contrarie isso (conta sem registro de criação, titular desconhecido,
+ * saldo negativo) significa diário danificado ou com registros faltando: a
+ * reprodução falha com {@link DiarioCorrompidoException} nomeando a conta, e quem lê
+ * acrescenta o arquivo e o registro. Nada é corrigido nem gravado por cima.
+ */
+public final class EstadoRecuperado {
+    static final byte TIPO_CORRENTE = 1;
+    static final byte TIPO_POUPANCA = 2;
+    private static final byte TIPO_VAZIO = 0;
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    // Clientes, na ordem de cadastro
+    private long[] cpfsClientes;
+    private String[] nomesClientes;
+    private int quantidadeClientes;
+    private final IndiceLongo clientePorCpf;
+
+    // Contas, por linha
+    private long[] saldosCentavos;
+    private long[] cpfsTitulares;
+    private byte[] tipos;
+    private int quantidadeLinhas;
+    private int proximoNumeroConta;
+
+    // Chaves de idempotência, na ordem do diário
+    private final long limiteChavesMillis;
+    private long[] chaves;
+    private long[] instantesChaves;
+    private byte[] statusChaves;
+    private byte[] tiposChaves;
+    private int[] contasChaves;
+    private int[] destinosChaves;
+    private double[] valoresChaves;
+    private int quantidadeChaves;
+
+    public EstadoRecuperado() {
+        this.cpfsClientes = new long[CAPACIDADE_INICIAL];
+        this.nomesClientes = new String[CAPACIDADE_INICIAL];
+        this.clientePorCpf = new IndiceLongo();
+        this.saldosCentavos = new long[CAPACIDADE_INICIAL];
+        this.cpfsTitulares = new long[CAPACIDADE_INICIAL];
+        this.tipos = new byte[CAPACIDADE_INICIAL];
+        this.proximoNumeroConta = Constantes.NUMERO_CONTA_INICIAL;
+        this.limiteChavesMillis = System.currentTimeMillis()
+                - TimeUnit.MINUTES.toMillis(Constantes.JANELA_IDEMPOTENCIA_MINUTOS);
+        this.chaves = new long[CAPACIDADE_INICIAL];
+        this.instantesChaves = new long[CAPACIDADE_INICIAL];
+        this.statusChaves = new byte[CAPACIDADE_INICIAL];
+        this.tiposChaves = new byte[CAPACIDADE_INICIAL];
+        this.contasChaves = new int[CAPACIDADE_INICIAL];
+        this.destinosChaves = new int[CAPACIDADE_INICIAL];
+        this.valoresChaves = new double[CAPACIDADE_INICIAL];
+    }
+
+    void registrarCliente(String nome, String cpf) {
+        registrarCliente(nome, Long.parseLong(cpf));
+    }
+
+    void registrarCliente(String nome, long cpf) {
+        int indice = clientePorCpf.buscar(cpf);
+        if (indice != IndiceLongo.AUSENTE) {
+            nomesClientes[indice] = nome;
+            return;
+        }
+        if (quantidadeClientes == cpfsClientes.length) {
+            cpfsClientes = Arrays.copyOf(cpfsClientes, quantidadeClientes << 1);
+            nomesClientes = Arrays.copyOf(nomesClientes, quantidadeClientes << 1);
+        }
+        cpfsClientes[quantidadeClientes] = cpf;
+        nomesClientes[quantidadeClientes] = nome;
+        clientePorCpf.inserir(cpf, quantidadeClientes++);
+    }
+
+    void registrarConta(int numeroConta, String cpf, String tipoConta, long saldoInicialCentavos)
+            throws DiarioCorrompidoException {
+        registrarConta(numeroConta, Long.parseLong(cpf), codificarTipo(tipoConta), saldoInicialCentavos);
+    }
+
+    void registrarConta(int numeroConta, long cpf, byte tipo, long saldoInicialCentavos)
+            throws DiarioCorrompidoException {
+        int linha = linhaDe(numeroConta);
+        if (tipos[linha] != TIPO_VAZIO) {
+            throw new DiarioCorrompidoException("Conta " + numeroConta + " criada duas vezes");
+        }
+        if (clientePorCpf.buscar(cpf) == IndiceLongo.AUSENTE) {
+            throw new DiarioCorrompidoException("Conta " + numeroConta + " de titular sem registro de cadastro ("
+                    + cpfTexto(cpf) + ")");
+        }
+        if (saldoInicialCentavos < 0) {
+            throw new DiarioCorrompidoException("Conta " + numeroConta + " com saldo inicial negativo ("
+                    + saldoInicialCentavos + " centavos)");
+        }
+        cpfsTitulares[linha] = cpf;
+        tipos[linha] = tipo;
+        saldosCentavos[linha] += saldoInicialCentavos;
+        proximoNumeroConta = Math.max(proximoNumeroConta, numeroConta + 1);
+    }
+
+    void registrarProximoNumeroConta(int numeroConta) {
+        proximoNumeroConta = Math.max(proximoNumeroConta, numeroConta);
+    }
+
+    void creditar(int numeroConta, long centavos) throws DiarioCorrompidoException {
+        saldosCentavos[linhaMovimentada(numeroConta)] += centavos;
+    }
+
+    void debitar(int numeroConta, long centavos) throws DiarioCorrompidoException {
+        int linha = linhaMovimentada(numeroConta);
+        long saldo = saldosCentavos[linha] - centavos;
+        if (saldo < 0) {
+            throw new DiarioCorrompidoException("Débito de " + centavos + " centavos deixaria a conta "
+                    + numeroConta + " com saldo negativo (" + saldo + " centavos)");
+        }
+        saldosCentavos[linha] = saldo;
+    }
+
+    /**
+     * Aplica rendimento a todas as poupanças conhecidas até este ponto.
+     * O rendimento é registrado com exclusividade, então todas as contas
+     * afetadas em memória já aparecem antes dele no diário.
+     */
+    void aplicarRendimento(double percentual) {
+        for (int linha = 0; linha < quantidadeLinhas; linha++) {
+            if (tipos[linha] == TIPO_POUPANCA) {
+                saldosCentavos[linha] += ContaPoupanca.calcularRendimentoCentavos(saldosCentavos[linha], percentual);
+            }
+        }
+    }
+
+    /**
+     * Guarda uma chave de idempotência usada (o efeito da operação já foi aplicado por quem chama).
+     *
+     * @param tipo {@link RegistroDiario#DEPOSITO}, {@link RegistroDiario#SAQUE} ou
+     *             {@link RegistroDiario#TRANSFERENCIA}
+     */
+    void registrarChave(long chave, long instanteMillis, StatusOperacao status, byte tipo,
+                        int numeroConta, int numeroContaDestino, double valor) {
+        if (instanteMillis <= limiteChavesMillis) {
+            return;
+        }
+        if (quantidadeChaves == chaves.length) {
+            int capacidade = quantidadeChaves << 1;
+            chaves = Arrays.copyOf(chaves, capacidade);
+            instantesChaves = Arrays.copyOf(instantesChaves, capacidade);
+            statusChaves = Arrays.copyOf(statusChaves, capacidade);
+            tiposChaves = Arrays.copyOf(tiposChaves, capacidade);
+            contasChaves = Arrays.copyOf(contasChaves, capacidade);
+            destinosChaves = Arrays.copyOf(destinosChaves, capacidade);
+            valoresChaves = Arrays.copyOf(valoresChaves, capacidade);
+        }
+        chaves[quantidadeChaves] = chave;
+        instantesChaves[quantidadeChaves] = instanteMillis;
+        statusChaves[quantidadeChaves] = (byte) status.ordinal();
+        tiposChaves[quantidadeChaves] = tipo;
+        contasChaves[quantidadeChaves] = numeroConta;
+        destinosChaves[quantidadeChaves] = numeroContaDestino;
+        valoresChaves[quantidadeChaves] = valor;
+        quantidadeChaves++;
+    }
+
+    /**
+     * Devolve ao cache as chaves recuperadas, na ordem em que foram usadas, para que
+     * um reenvio depois do reinício não aplique a operação de novo.
+     *
+     * @param cache Cache de idempotência do serviço (ainda sem requisições)
+     * @param agoraMillis Instante atual; a idade de cada chave é contada a partir dele
+     */
+    public void restaurarChaves(CacheIdempotencia cache, long agoraMillis) {
+        for (int i = 0; i < quantidadeChaves; i++) {
+            try {
+                cache.restaurar(chaves[i],
+                        RegistroDiario.operacao(tiposChaves[i], contasChaves[i], destinosChaves[i], valoresChaves[i]),
+                        RegistroDiario.status(statusChaves[i]),
+                        agoraMillis - instantesChaves[i]);
+            } catch (IOException e) {
+                // Tipo e status já foram validados na leitura do diário ou do snapshot
+                throw new IllegalStateException("Chave de idempotência inválida no estado recuperado", e);
+            }
+        }
+    }
+
+    /**
+     * Popula os repositórios com o estado recuperado, uma conta por vez.
+     *
+     * @param repositorioClientes Repositório de clientes (vazio)
+     * @param repositorioContas Repositório de contas (vazio)
+     * @return Próximo número de conta a ser gerado
+     * @throws BancoException se o estado recuperado for inconsistente
+     */
+    public int materializar(IRepositorioClientes repositorioClientes,
+                            IRepositorioContas repositorioContas) throws BancoException {
+        Cliente[] clientes = new Cliente[quantidadeClientes];
+        for (int i = 0; i < quantidadeClientes; i++) {
+            clientes[i] = new Cliente(nomesClientes[i], cpfTexto(cpfsClientes[i]));
+            repositorioClientes.adicionar(clientes[i]);
+        }
+
+        for (int linha = 0; linha < quantidadeLinhas; linha++) {
+            byte tipo = tipos[linha];
+            if (tipo == TIPO_VAZIO) {
+                continue;
+            }
+            int numeroConta = Constantes.NUMERO_CONTA_INICIAL + linha;
+            int indiceCliente = clientePorCpf.buscar(cpfsTitulares[linha]);
+            if (indiceCliente == IndiceLongo.AUSENTE) {
+                throw new ClienteNaoEncontradoException(cpfTexto(cpfsTitulares[linha]));
+            }
+            Conta conta = ContaFactory.criarConta(numeroConta, clientes[indiceCliente],
+                    tipo == TIPO_POUPANCA ? Constantes.TIPO_CONTA_POUPANCA : Constantes.TIPO_CONTA_CORRENTE,
+                    Constantes.SALDO_MINIMO);
+            conta.restaurarSaldoCentavos(saldosCentavos[linha]);
+            repositorioContas.adicionar(conta);
+        }
+        return proximoNumeroConta;
+    }
+
+    // ========== LEITURA PARA O SNAPSHOT ==========
+
+    int getQuantidadeClientes() {
+        return quantidadeClientes;
+    }
+
+    String getNomeCliente(int indice) {
+        return nomesClientes[indice];
+    }
+
+    long getCpfCliente(int indice) {
+        return cpfsClientes[indice];
+    }
+
+    /**
+     * @return Quantidade de linhas de conta percorríveis (vazias incluídas)
+     */
+    int getQuantidadeLinhas() {
+        return quantidadeLinhas;
+    }
+
+    /**
+     * @return Quantidade de contas com registro de criação
+     */
+    int getQuantidadeContas() {
+        int quantidade = 0;
+        for (int linha = 0; linha < quantidadeLinhas; linha++) {
+            if (tipos[linha] > TIPO_VAZIO) {
+                quantidade++;
+            }
+        }
+        return quantidade;
+    }
+
+    /**
+     * @return {@link #TIPO_CORRENTE}, {@link #TIPO_POUPANCA}, ou outro valor para linha sem conta válida
+     */
+    byte getTipo(int linha) {
+        return tipos[linha];
+    }
+
+    long getCpfTitular(int linha) {
+        return cpfsTitulares[linha];
+    }
+
+    long getSaldoCentavos(int linha) {
+        return saldosCentavos[linha];
+    }
+
+    int getProximoNumeroConta() {
+        return proximoNumeroConta;
+    }
+
+    int getQuantidadeChaves() {
+        return quantidadeChaves;
+    }
+
+    long getChave(int indice) {
+        return chaves[indice];
+    }
+
+    long getInstanteChave(int indice) {
+        return instantesChaves[indice];
+    }
+
+    byte getStatusChave(int indice) {
+        return statusChaves[indice];
+    }
+
+    byte getTipoChave(int indice) {
+        return tiposChaves[indice];
+    }
+
+    int getContaChave(int indice) {
+        return contasChaves[indice];
+    }
+
+    int getDestinoChave(int indice) {
+        return destinosChaves[indice];
+    }
+
+    double getValorChave(int indice) {
+        return valoresChaves[indice];
+    }
+
+    static String cpfTexto(long cpf) {
+        return String.format("%0" + Constantes.CPF_TAMANHO + "d", cpf);
+    }
+
+    private static byte codificarTipo(String tipoConta) {
+        if (Constantes.TIPO_CONTA_CORRENTE.equals(tipoConta)) {
+            return TIPO_CORRENTE;
+        }
+        if (Constantes.TIPO_CONTA_POUPANCA.equals(tipoConta)) {
+            return TIPO_POUPANCA;
+        }
+        throw new IllegalArgumentException("Tipo de conta desconhecido no estado recuperado: " + tipoConta);
+    }
+
+    /**
+     * Linha de um movimento, que só pode ser de conta já criada.
+     */
+    private int linhaMovimentada(int numeroConta) throws DiarioCorrompidoException {
+        int linha = numeroConta - Constantes.NUMERO_CONTA_INICIAL;
+        if (linha < 0 || linha >= quantidadeLinhas || tipos[linha] == TIPO_VAZIO) {
+            throw new DiarioCorrompidoException("Movimento da conta " + numeroConta + " sem registro de criação");
+        }
+        return linha;
+    }
+
+    /**
+     * Linha da conta, aumentando as colunas se necessário.
+     */
+    private int linhaDe(int numeroConta) {
+        int linha = numeroConta - Constantes.NUMERO_CONTA_INICIAL;
+        if (linha < 0) {
+            throw new IllegalArgumentException("Número de conta inválido no estado recuperado: " + numeroConta);
+        }
+        if (linha >= saldosCentavos.length) {
+            int capacidade = Math.max(linha + 1, saldosCentavos.length << 1);
+            saldosCentavos = Arrays.copyOf(saldosCentavos, capacidade);
+            cpfsTitulares = Arrays.copyOf(cpfsTitulares, capacidade);
+            tipos = Arrays.copyOf(tipos, capacidade);
+        }
+        quantidadeLinhas = Math.max(quantidadeLinhas, linha + 1);
+        return linha;
+    }
+}
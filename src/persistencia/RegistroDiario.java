@@ -0,0 +1,239 @@
+package persistencia;
+
+import model.Centavos;
+import service.OperacaoLote;
+import service.StatusOperacao;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Formato binário dos registros do diário.
+ * Cada registro começa com o byte de tipo, seguido dos campos da operação.
+ * Valores monetários são gravados em centavos (long).
+ *
+ * Operações com chave de idempotência viram um único registro {@link #IDEMPOTENCIA}
+ * com a chave, o resultado e a operação: o efeito e a chave chegam juntos ao disco,
+ * e a reprodução devolve a chave ao cache (ver {@link EstadoRecuperado#restaurarChaves}).
+ * O valor dessas operações é gravado como informado (double), para que um reenvio
+ * depois do reinício descreva exatamente a mesma operação.
+ */
+final class RegistroDiario {
+    static final byte CLIENTE = 1;
+    static final byte CONTA = 2;
+    static final byte DEPOSITO = 3;
+    static final byte SAQUE = 4;
+    static final byte TRANSFERENCIA = 5;
+    static final byte RENDIMENTO = 6;
+    static final byte IDEMPOTENCIA = 7;
+
+    /**
+     * Construtor privado para prevenir instanciação.
+     */
+    private RegistroDiario() {
+        throw new AssertionError("Classe RegistroDiario não deve ser instanciada");
+    }
+
+    static byte[] cliente(String nome, String cpf) {
+        return codificar(saida -> {
+            saida.writeByte(CLIENTE);
+            saida.writeUTF(nome);
+            saida.writeUTF(cpf);
+        });
+    }
+
+    static byte[] conta(int numeroConta, String cpf, String tipoConta, long saldoInicialCentavos) {
+        return codificar(saida -> {
+            saida.writeByte(CONTA);
+            saida.writeInt(numeroConta);
+            saida.writeUTF(cpf);
+            saida.writeUTF(tipoConta);
+            saida.writeLong(saldoInicialCentavos);
+        });
+    }
+
+    static byte[] deposito(int numeroConta, long centavos) {
+        return codificar(saida -> {
+            saida.writeByte(DEPOSITO);
+            saida.writeInt(numeroConta);
+            saida.writeLong(centavos);
+        });
+    }
+
+    static byte[] saque(int numeroConta, long centavos) {
+        return codificar(saida -> {
+            saida.writeByte(SAQUE);
+            saida.writeInt(numeroConta);
+            saida.writeLong(centavos);
+        });
+    }
+
+    static byte[] transferencia(int numeroContaOrigem, int numeroContaDestino, long centavos) {
+        return codificar(saida -> {
+            saida.writeByte(TRANSFERENCIA);
+            saida.writeInt(numeroContaOrigem);
+            saida.writeInt(numeroContaDestino);
+            saida.writeLong(centavos);
+        });
+    }
+
+    static byte[] rendimento(double percentual) {
+        return codificar(saida -> {
+            saida.writeByte(RENDIMENTO);
+            saida.writeDouble(percentual);
+        });
+    }
+
+    /**
+     * Operação executada com chave de idempotência, com seu resultado.
+     * Falhas também são registradas: o reenvio depois do reinício recebe a mesma falha.
+     */
+    static byte[] idempotencia(long chave, long instanteMillis, StatusOperacao status, OperacaoLote operacao) {
+        return codificar(saida -> {
+            saida.writeByte(IDEMPOTENCIA);
+            saida.writeLong(chave);
+            saida.writeLong(instanteMillis);
+            // A ordem do enum faz parte do formato: novos status só no final
+            saida.writeByte(status.ordinal());
+            saida.writeByte(tipoMovimento(operacao.getTipo()));
+            saida.writeInt(operacao.getNumeroConta());
+            saida.writeInt(operacao.getNumeroContaDestino());
+            saida.writeDouble(operacao.getValor());
+        });
+    }
+
+    /**
+     * Operação descrita por uma chave recuperada.
+     *
+     * @throws IOException se o tipo não for de movimento
+     */
+    static OperacaoLote operacao(byte tipo, int numeroConta, int numeroContaDestino, double valor)
+            throws IOException {
+        switch (tipo) {
+            case DEPOSITO:
+                return OperacaoLote.deposito(numeroConta, valor);
+            case SAQUE:
+                return OperacaoLote.saque(numeroConta, valor);
+            case TRANSFERENCIA:
+                return OperacaoLote.transferencia(numeroConta, numeroContaDestino, valor);
+            default:
+                throw new IOException("Tipo de operação desconhecido na chave de idempotência: " + tipo);
+        }
+    }
+
+    /**
+     * @throws IOException se o tipo não for de movimento
+     */
+    static byte validarTipoOperacao(byte tipo) throws IOException {
+        if (tipo != DEPOSITO && tipo != SAQUE && tipo != TRANSFERENCIA) {
+            throw new IOException("Tipo de operação desconhecido na chave de idempotência: " + tipo);
+        }
+        return tipo;
+    }
+
+    /**
+     * @throws IOException se o código não corresponder a um status
+     */
+    static StatusOperacao status(byte codigo) throws IOException {
+        StatusOperacao[] status = StatusOperacao.values();
+        if (codigo < 0 || codigo >= status.length) {
+            throw new IOException("Status desconhecido na chave de idempotência: " + codigo);
+        }
+        return status[codigo];
+    }
+
+    /**
+     * Decodifica um registro e aplica seu efeito ao estado em recuperação.
+     *
+     * @param entrada Conteúdo de um registro (já verificado pelo CRC)
+     * @param estado Estado em recuperação
+     * @throws IOException se o registro estiver malformado
+     */
+    static void aplicar(DataInput entrada, EstadoRecuperado estado) throws IOException {
+        byte tipo = entrada.readByte();
+        switch (tipo) {
+            case CLIENTE:
+                estado.registrarCliente(entrada.readUTF(), entrada.readUTF());
+                break;
+            case CONTA:
+                estado.registrarConta(entrada.readInt(), entrada.readUTF(), entrada.readUTF(), entrada.readLong());
+                break;
+            case DEPOSITO:
+                estado.creditar(entrada.readInt(), entrada.readLong());
+                break;
+            case SAQUE:
+                estado.debitar(entrada.readInt(), entrada.readLong());
+                break;
+            case TRANSFERENCIA:
+                int origem = entrada.readInt();
+                int destino = entrada.readInt();
+                long centavos = entrada.readLong();
+                estado.debitar(origem, centavos);
+                estado.creditar(destino, centavos);
+                break;
+            case RENDIMENTO:
+                estado.aplicarRendimento(entrada.readDouble());
+                break;
+            case IDEMPOTENCIA:
+                aplicarComChave(entrada, estado);
+                break;
+            default:
+                throw new IOException("Tipo de registro desconhecido no diário: " + tipo);
+        }
+    }
+
+    private static void aplicarComChave(DataInput entrada, EstadoRecuperado estado) throws IOException {
+        long chave = entrada.readLong();
+        long instanteMillis = entrada.readLong();
+        StatusOperacao status = status(entrada.readByte());
+        byte tipo = validarTipoOperacao(entrada.readByte());
+        int numeroConta = entrada.readInt();
+        int numeroContaDestino = entrada.readInt();
+        double valor = entrada.readDouble();
+
+        if (status.isSucesso()) {
+            long centavos = Centavos.deReais(valor);
+            if (tipo == DEPOSITO) {
+                estado.creditar(numeroConta, centavos);
+            } else if (tipo == SAQUE) {
+                estado.debitar(numeroConta, centavos);
+            } else {
+                estado.debitar(numeroConta, centavos);
+                estado.creditar(numeroContaDestino, centavos);
+            }
+        }
+        estado.registrarChave(chave, instanteMillis, status, tipo, numeroConta, numeroContaDestino, valor);
+    }
+
+    private static byte tipoMovimento(OperacaoLote.Tipo tipo) {
+        switch (tipo) {
+            case DEPOSITO:
+                return DEPOSITO;
+            case SAQUE:
+                return SAQUE;
+            case TRANSFERENCIA:
+                return TRANSFERENCIA;
+            default:
+                throw new IllegalArgumentException("Tipo de operação não suportado: " + tipo);
+        }
+    }
+
+    private static byte[] codificar(Escrita escrita) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream saida = new DataOutputStream(bytes)) {
+            escrita.escrever(saida);
+        } catch (IOException e) {
+            // ByteArrayOutputStream não lança IOException
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface Escrita {
+        void escrever(DataOutputStream saida) throws IOException;
+    }
+}
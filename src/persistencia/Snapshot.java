@@ -0,0 +1,173 @@
+package persistencia;
+
+import constants.Constantes;
+import service.StatusOperacao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Snapshot binário compacto do estado do banco.
+ * Boa Prática: CPF gravado como long e tipo de conta como byte, as mesmas colunas
+ * de {@link EstadoRecuperado}; CRC32 ao final detecta arquivo corrompido.
+ *
+ * Formato: [magico][versao][ultimo segmento incluído][próximo número de conta]
+ * [qtd clientes]{nome, cpf} [qtd contas]{número, cpf, tipo, saldo em centavos}
+ * [qtd chaves]{chave, instante, status, tipo, conta, destino, valor} [crc32].
+ * A seção de chaves de idempotência existe a partir da versão 2; a versão 1
+ * (sem chaves) continua sendo lida.
+ */
+final class Snapshot {
+    private static final int MAGICO = 0x42414E43; // "BANC"
+    private static final int VERSAO = 2;
+    private static final int VERSAO_SEM_CHAVES = 1;
+    private static final int TAMANHO_BUFFER = 1 << 16;
+
+    /**
+     * Construtor privado para prevenir instanciação.
+     */
+    private Snapshot() {
+        throw new AssertionError("Classe Snapshot não deve ser instanciada");
+    }
+
+    /**
+     * Carrega o snapshot no estado informado.
+     *
+     * @param arquivo Caminho do snapshot
+     * @param estado Estado (vazio) que recebe o conteúdo
+     * @return Último segmento de diário incluído no snapshot, ou 0 se não houver snapshot
+     * @throws IOException se o arquivo estiver corrompido ou for de outra versão
+     */
+    static long ler(Path arquivo, EstadoRecuperado estado) throws IOException {
+        if (!Files.exists(arquivo)) {
+            return 0L;
+        }
+
+        try (InputStream bruto = new BufferedInputStream(Files.newInputStream(arquivo), TAMANHO_BUFFER)) {
+            CheckedInputStream verificado = new CheckedInputStream(bruto, new CRC32());
+            DataInputStream entrada = new DataInputStream(verificado);
+
+            if (entrada.readInt() != MAGICO) {
+                throw new IOException("Arquivo de snapshot inválido: " + arquivo);
+            }
+            int versao = entrada.readInt();
+            if (versao != VERSAO && versao != VERSAO_SEM_CHAVES) {
+                throw new IOException("Versão de snapshot não suportada (" + versao + "): " + arquivo);
+            }
+            long ultimoSegmento = entrada.readLong();
+            estado.registrarProximoNumeroConta(entrada.readInt());
+
+            int quantidadeClientes = entrada.readInt();
+            for (int i = 0; i < quantidadeClientes; i++) {
+                String nome = entrada.readUTF();
+                estado.registrarCliente(nome, entrada.readLong());
+            }
+
+            int quantidadeContas = entrada.readInt();
+            for (int i = 0; i < quantidadeContas; i++) {
+                int numeroConta = entrada.readInt();
+                long cpf = entrada.readLong();
+                byte tipo = validarTipo(entrada.readByte());
+                try {
+                    estado.registrarConta(numeroConta, cpf, tipo, entrada.readLong());
+                } catch (DiarioCorrompidoException e) {
+                    throw new DiarioCorrompidoException(arquivo + ": " + e.getMessage());
+                }
+            }
+
+            if (versao != VERSAO_SEM_CHAVES) {
+                int quantidadeChaves = entrada.readInt();
+                for (int i = 0; i < quantidadeChaves; i++) {
+                    long chave = entrada.readLong();
+                    long instante = entrada.readLong();
+                    StatusOperacao status = RegistroDiario.status(entrada.readByte());
+                    byte tipo = RegistroDiario.validarTipoOperacao(entrada.readByte());
+                    int numeroConta = entrada.readInt();
+                    int numeroContaDestino = entrada.readInt();
+                    double valor = entrada.readDouble();
+                    estado.registrarChave(chave, instante, status, tipo, numeroConta, numeroContaDestino, valor);
+                }
+            }
+
+            int crcCalculado = (int) verificado.getChecksum().getValue();
+            if (new DataInputStream(bruto).readInt() != crcCalculado) {
+                throw new IOException("Snapshot corrompido (CRC inválido): " + arquivo);
+            }
+            return ultimoSegmento;
+        }
+    }
+
+    /**
+     * Grava o estado em disco e sincroniza o arquivo.
+     *
+     * @param arquivo Caminho de destino (normalmente temporário, renomeado depois)
+     * @param estado Estado a gravar
+     * @param ultimoSegmento Último segmento de diário incluído no estado
+     * @throws IOException se a gravação falhar
+     */
+    static void gravar(Path arquivo, EstadoRecuperado estado, long ultimoSegmento) throws IOException {
+        try (FileOutputStream arquivoSaida = new FileOutputStream(arquivo.toFile())) {
+            BufferedOutputStream bruto = new BufferedOutputStream(arquivoSaida, TAMANHO_BUFFER);
+            CheckedOutputStream verificado = new CheckedOutputStream(bruto, new CRC32());
+            DataOutputStream saida = new DataOutputStream(verificado);
+
+            saida.writeInt(MAGICO);
+            saida.writeInt(VERSAO);
+            saida.writeLong(ultimoSegmento);
+            saida.writeInt(estado.getProximoNumeroConta());
+
+            saida.writeInt(estado.getQuantidadeClientes());
+            for (int i = 0; i < estado.getQuantidadeClientes(); i++) {
+                saida.writeUTF(estado.getNomeCliente(i));
+                saida.writeLong(estado.getCpfCliente(i));
+            }
+
+            // Só contas com registro de criação (as demais já foram descartadas)
+            saida.writeInt(estado.getQuantidadeContas());
+            for (int linha = 0; linha < estado.getQuantidadeLinhas(); linha++) {
+                byte tipo = estado.getTipo(linha);
+                if (tipo != EstadoRecuperado.TIPO_CORRENTE && tipo != EstadoRecuperado.TIPO_POUPANCA) {
+                    continue;
+                }
+                saida.writeInt(Constantes.NUMERO_CONTA_INICIAL + linha);
+                saida.writeLong(estado.getCpfTitular(linha));
+                saida.writeByte(tipo);
+                saida.writeLong(estado.getSaldoCentavos(linha));
+            }
+
+            // Só chaves ainda dentro da janela (as antigas não foram guardadas no estado)
+            saida.writeInt(estado.getQuantidadeChaves());
+            for (int i = 0; i < estado.getQuantidadeChaves(); i++) {
+                saida.writeLong(estado.getChave(i));
+                saida.writeLong(estado.getInstanteChave(i));
+                saida.writeByte(estado.getStatusChave(i));
+                saida.writeByte(estado.getTipoChave(i));
+                saida.writeInt(estado.getContaChave(i));
+                saida.writeInt(estado.getDestinoChave(i));
+                saida.writeDouble(estado.getValorChave(i));
+            }
+
+            saida.flush();
+            new DataOutputStream(bruto).writeInt((int) verificado.getChecksum().getValue());
+            bruto.flush();
+            arquivoSaida.getFD().sync();
+        }
+    }
+
+    private static byte validarTipo(byte tipo) throws IOException {
+        if (tipo != EstadoRecuperado.TIPO_CORRENTE && tipo != EstadoRecuperado.TIPO_POUPANCA) {
+            throw new IOException("Tipo de conta desconhecido no snapshot: " + tipo);
+        }
+        return tipo;
+    }
+}
@@ -0,0 +1,243 @@
+package rede;
+
+import exception.ContaNaoEncontradaException;
+import model.Centavos;
+import service.IOperacoesBancarias;
+import service.StatusOperacao;
+
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+/**
+ * Protocolo binário compacto do servidor: quadros com prefixo de tamanho.
+ * Boa Prática: Codificação direta de/para {@link ByteBuffer}, sem String nem objeto
+ * intermediário por mensagem; campos de tamanho fixo (big-endian).
+ *
+ * Requisição: {@code int tamanho | byte opcode | int id | argumentos}.
+ * Resposta: {@code int tamanho | byte status | int id | resultado}.
+ * O tamanho conta os bytes após o próprio prefixo. O {@code id} é escolhido pelo
+ * cliente e devolvido na resposta; as respostas saem na ordem das requisições,
+ * então o cliente pode enviar várias sem esperar (pipelining).
+ * <pre>
+ * PING                                                        -> (vazio)
+ * DEPOSITAR     int conta, long centavos                      -> (vazio)
+ * SACAR         int conta, long centavos                      -> (vazio)
+ * TRANSFERIR    int origem, int destino, long cts             -> (vazio)
+ * SALDO         int conta                                     -> long centavos
+ * DEPOSITAR_ID  long chave, int conta, long centavos          -> (vazio)
+ * SACAR_ID      long chave, int conta, long centavos          -> (vazio)
+ * TRANSFERIR_ID long chave, int origem, int destino, long cts -> (vazio)
+ * </pre>
+ * As variantes {@code _ID} são idempotentes: um reenvio com a mesma chave recebe o
+ * status original sem aplicar a operação de novo.
+ */
+public final class ProtocoloBinario {
+    // Opcodes
+    public static final byte OP_PING = 1;
+    public static final byte OP_DEPOSITAR = 2;
+    public static final byte OP_SACAR = 3;
+    public static final byte OP_TRANSFERIR = 4;
+    public static final byte OP_SALDO = 5;
+    public static final byte OP_DEPOSITAR_ID = 6;
+    public static final byte OP_SACAR_ID = 7;
+    public static final byte OP_TRANSFERIR_ID = 8;
+
+    // Status das respostas
+    public static final byte STATUS_SUCESSO = 0;
+    public static final byte STATUS_CONTA_NAO_ENCONTRADA = 1;
+    public static final byte STATUS_VALOR_INVALIDO = 2;
+    public static final byte STATUS_SALDO_INSUFICIENTE = 3;
+    public static final byte STATUS_CONTAS_IGUAIS = 4;
+    public static final byte STATUS_REQUISICAO_INVALIDA = 5;
+    public static final byte STATUS_COMANDO_DESCONHECIDO = 6;
+    public static final byte STATUS_CHAVE_REUTILIZADA = 7;
+
+    /** Bytes do prefixo de tamanho. */
+    public static final int TAMANHO_PREFIXO = Integer.BYTES;
+    /** Bytes de opcode/status e id, presentes em todo quadro. */
+    public static final int TAMANHO_CABECALHO = Byte.BYTES + Integer.BYTES;
+    /** Maior quadro de requisição aceito, prefixo incluído (TRANSFERIR_ID). */
+    public static final int TAMANHO_MAXIMO_REQUISICAO =
+            TAMANHO_PREFIXO + TAMANHO_CABECALHO + 2 * Integer.BYTES + 2 * Long.BYTES;
+    /** Maior quadro de resposta, prefixo incluído (SALDO). */
+    public static final int TAMANHO_MAXIMO_RESPOSTA = TAMANHO_PREFIXO + TAMANHO_CABECALHO + Long.BYTES;
+
+    private final IOperacoesBancarias operacoes;
+
+    /**
+     * @param operacoes Operações expostas pelo protocolo
+     */
+    public ProtocoloBinario(IOperacoesBancarias operacoes) {
+        this.operacoes = Objects.requireNonNull(operacoes, "Operações bancárias não podem ser nulas");
+    }
+
+    /**
+     * Verifica se há um quadro inteiro a partir da posição atual (sem consumir bytes).
+     *
+     * @param entrada Buffer em modo de leitura
+     * @return true se o próximo quadro já foi todo recebido
+     * @throws ProtocolException se o prefixo de tamanho for impossível (fluxo dessincronizado)
+     */
+    public static boolean possuiQuadroCompleto(ByteBuffer entrada) throws ProtocolException {
+        if (entrada.remaining() < TAMANHO_PREFIXO) {
+            return false;
+        }
+        int tamanho = entrada.getInt(entrada.position());
+        if (tamanho < TAMANHO_CABECALHO || tamanho > TAMANHO_MAXIMO_REQUISICAO - TAMANHO_PREFIXO) {
+            throw new ProtocolException("Tamanho de quadro inválido: " + tamanho);
+        }
+        return entrada.remaining() >= TAMANHO_PREFIXO + tamanho;
+    }
+
+    /**
+     * Consome um quadro de requisição e escreve a resposta.
+     * Programação Defensiva: quadro com argumentos de tamanho errado é pulado por
+     * inteiro e respondido com {@link #STATUS_REQUISICAO_INVALIDA}, sem perder o sincronismo.
+     *
+     * @param entrada Buffer em modo de leitura com um quadro completo ({@link #possuiQuadroCompleto})
+     * @param saida Buffer em modo de escrita com ao menos {@link #TAMANHO_MAXIMO_RESPOSTA} livres
+     */
+    public void executar(ByteBuffer entrada, ByteBuffer saida) {
+        int tamanho = entrada.getInt();
+        int fim = entrada.position() + tamanho;
+        byte opcode = entrada.get();
+        int id = entrada.getInt();
+        int tamanhoArgumentos = tamanho - TAMANHO_CABECALHO;
+
+        int esperado = tamanhoArgumentos(opcode);
+        if (esperado < 0) {
+            responder(saida, STATUS_COMANDO_DESCONHECIDO, id);
+        } else if (esperado != tamanhoArgumentos) {
+            responder(saida, STATUS_REQUISICAO_INVALIDA, id);
+        } else {
+            executar(opcode, id, entrada, saida);
+        }
+        entrada.position(fim);
+    }
+
+    private void executar(byte opcode, int id, ByteBuffer entrada, ByteBuffer saida) {
+        switch (opcode) {
+            case OP_PING:
+                responder(saida, STATUS_SUCESSO, id);
+                break;
+
+            case OP_DEPOSITAR: {
+                int conta = entrada.getInt();
+                long centavos = entrada.getLong();
+                responder(saida, codigo(operacoes.tentarDepositar(conta, Centavos.paraReais(centavos))), id);
+                break;
+            }
+
+            case OP_SACAR: {
+                int conta = entrada.getInt();
+                long centavos = entrada.getLong();
+                responder(saida, codigo(operacoes.tentarSacar(conta, Centavos.paraReais(centavos))), id);
+                break;
+            }
+
+            case OP_TRANSFERIR: {
+                int origem = entrada.getInt();
+                int destino = entrada.getInt();
+                long centavos = entrada.getLong();
+                responder(saida, codigo(operacoes.tentarTransferir(
+                        origem, destino, Centavos.paraReais(centavos))), id);
+                break;
+            }
+
+            case OP_SALDO:
+                responderSaldo(saida, id, entrada.getInt());
+                break;
+
+            case OP_DEPOSITAR_ID: {
+                long chave = entrada.getLong();
+                int conta = entrada.getInt();
+                long centavos = entrada.getLong();
+                responder(saida, codigo(operacoes.tentarDepositar(
+                        chave, conta, Centavos.paraReais(centavos))), id);
+                break;
+            }
+
+            case OP_SACAR_ID: {
+                long chave = entrada.getLong();
+                int conta = entrada.getInt();
+                long centavos = entrada.getLong();
+                responder(saida, codigo(operacoes.tentarSacar(
+                        chave, conta, Centavos.paraReais(centavos))), id);
+                break;
+            }
+
+            case OP_TRANSFERIR_ID: {
+                long chave = entrada.getLong();
+                int origem = entrada.getInt();
+                int destino = entrada.getInt();
+                long centavos = entrada.getLong();
+                responder(saida, codigo(operacoes.tentarTransferir(
+                        chave, origem, destino, Centavos.paraReais(centavos))), id);
+                break;
+            }
+
+            default:
+                responder(saida, STATUS_COMANDO_DESCONHECIDO, id);
+                break;
+        }
+    }
+
+    private void responderSaldo(ByteBuffer saida, int id, int conta) {
+        long centavos;
+        try {
+            centavos = Centavos.deReais(operacoes.consultarSaldo(conta));
+        } catch (ContaNaoEncontradaException e) {
+            responder(saida, STATUS_CONTA_NAO_ENCONTRADA, id);
+            return;
+        }
+        saida.putInt(TAMANHO_CABECALHO + Long.BYTES).put(STATUS_SUCESSO).putInt(id).putLong(centavos);
+    }
+
+    private static void responder(ByteBuffer saida, byte status, int id) {
+        saida.putInt(TAMANHO_CABECALHO).put(status).putInt(id);
+    }
+
+    /**
+     * @return Bytes de argumentos do opcode, ou -1 se o opcode não existir
+     */
+    static int tamanhoArgumentos(byte opcode) {
+        switch (opcode) {
+            case OP_PING:
+                return 0;
+            case OP_DEPOSITAR:
+            case OP_SACAR:
+                return Integer.BYTES + Long.BYTES;
+            case OP_TRANSFERIR:
+                return 2 * Integer.BYTES + Long.BYTES;
+            case OP_SALDO:
+                return Integer.BYTES;
+            case OP_DEPOSITAR_ID:
+            case OP_SACAR_ID:
+                return Long.BYTES + Integer.BYTES + Long.BYTES;
+            case OP_TRANSFERIR_ID:
+                return Long.BYTES + 2 * Integer.BYTES + Long.BYTES;
+            default:
+                return -1;
+        }
+    }
+
+    private static byte codigo(StatusOperacao status) {
+        switch (status) {
+            case SUCESSO:
+                return STATUS_SUCESSO;
+            case CONTA_NAO_ENCONTRADA:
+                return STATUS_CONTA_NAO_ENCONTRADA;
+            case VALOR_INVALIDO:
+                return STATUS_VALOR_INVALIDO;
+            case SALDO_INSUFICIENTE:
+                return STATUS_SALDO_INSUFICIENTE;
+            case CONTAS_IGUAIS:
+                return STATUS_CONTAS_IGUAIS;
+            case CHAVE_REUTILIZADA:
+                return STATUS_CHAVE_REUTILIZADA;
+            default:
+                throw new IllegalStateException("Status sem código no protocolo: " + status);
+        }
+    }
+}
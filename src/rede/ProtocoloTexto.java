@@ -0,0 +1,166 @@
+package rede;
+
+import exception.BancoException;
+import model.Cliente;
+import model.Conta;
+import model.Movimento;
+import service.ContasDoCliente;
+import service.IOperacoesBancarias;
+import service.StatusOperacao;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Protocolo de texto do servidor: uma requisição por linha, uma resposta por linha.
+ * Boa Prática: Tradução entre texto e {@link IOperacoesBancarias} isolada da rede (SRP).
+ *
+ * Requisições (campos separados por espaço; valores em reais com ponto decimal):
+ * <pre>
+ * PING
+ * CLIENTE cpf nome...                     -> OK cpf
+ * CONTA cpf tipo saldoInicial             -> OK numeroConta
+ * DEPOSITAR numero valor [chave]          -> OK
+ * SACAR numero valor [chave]              -> OK
+ * TRANSFERIR origem destino valor [chave] -> OK
+ * SALDO numero                            -> OK saldo
+ * CONTAS cpf                              -> OK saldoTotal numero:saldo...
+ * RANKING inicio quantidade               -> OK numero:saldo...
+ * POSICAO numero                          -> OK posicao
+ * EXTRATO numero quantidade               -> OK sequencia:TIPO:valor...
+ * RENDIMENTO percentual                   -> OK contasAtualizadas
+ * </pre>
+ * Falhas: {@code ERRO <código> [mensagem]}, onde o código é um {@link StatusOperacao},
+ * {@code NEGOCIO} (demais regras de negócio), {@code REQUISICAO_INVALIDA} ou
+ * {@code COMANDO_DESCONHECIDO}.
+ *
+ * A chave opcional (inteiro) torna a operação idempotente: reenvios com a mesma chave
+ * recebem a resposta original sem aplicar a operação de novo.
+ */
+public final class ProtocoloTexto {
+    static final String OK = "OK";
+    static final String ERRO = "ERRO";
+
+    private final IOperacoesBancarias operacoes;
+
+    /**
+     * @param operacoes Operações expostas pelo protocolo
+     */
+    public ProtocoloTexto(IOperacoesBancarias operacoes) {
+        this.operacoes = Objects.requireNonNull(operacoes, "Operações bancárias não podem ser nulas");
+    }
+
+    /**
+     * Executa uma requisição.
+     * Programação Defensiva: nenhuma entrada derruba a conexão; toda falha vira resposta.
+     *
+     * @param linha Requisição (sem quebra de linha)
+     * @return Resposta (sem quebra de linha)
+     */
+    public String executar(String linha) {
+        String[] campos = linha.trim().split(" +");
+        try {
+            return executar(campos);
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            return ERRO + " REQUISICAO_INVALIDA " + linha;
+        } catch (BancoException | IllegalArgumentException e) {
+            return ERRO + " NEGOCIO " + e.getMessage();
+        }
+    }
+
+    private String executar(String[] campos) throws BancoException {
+        switch (campos[0]) {
+            case "PING":
+                return OK + " PONG";
+
+            case "CLIENTE": {
+                String nome = String.join(" ", List.of(campos).subList(2, campos.length));
+                Cliente cliente = operacoes.cadastrarCliente(nome, campos[1]);
+                return OK + " " + cliente.getCpf();
+            }
+
+            case "CONTA": {
+                Conta conta = operacoes.cadastrarConta(campos[1], campos[2], Double.parseDouble(campos[3]));
+                return OK + " " + conta.getNumero();
+            }
+
+            case "DEPOSITAR": {
+                int conta = Integer.parseInt(campos[1]);
+                double valor = Double.parseDouble(campos[2]);
+                return responder(campos.length > 3
+                        ? operacoes.tentarDepositar(Long.parseLong(campos[3]), conta, valor)
+                        : operacoes.tentarDepositar(conta, valor));
+            }
+
+            case "SACAR": {
+                int conta = Integer.parseInt(campos[1]);
+                double valor = Double.parseDouble(campos[2]);
+                return responder(campos.length > 3
+                        ? operacoes.tentarSacar(Long.parseLong(campos[3]), conta, valor)
+                        : operacoes.tentarSacar(conta, valor));
+            }
+
+            case "TRANSFERIR": {
+                int origem = Integer.parseInt(campos[1]);
+                int destino = Integer.parseInt(campos[2]);
+                double valor = Double.parseDouble(campos[3]);
+                return responder(campos.length > 4
+                        ? operacoes.tentarTransferir(Long.parseLong(campos[4]), origem, destino, valor)
+                        : operacoes.tentarTransferir(origem, destino, valor));
+            }
+
+            case "SALDO":
+                return OK + " " + formatarValor(operacoes.consultarSaldo(Integer.parseInt(campos[1])));
+
+            case "CONTAS": {
+                ContasDoCliente contasDoCliente = operacoes.consultarContasDoCliente(campos[1]);
+                StringBuilder resposta = new StringBuilder(OK).append(' ')
+                        .append(formatarValor(contasDoCliente.getSaldoTotal()));
+                acrescentarContas(resposta, contasDoCliente.getContas());
+                return resposta.toString();
+            }
+
+            case "RANKING": {
+                StringBuilder resposta = new StringBuilder(OK);
+                acrescentarContas(resposta, operacoes.listarContasOrdenadasPorSaldo(
+                        Integer.parseInt(campos[1]), Integer.parseInt(campos[2])));
+                return resposta.toString();
+            }
+
+            case "POSICAO":
+                return OK + " " + operacoes.consultarPosicaoPorSaldo(Integer.parseInt(campos[1]));
+
+            case "EXTRATO": {
+                StringBuilder resposta = new StringBuilder(OK);
+                for (Movimento movimento : operacoes.consultarExtrato(
+                        Integer.parseInt(campos[1]), Integer.parseInt(campos[2]))) {
+                    resposta.append(' ').append(movimento.getSequencia())
+                            .append(':').append(movimento.getTipo().name())
+                            .append(':').append(formatarValor(movimento.getValor()));
+                }
+                return resposta.toString();
+            }
+
+            case "RENDIMENTO":
+                return OK + " " + operacoes.aplicarRendimentoPoupancas(Double.parseDouble(campos[1]));
+
+            default:
+                return ERRO + " COMANDO_DESCONHECIDO " + campos[0];
+        }
+    }
+
+    private static String responder(StatusOperacao status) {
+        return status.isSucesso() ? OK : ERRO + " " + status.name();
+    }
+
+    private static void acrescentarContas(StringBuilder resposta, List<Conta> contas) {
+        for (Conta conta : contas) {
+            resposta.append(' ').append(conta.getNumero()).append(':').append(formatarValor(conta.getSaldo()));
+        }
+    }
+
+    private static String formatarValor(double valor) {
+        return String.format(Locale.ROOT, "%.2f", valor);
+    }
+}
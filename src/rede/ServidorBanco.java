@@ -0,0 +1,97 @@
+package rede;
+
+import service.IOperacoesBancarias;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Servidor TCP que expõe {@link IOperacoesBancarias} pelo {@link ProtocoloTexto}.
+ * Boa Prática: Uma thread virtual por conexão (ver {@link ServidorTcp}).
+ *
+ * Respostas são enviadas quando o cliente não tem mais requisições no buffer,
+ * então clientes que enviam várias linhas seguidas (pipelining) recebem as
+ * respostas em lote, com menos chamadas de sistema.
+ *
+ * Programação Defensiva: cada linha é lida num buffer reutilizado de no máximo
+ * {@link #TAMANHO_MAXIMO_LINHA} caracteres. Um cliente que passa do limite sem enviar
+ * o fim de linha recebe {@code ERRO LINHA_MUITO_LONGA} e tem a conexão encerrada,
+ * em vez de fazer o servidor acumular a linha inteira em memória.
+ */
+public class ServidorBanco extends ServidorTcp {
+    /** Comprimento máximo de uma requisição, sem o fim de linha (bem acima do maior comando). */
+    public static final int TAMANHO_MAXIMO_LINHA = 1024;
+    private static final int TAMANHO_BUFFER = 8192;
+    private static final int FIM_DA_ENTRADA = -1;
+    private static final int LINHA_MUITO_LONGA = -2;
+
+    private final ProtocoloTexto protocolo;
+
+    /**
+     * Abre a porta do servidor (ainda sem aceitar conexões).
+     *
+     * @param operacoes Operações expostas
+     * @param endereco Endereço local (null para todas as interfaces)
+     * @param porta Porta TCP (0 para uma porta livre qualquer)
+     * @throws IOException se a porta não puder ser aberta
+     */
+    public ServidorBanco(IOperacoesBancarias operacoes, InetAddress endereco, int porta) throws IOException {
+        super("banco", endereco, porta);
+        this.protocolo = new ProtocoloTexto(Objects.requireNonNull(operacoes,
+                "Operações bancárias não podem ser nulas"));
+    }
+
+    @Override
+    protected void atender(SocketChannel conexao) throws IOException {
+        Socket socket = conexao.socket();
+        BufferedReader entrada = new BufferedReader(new InputStreamReader(
+                socket.getInputStream(), StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        BufferedWriter saida = new BufferedWriter(new OutputStreamWriter(
+                socket.getOutputStream(), StandardCharsets.UTF_8), TAMANHO_BUFFER);
+        char[] linha = new char[TAMANHO_MAXIMO_LINHA];
+        int tamanho;
+        while ((tamanho = lerLinha(entrada, linha)) != FIM_DA_ENTRADA) {
+            if (tamanho == LINHA_MUITO_LONGA) {
+                saida.write(ProtocoloTexto.ERRO + " LINHA_MUITO_LONGA\n");
+                saida.flush();
+                return;
+            }
+            saida.write(protocolo.executar(new String(linha, 0, tamanho)));
+            saida.write('\n');
+            // Só envia quando não há outra requisição já recebida
+            if (!entrada.ready()) {
+                saida.flush();
+            }
+        }
+    }
+
+    /**
+     * Lê uma linha terminada por '\n' (ou "\r\n") no buffer informado.
+     * Como {@link BufferedReader#readLine()}, a última linha pode vir sem terminador.
+     *
+     * @return Tamanho da linha, {@link #FIM_DA_ENTRADA} se o cliente fechou a conexão
+     *         sem dados pendentes, ou {@link #LINHA_MUITO_LONGA} se a linha não coube
+     */
+    private static int lerLinha(BufferedReader entrada, char[] linha) throws IOException {
+        int tamanho = 0;
+        int caractere;
+        while ((caractere = entrada.read()) != -1) {
+            if (caractere == '\n') {
+                return tamanho > 0 && linha[tamanho - 1] == '\r' ? tamanho - 1 : tamanho;
+            }
+            if (tamanho == linha.length) {
+                return LINHA_MUITO_LONGA;
+            }
+            linha[tamanho++] = (char) caractere;
+        }
+        return tamanho == 0 ? FIM_DA_ENTRADA : tamanho;
+    }
+}
@@ -0,0 +1,64 @@
+package rede;
+
+import service.IOperacoesBancarias;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Servidor TCP que expõe {@link IOperacoesBancarias} pelo {@link ProtocoloBinario}.
+ * Boa Prática: Cada conexão reutiliza dois {@link ByteBuffer} diretos (entrada e saída)
+ * durante toda a sua vida; o canal lê e escreve neles sem cópia para a heap e sem
+ * alocar por mensagem.
+ *
+ * Todas as requisições já recebidas são processadas antes de enviar as respostas,
+ * então um cliente com pipelining recebe as respostas em lote, numa só escrita.
+ */
+public class ServidorBinario extends ServidorTcp {
+    private static final int TAMANHO_BUFFER = 8192;
+
+    private final ProtocoloBinario protocolo;
+
+    /**
+     * Abre a porta do servidor (ainda sem aceitar conexões).
+     *
+     * @param operacoes Operações expostas
+     * @param endereco Endereço local (null para todas as interfaces)
+     * @param porta Porta TCP (0 para uma porta livre qualquer)
+     * @throws IOException se a porta não puder ser aberta
+     */
+    public ServidorBinario(IOperacoesBancarias operacoes, InetAddress endereco, int porta) throws IOException {
+        super("banco-binario", endereco, porta);
+        this.protocolo = new ProtocoloBinario(operacoes);
+    }
+
+    @Override
+    protected void atender(SocketChannel conexao) throws IOException {
+        ByteBuffer entrada = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+        ByteBuffer saida = ByteBuffer.allocateDirect(TAMANHO_BUFFER);
+        while (conexao.read(entrada) >= 0) {
+            entrada.flip();
+            while (ProtocoloBinario.possuiQuadroCompleto(entrada)) {
+                if (saida.remaining() < ProtocoloBinario.TAMANHO_MAXIMO_RESPOSTA) {
+                    enviar(conexao, saida);
+                }
+                protocolo.executar(entrada, saida);
+            }
+            // Quadro incompleto volta para o início do buffer e espera o resto
+            entrada.compact();
+            if (saida.position() > 0) {
+                enviar(conexao, saida);
+            }
+        }
+    }
+
+    private static void enviar(SocketChannel conexao, ByteBuffer saida) throws IOException {
+        saida.flip();
+        while (saida.hasRemaining()) {
+            conexao.write(saida);
+        }
+        saida.clear();
+    }
+}
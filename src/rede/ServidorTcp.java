@@ -0,0 +1,163 @@
+package rede;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base dos servidores TCP: aceita conexões e atende cada uma numa thread virtual.
+ * Boa Prática: Template Method - o ciclo de vida (porta, aceite, encerramento) fica aqui;
+ * as subclasses só implementam o protocolo em {@link #atender(SocketChannel)}.
+ *
+ * Uma thread virtual por conexão permite código bloqueante simples, e
+ * milhares de clientes simultâneos custam apenas memória, não threads do sistema.
+ *
+ * Programação Defensiva: o aceite termina quando a porta é fechada; outras falhas de
+ * aceite (ex: limite de descritores de arquivo) esperam um intervalo crescente, até
+ * {@link #ESPERA_MAXIMA_ACEITE_MILLIS}, antes de tentar de novo - o laço não gira
+ * ocupando um processador enquanto a falha persiste.
+ */
+public abstract class ServidorTcp implements Closeable {
+    private static final long ESPERA_INICIAL_ACEITE_MILLIS = 10;
+    private static final long ESPERA_MAXIMA_ACEITE_MILLIS = 1_000;
+
+    private final String nome;
+    private final ServerSocketChannel servidor;
+    private final Set<SocketChannel> conexoes;
+    private final AtomicLong sequenciaConexoes;
+    private volatile boolean encerrado;
+
+    /**
+     * Abre a porta do servidor (ainda sem aceitar conexões).
+     *
+     * @param nome Prefixo do nome das threads do servidor
+     * @param endereco Endereço local (null para todas as interfaces)
+     * @param porta Porta TCP (0 para uma porta livre qualquer)
+     * @throws IOException se a porta não puder ser aberta
+     */
+    protected ServidorTcp(String nome, InetAddress endereco, int porta) throws IOException {
+        this.nome = nome;
+        this.servidor = ServerSocketChannel.open();
+        this.servidor.bind(new InetSocketAddress(endereco, porta));
+        this.conexoes = ConcurrentHashMap.newKeySet();
+        this.sequenciaConexoes = new AtomicLong();
+    }
+
+    /**
+     * Começa a aceitar conexões em segundo plano.
+     *
+     * @return Porta em que o servidor atende
+     */
+    public int iniciar() {
+        Thread.ofVirtual().name(nome + "-aceitador").start(this::aceitarConexoes);
+        return getPorta();
+    }
+
+    /**
+     * @return Porta em que o servidor atende
+     */
+    public int getPorta() {
+        return servidor.socket().getLocalPort();
+    }
+
+    /**
+     * Para de aceitar conexões e fecha as abertas.
+     */
+    @Override
+    public void close() throws IOException {
+        encerrado = true;
+        servidor.close();
+        for (SocketChannel conexao : conexoes) {
+            fecharSilenciosamente(conexao);
+        }
+    }
+
+    /**
+     * Atende uma conexão (bloqueante) até o cliente fechá-la.
+     * Chamado numa thread virtual própria; a conexão é fechada pelo servidor ao final.
+     *
+     * @param conexao Canal da conexão, em modo bloqueante
+     * @throws IOException se a conexão falhar
+     */
+    protected abstract void atender(SocketChannel conexao) throws IOException;
+
+    private void aceitarConexoes() {
+        long espera = ESPERA_INICIAL_ACEITE_MILLIS;
+        while (!encerrado) {
+            SocketChannel conexao;
+            try {
+                conexao = servidor.accept();
+            } catch (ClosedChannelException e) {
+                // Porta fechada (pelo close() ou por falha): não há mais o que aceitar
+                return;
+            } catch (IOException e) {
+                if (encerrado) {
+                    return;
+                }
+                System.err.println("Falha ao aceitar conexão (nova tentativa em " + espera + " ms): "
+                        + e.getMessage());
+                if (!aguardar(espera)) {
+                    return;
+                }
+                espera = Math.min(espera * 2, ESPERA_MAXIMA_ACEITE_MILLIS);
+                continue;
+            }
+            espera = ESPERA_INICIAL_ACEITE_MILLIS;
+            conexoes.add(conexao);
+            if (encerrado) {
+                // close() pode ter percorrido as conexões antes desta entrar no conjunto
+                conexoes.remove(conexao);
+                fecharSilenciosamente(conexao);
+                return;
+            }
+            Thread.ofVirtual()
+                    .name(nome + "-conexao-" + sequenciaConexoes.incrementAndGet())
+                    .start(() -> atenderEFechar(conexao));
+        }
+    }
+
+    /**
+     * @return false se a thread foi interrompida (o aceite deve parar)
+     */
+    private static boolean aguardar(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void atenderEFechar(SocketChannel conexao) {
+        try (conexao) {
+            conexao.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            atender(conexao);
+        } catch (ClosedChannelException | SocketException e) {
+            // Conexão encerrada pelo cliente ou pelo close() do servidor
+        } catch (IOException e) {
+            if (!encerrado) {
+                System.err.println("Falha na conexão: " + e.getMessage());
+            }
+        } finally {
+            conexoes.remove(conexao);
+        }
+    }
+
+    private static void fecharSilenciosamente(SocketChannel conexao) {
+        try {
+            conexao.close();
+        } catch (IOException e) {
+            // Já está sendo encerrada
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package repository;
+
+import constants.Constantes;
+
+/**
+ * Codificação de CPF normalizado como chave long dos índices primitivos.
+ * Boa Prática: Uma única codificação para todos os repositórios que indexam por CPF.
+ */
+final class ChaveCpf {
+    /** Prefixo que preserva zeros à esquerda e garante chave diferente de zero. */
+    private static final long PREFIXO_CHAVE = 100_000_000_000L;
+    static final long CHAVE_INVALIDA = -1L;
+
+    /**
+     * Construtor privado para prevenir instanciação.
+     */
+    private ChaveCpf() {
+        throw new AssertionError("Classe ChaveCpf não deve ser instanciada");
+    }
+
+    /**
+     * Codifica CPF normalizado (exatamente 11 dígitos) como long.
+     * Mantém a semântica de igualdade exata com o CPF armazenado:
+     * entradas com pontuação ou tamanho diferente não são encontradas.
+     *
+     * @param cpf CPF com 11 dígitos
+     * @return Chave codificada ou {@link #CHAVE_INVALIDA}
+     */
+    static long codificar(CharSequence cpf) {
+        if (cpf.length() != Constantes.CPF_TAMANHO) {
+            return CHAVE_INVALIDA;
+        }
+        long chave = 0;
+        for (int i = 0; i < Constantes.CPF_TAMANHO; i++) {
+            int digito = cpf.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return CHAVE_INVALIDA;
+            }
+            chave = chave * 10 + digito;
+        }
+        return PREFIXO_CHAVE + chave;
+    }
+}
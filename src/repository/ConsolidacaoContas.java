@@ -0,0 +1,126 @@
+package repository;
+
+import model.AcumuladorSaldo;
+import model.Conta;
+import model.ContaPoupanca;
+import model.ObservadorSaldo;
+import model.ResumoTipoConta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Acumuladores de quantidade e saldo por tipo de conta, compartilhados pelos repositórios.
+ * Boa Prática: Cada conta é contabilizada ao entrar no repositório e depois informa
+ * suas próprias variações; o resumo custa O(quantidade de tipos).
+ *
+ * Atualizações em bloco (ex: rendimento) congelam o resumo: enquanto durarem,
+ * leitores recebem os totais do início do bloco, nunca um estado intermediário.
+ * Leitores verificam uma versão antes e depois de somar (seqlock) e repetem a
+ * leitura se um bloco começou ou terminou no meio dela.
+ */
+final class ConsolidacaoContas {
+    private final Map<String, AcumuladorSaldo> acumuladoresPorTipo;
+    /** Ímpar enquanto há bloco em andamento. */
+    private volatile long versao;
+    private volatile List<ResumoTipoConta> resumoCongelado;
+    private final ObservadorSaldo observador;
+
+    /**
+     * @param observador Avisado de cada variação de saldo das contas (ex: índice por saldo)
+     */
+    ConsolidacaoContas(ObservadorSaldo observador) {
+        this.acumuladoresPorTipo = new ConcurrentSkipListMap<>();
+        this.observador = observador;
+    }
+
+    /**
+     * Contabiliza uma conta que acabou de entrar no repositório e vincula
+     * seu acumulador. Chamado antes de a conta ficar visível para operações.
+     *
+     * @param conta Conta adicionada
+     */
+    void registrar(Conta conta) {
+        acumuladorDo(conta.getTipo()).registrarConta(conta);
+    }
+
+    /**
+     * Abre uma época de rendimento diferido para as contas poupança.
+     *
+     * @param percentual Percentual de rendimento (já validado)
+     * @return Quantidade de contas poupança que receberão o rendimento
+     */
+    int abrirEpocaRendimentoPoupancas(double percentual) {
+        AcumuladorSaldo acumulador = acumuladorDo(ContaPoupanca.DESCRICAO_TIPO);
+        acumulador.abrirEpocaRendimento(percentual);
+        return (int) acumulador.resumir(ContaPoupanca.DESCRICAO_TIPO).getQuantidade();
+    }
+
+    /**
+     * @param tipo Tipo de conta (ex: "Conta Corrente")
+     * @return Acumulador do tipo, criado na primeira consulta
+     */
+    AcumuladorSaldo acumuladorDo(String tipo) {
+        AcumuladorSaldo acumulador = acumuladoresPorTipo.get(tipo);
+        return acumulador != null
+                ? acumulador
+                : acumuladoresPorTipo.computeIfAbsent(tipo, t -> {
+                    AcumuladorSaldo novo = new AcumuladorSaldo();
+                    novo.observarSaldos(observador);
+                    return novo;
+                });
+    }
+
+    /**
+     * @return Resumo de cada tipo com contas, em ordem alfabética de tipo
+     */
+    List<ResumoTipoConta> resumir() {
+        while (true) {
+            long versaoLida = versao;
+            if ((versaoLida & 1) == 1) {
+                // O bloco pode terminar entre as duas leituras: sem resumo congelado, lê de novo
+                List<ResumoTipoConta> congelado = resumoCongelado;
+                if (congelado != null) {
+                    return congelado;
+                }
+                continue;
+            }
+            List<ResumoTipoConta> resumos = resumirAtual();
+            if (versao == versaoLida) {
+                return resumos;
+            }
+        }
+    }
+
+    /**
+     * Executa uma atualização em bloco; leitores do resumo a enxergam como
+     * uma única mudança, aplicada ao final. Blocos não se sobrepõem.
+     *
+     * @param tarefa Atualização a executar
+     * @return Resultado da tarefa
+     */
+    synchronized <T> T executarComTotaisCongelados(Supplier<T> tarefa) {
+        resumoCongelado = resumirAtual();
+        versao++;
+        try {
+            return tarefa.get();
+        } finally {
+            versao++;
+            resumoCongelado = null;
+        }
+    }
+
+    private List<ResumoTipoConta> resumirAtual() {
+        List<ResumoTipoConta> resumos = new ArrayList<>(acumuladoresPorTipo.size());
+        for (Map.Entry<String, AcumuladorSaldo> entrada : acumuladoresPorTipo.entrySet()) {
+            ResumoTipoConta resumo = entrada.getValue().resumir(entrada.getKey());
+            if (resumo.getQuantidade() > 0) {
+                resumos.add(resumo);
+            }
+        }
+        return resumos;
+    }
+}
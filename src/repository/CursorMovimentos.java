@@ -0,0 +1,116 @@
+package repository;
+
+import model.Centavos;
+import model.TipoMovimento;
+
+/**
+ * Leitura sequencial de uma faixa do livro razão, em lotes de tamanho fixo.
+ * Boa Prática: Memória constante - cada {@link #avancar()} sobrescreve as mesmas
+ * colunas primitivas, então percorrer milhões de movimentos não cria um objeto por
+ * movimento nem guarda a faixa inteira. O livro só fica travado enquanto um lote é
+ * copiado, nunca enquanto quem lê processa ou grava o lote.
+ *
+ * A faixa é fixada na criação: movimentos anexados depois não aparecem, e os que o
+ * livro sobrescrever antes de serem lidos são pulados. Uso típico:
+ * <pre>
+ * while (cursor.avancar()) {
+ *     for (int i = 0; i &lt; cursor.getQuantidade(); i++) { ... }
+ * }
+ * </pre>
+ * Um cursor não é thread-safe: pertence a quem o criou.
+ */
+public final class CursorMovimentos {
+    private final LivroRazao livroRazao;
+    private final int numeroConta;
+    /** Período filtrado: instantes em [inicio, fim). */
+    final long inicio;
+    final long fim;
+    final long limite;
+    long proxima;
+
+    // Lote atual: posições [0, quantidade)
+    final long[] sequencias;
+    final long[] instantes;
+    final int[] contas;
+    final TipoMovimento[] tipos;
+    final long[] valores;
+    final int[] contrapartes;
+    int quantidade;
+
+    CursorMovimentos(LivroRazao livroRazao, int numeroConta, long inicio, long fim,
+                     long primeira, long limite, int capacidade) {
+        if (capacidade <= 0) {
+            throw new IllegalArgumentException("Capacidade do cursor deve ser positiva");
+        }
+        this.livroRazao = livroRazao;
+        this.numeroConta = numeroConta;
+        this.inicio = inicio;
+        this.fim = fim;
+        this.proxima = primeira;
+        this.limite = limite;
+        this.sequencias = new long[capacidade];
+        this.instantes = new long[capacidade];
+        this.contas = new int[capacidade];
+        this.tipos = new TipoMovimento[capacidade];
+        this.valores = new long[capacidade];
+        this.contrapartes = new int[capacidade];
+    }
+
+    /**
+     * Carrega o próximo lote da faixa.
+     * O lote pode vir vazio sem que a faixa tenha acabado (quando a conta filtrada
+     * não aparece no trecho percorrido); só o retorno false indica o fim.
+     *
+     * @return false se a faixa já foi toda lida
+     */
+    public boolean avancar() {
+        if (proxima >= limite) {
+            quantidade = 0;
+            return false;
+        }
+        livroRazao.preencher(this);
+        return true;
+    }
+
+    /**
+     * @return Conta filtrada, ou {@link LivroRazao#TODAS_AS_CONTAS}
+     */
+    int getNumeroContaFiltrada() {
+        return numeroConta;
+    }
+
+    /**
+     * @return Quantidade de movimentos no lote atual
+     */
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public long getSequencia(int indice) {
+        return sequencias[indice];
+    }
+
+    public long getInstante(int indice) {
+        return instantes[indice];
+    }
+
+    public int getNumeroConta(int indice) {
+        return contas[indice];
+    }
+
+    public TipoMovimento getTipo(int indice) {
+        return tipos[indice];
+    }
+
+    public long getValorCentavos(int indice) {
+        return valores[indice];
+    }
+
+    public double getValor(int indice) {
+        return Centavos.paraReais(valores[indice]);
+    }
+
+    public int getContraparte(int indice) {
+        return contrapartes[indice];
+    }
+}
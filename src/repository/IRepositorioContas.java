@@ -1,9 +1,12 @@
 package repository;
 
 import model.Conta;
+import model.ResumoTipoConta;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Supplier;
 
 /**
  * Interface para repositório de contas.
@@ -42,6 +45,16 @@ public interface IRepositorioContas {
      */
     List<Conta> listarTodas();
 
+    /**
+     * Retorna as contas de um titular, em ordem de cadastro.
+     * Boa Prática: Índice por titular mantido em {@link #adicionar(Conta)} -
+     * custo proporcional às contas do titular, não ao total de contas.
+     *
+     * @param cpf CPF normalizado do titular (11 dígitos)
+     * @return Contas do titular (vazia se não houver)
+     */
+    List<Conta> listarPorCliente(String cpf);
+
     /**
      * Retorna contas ordenadas por saldo (decrescente).
      *
@@ -49,10 +62,88 @@ public interface IRepositorioContas {
      */
     List<Conta> listarOrdenadasPorSaldo();
 
+    /**
+     * Retorna uma página do ranking por saldo (decrescente; empate pelo número da conta).
+     * Boa Prática: Índice ordenado mantido incrementalmente - custo O(log n + quantidade).
+     *
+     * @param inicio Posição inicial no ranking (0 = maior saldo)
+     * @param quantidade Quantidade máxima de contas
+     * @return Contas da página, do maior para o menor saldo
+     * @throws IllegalArgumentException se início ou quantidade forem negativos
+     */
+    List<Conta> listarPorSaldo(int inicio, int quantidade);
+
+    /**
+     * Retorna as contas de maior saldo.
+     *
+     * @param quantidade Quantidade máxima de contas
+     * @return Contas do maior para o menor saldo
+     */
+    List<Conta> listarMaioresSaldos(int quantidade);
+
+    /**
+     * Retorna as contas de menor saldo.
+     *
+     * @param quantidade Quantidade máxima de contas
+     * @return Contas do menor para o maior saldo
+     */
+    List<Conta> listarMenoresSaldos(int quantidade);
+
+    /**
+     * Retorna a posição da conta no ranking por saldo.
+     *
+     * @param numeroConta Número da conta
+     * @return Posição (1 = maior saldo), vazio se a conta não existir
+     */
+    OptionalInt posicaoPorSaldo(int numeroConta);
+
     /**
      * Retorna apenas contas poupança.
+     * Boa Prática: Índice secundário - contas de outros tipos não são percorridas.
      *
      * @return Lista de contas poupança
      */
     List<Conta> listarContasPoupanca();
+
+    /**
+     * Retorna quantidade e saldo total por tipo de conta.
+     * Boa Prática: Totais mantidos a cada operação - custo O(quantidade de tipos).
+     *
+     * @return Resumo de cada tipo com contas, em ordem alfabética de tipo
+     */
+    List<ResumoTipoConta> consolidarPorTipo();
+
+    /**
+     * Executa uma atualização em bloco (ex: rendimento) de forma atômica para
+     * quem lê os totais: enquanto ela dura, {@link #consolidarPorTipo()} devolve
+     * os totais do início do bloco.
+     *
+     * @param tarefa Atualização a executar
+     * @param <T> Tipo do resultado
+     * @return Resultado da tarefa
+     */
+    <T> T executarComTotaisCongelados(Supplier<T> tarefa);
+
+    /**
+     * Abre uma época de rendimento diferido para as contas poupança, em O(1):
+     * cada conta aplica o rendimento na próxima vez que for lida ou movimentada,
+     * e {@link #consolidarPorTipo()} já inclui a projeção do que está pendente.
+     *
+     * Ranking: o índice por saldo continua válido sem ser remontado - a época aplica a
+     * mesma fórmula a todas as poupanças, o que não muda a ordem entre elas, e as
+     * consultas projetam o saldo das que ainda não a aplicaram. Cada conta é
+     * reposicionada quando aplica a época, como em qualquer variação de saldo.
+     *
+     * Exatidão: até todas as poupanças aplicarem a época, o saldo poupança de
+     * {@link #consolidarPorTipo()} é uma projeção em ponto flutuante (saldo do grupo x
+     * percentual), não a soma exata dos saldos: difere em até meio centavo por conta
+     * pendente (o arredondamento de cada uma) e, com operações em paralelo à abertura,
+     * em frações de centavo por operação. Quando a última conta aplica a época, a
+     * projeção é zerada e o total volta a ser a soma exata dos saldos; quem precisa do
+     * total exato antes disso usa o rendimento imediato.
+     *
+     * @param percentual Percentual de rendimento (já validado)
+     * @return Quantidade de contas poupança que receberão o rendimento
+     */
+    int abrirEpocaRendimentoPoupancas(double percentual);
 }
\ No newline at end of file
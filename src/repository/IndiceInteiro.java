@@ -0,0 +1,111 @@
+package repository;
+
+/**
+ * Tabela hash de endereçamento aberto com chaves e valores int primitivos.
+ * Boa Prática: Evita boxing de Integer e alocação por entrada nas buscas.
+ * A chave 0 é reservada para marcar posições vazias (números de conta são sempre positivos).
+ */
+final class IndiceInteiro {
+    private static final int CAPACIDADE_INICIAL = 16;
+    private static final int CHAVE_VAZIA = 0;
+    static final int AUSENTE = -1;
+
+    private int[] chaves;
+    private int[] valores;
+    private int tamanho;
+    private int limiteRedimensionamento;
+
+    IndiceInteiro() {
+        alocar(CAPACIDADE_INICIAL);
+    }
+
+    /**
+     * Busca o valor associado à chave.
+     *
+     * @param chave Chave procurada (diferente de zero)
+     * @return Valor associado ou {@link #AUSENTE} se não houver
+     */
+    int buscar(int chave) {
+        if (chave == CHAVE_VAZIA) {
+            return AUSENTE;
+        }
+        int mascara = chaves.length - 1;
+        int posicao = espalhar(chave) & mascara;
+        while (true) {
+            int atual = chaves[posicao];
+            if (atual == chave) {
+                return valores[posicao];
+            }
+            if (atual == CHAVE_VAZIA) {
+                return AUSENTE;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+    }
+
+    /**
+     * Associa valor à chave, substituindo associação anterior.
+     *
+     * @param chave Chave (diferente de zero)
+     * @param valor Valor não negativo
+     */
+    void inserir(int chave, int valor) {
+        if (chave == CHAVE_VAZIA) {
+            throw new IllegalArgumentException("Chave 0 é reservada no índice");
+        }
+        if (tamanho >= limiteRedimensionamento) {
+            redimensionar();
+        }
+        if (inserirSemRedimensionar(chaves, valores, chave, valor)) {
+            tamanho++;
+        }
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    private void redimensionar() {
+        int[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        alocar(chavesAntigas.length << 1);
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != CHAVE_VAZIA) {
+                inserirSemRedimensionar(chaves, valores, chavesAntigas[i], valoresAntigos[i]);
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new int[capacidade];
+        valores = new int[capacidade];
+        limiteRedimensionamento = capacidade >> 1; // fator de carga 0,5
+    }
+
+    /**
+     * @return true se a chave era nova
+     */
+    private static boolean inserirSemRedimensionar(int[] chaves, int[] valores, int chave, int valor) {
+        int mascara = chaves.length - 1;
+        int posicao = espalhar(chave) & mascara;
+        while (chaves[posicao] != CHAVE_VAZIA) {
+            if (chaves[posicao] == chave) {
+                valores[posicao] = valor;
+                return false;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        chaves[posicao] = chave;
+        valores[posicao] = valor;
+        return true;
+    }
+
+    /**
+     * Espalha os bits da chave: números de conta são sequenciais e
+     * cairiam em posições contíguas sem essa mistura.
+     */
+    private static int espalhar(int chave) {
+        int h = chave * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
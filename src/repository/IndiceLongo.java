@@ -0,0 +1,112 @@
+package repository;
+
+/**
+ * Tabela hash de endereçamento aberto com chaves long e valores int primitivos.
+ * Boa Prática: Evita boxing de Long e alocação por entrada nas buscas.
+ * A chave 0 é reservada para marcar posições vazias (chaves codificadas nunca são nulas).
+ * Público também para a recuperação do estado, que indexa clientes por CPF sem boxing.
+ */
+public final class IndiceLongo {
+    private static final int CAPACIDADE_INICIAL = 16;
+    private static final long CHAVE_VAZIA = 0L;
+    public static final int AUSENTE = -1;
+
+    private long[] chaves;
+    private int[] valores;
+    private int tamanho;
+    private int limiteRedimensionamento;
+
+    public IndiceLongo() {
+        alocar(CAPACIDADE_INICIAL);
+    }
+
+    /**
+     * Busca o valor associado à chave.
+     *
+     * @param chave Chave procurada (diferente de zero)
+     * @return Valor associado ou {@link #AUSENTE} se não houver
+     */
+    public int buscar(long chave) {
+        if (chave == CHAVE_VAZIA) {
+            return AUSENTE;
+        }
+        int mascara = chaves.length - 1;
+        int posicao = espalhar(chave) & mascara;
+        while (true) {
+            long atual = chaves[posicao];
+            if (atual == chave) {
+                return valores[posicao];
+            }
+            if (atual == CHAVE_VAZIA) {
+                return AUSENTE;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+    }
+
+    /**
+     * Associa valor à chave, substituindo associação anterior.
+     *
+     * @param chave Chave (diferente de zero)
+     * @param valor Valor não negativo
+     */
+    public void inserir(long chave, int valor) {
+        if (chave == CHAVE_VAZIA) {
+            throw new IllegalArgumentException("Chave 0 é reservada no índice");
+        }
+        if (tamanho >= limiteRedimensionamento) {
+            redimensionar();
+        }
+        if (inserirSemRedimensionar(chaves, valores, chave, valor)) {
+            tamanho++;
+        }
+    }
+
+    public int tamanho() {
+        return tamanho;
+    }
+
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        alocar(chavesAntigas.length << 1);
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            if (chavesAntigas[i] != CHAVE_VAZIA) {
+                inserirSemRedimensionar(chaves, valores, chavesAntigas[i], valoresAntigos[i]);
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        valores = new int[capacidade];
+        limiteRedimensionamento = capacidade >> 1; // fator de carga 0,5
+    }
+
+    /**
+     * @return true se a chave era nova
+     */
+    private static boolean inserirSemRedimensionar(long[] chaves, int[] valores, long chave, int valor) {
+        int mascara = chaves.length - 1;
+        int posicao = espalhar(chave) & mascara;
+        while (chaves[posicao] != CHAVE_VAZIA) {
+            if (chaves[posicao] == chave) {
+                valores[posicao] = valor;
+                return false;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        chaves[posicao] = chave;
+        valores[posicao] = valor;
+        return true;
+    }
+
+    /**
+     * Espalha os bits da chave: CPFs codificados diferem sobretudo nos
+     * dígitos finais, então a mistura distribui melhor as posições.
+     */
+    private static int espalhar(long chave) {
+        long h = chave * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,523 @@
+package repository;
+
+import model.AcumuladorSaldo;
+import model.Conta;
+import model.ContaPoupanca;
+import model.ObservadorSaldo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Índice secundário de contas ordenado por saldo (decrescente; empate pelo número).
+ * Boa Prática: Árvore de estatística de ordem (treap com tamanho de subárvore):
+ * top-K, páginas e posição no ranking custam O(log² n + K), sem ordenar todas as contas.
+ *
+ * Manutenção incremental: o índice só é montado na primeira consulta, então
+ * repositórios que nunca ordenam não pagam nada. A partir daí cada variação de saldo
+ * apenas marca a conta como pendente (sem trava); a consulta seguinte reposiciona
+ * só as contas pendentes.
+ *
+ * Rendimento diferido: uma época muda o saldo das poupanças sem aviso, mas aplica a
+ * mesma fórmula a todas, e com percentual positivo a ordem entre poupanças não muda
+ * (ver {@link AcumuladorSaldo#projetarSaldo}). Por isso as poupanças ficam numa
+ * árvore própria, com a chave de cada uma anotada com as épocas que ela já tinha:
+ * comparações projetam a chave até a época da consulta (e a gravam assim), e a
+ * árvore continua válida sem ser reordenada. Quando a conta aplica a época, o aviso
+ * de variação a reposiciona como qualquer outra. As consultas combinam as duas
+ * árvores (a das poupanças e a das demais contas) pela posição no ranking.
+ *
+ * Memória: os nós são posições em colunas primitivas (saldo, época, número, prioridade,
+ * tamanho e filhos), e o número da conta leva ao nó por uma tabela primitiva - cerca
+ * de 49 bytes por conta, sem objeto por nó. Repositórios cujas contas já vivem no
+ * heap guardam também a referência da conta; os demais (ex: arquivo mapeado)
+ * informam como obter a conta pelo número, e só as contas de uma página são criadas.
+ */
+final class IndiceSaldos implements ObservadorSaldo {
+    /** Posição 0 das colunas: ausência de nó (filho vazio). */
+    private static final int NULO = 0;
+    /** Época de nó fora da árvore das poupanças: a chave é o próprio saldo. */
+    private static final int SEM_EPOCA = -1;
+    private static final int CAPACIDADE_INICIAL = 16;
+
+    /** Contas cujo saldo mudou desde a última consulta. */
+    private final Set<Conta> pendentes;
+    private volatile boolean ativo;
+    /** Conta pelo número, ou null para guardar a referência de cada conta no nó. */
+    private final IntFunction<Conta> contaPorNumero;
+    /** Épocas de rendimento das poupanças (null enquanto não informado). */
+    private AcumuladorSaldo rendimentoPoupancas;
+
+    // Estado da árvore: acessado apenas sob o monitor do índice
+    private IndiceInteiro noPorNumero;
+    private long[] saldos;
+    /** Épocas aplicadas ao saldo do nó ({@link #SEM_EPOCA} fora da árvore das poupanças). */
+    private int[] epocas;
+    private int[] numeros;
+    private int[] prioridades;
+    private int[] tamanhos;
+    private int[] esquerdas;
+    private int[] direitas;
+    private Conta[] contas;
+    private int quantidadeNos;
+    private int raizDemais;
+    private int raizPoupancas;
+    /** Época até a qual as chaves das poupanças são projetadas; só cresce. */
+    private int epocaConsulta;
+    /** Resultado de {@link #dividir}: as duas metades da árvore dividida. */
+    private int parteEsquerda;
+    private int parteDireita;
+    private long semente;
+
+    /**
+     * Índice que guarda a referência de cada conta (contas que já vivem no heap).
+     */
+    IndiceSaldos() {
+        this(null);
+    }
+
+    /**
+     * Índice que guarda apenas números e obtém as contas sob demanda.
+     *
+     * @param contaPorNumero Conta pelo número (chamado só para contas indexadas), ou null
+     */
+    IndiceSaldos(IntFunction<Conta> contaPorNumero) {
+        this.pendentes = ConcurrentHashMap.newKeySet();
+        this.contaPorNumero = contaPorNumero;
+        this.semente = 0x9E3779B97F4A7C15L;
+        limpar();
+    }
+
+    /**
+     * Marca a conta para ser reposicionada na próxima consulta.
+     * Também usado para contas recém-adicionadas.
+     */
+    @Override
+    public void saldoAlterado(Conta conta) {
+        if (ativo) {
+            pendentes.add(conta);
+        }
+    }
+
+    /**
+     * @return true se o índice já foi montado e acompanha as variações de saldo
+     */
+    boolean isAtivo() {
+        return ativo;
+    }
+
+    /**
+     * Informa as épocas de rendimento diferido das poupanças; sem ele, abrir uma
+     * época deixaria as chaves das poupanças desatualizadas até cada conta aplicá-la.
+     * Chamado na construção do repositório, antes de qualquer consulta.
+     *
+     * @param rendimentoPoupancas Acumulador das contas poupança
+     */
+    synchronized void acompanharRendimento(AcumuladorSaldo rendimentoPoupancas) {
+        this.rendimentoPoupancas = Objects.requireNonNull(rendimentoPoupancas,
+                "Acumulador das poupanças não pode ser nulo");
+    }
+
+    /**
+     * @param todasAsContas Fonte de todas as contas do repositório (se o índice precisar ser montado)
+     * @param inicio Posição inicial no ranking (0 = maior saldo)
+     * @param quantidade Quantidade máxima de contas
+     * @return Contas da página, do maior para o menor saldo
+     */
+    synchronized List<Conta> pagina(Supplier<List<Conta>> todasAsContas, int inicio, int quantidade) {
+        validarFaixa(inicio, quantidade);
+        atualizar(todasAsContas);
+        int fim = (int) Math.min((long) inicio + quantidade, tamanho(raizDemais) + tamanho(raizPoupancas));
+        return coletar(inicio, fim);
+    }
+
+    /**
+     * @param todasAsContas Fonte de todas as contas do repositório (se o índice precisar ser montado)
+     * @param quantidade Quantidade máxima de contas
+     * @return Contas de menor saldo, do menor para o maior
+     */
+    synchronized List<Conta> menores(Supplier<List<Conta>> todasAsContas, int quantidade) {
+        validarFaixa(0, quantidade);
+        atualizar(todasAsContas);
+        int total = tamanho(raizDemais) + tamanho(raizPoupancas);
+        List<Conta> menores = coletar(Math.max(0, total - quantidade), total);
+        // Ranking é decrescente: inverte para começar pelo menor saldo
+        Collections.reverse(menores);
+        return menores;
+    }
+
+    /**
+     * @param todasAsContas Fonte de todas as contas do repositório (se o índice precisar ser montado)
+     * @param numeroConta Número da conta
+     * @return Posição no ranking (1 = maior saldo), vazio se a conta não existir
+     */
+    synchronized OptionalInt posicao(Supplier<List<Conta>> todasAsContas, int numeroConta) {
+        atualizar(todasAsContas);
+        int no = noPorNumero.buscar(numeroConta);
+        if (no == IndiceInteiro.AUSENTE) {
+            return OptionalInt.empty();
+        }
+        long chave = chave(no);
+        return OptionalInt.of(contarAntes(raizDemais, chave, numeroConta)
+                + contarAntes(raizPoupancas, chave, numeroConta) + 1);
+    }
+
+    private static void validarFaixa(int inicio, int quantidade) {
+        if (inicio < 0 || quantidade < 0) {
+            throw new IllegalArgumentException("Início e quantidade não podem ser negativos");
+        }
+    }
+
+    /**
+     * Monta o índice (primeira consulta), avança a época das chaves das poupanças
+     * e reposiciona as pendentes.
+     */
+    private void atualizar(Supplier<List<Conta>> todasAsContas) {
+        if (rendimentoPoupancas != null) {
+            epocaConsulta = Math.max(epocaConsulta, rendimentoPoupancas.getEpocaRendimento());
+        }
+        if (!ativo) {
+            // Ativa antes de listar: variações durante a montagem ficam pendentes
+            ativo = true;
+            for (Conta conta : todasAsContas.get()) {
+                reposicionar(conta);
+            }
+        }
+        Iterator<Conta> iterador = pendentes.iterator();
+        while (iterador.hasNext()) {
+            Conta conta = iterador.next();
+            // Remove antes de ler o saldo: uma variação posterior marca a conta de novo
+            iterador.remove();
+            reposicionar(conta);
+        }
+    }
+
+    /**
+     * Cria as árvores vazias.
+     */
+    private void limpar() {
+        noPorNumero = new IndiceInteiro();
+        saldos = new long[CAPACIDADE_INICIAL];
+        epocas = new int[CAPACIDADE_INICIAL];
+        numeros = new int[CAPACIDADE_INICIAL];
+        prioridades = new int[CAPACIDADE_INICIAL];
+        tamanhos = new int[CAPACIDADE_INICIAL];
+        esquerdas = new int[CAPACIDADE_INICIAL];
+        direitas = new int[CAPACIDADE_INICIAL];
+        contas = contaPorNumero == null ? new Conta[CAPACIDADE_INICIAL] : null;
+        quantidadeNos = 0;
+        raizDemais = NULO;
+        raizPoupancas = NULO;
+    }
+
+    private void reposicionar(Conta conta) {
+        int numero = conta.getNumero();
+        boolean poupanca = conta instanceof ContaPoupanca;
+        long saldo = poupanca ? lerSaldoNaEpocaConsulta(conta) : conta.getSaldoCentavos();
+        int no = noPorNumero.buscar(numero);
+        if (no == IndiceInteiro.AUSENTE) {
+            no = novoNo(numero);
+            if (contas != null) {
+                contas[no] = conta;
+            }
+        } else {
+            if (chave(no) == saldo) {
+                return;
+            }
+            if (poupanca) {
+                raizPoupancas = remover(raizPoupancas, saldos[no], numero);
+            } else {
+                raizDemais = remover(raizDemais, saldos[no], numero);
+            }
+        }
+        // O nó da conta é reaproveitado com a nova chave
+        saldos[no] = saldo;
+        epocas[no] = poupanca ? epocaConsulta : SEM_EPOCA;
+        prioridades[no] = proximaPrioridade();
+        tamanhos[no] = 1;
+        esquerdas[no] = NULO;
+        direitas[no] = NULO;
+        if (poupanca) {
+            raizPoupancas = inserir(raizPoupancas, no);
+        } else {
+            raizDemais = inserir(raizDemais, no);
+        }
+    }
+
+    /**
+     * Lê o saldo da poupança (que aplica as épocas pendentes) junto com a época em
+     * que ele vale, e o projeta até a época da consulta. Uma época aberta durante a
+     * leitura repete a leitura e passa a ser a época da consulta.
+     */
+    private long lerSaldoNaEpocaConsulta(Conta conta) {
+        if (rendimentoPoupancas == null) {
+            return conta.getSaldoCentavos();
+        }
+        int epoca;
+        long saldo;
+        do {
+            epoca = rendimentoPoupancas.getEpocaRendimento();
+            saldo = conta.getSaldoCentavos();
+        } while (epoca != rendimentoPoupancas.getEpocaRendimento());
+        epocaConsulta = Math.max(epocaConsulta, epoca);
+        return rendimentoPoupancas.projetarSaldo(saldo, epoca, epocaConsulta);
+    }
+
+    /**
+     * Chave de ordenação do nó: o saldo, projetado até a época da consulta nas
+     * poupanças. A projeção é gravada no nó - ela não muda a ordem da árvore.
+     */
+    private long chave(int no) {
+        int epoca = epocas[no];
+        if (epoca == SEM_EPOCA || epoca == epocaConsulta) {
+            return saldos[no];
+        }
+        saldos[no] = rendimentoPoupancas.projetarSaldo(saldos[no], epoca, epocaConsulta);
+        epocas[no] = epocaConsulta;
+        return saldos[no];
+    }
+
+    /**
+     * Reserva a próxima posição das colunas para a conta (posições começam em 1).
+     */
+    private int novoNo(int numero) {
+        int no = ++quantidadeNos;
+        if (no == saldos.length) {
+            int capacidade = saldos.length << 1;
+            saldos = Arrays.copyOf(saldos, capacidade);
+            epocas = Arrays.copyOf(epocas, capacidade);
+            numeros = Arrays.copyOf(numeros, capacidade);
+            prioridades = Arrays.copyOf(prioridades, capacidade);
+            tamanhos = Arrays.copyOf(tamanhos, capacidade);
+            esquerdas = Arrays.copyOf(esquerdas, capacidade);
+            direitas = Arrays.copyOf(direitas, capacidade);
+            if (contas != null) {
+                contas = Arrays.copyOf(contas, capacidade);
+            }
+        }
+        numeros[no] = numero;
+        noPorNumero.inserir(numero, no);
+        return no;
+    }
+
+    private Conta contaDo(int no) {
+        return contas != null ? contas[no] : contaPorNumero.apply(numeros[no]);
+    }
+
+    // ========== TREAP COM TAMANHO DE SUBÁRVORE ==========
+
+    /**
+     * Ordem do ranking: saldo decrescente, depois número crescente.
+     */
+    private static int comparar(long saldoA, int numeroA, long saldoB, int numeroB) {
+        if (saldoA != saldoB) {
+            return saldoA > saldoB ? -1 : 1;
+        }
+        return Integer.compare(numeroA, numeroB);
+    }
+
+    private boolean precede(int noA, int noB) {
+        return comparar(chave(noA), numeros[noA], chave(noB), numeros[noB]) < 0;
+    }
+
+    private int inserir(int raizAtual, int novo) {
+        if (raizAtual == NULO) {
+            return novo;
+        }
+        if (prioridades[novo] > prioridades[raizAtual]) {
+            dividir(raizAtual, chave(novo), numeros[novo]);
+            esquerdas[novo] = parteEsquerda;
+            direitas[novo] = parteDireita;
+            return atualizarTamanho(novo);
+        }
+        if (precede(novo, raizAtual)) {
+            esquerdas[raizAtual] = inserir(esquerdas[raizAtual], novo);
+        } else {
+            direitas[raizAtual] = inserir(direitas[raizAtual], novo);
+        }
+        return atualizarTamanho(raizAtual);
+    }
+
+    /**
+     * Divide a árvore pela chave: as menores ficam em {@link #parteEsquerda}, o resto em {@link #parteDireita}.
+     */
+    private void dividir(int no, long saldo, int numero) {
+        if (no == NULO) {
+            parteEsquerda = NULO;
+            parteDireita = NULO;
+            return;
+        }
+        if (comparar(chave(no), numeros[no], saldo, numero) < 0) {
+            dividir(direitas[no], saldo, numero);
+            direitas[no] = parteEsquerda;
+            parteEsquerda = atualizarTamanho(no);
+        } else {
+            dividir(esquerdas[no], saldo, numero);
+            esquerdas[no] = parteDireita;
+            parteDireita = atualizarTamanho(no);
+        }
+    }
+
+    private int remover(int no, long saldo, int numero) {
+        if (no == NULO) {
+            return NULO;
+        }
+        int comparacao = comparar(saldo, numero, chave(no), numeros[no]);
+        if (comparacao == 0) {
+            return unir(esquerdas[no], direitas[no]);
+        }
+        if (comparacao < 0) {
+            esquerdas[no] = remover(esquerdas[no], saldo, numero);
+        } else {
+            direitas[no] = remover(direitas[no], saldo, numero);
+        }
+        return atualizarTamanho(no);
+    }
+
+    /**
+     * Une duas árvores em que todas as chaves da esquerda precedem as da direita.
+     */
+    private int unir(int esquerda, int direita) {
+        if (esquerda == NULO) {
+            return direita;
+        }
+        if (direita == NULO) {
+            return esquerda;
+        }
+        if (prioridades[esquerda] > prioridades[direita]) {
+            direitas[esquerda] = unir(direitas[esquerda], direita);
+            return atualizarTamanho(esquerda);
+        }
+        esquerdas[direita] = unir(esquerda, esquerdas[direita]);
+        return atualizarTamanho(direita);
+    }
+
+    /**
+     * @return Quantidade de chaves que precedem a informada
+     */
+    private int contarAntes(int raizAtual, long saldo, int numero) {
+        int antes = 0;
+        int no = raizAtual;
+        while (no != NULO) {
+            if (comparar(chave(no), numeros[no], saldo, numero) < 0) {
+                antes += tamanho(esquerdas[no]) + 1;
+                no = direitas[no];
+            } else {
+                no = esquerdas[no];
+            }
+        }
+        return antes;
+    }
+
+    /**
+     * Coleta, em ordem, as contas com posição em [inicio, fim) do ranking combinado:
+     * acha quantas contas de cada árvore vêm antes da página e intercala as duas a
+     * partir daí - O(log² n + K).
+     */
+    private List<Conta> coletar(int inicio, int fim) {
+        int quantidade = Math.max(0, fim - inicio);
+        int poupancasAntes = contarPoupancasAntes(inicio);
+        int demaisAntes = inicio - poupancasAntes;
+        int[] demais = new int[Math.min(quantidade, tamanho(raizDemais) - demaisAntes)];
+        coletarNos(raizDemais, demaisAntes, demaisAntes + demais.length, demais, 0);
+        int[] poupancas = new int[Math.min(quantidade, tamanho(raizPoupancas) - poupancasAntes)];
+        coletarNos(raizPoupancas, poupancasAntes, poupancasAntes + poupancas.length, poupancas, 0);
+
+        List<Conta> pagina = new ArrayList<>(quantidade);
+        int i = 0;
+        int j = 0;
+        while (pagina.size() < quantidade) {
+            boolean daDemais = j == poupancas.length || (i < demais.length && precede(demais[i], poupancas[j]));
+            pagina.add(contaDo(daDemais ? demais[i++] : poupancas[j++]));
+        }
+        return pagina;
+    }
+
+    /**
+     * Busca binária pela quantidade de poupanças entre as primeiras {@code posicao}
+     * contas do ranking combinado.
+     */
+    private int contarPoupancasAntes(int posicao) {
+        int minimo = Math.max(0, posicao - tamanho(raizDemais));
+        int maximo = Math.min(posicao, tamanho(raizPoupancas));
+        while (minimo < maximo) {
+            int meio = (minimo + maximo) >>> 1;
+            // A poupança seguinte vem antes da última das demais que entraria: cabem mais poupanças
+            if (precede(selecionar(raizPoupancas, meio), selecionar(raizDemais, posicao - meio - 1))) {
+                minimo = meio + 1;
+            } else {
+                maximo = meio;
+            }
+        }
+        return minimo;
+    }
+
+    /**
+     * @return Nó na posição informada da árvore (0 = primeiro; a posição deve existir)
+     */
+    private int selecionar(int raizAtual, int posicao) {
+        int no = raizAtual;
+        while (true) {
+            int tamanhoEsquerda = tamanho(esquerdas[no]);
+            if (posicao < tamanhoEsquerda) {
+                no = esquerdas[no];
+            } else if (posicao == tamanhoEsquerda) {
+                return no;
+            } else {
+                posicao -= tamanhoEsquerda + 1;
+                no = direitas[no];
+            }
+        }
+    }
+
+    /**
+     * Coleta, em ordem, os nós com posição em [inicio, fim) da árvore, pulando subárvores inteiras.
+     *
+     * @return Próxima posição livre de {@code destino}
+     */
+    private int coletarNos(int no, int inicio, int fim, int[] destino, int proximo) {
+        if (no == NULO || inicio >= fim) {
+            return proximo;
+        }
+        int tamanhoEsquerda = tamanho(esquerdas[no]);
+        if (inicio < tamanhoEsquerda) {
+            proximo = coletarNos(esquerdas[no], inicio, Math.min(fim, tamanhoEsquerda), destino, proximo);
+        }
+        if (inicio <= tamanhoEsquerda && tamanhoEsquerda < fim) {
+            destino[proximo++] = no;
+        }
+        if (fim > tamanhoEsquerda + 1) {
+            proximo = coletarNos(direitas[no], Math.max(0, inicio - tamanhoEsquerda - 1),
+                    fim - tamanhoEsquerda - 1, destino, proximo);
+        }
+        return proximo;
+    }
+
+    private int tamanho(int no) {
+        return no == NULO ? 0 : tamanhos[no];
+    }
+
+    private int atualizarTamanho(int no) {
+        tamanhos[no] = 1 + tamanho(esquerdas[no]) + tamanho(direitas[no]);
+        return no;
+    }
+
+    /**
+     * Prioridades pseudoaleatórias (xorshift) mantêm a árvore balanceada em média.
+     */
+    private int proximaPrioridade() {
+        semente ^= semente << 13;
+        semente ^= semente >>> 7;
+        semente ^= semente << 17;
+        return (int) (semente >>> 32);
+    }
+}
@@ -0,0 +1,411 @@
+package repository;
+
+import model.Movimento;
+import model.TipoMovimento;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Livro razão: registro somente de anexação dos movimentos mais recentes das contas.
+ * Boa Prática: Entradas de tamanho fixo em colunas primitivas de um buffer circular
+ * (sem objeto por movimento): 41 bytes por movimento, com memória fixada na criação.
+ * Quando o buffer enche, cada novo movimento sobrescreve o mais antigo - o livro
+ * guarda os últimos {@link #getCapacidade()} movimentos, não o histórico inteiro.
+ *
+ * Concorrência: sem trava global. A sequência vem de um contador atômico, e a
+ * anexação só trava a faixa (1 de {@link #QUANTIDADE_FAIXAS}) da conta movimentada,
+ * pelo tempo de gravar uma entrada. Cada entrada tem uma marca publicada por último;
+ * leitores não travam nada e conferem a marca antes e depois de copiar a entrada
+ * (como um seqlock), descartando entradas já sobrescritas.
+ *
+ * Cada movimento guarda a sequência do movimento anterior da mesma conta, e a faixa
+ * guarda o último movimento de cada conta. O extrato de uma conta percorre só a
+ * cadeia dela, do mais recente para trás: os últimos N movimentos custam O(N),
+ * independente do tamanho do livro. Períodos também percorrem a cadeia, filtrando
+ * pelo instante (anexações concorrentes não garantem instantes em ordem de sequência).
+ *
+ * Exportações usam {@link CursorMovimentos}: a faixa é copiada em lotes reutilizáveis.
+ *
+ * O livro fica só em memória e começa vazio a cada inicialização: o diário registra
+ * as operações sem instante e a compactação o descarta, então movimentos anteriores
+ * ao reinício não são reconstruídos. É opcional: {@link #DESATIVADO} não registra
+ * nada e responde às consultas com listas vazias.
+ */
+public final class LivroRazao {
+    /** Filtro de cursor que inclui os movimentos de todas as contas. */
+    public static final int TODAS_AS_CONTAS = 0;
+    /** Livro que não registra nada (serviços sem extrato pagam apenas uma verificação). */
+    public static final LivroRazao DESATIVADO = new LivroRazao();
+
+    /** Sequência devolvida pelo livro desativado. */
+    public static final long SEM_SEQUENCIA = -1;
+
+    private static final int QUANTIDADE_FAIXAS = 64;
+    private static final long SEM_ANTERIOR = -1;
+    /** Marca de entrada sendo gravada; as publicadas marcam sequência + 1 (0 = nunca gravada). */
+    private static final long GRAVANDO = -1;
+    private static final TipoMovimento[] TIPOS = TipoMovimento.values();
+    /** Movimentos examinados por lote de um cursor filtrado (limita o tempo de cada lote). */
+    private static final int VARREDURA_MAXIMA_POR_LOTE = 1 << 16;
+    private static final VarHandle MARCAS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int capacidade;
+    private final int mascara;
+    private final AtomicLong proximaSequencia;
+    private final FaixaContas[] faixas;
+
+    // Colunas do buffer circular: a entrada de sequência s fica na posição s & mascara
+    private final long[] marcas;
+    private final long[] instantes;
+    private final int[] contas;
+    private final int[] contrapartes;
+    private final long[] valores;
+    private final byte[] tipos;
+    private final long[] anteriores;
+
+    /**
+     * @param capacidade Quantidade de movimentos guardados (potência de 2)
+     * @throws IllegalArgumentException se a capacidade não for potência de 2 positiva
+     */
+    public LivroRazao(int capacidade) {
+        if (capacidade <= 0 || Integer.bitCount(capacidade) != 1) {
+            throw new IllegalArgumentException("Capacidade do livro razão deve ser potência de 2: " + capacidade);
+        }
+        this.capacidade = capacidade;
+        this.mascara = capacidade - 1;
+        this.proximaSequencia = new AtomicLong();
+        this.faixas = new FaixaContas[QUANTIDADE_FAIXAS];
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            faixas[i] = new FaixaContas();
+        }
+        this.marcas = new long[capacidade];
+        this.instantes = new long[capacidade];
+        this.contas = new int[capacidade];
+        this.contrapartes = new int[capacidade];
+        this.valores = new long[capacidade];
+        this.tipos = new byte[capacidade];
+        this.anteriores = new long[capacidade];
+    }
+
+    /**
+     * Livro desativado (ver {@link #DESATIVADO}).
+     */
+    private LivroRazao() {
+        this.capacidade = 0;
+        this.mascara = 0;
+        this.proximaSequencia = new AtomicLong();
+        this.faixas = new FaixaContas[0];
+        this.marcas = new long[0];
+        this.instantes = new long[0];
+        this.contas = new int[0];
+        this.contrapartes = new int[0];
+        this.valores = new long[0];
+        this.tipos = new byte[0];
+        this.anteriores = new long[0];
+    }
+
+    /**
+     * @return false para o livro {@link #DESATIVADO}
+     */
+    public boolean isAtivo() {
+        return capacidade > 0;
+    }
+
+    /**
+     * @return Quantidade máxima de movimentos guardados (0 se desativado)
+     */
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    /**
+     * Anexa um movimento.
+     *
+     * @param tipo Tipo do movimento
+     * @param numeroConta Conta movimentada (positiva)
+     * @param centavos Valor positivo em centavos
+     * @param contraparte Outra conta da transferência, ou {@link Movimento#SEM_CONTRAPARTE}
+     * @return Sequência do movimento, ou {@link #SEM_SEQUENCIA} se o livro estiver desativado
+     */
+    public long registrar(TipoMovimento tipo, int numeroConta, long centavos, int contraparte) {
+        if (capacidade == 0) {
+            return SEM_SEQUENCIA;
+        }
+        return anexar(tipo, numeroConta, centavos, contraparte, System.currentTimeMillis());
+    }
+
+    /**
+     * Anexa os dois lados de uma transferência, com o mesmo instante.
+     * A entrada vem depois da saída, mas não necessariamente na sequência seguinte.
+     *
+     * @param origem Conta debitada
+     * @param destino Conta creditada
+     * @param centavos Valor positivo em centavos
+     * @return Sequência do movimento de saída, ou {@link #SEM_SEQUENCIA} se o livro estiver desativado
+     */
+    public long registrarTransferencia(int origem, int destino, long centavos) {
+        if (capacidade == 0) {
+            return SEM_SEQUENCIA;
+        }
+        long instante = System.currentTimeMillis();
+        long saida = anexar(TipoMovimento.TRANSFERENCIA_ENVIADA, origem, centavos, destino, instante);
+        anexar(TipoMovimento.TRANSFERENCIA_RECEBIDA, destino, centavos, origem, instante);
+        return saida;
+    }
+
+    /**
+     * @return Quantidade de movimentos já registrados, inclusive os sobrescritos (também a próxima sequência)
+     */
+    public long getQuantidadeMovimentos() {
+        return proximaSequencia.get();
+    }
+
+    /**
+     * @param numeroConta Número da conta
+     * @param quantidadeMaxima Quantidade máxima de movimentos
+     * @return Últimos movimentos da conta ainda guardados, do mais antigo para o mais recente
+     * @throws IllegalArgumentException se a quantidade for negativa
+     */
+    public List<Movimento> ultimos(int numeroConta, int quantidadeMaxima) {
+        if (quantidadeMaxima < 0) {
+            throw new IllegalArgumentException("Quantidade não pode ser negativa");
+        }
+        List<Movimento> movimentos = new ArrayList<>(Math.min(quantidadeMaxima, 1 << 10));
+        long sequencia = ultimaSequencia(numeroConta);
+        long[] anterior = new long[1];
+        while (sequencia != SEM_ANTERIOR && movimentos.size() < quantidadeMaxima) {
+            Movimento movimento = ler(sequencia, anterior);
+            if (movimento == null) {
+                break;
+            }
+            movimentos.add(movimento);
+            sequencia = anterior[0];
+        }
+        Collections.reverse(movimentos);
+        return movimentos;
+    }
+
+    /**
+     * @param numeroConta Número da conta
+     * @param primeira Primeira sequência (inclusiva)
+     * @param ultima Última sequência (inclusiva)
+     * @return Movimentos da conta na faixa ainda guardados, do mais antigo para o mais recente
+     */
+    public List<Movimento> porSequencia(int numeroConta, long primeira, long ultima) {
+        return porCadeia(numeroConta, primeira, ultima, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param numeroConta Número da conta
+     * @param inicio Início do período (inclusivo, milissegundos desde a época Unix)
+     * @param fim Fim do período (exclusivo)
+     * @return Movimentos da conta no período ainda guardados, do mais antigo para o mais recente
+     */
+    public List<Movimento> porPeriodo(int numeroConta, long inicio, long fim) {
+        return porCadeia(numeroConta, 0, Long.MAX_VALUE, inicio, fim);
+    }
+
+    /**
+     * Cursor sobre todos os movimentos já registrados e ainda guardados, em ordem de sequência.
+     *
+     * @param numeroConta Conta a filtrar, ou {@link #TODAS_AS_CONTAS}
+     * @param capacidadeLote Movimentos por lote
+     * @return Cursor posicionado antes do primeiro lote
+     * @throws IllegalArgumentException se a capacidade não for positiva
+     */
+    public CursorMovimentos cursor(int numeroConta, int capacidadeLote) {
+        return cursorPorPeriodo(numeroConta, Long.MIN_VALUE, Long.MAX_VALUE, capacidadeLote);
+    }
+
+    /**
+     * Cursor sobre os movimentos de um período, em ordem de sequência.
+     * Percorre os movimentos guardados no momento da criação, filtrando por conta e
+     * por instante: custo proporcional à capacidade do livro, com memória constante.
+     * Movimentos sobrescritos enquanto o cursor avança são pulados.
+     *
+     * @param numeroConta Conta a filtrar, ou {@link #TODAS_AS_CONTAS}
+     * @param inicio Início do período (inclusivo, milissegundos desde a época Unix)
+     * @param fim Fim do período (exclusivo)
+     * @param capacidadeLote Movimentos por lote
+     * @return Cursor posicionado antes do primeiro lote
+     * @throws IllegalArgumentException se a capacidade não for positiva
+     */
+    public CursorMovimentos cursorPorPeriodo(int numeroConta, long inicio, long fim, int capacidadeLote) {
+        long limite = proximaSequencia.get();
+        long primeira = Math.max(0, limite - capacidade);
+        if (numeroConta != TODAS_AS_CONTAS) {
+            // Movimentos da conta não passam do último dela
+            long ultimaDaConta = ultimaSequencia(numeroConta);
+            limite = ultimaDaConta == SEM_ANTERIOR ? primeira : Math.min(limite, ultimaDaConta + 1);
+        }
+        return new CursorMovimentos(this, numeroConta, inicio, fim, primeira, Math.max(primeira, limite),
+                capacidadeLote);
+    }
+
+    /**
+     * Copia o próximo lote do cursor (chamado por {@link CursorMovimentos#avancar()}).
+     */
+    void preencher(CursorMovimentos cursor) {
+        int filtro = cursor.getNumeroContaFiltrada();
+        long sequencia = Math.max(cursor.proxima, proximaSequencia.get() - capacidade);
+        long fimVarredura = filtro == TODAS_AS_CONTAS
+                ? cursor.limite
+                : Math.min(cursor.limite, sequencia + VARREDURA_MAXIMA_POR_LOTE);
+        int copiados = 0;
+        while (sequencia < fimVarredura && copiados < cursor.sequencias.length) {
+            int posicao = (int) (sequencia & mascara);
+            long marca = aguardarPublicacao(posicao, sequencia);
+            if (marca == sequencia + 1) {
+                long instante = instantes[posicao];
+                int conta = contas[posicao];
+                byte tipo = tipos[posicao];
+                long valor = valores[posicao];
+                int contraparte = contrapartes[posicao];
+                VarHandle.acquireFence();
+                boolean intacta = (long) MARCAS.getVolatile(marcas, posicao) == marca;
+                if (intacta && (filtro == TODAS_AS_CONTAS || conta == filtro)
+                        && instante >= cursor.inicio && instante < cursor.fim) {
+                    cursor.sequencias[copiados] = sequencia;
+                    cursor.instantes[copiados] = instante;
+                    cursor.contas[copiados] = conta;
+                    cursor.tipos[copiados] = TIPOS[tipo];
+                    cursor.valores[copiados] = valor;
+                    cursor.contrapartes[copiados] = contraparte;
+                    copiados++;
+                }
+            }
+            sequencia++;
+        }
+        cursor.quantidade = copiados;
+        cursor.proxima = sequencia;
+    }
+
+    /**
+     * Percorre a cadeia da conta do mais recente para trás, até a primeira sequência
+     * ou o primeiro movimento já sobrescrito.
+     */
+    private List<Movimento> porCadeia(int numeroConta, long primeira, long ultima, long inicio, long fim) {
+        List<Movimento> movimentos = new ArrayList<>();
+        long sequencia = ultimaSequencia(numeroConta);
+        long[] anterior = new long[1];
+        while (sequencia != SEM_ANTERIOR && sequencia >= primeira) {
+            Movimento movimento = ler(sequencia, anterior);
+            if (movimento == null) {
+                break;
+            }
+            if (sequencia <= ultima && movimento.getInstante() >= inicio && movimento.getInstante() < fim) {
+                movimentos.add(movimento);
+            }
+            sequencia = anterior[0];
+        }
+        Collections.reverse(movimentos);
+        return movimentos;
+    }
+
+    private long anexar(TipoMovimento tipo, int numeroConta, long centavos, int contraparte, long instante) {
+        FaixaContas faixa = faixas[numeroConta & (QUANTIDADE_FAIXAS - 1)];
+        synchronized (faixa) {
+            // Sequência obtida sob a trava da faixa: a cadeia de cada conta fica em ordem
+            long sequencia = proximaSequencia.getAndIncrement();
+            int posicao = (int) (sequencia & mascara);
+            long marcaAnterior = sequencia < capacidade ? 0 : sequencia - capacidade + 1;
+            // Só espera se uma anexação de uma volta atrás ainda grava a mesma posição
+            while (!MARCAS.compareAndSet(marcas, posicao, marcaAnterior, GRAVANDO)) {
+                Thread.onSpinWait();
+            }
+            instantes[posicao] = instante;
+            contas[posicao] = numeroConta;
+            contrapartes[posicao] = contraparte;
+            valores[posicao] = centavos;
+            tipos[posicao] = (byte) tipo.ordinal();
+            anteriores[posicao] = faixa.trocarUltima(numeroConta, sequencia);
+            MARCAS.setRelease(marcas, posicao, sequencia + 1);
+            return sequencia;
+        }
+    }
+
+    private long ultimaSequencia(int numeroConta) {
+        if (capacidade == 0) {
+            return SEM_ANTERIOR;
+        }
+        FaixaContas faixa = faixas[numeroConta & (QUANTIDADE_FAIXAS - 1)];
+        synchronized (faixa) {
+            return faixa.ultima(numeroConta);
+        }
+    }
+
+    /**
+     * Espera a publicação de uma entrada já numerada (a gravação dura poucas instruções).
+     *
+     * @return Marca da posição: {@code sequencia + 1} se publicada, maior se já sobrescrita
+     */
+    private long aguardarPublicacao(int posicao, long sequencia) {
+        long marca = (long) MARCAS.getAcquire(marcas, posicao);
+        while (marca <= sequencia) {
+            Thread.onSpinWait();
+            marca = (long) MARCAS.getAcquire(marcas, posicao);
+        }
+        return marca;
+    }
+
+    /**
+     * Lê uma entrada da cadeia de uma conta.
+     *
+     * @param anterior Recebe a sequência do movimento anterior da mesma conta
+     * @return Movimento, ou null se a entrada já foi sobrescrita
+     */
+    private Movimento ler(long sequencia, long[] anterior) {
+        if (sequencia < proximaSequencia.get() - capacidade) {
+            return null;
+        }
+        int posicao = (int) (sequencia & mascara);
+        long marca = aguardarPublicacao(posicao, sequencia);
+        if (marca != sequencia + 1) {
+            return null;
+        }
+        Movimento movimento = new Movimento(sequencia, instantes[posicao], contas[posicao],
+                TIPOS[tipos[posicao]], valores[posicao], contrapartes[posicao]);
+        anterior[0] = anteriores[posicao];
+        VarHandle.acquireFence();
+        return (long) MARCAS.getVolatile(marcas, posicao) == marca ? movimento : null;
+    }
+
+    /**
+     * Último movimento de cada conta de uma faixa. Acessada sob o monitor da faixa.
+     */
+    private static final class FaixaContas {
+        /** Conta -> posição em {@link #ultimas}. */
+        private final IndiceInteiro posicaoPorConta = new IndiceInteiro();
+        private long[] ultimas = new long[16];
+        private int quantidade;
+
+        long ultima(int numeroConta) {
+            int posicao = posicaoPorConta.buscar(numeroConta);
+            return posicao == IndiceInteiro.AUSENTE ? SEM_ANTERIOR : ultimas[posicao];
+        }
+
+        /**
+         * @return Sequência anterior do último movimento da conta, ou {@link #SEM_ANTERIOR}
+         */
+        long trocarUltima(int numeroConta, long sequencia) {
+            int posicao = posicaoPorConta.buscar(numeroConta);
+            if (posicao == IndiceInteiro.AUSENTE) {
+                if (quantidade == ultimas.length) {
+                    ultimas = Arrays.copyOf(ultimas, quantidade << 1);
+                }
+                posicao = quantidade++;
+                posicaoPorConta.inserir(numeroConta, posicao);
+                ultimas[posicao] = SEM_ANTERIOR;
+            }
+            long anterior = ultimas[posicao];
+            ultimas[posicao] = sequencia;
+            return anterior;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package repository;
+
+import exception.ClienteJaExisteException;
+import model.Cliente;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Implementação indexada do repositório de clientes.
+ * Boa Prática: O CPF normalizado (11 dígitos) é codificado como long e
+ * resolvido por índice hash primitivo - buscas e verificação de duplicidade
+ * em tempo constante, sem alocação.
+ * Concorrência: leituras simultâneas; inserções exclusivas (trava de leitura/escrita).
+ */
+public class RepositorioClientesIndexado implements IRepositorioClientes {
+    private final List<Cliente> clientes;
+    private final IndiceLongo indicePorCpf;
+    private final ReadWriteLock trava;
+
+    public RepositorioClientesIndexado() {
+        this.clientes = new ArrayList<>();
+        this.indicePorCpf = new IndiceLongo();
+        this.trava = new ReentrantReadWriteLock();
+    }
+
+    @Override
+    public void adicionar(Cliente cliente) throws ClienteJaExisteException {
+        Objects.requireNonNull(cliente, "Cliente não pode ser nulo");
+
+        long chave = ChaveCpf.codificar(cliente.getCpf());
+        if (chave == ChaveCpf.CHAVE_INVALIDA) {
+            throw new IllegalArgumentException("CPF do cliente não está normalizado");
+        }
+
+        // Verificação de duplicidade e inserção sob a mesma trava
+        trava.writeLock().lock();
+        try {
+            if (indicePorCpf.buscar(chave) != IndiceLongo.AUSENTE) {
+                throw new ClienteJaExisteException(cliente.getCpf());
+            }
+
+            indicePorCpf.inserir(chave, clientes.size());
+            clientes.add(cliente);
+
+            // Assertiva: índice e lista permanecem alinhados
+            assert indicePorCpf.tamanho() == clientes.size() : "Índice de clientes dessincronizado";
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Cliente> buscarPorCpf(String cpf) {
+        Objects.requireNonNull(cpf, "CPF não pode ser nulo");
+
+        long chave = ChaveCpf.codificar(cpf);
+        if (chave == ChaveCpf.CHAVE_INVALIDA) {
+            return Optional.empty();
+        }
+
+        trava.readLock().lock();
+        try {
+            int posicao = indicePorCpf.buscar(chave);
+            if (posicao == IndiceLongo.AUSENTE) {
+                return Optional.empty();
+            }
+            return Optional.of(clientes.get(posicao));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existe(String cpf) {
+        Objects.requireNonNull(cpf, "CPF não pode ser nulo");
+
+        long chave = ChaveCpf.codificar(cpf);
+        if (chave == ChaveCpf.CHAVE_INVALIDA) {
+            return false;
+        }
+
+        trava.readLock().lock();
+        try {
+            return indicePorCpf.buscar(chave) != IndiceLongo.AUSENTE;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Cliente> listarTodos() {
+        trava.readLock().lock();
+        try {
+            // Cópia defensiva - Programação Defensiva
+            return new ArrayList<>(clientes);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+}
@@ -2,12 +2,16 @@ package repository;
 
 import model.Conta;
 import model.ContaPoupanca;
+import model.ResumoTipoConta;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.OptionalInt;
+import java.util.function.Supplier;
 
 /**
  * Implementação do repositório de contas.
@@ -15,15 +19,30 @@ import java.util.stream.Collectors;
  */
 public class RepositorioContas implements IRepositorioContas {
     private final List<Conta> contas;
+    private final List<Conta> contasPoupanca;
+    private final Map<String, List<Conta>> contasPorCpf;
+    private final ConsolidacaoContas consolidacao;
+    private final IndiceSaldos indiceSaldos;
 
     public RepositorioContas() {
         this.contas = new ArrayList<>();
+        this.contasPoupanca = new ArrayList<>();
+        this.contasPorCpf = new HashMap<>();
+        this.indiceSaldos = new IndiceSaldos();
+        this.consolidacao = new ConsolidacaoContas(indiceSaldos);
+        indiceSaldos.acompanharRendimento(consolidacao.acumuladorDo(ContaPoupanca.DESCRICAO_TIPO));
     }
 
     @Override
     public void adicionar(Conta conta) {
         Objects.requireNonNull(conta, "Conta não pode ser nula");
+        consolidacao.registrar(conta);
         contas.add(conta);
+        if (conta instanceof ContaPoupanca) {
+            contasPoupanca.add(conta);
+        }
+        contasPorCpf.computeIfAbsent(conta.getCliente().getCpf(), cpf -> new ArrayList<>()).add(conta);
+        indiceSaldos.saldoAlterado(conta);
     }
 
     @Override
@@ -44,17 +63,57 @@ public class RepositorioContas implements IRepositorioContas {
         return new ArrayList<>(contas);
     }
 
+    @Override
+    public List<Conta> listarPorCliente(String cpf) {
+        Objects.requireNonNull(cpf, "CPF não pode ser nulo");
+        // Cópia defensiva
+        return new ArrayList<>(contasPorCpf.getOrDefault(cpf, List.of()));
+    }
+
     @Override
     public List<Conta> listarOrdenadasPorSaldo() {
-        return contas.stream()
-                .sorted((c1, c2) -> Double.compare(c2.getSaldo(), c1.getSaldo()))
-                .collect(Collectors.toList());
+        return indiceSaldos.pagina(this::listarTodas, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Conta> listarPorSaldo(int inicio, int quantidade) {
+        return indiceSaldos.pagina(this::listarTodas, inicio, quantidade);
+    }
+
+    @Override
+    public List<Conta> listarMaioresSaldos(int quantidade) {
+        return indiceSaldos.pagina(this::listarTodas, 0, quantidade);
+    }
+
+    @Override
+    public List<Conta> listarMenoresSaldos(int quantidade) {
+        return indiceSaldos.menores(this::listarTodas, quantidade);
+    }
+
+    @Override
+    public OptionalInt posicaoPorSaldo(int numeroConta) {
+        return indiceSaldos.posicao(this::listarTodas, numeroConta);
     }
 
     @Override
     public List<Conta> listarContasPoupanca() {
-        return contas.stream()
-                .filter(c -> c instanceof ContaPoupanca)
-                .collect(Collectors.toList());
+        // Cópia defensiva
+        return new ArrayList<>(contasPoupanca);
+    }
+
+    @Override
+    public List<ResumoTipoConta> consolidarPorTipo() {
+        return consolidacao.resumir();
+    }
+
+    @Override
+    public <T> T executarComTotaisCongelados(Supplier<T> tarefa) {
+        return consolidacao.executarComTotaisCongelados(tarefa);
+    }
+
+    @Override
+    public int abrirEpocaRendimentoPoupancas(double percentual) {
+        // O índice por saldo continua válido: projeta as chaves das poupanças (ver IndiceSaldos)
+        return consolidacao.abrirEpocaRendimentoPoupancas(percentual);
     }
 }
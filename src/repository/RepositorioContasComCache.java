@@ -0,0 +1,373 @@
+package repository;
+
+import model.Conta;
+import model.ResumoTipoConta;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Decorador que guarda as contas mais acessadas à frente de outro repositório.
+ * Boa Prática: Decorator - o repositório decorado (ex: {@link RepositorioContasMapeado},
+ * que monta uma visão nova a cada busca) não muda; só {@link #buscarPorNumero(int)}
+ * passa pelo cache, o restante é delegado.
+ *
+ * Escrita direta: o cache guarda as próprias contas devolvidas pelo repositório
+ * decorado, não uma cópia do saldo - depósitos, saques, transferências e rendimento
+ * feitos numa conta do cache gravam no armazenamento (a visão mapeada altera o
+ * arquivo), então o saldo nunca fica desatualizado. {@link #adicionar(Conta)} grava
+ * no decorado e descarta a entrada do mesmo número, se houver: a próxima busca traz
+ * a conta viva do repositório, nunca o objeto recebido.
+ *
+ * Estrutura: associativo por conjuntos ({@value #VIAS} contas por conjunto). Como
+ * numa cache de processador, os números das contas guardadas ficam num vetor de
+ * etiquetas à parte: a busca compara as 4 etiquetas do conjunto e só acessa o objeto
+ * da conta que bateu. Admissão no estilo TinyLFU: um esboço de contagem (count-min,
+ * contadores de 4 bits com envelhecimento) estima a frequência recente de cada conta,
+ * e uma conta nova só substitui a menos frequente do conjunto se for mais frequente
+ * que ela - varreduras e contas de acesso único não expulsam as contas quentes.
+ *
+ * Concorrência: buscas não travam - leem a etiqueta (acquire) e confirmam o número
+ * na própria conta, então uma troca em andamento só causa uma falta. Admissões e
+ * descartes travam o conjunto (travas por faixa de conjuntos). O esboço é um vetor
+ * atômico: cada incremento é uma única tentativa de compare-and-set, e perder uma
+ * tentativa sob disputa só torna a estimativa um pouco menor; o envelhecimento é
+ * feito por uma única thread, palavra a palavra, sem perder incrementos alheios.
+ */
+public class RepositorioContasComCache implements IRepositorioContas {
+    private static final int VIAS = 4;
+    private static final int MAXIMO_CONTADOR = 15;
+    /** Acessos registrados (em múltiplos da capacidade) antes de dividir os contadores por dois. */
+    private static final int ACESSOS_POR_ENVELHECIMENTO = 10;
+    private static final int TRAVAS_CONJUNTOS = 64;
+    /** Etiqueta de posição vazia (números de conta começam em {@code NUMERO_CONTA_INICIAL}). */
+    private static final int VAZIA = 0;
+
+    private final IRepositorioContas repositorio;
+    private final AtomicReferenceArray<Conta> posicoes;
+    /** Número da conta de cada posição; publicado depois da conta e confirmado nela. */
+    private final AtomicIntegerArray etiquetas;
+    private final int mascaraConjuntos;
+    private final Object[] travas;
+
+    // Esboço de frequência: 16 contadores de 4 bits por long, 4 funções de espalhamento
+    private final AtomicLongArray esboco;
+    private final int mascaraEsboco;
+    private final int limiteAcessos;
+    private final AtomicInteger acessos;
+
+    private final LongAdder acertos;
+    private final LongAdder faltas;
+    private final LongAdder despejos;
+    private final LongAdder recusas;
+
+    /**
+     * @param repositorio Repositório decorado
+     * @param capacidade Quantidade máxima de contas no cache (arredondada para baixo, para potência de 2)
+     * @throws IllegalArgumentException se a capacidade for menor que {@value #VIAS}
+     */
+    public RepositorioContasComCache(IRepositorioContas repositorio, int capacidade) {
+        this.repositorio = Objects.requireNonNull(repositorio, "Repositório não pode ser nulo");
+        if (capacidade < VIAS) {
+            throw new IllegalArgumentException("Capacidade do cache deve ser ao menos " + VIAS);
+        }
+        int conjuntos = Integer.highestOneBit(Math.min(capacidade, 1 << 28) / VIAS);
+        this.posicoes = new AtomicReferenceArray<>(conjuntos * VIAS);
+        this.etiquetas = new AtomicIntegerArray(conjuntos * VIAS);
+        this.mascaraConjuntos = conjuntos - 1;
+        this.travas = new Object[TRAVAS_CONJUNTOS];
+        for (int i = 0; i < TRAVAS_CONJUNTOS; i++) {
+            travas[i] = new Object();
+        }
+        // Um long (16 contadores) por conta guardada: com menos, colisões dão às contas
+        // frias de uma varredura a mesma frequência estimada das quentes
+        this.esboco = new AtomicLongArray(conjuntos * VIAS);
+        this.mascaraEsboco = conjuntos * VIAS - 1;
+        this.limiteAcessos = conjuntos * VIAS * ACESSOS_POR_ENVELHECIMENTO;
+        this.acessos = new AtomicInteger();
+        this.acertos = new LongAdder();
+        this.faltas = new LongAdder();
+        this.despejos = new LongAdder();
+        this.recusas = new LongAdder();
+    }
+
+    @Override
+    public void adicionar(Conta conta) {
+        repositorio.adicionar(conta);
+        invalidar(conta.getNumero());
+    }
+
+    /**
+     * Busca no cache; na falta, busca no repositório decorado e tenta admitir a conta.
+     */
+    @Override
+    public Optional<Conta> buscarPorNumero(int numeroConta) {
+        int conjunto = conjunto(numeroConta);
+        int primeira = conjunto * VIAS;
+        registrarAcesso(numeroConta);
+        for (int via = 0; via < VIAS; via++) {
+            if (etiquetas.get(primeira + via) == numeroConta) {
+                Conta conta = posicoes.get(primeira + via);
+                if (conta != null && conta.getNumero() == numeroConta) {
+                    acertos.increment();
+                    return Optional.of(conta);
+                }
+            }
+        }
+        faltas.increment();
+        Optional<Conta> encontrada = repositorio.buscarPorNumero(numeroConta);
+        encontrada.ifPresent(conta -> admitir(conjunto, conta));
+        return encontrada;
+    }
+
+    @Override
+    public boolean existe(int numeroConta) {
+        return repositorio.existe(numeroConta);
+    }
+
+    @Override
+    public List<Conta> listarTodas() {
+        return repositorio.listarTodas();
+    }
+
+    @Override
+    public List<Conta> listarPorCliente(String cpf) {
+        return repositorio.listarPorCliente(cpf);
+    }
+
+    @Override
+    public List<Conta> listarOrdenadasPorSaldo() {
+        return repositorio.listarOrdenadasPorSaldo();
+    }
+
+    @Override
+    public List<Conta> listarPorSaldo(int inicio, int quantidade) {
+        return repositorio.listarPorSaldo(inicio, quantidade);
+    }
+
+    @Override
+    public List<Conta> listarMaioresSaldos(int quantidade) {
+        return repositorio.listarMaioresSaldos(quantidade);
+    }
+
+    @Override
+    public List<Conta> listarMenoresSaldos(int quantidade) {
+        return repositorio.listarMenoresSaldos(quantidade);
+    }
+
+    @Override
+    public OptionalInt posicaoPorSaldo(int numeroConta) {
+        return repositorio.posicaoPorSaldo(numeroConta);
+    }
+
+    @Override
+    public List<Conta> listarContasPoupanca() {
+        return repositorio.listarContasPoupanca();
+    }
+
+    @Override
+    public List<ResumoTipoConta> consolidarPorTipo() {
+        return repositorio.consolidarPorTipo();
+    }
+
+    @Override
+    public <T> T executarComTotaisCongelados(Supplier<T> tarefa) {
+        return repositorio.executarComTotaisCongelados(tarefa);
+    }
+
+    @Override
+    public int abrirEpocaRendimentoPoupancas(double percentual) {
+        return repositorio.abrirEpocaRendimentoPoupancas(percentual);
+    }
+
+    /**
+     * Descarta a conta do cache, se estiver nele; a próxima busca vai ao repositório decorado.
+     *
+     * @param numeroConta Número da conta
+     */
+    public void invalidar(int numeroConta) {
+        int conjunto = conjunto(numeroConta);
+        int primeira = conjunto * VIAS;
+        synchronized (travaDo(conjunto)) {
+            for (int via = 0; via < VIAS; via++) {
+                if (etiquetas.get(primeira + via) == numeroConta) {
+                    etiquetas.set(primeira + via, VAZIA);
+                    posicoes.set(primeira + via, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Capacidade efetiva do cache (em contas)
+     */
+    public int getCapacidade() {
+        return posicoes.length();
+    }
+
+    /**
+     * @return Buscas atendidas pelo cache
+     */
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    /**
+     * @return Buscas que foram ao repositório decorado
+     */
+    public long getFaltas() {
+        return faltas.sum();
+    }
+
+    /**
+     * @return Contas retiradas do cache para dar lugar a contas mais frequentes
+     */
+    public long getDespejos() {
+        return despejos.sum();
+    }
+
+    /**
+     * @return Contas buscadas que não entraram no cache por serem menos frequentes
+     */
+    public long getRecusas() {
+        return recusas.sum();
+    }
+
+    /**
+     * @return Fração das buscas atendidas pelo cache (0 se ainda não houve buscas)
+     */
+    public double getTaxaAcerto() {
+        long acertosAtuais = acertos.sum();
+        long total = acertosAtuais + faltas.sum();
+        return total == 0 ? 0.0 : (double) acertosAtuais / total;
+    }
+
+    /**
+     * Coloca a conta numa via livre do conjunto ou, se ela for mais frequente,
+     * no lugar da conta menos frequente (sob a trava do conjunto).
+     */
+    private void admitir(int conjunto, Conta conta) {
+        int numeroConta = conta.getNumero();
+        int primeira = conjunto * VIAS;
+        synchronized (travaDo(conjunto)) {
+            int livre = -1;
+            for (int via = 0; via < VIAS; via++) {
+                int etiqueta = etiquetas.get(primeira + via);
+                if (etiqueta == numeroConta) {
+                    // Outra thread admitiu a mesma conta enquanto esta buscava
+                    return;
+                }
+                if (etiqueta == VAZIA && livre < 0) {
+                    livre = primeira + via;
+                }
+            }
+            if (livre >= 0) {
+                ocupar(livre, conta);
+                return;
+            }
+
+            // Conjunto cheio: conta vista uma única vez na janela de frequência nem disputa a vaga
+            int frequenciaCandidata = frequencia(numeroConta);
+            int vitima = -1;
+            if (frequenciaCandidata > 1) {
+                int frequenciaVitima = frequenciaCandidata;
+                for (int via = 0; via < VIAS; via++) {
+                    int frequencia = frequencia(etiquetas.get(primeira + via));
+                    if (frequencia < frequenciaVitima) {
+                        vitima = primeira + via;
+                        frequenciaVitima = frequencia;
+                    }
+                }
+            }
+            if (vitima >= 0) {
+                ocupar(vitima, conta);
+                despejos.increment();
+            } else {
+                recusas.increment();
+            }
+        }
+    }
+
+    /**
+     * Publica a conta na posição e depois a etiqueta: quem vê a etiqueta nova
+     * vê a conta nova (chamado sob a trava do conjunto).
+     */
+    private void ocupar(int posicao, Conta conta) {
+        posicoes.set(posicao, conta);
+        etiquetas.set(posicao, conta.getNumero());
+    }
+
+    private Object travaDo(int conjunto) {
+        return travas[conjunto & (TRAVAS_CONJUNTOS - 1)];
+    }
+
+    private int conjunto(int numeroConta) {
+        return espalhar(numeroConta) & mascaraConjuntos;
+    }
+
+    /**
+     * Incrementa os 4 contadores da conta no esboço e, a cada {@link #limiteAcessos}
+     * acessos, envelhece os contadores.
+     */
+    private void registrarAcesso(int numeroConta) {
+        int espalhado = espalhar(numeroConta);
+        for (int i = 0; i < 4; i++) {
+            int indice = indiceEsboco(espalhado, i);
+            int deslocamento = deslocamentoEsboco(espalhado, i);
+            long palavra = esboco.get(indice);
+            if ((palavra >>> deslocamento & MAXIMO_CONTADOR) < MAXIMO_CONTADOR) {
+                esboco.compareAndSet(indice, palavra, palavra + (1L << deslocamento));
+            }
+        }
+        // Só a thread que chega ao limite envelhece; as demais seguem contando do zero
+        if (acessos.incrementAndGet() == limiteAcessos) {
+            acessos.set(0);
+            envelhecer();
+        }
+    }
+
+    /**
+     * @return Frequência estimada (o menor dos 4 contadores)
+     */
+    private int frequencia(int numeroConta) {
+        int espalhado = espalhar(numeroConta);
+        int menor = MAXIMO_CONTADOR;
+        for (int i = 0; i < 4; i++) {
+            long palavra = esboco.get(indiceEsboco(espalhado, i));
+            menor = Math.min(menor, (int) (palavra >>> deslocamentoEsboco(espalhado, i) & MAXIMO_CONTADOR));
+        }
+        return menor;
+    }
+
+    /**
+     * Divide todos os contadores por dois: a frequência passa a refletir os acessos recentes.
+     */
+    private void envelhecer() {
+        for (int i = 0; i < esboco.length(); i++) {
+            esboco.getAndUpdate(i, palavra -> palavra >>> 1 & 0x7777_7777_7777_7777L);
+        }
+    }
+
+    private int indiceEsboco(int espalhado, int funcao) {
+        int h = (espalhado + funcao * 0x9E3779B9) * 0x85EBCA6B;
+        return (h ^ h >>> 16) & mascaraEsboco;
+    }
+
+    private static int deslocamentoEsboco(int espalhado, int funcao) {
+        // Cada função usa um grupo de 4 contadores do long, e um contador dentro do grupo
+        return (funcao << 4) + ((espalhado >>> (funcao << 1) & 3) << 2);
+    }
+
+    private static int espalhar(int numeroConta) {
+        int h = numeroConta * 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+}
@@ -0,0 +1,206 @@
+package repository;
+
+import model.Conta;
+import model.ContaPoupanca;
+import model.ResumoTipoConta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Implementação indexada do repositório de contas.
+ * Boa Prática: Busca por número em tempo constante (índice hash primitivo),
+ * mantendo a ordem de inserção para as listagens.
+ * Concorrência: leituras simultâneas; inserções exclusivas (trava de leitura/escrita).
+ */
+public class RepositorioContasIndexado implements IRepositorioContas {
+    private static final int SEM_CONTA = -1;
+
+    private final List<Conta> contas;
+    private final List<Conta> contasPoupanca;
+    private final IndiceInteiro indicePorNumero;
+    /** Índice por titular: CPF codificado -> posição da conta mais recente do titular. */
+    private final IndiceLongo ultimaContaPorCpf;
+    /** Encadeamento por titular: posição -> posição da conta anterior do mesmo titular. */
+    private int[] contaAnteriorDoTitular;
+    private final ReadWriteLock trava;
+    private final ConsolidacaoContas consolidacao;
+    private final IndiceSaldos indiceSaldos;
+
+    public RepositorioContasIndexado() {
+        this.contas = new ArrayList<>();
+        this.contasPoupanca = new ArrayList<>();
+        this.indicePorNumero = new IndiceInteiro();
+        this.ultimaContaPorCpf = new IndiceLongo();
+        this.contaAnteriorDoTitular = new int[16];
+        this.trava = new ReentrantReadWriteLock();
+        this.indiceSaldos = new IndiceSaldos();
+        this.consolidacao = new ConsolidacaoContas(indiceSaldos);
+        indiceSaldos.acompanharRendimento(consolidacao.acumuladorDo(ContaPoupanca.DESCRICAO_TIPO));
+    }
+
+    @Override
+    public void adicionar(Conta conta) {
+        Objects.requireNonNull(conta, "Conta não pode ser nula");
+
+        int numeroConta = conta.getNumero();
+        trava.writeLock().lock();
+        try {
+            if (indicePorNumero.buscar(numeroConta) != IndiceInteiro.AUSENTE) {
+                throw new IllegalArgumentException("Conta número " + numeroConta + " já cadastrada");
+            }
+
+            consolidacao.registrar(conta);
+            indiceSaldos.saldoAlterado(conta);
+            encadearPorTitular(conta, contas.size());
+            indicePorNumero.inserir(numeroConta, contas.size());
+            contas.add(conta);
+            if (conta instanceof ContaPoupanca) {
+                contasPoupanca.add(conta);
+            }
+
+            // Assertiva: índice e lista permanecem alinhados
+            assert indicePorNumero.tamanho() == contas.size() : "Índice de contas dessincronizado";
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Conta> buscarPorNumero(int numeroConta) {
+        trava.readLock().lock();
+        try {
+            int posicao = indicePorNumero.buscar(numeroConta);
+            if (posicao == IndiceInteiro.AUSENTE) {
+                return Optional.empty();
+            }
+            return Optional.of(contas.get(posicao));
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existe(int numeroConta) {
+        trava.readLock().lock();
+        try {
+            return indicePorNumero.buscar(numeroConta) != IndiceInteiro.AUSENTE;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Conta> listarTodas() {
+        trava.readLock().lock();
+        try {
+            // Cópia defensiva
+            return new ArrayList<>(contas);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Conta> listarPorCliente(String cpf) {
+        Objects.requireNonNull(cpf, "CPF não pode ser nulo");
+
+        long chave = ChaveCpf.codificar(cpf);
+        List<Conta> contasDoTitular = new ArrayList<>();
+        if (chave == ChaveCpf.CHAVE_INVALIDA) {
+            return contasDoTitular;
+        }
+
+        trava.readLock().lock();
+        try {
+            int posicao = ultimaContaPorCpf.buscar(chave);
+            if (posicao == IndiceLongo.AUSENTE) {
+                return contasDoTitular;
+            }
+            // Percorre só a cadeia do titular, da conta mais recente para a mais antiga
+            while (posicao != SEM_CONTA) {
+                contasDoTitular.add(contas.get(posicao));
+                posicao = contaAnteriorDoTitular[posicao];
+            }
+        } finally {
+            trava.readLock().unlock();
+        }
+        Collections.reverse(contasDoTitular);
+        return contasDoTitular;
+    }
+
+    @Override
+    public List<Conta> listarOrdenadasPorSaldo() {
+        return indiceSaldos.pagina(this::listarTodas, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Conta> listarPorSaldo(int inicio, int quantidade) {
+        return indiceSaldos.pagina(this::listarTodas, inicio, quantidade);
+    }
+
+    @Override
+    public List<Conta> listarMaioresSaldos(int quantidade) {
+        return indiceSaldos.pagina(this::listarTodas, 0, quantidade);
+    }
+
+    @Override
+    public List<Conta> listarMenoresSaldos(int quantidade) {
+        return indiceSaldos.menores(this::listarTodas, quantidade);
+    }
+
+    @Override
+    public OptionalInt posicaoPorSaldo(int numeroConta) {
+        return indiceSaldos.posicao(this::listarTodas, numeroConta);
+    }
+
+    @Override
+    public List<Conta> listarContasPoupanca() {
+        trava.readLock().lock();
+        try {
+            // Cópia defensiva
+            return new ArrayList<>(contasPoupanca);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<ResumoTipoConta> consolidarPorTipo() {
+        return consolidacao.resumir();
+    }
+
+    @Override
+    public <T> T executarComTotaisCongelados(Supplier<T> tarefa) {
+        return consolidacao.executarComTotaisCongelados(tarefa);
+    }
+
+    @Override
+    public int abrirEpocaRendimentoPoupancas(double percentual) {
+        // O índice por saldo continua válido: projeta as chaves das poupanças (ver IndiceSaldos)
+        return consolidacao.abrirEpocaRendimentoPoupancas(percentual);
+    }
+
+    /**
+     * Liga a conta na posição informada à cadeia do seu titular (chamado sob a trava de escrita).
+     */
+    private void encadearPorTitular(Conta conta, int posicao) {
+        long chave = ChaveCpf.codificar(conta.getCliente().getCpf());
+        assert chave != ChaveCpf.CHAVE_INVALIDA : "CPF do titular não está normalizado";
+
+        if (posicao == contaAnteriorDoTitular.length) {
+            contaAnteriorDoTitular = Arrays.copyOf(contaAnteriorDoTitular, posicao << 1);
+        }
+        int anterior = ultimaContaPorCpf.buscar(chave);
+        contaAnteriorDoTitular[posicao] = anterior == IndiceLongo.AUSENTE ? SEM_CONTA : anterior;
+        ultimaContaPorCpf.inserir(chave, posicao);
+    }
+}
@@ -0,0 +1,400 @@
+package repository;
+
+import constants.Constantes;
+import model.AcumuladorSaldo;
+import model.CelulaSaldo;
+import model.Cliente;
+import model.Conta;
+import model.ContaCorrente;
+import model.ContaPoupanca;
+import model.ResumoTipoConta;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Supplier;
+
+/**
+ * Repositório de contas em colunas de largura fixa num arquivo mapeado em memória.
+ * Boa Prática: Nenhum objeto Conta fica no heap - o sistema operacional pagina os
+ * dados; visões leves são criadas apenas quando uma conta é consultada, e operam
+ * diretamente (compare-and-set) sobre o saldo no arquivo.
+ *
+ * Endereçamento direto: a linha de uma conta é {@code numero - NUMERO_CONTA_INICIAL},
+ * pois os números são gerados em sequência. O arquivo é dividido em blocos de
+ * {@link #LINHAS_POR_BLOCO} linhas, cada um com as colunas
+ * [saldo long][número int][índice do cliente int][tipo int][época de rendimento int]
+ * [linha da conta anterior do mesmo cliente int].
+ *
+ * O arquivo é área de trabalho, não fonte de verdade: é truncado na abertura e
+ * preenchido de novo a partir do estado recuperado (snapshot + diário), então um
+ * arquivo deixado por uma execução interrompida nunca é lido. Uma conta adicionada
+ * é copiada para o arquivo; use {@link #buscarPorNumero(int)} para obter a visão viva.
+ *
+ * Memória no heap: só o que não cabe em colunas - a tabela de titulares (as mesmas
+ * instâncias de Cliente do repositório de clientes, uma referência por titular), o
+ * índice CPF -> titular numa tabela primitiva e o índice por saldo, que guarda
+ * apenas números de conta e cria as visões de uma página ao consultá-la.
+ */
+public class RepositorioContasMapeado implements IRepositorioContas, Closeable {
+    private static final int LINHAS_POR_BLOCO = 1 << 16;
+    private static final int DESLOCAMENTO_SALDO = 0;
+    private static final int DESLOCAMENTO_NUMERO = DESLOCAMENTO_SALDO + Long.BYTES * LINHAS_POR_BLOCO;
+    private static final int DESLOCAMENTO_CLIENTE = DESLOCAMENTO_NUMERO + Integer.BYTES * LINHAS_POR_BLOCO;
+    private static final int DESLOCAMENTO_TIPO = DESLOCAMENTO_CLIENTE + Integer.BYTES * LINHAS_POR_BLOCO;
+    private static final int DESLOCAMENTO_EPOCA = DESLOCAMENTO_TIPO + Integer.BYTES * LINHAS_POR_BLOCO;
+    private static final int DESLOCAMENTO_ANTERIOR_DO_CLIENTE = DESLOCAMENTO_EPOCA + Integer.BYTES * LINHAS_POR_BLOCO;
+    private static final int TAMANHO_BLOCO = DESLOCAMENTO_ANTERIOR_DO_CLIENTE + Integer.BYTES * LINHAS_POR_BLOCO;
+    private static final int SEM_LINHA = -1;
+
+    private static final int TIPO_VAZIO = 0;
+    private static final int TIPO_CORRENTE = 1;
+    private static final int TIPO_POUPANCA = 2;
+
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle INTS =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel canal;
+    private volatile MappedByteBuffer[] blocos;
+    private volatile Cliente[] clientes;
+    /** CPF codificado ({@link ChaveCpf}) -> índice do cliente na tabela de titulares. */
+    private final IndiceLongo indicePorCpf;
+    /** Índice por titular: índice do cliente -> linha da sua conta mais recente. */
+    private int[] ultimaLinhaPorCliente;
+    private final ConsolidacaoContas consolidacao;
+    private final IndiceSaldos indiceSaldos;
+    private int quantidadeClientes;
+    private int maiorLinha;
+    /** Índice secundário: linhas das contas poupança, em ordem de inserção. */
+    private int[] linhasPoupanca;
+    private int quantidadePoupancas;
+
+    /**
+     * Cria o repositório sobre o arquivo informado, descartando conteúdo anterior.
+     *
+     * @param arquivo Caminho do arquivo de dados
+     * @throws IOException se o arquivo não puder ser criado
+     */
+    public RepositorioContasMapeado(Path arquivo) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.blocos = new MappedByteBuffer[0];
+        this.clientes = new Cliente[16];
+        this.indicePorCpf = new IndiceLongo();
+        this.ultimaLinhaPorCliente = new int[16];
+        this.indiceSaldos = new IndiceSaldos(numero -> criarVisao(linhaDe(numero)));
+        this.consolidacao = new ConsolidacaoContas(indiceSaldos);
+        indiceSaldos.acompanharRendimento(consolidacao.acumuladorDo(ContaPoupanca.DESCRICAO_TIPO));
+        this.maiorLinha = -1;
+        this.linhasPoupanca = new int[16];
+    }
+
+    @Override
+    public synchronized void adicionar(Conta conta) {
+        Objects.requireNonNull(conta, "Conta não pode ser nula");
+
+        int numeroConta = conta.getNumero();
+        int linha = linhaDe(numeroConta);
+        if (linha < 0) {
+            throw new IllegalArgumentException("Número de conta fora da faixa do repositório: " + numeroConta);
+        }
+        MappedByteBuffer bloco = garantirBloco(linha / LINHAS_POR_BLOCO);
+        int posicao = linha % LINHAS_POR_BLOCO;
+        if ((int) INTS.getAcquire(bloco, DESLOCAMENTO_TIPO + posicao * Integer.BYTES) != TIPO_VAZIO) {
+            throw new IllegalArgumentException("Conta número " + numeroConta + " já cadastrada");
+        }
+
+        LONGS.setVolatile(bloco, DESLOCAMENTO_SALDO + posicao * Long.BYTES, conta.getSaldoCentavos());
+        INTS.set(bloco, DESLOCAMENTO_NUMERO + posicao * Integer.BYTES, numeroConta);
+        int indiceCliente = indiceDoCliente(conta.getCliente());
+        INTS.set(bloco, DESLOCAMENTO_CLIENTE + posicao * Integer.BYTES, indiceCliente);
+        // Encadeamento por titular: a nova linha aponta para a conta anterior do cliente
+        INTS.set(bloco, DESLOCAMENTO_ANTERIOR_DO_CLIENTE + posicao * Integer.BYTES,
+                ultimaLinhaPorCliente[indiceCliente]);
+        ultimaLinhaPorCliente[indiceCliente] = linha;
+        // A conta recebida é apenas copiada: só as visões do arquivo se vinculam ao acumulador
+        AcumuladorSaldo acumulador = consolidacao.acumuladorDo(conta.getTipo());
+        INTS.set(bloco, DESLOCAMENTO_EPOCA + posicao * Integer.BYTES,
+                acumulador.adicionarConta(conta.getSaldoCentavos()));
+        // Tipo gravado por último (release): leitores que o veem preenchido veem a linha completa
+        boolean poupanca = conta instanceof ContaPoupanca;
+        INTS.setRelease(bloco, DESLOCAMENTO_TIPO + posicao * Integer.BYTES,
+                poupanca ? TIPO_POUPANCA : TIPO_CORRENTE);
+
+        if (poupanca) {
+            if (quantidadePoupancas == linhasPoupanca.length) {
+                linhasPoupanca = Arrays.copyOf(linhasPoupanca, linhasPoupanca.length << 1);
+            }
+            linhasPoupanca[quantidadePoupancas++] = linha;
+        }
+
+        maiorLinha = Math.max(maiorLinha, linha);
+        if (indiceSaldos.isAtivo()) {
+            indiceSaldos.saldoAlterado(criarVisao(linha));
+        }
+    }
+
+    @Override
+    public Optional<Conta> buscarPorNumero(int numeroConta) {
+        return Optional.ofNullable(criarVisao(linhaDe(numeroConta)));
+    }
+
+    @Override
+    public boolean existe(int numeroConta) {
+        int linha = linhaDe(numeroConta);
+        MappedByteBuffer[] blocosAtuais = blocos;
+        if (linha < 0 || linha / LINHAS_POR_BLOCO >= blocosAtuais.length) {
+            return false;
+        }
+        return lerTipo(blocosAtuais[linha / LINHAS_POR_BLOCO], linha % LINHAS_POR_BLOCO) != TIPO_VAZIO;
+    }
+
+    @Override
+    public List<Conta> listarTodas() {
+        int ultimaLinha;
+        synchronized (this) {
+            ultimaLinha = maiorLinha;
+        }
+        List<Conta> contas = new ArrayList<>();
+        for (int linha = 0; linha <= ultimaLinha; linha++) {
+            Conta conta = criarVisao(linha);
+            if (conta != null) {
+                contas.add(conta);
+            }
+        }
+        return contas;
+    }
+
+    @Override
+    public List<Conta> listarPorCliente(String cpf) {
+        Objects.requireNonNull(cpf, "CPF não pode ser nulo");
+
+        long chave = ChaveCpf.codificar(cpf);
+        if (chave == ChaveCpf.CHAVE_INVALIDA) {
+            return new ArrayList<>();
+        }
+        int linha;
+        synchronized (this) {
+            int indiceCliente = indicePorCpf.buscar(chave);
+            linha = indiceCliente == IndiceLongo.AUSENTE ? SEM_LINHA : ultimaLinhaPorCliente[indiceCliente];
+        }
+        // Linhas publicadas não mudam: a cadeia é percorrida fora da trava
+        List<Conta> contasDoTitular = new ArrayList<>();
+        while (linha != SEM_LINHA) {
+            contasDoTitular.add(criarVisao(linha));
+            linha = (int) INTS.get(blocos[linha / LINHAS_POR_BLOCO],
+                    DESLOCAMENTO_ANTERIOR_DO_CLIENTE + (linha % LINHAS_POR_BLOCO) * Integer.BYTES);
+        }
+        Collections.reverse(contasDoTitular);
+        return contasDoTitular;
+    }
+
+    @Override
+    public List<Conta> listarOrdenadasPorSaldo() {
+        return indiceSaldos.pagina(this::listarTodas, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Conta> listarPorSaldo(int inicio, int quantidade) {
+        return indiceSaldos.pagina(this::listarTodas, inicio, quantidade);
+    }
+
+    @Override
+    public List<Conta> listarMaioresSaldos(int quantidade) {
+        return indiceSaldos.pagina(this::listarTodas, 0, quantidade);
+    }
+
+    @Override
+    public List<Conta> listarMenoresSaldos(int quantidade) {
+        return indiceSaldos.menores(this::listarTodas, quantidade);
+    }
+
+    @Override
+    public OptionalInt posicaoPorSaldo(int numeroConta) {
+        return indiceSaldos.posicao(this::listarTodas, numeroConta);
+    }
+
+    @Override
+    public List<Conta> listarContasPoupanca() {
+        int[] linhas;
+        synchronized (this) {
+            linhas = Arrays.copyOf(linhasPoupanca, quantidadePoupancas);
+        }
+        List<Conta> contas = new ArrayList<>(linhas.length);
+        for (int linha : linhas) {
+            contas.add(criarVisao(linha));
+        }
+        return contas;
+    }
+
+    @Override
+    public List<ResumoTipoConta> consolidarPorTipo() {
+        return consolidacao.resumir();
+    }
+
+    @Override
+    public <T> T executarComTotaisCongelados(Supplier<T> tarefa) {
+        return consolidacao.executarComTotaisCongelados(tarefa);
+    }
+
+    @Override
+    public int abrirEpocaRendimentoPoupancas(double percentual) {
+        // O índice por saldo continua válido: projeta as chaves das poupanças (ver IndiceSaldos)
+        return consolidacao.abrirEpocaRendimentoPoupancas(percentual);
+    }
+
+    /**
+     * Sincroniza as alterações com o disco e fecha o arquivo.
+     * Os blocos deixam de ser referenciados pelo repositório: o mapeamento é desfeito
+     * quando o coletor recolhe o último buffer (a API padrão do Java 21 não expõe um
+     * unmap explícito). Visões obtidas antes do fechamento não devem mais ser usadas.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        MappedByteBuffer[] blocosAtuais = blocos;
+        blocos = new MappedByteBuffer[0];
+        try {
+            for (MappedByteBuffer bloco : blocosAtuais) {
+                bloco.force();
+            }
+        } finally {
+            canal.close();
+        }
+    }
+
+    /**
+     * Cria a visão de uma linha ocupada.
+     *
+     * @return Visão da conta, ou null se a linha estiver vazia ou fora do arquivo
+     */
+    private Conta criarVisao(int linha) {
+        MappedByteBuffer[] blocosAtuais = blocos;
+        if (linha < 0 || linha / LINHAS_POR_BLOCO >= blocosAtuais.length) {
+            return null;
+        }
+        MappedByteBuffer bloco = blocosAtuais[linha / LINHAS_POR_BLOCO];
+        int posicao = linha % LINHAS_POR_BLOCO;
+
+        int tipo = lerTipo(bloco, posicao);
+        if (tipo == TIPO_VAZIO) {
+            return null;
+        }
+        int numeroConta = (int) INTS.get(bloco, DESLOCAMENTO_NUMERO + posicao * Integer.BYTES);
+        Cliente cliente = clientes[(int) INTS.get(bloco, DESLOCAMENTO_CLIENTE + posicao * Integer.BYTES)];
+        CelulaSaldo celula = new CelulaSaldoMapeada(bloco, DESLOCAMENTO_SALDO + posicao * Long.BYTES,
+                DESLOCAMENTO_EPOCA + posicao * Integer.BYTES);
+
+        Conta visao = tipo == TIPO_POUPANCA
+                ? new ContaPoupanca(numeroConta, cliente, celula)
+                : new ContaCorrente(numeroConta, cliente, celula);
+        visao.vincularAcumulador(consolidacao.acumuladorDo(visao.getTipo()));
+        return visao;
+    }
+
+    private static int lerTipo(MappedByteBuffer bloco, int posicao) {
+        return (int) INTS.getAcquire(bloco, DESLOCAMENTO_TIPO + posicao * Integer.BYTES);
+    }
+
+    private static int linhaDe(int numeroConta) {
+        return numeroConta - Constantes.NUMERO_CONTA_INICIAL;
+    }
+
+    /**
+     * Mapeia blocos até o índice informado (chamado sob a trava do repositório).
+     */
+    private MappedByteBuffer garantirBloco(int indiceBloco) {
+        MappedByteBuffer[] blocosAtuais = blocos;
+        if (indiceBloco < blocosAtuais.length) {
+            return blocosAtuais[indiceBloco];
+        }
+        MappedByteBuffer[] novosBlocos = Arrays.copyOf(blocosAtuais, indiceBloco + 1);
+        try {
+            for (int i = blocosAtuais.length; i <= indiceBloco; i++) {
+                novosBlocos[i] = canal.map(FileChannel.MapMode.READ_WRITE, (long) i * TAMANHO_BLOCO, TAMANHO_BLOCO);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao mapear bloco do arquivo de contas", e);
+        }
+        blocos = novosBlocos;
+        return novosBlocos[indiceBloco];
+    }
+
+    /**
+     * Retorna o índice do cliente na tabela de titulares, registrando-o se necessário
+     * (chamado sob a trava do repositório).
+     */
+    private int indiceDoCliente(Cliente cliente) {
+        long chave = ChaveCpf.codificar(cliente.getCpf());
+        assert chave != ChaveCpf.CHAVE_INVALIDA : "CPF do titular não está normalizado";
+        int indice = indicePorCpf.buscar(chave);
+        if (indice != IndiceLongo.AUSENTE) {
+            return indice;
+        }
+        Cliente[] tabela = clientes;
+        if (quantidadeClientes == tabela.length) {
+            tabela = Arrays.copyOf(tabela, tabela.length << 1);
+            ultimaLinhaPorCliente = Arrays.copyOf(ultimaLinhaPorCliente, tabela.length);
+        }
+        ultimaLinhaPorCliente[quantidadeClientes] = SEM_LINHA;
+        tabela[quantidadeClientes] = cliente;
+        clientes = tabela;
+        indicePorCpf.inserir(chave, quantidadeClientes);
+        return quantidadeClientes++;
+    }
+
+    /**
+     * Saldo e época de rendimento armazenados em posições alinhadas do arquivo mapeado.
+     */
+    private static final class CelulaSaldoMapeada implements CelulaSaldo {
+        private final MappedByteBuffer bloco;
+        private final int deslocamento;
+        private final int deslocamentoEpoca;
+
+        private CelulaSaldoMapeada(MappedByteBuffer bloco, int deslocamento, int deslocamentoEpoca) {
+            this.bloco = bloco;
+            this.deslocamento = deslocamento;
+            this.deslocamentoEpoca = deslocamentoEpoca;
+        }
+
+        @Override
+        public long ler() {
+            return (long) LONGS.getVolatile(bloco, deslocamento);
+        }
+
+        @Override
+        public boolean compararETrocar(long esperado, long novo) {
+            return LONGS.compareAndSet(bloco, deslocamento, esperado, novo);
+        }
+
+        @Override
+        public long trocar(long centavos) {
+            return (long) LONGS.getAndSet(bloco, deslocamento, centavos);
+        }
+
+        @Override
+        public int lerEpocaRendimento() {
+            return (int) INTS.getVolatile(bloco, deslocamentoEpoca);
+        }
+
+        @Override
+        public void gravarEpocaRendimento(int epoca) {
+            INTS.setVolatile(bloco, deslocamentoEpoca, epoca);
+        }
+    }
+}
@@ -3,14 +3,22 @@ package service;
 import constants.Constantes;
 import exception.*;
 import factory.ContaFactory;
+import model.Centavos;
 import model.Cliente;
 import model.Conta;
-import model.ContaPoupanca;
+import model.Movimento;
+import model.TipoMovimento;
 import repository.IRepositorioClientes;
 import repository.IRepositorioContas;
+import repository.LivroRazao;
+import validator.ContaValidator;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Serviço bancário que implementa operações bancárias.
@@ -19,6 +27,10 @@ import java.util.Objects;
 public class BancoServico implements IOperacoesBancarias {
     private final IRepositorioClientes repositorioClientes;
     private final IRepositorioContas repositorioContas;
+    private final LivroRazao livroRazao;
+    private final CacheIdempotencia cacheIdempotencia;
+    private final MotorRendimento motorRendimento;
+    private final boolean rendimentoDiferido;
     private int proximoNumeroConta;
 
     /**
@@ -30,11 +42,93 @@ public class BancoServico implements IOperacoesBancarias {
      */
     public BancoServico(IRepositorioClientes repositorioClientes,
                         IRepositorioContas repositorioContas) {
+        this(repositorioClientes, repositorioContas, Constantes.NUMERO_CONTA_INICIAL);
+    }
+
+    /**
+     * Construtor para repositórios já populados (ex: estado recuperado do disco).
+     *
+     * @param repositorioClientes Repositório de clientes
+     * @param repositorioContas Repositório de contas
+     * @param proximoNumeroConta Próximo número de conta a ser gerado
+     */
+    public BancoServico(IRepositorioClientes repositorioClientes,
+                        IRepositorioContas repositorioContas,
+                        int proximoNumeroConta) {
+        this(repositorioClientes, repositorioContas, proximoNumeroConta, false);
+    }
+
+    /**
+     * Construtor com escolha do modo de rendimento, sem livro razão (extratos vêm vazios).
+     * O rendimento diferido abre uma época em O(1) e cada poupança a aplica no próximo
+     * acesso; os totais ficam aproximados até as contas aplicarem a época (ver
+     * {@link IRepositorioContas#abrirEpocaRendimentoPoupancas}).
+     *
+     * @param repositorioClientes Repositório de clientes
+     * @param repositorioContas Repositório de contas
+     * @param proximoNumeroConta Próximo número de conta a ser gerado
+     * @param rendimentoDiferido true para o rendimento diferido, false para aplicá-lo já
+     */
+    public BancoServico(IRepositorioClientes repositorioClientes,
+                        IRepositorioContas repositorioContas,
+                        int proximoNumeroConta,
+                        boolean rendimentoDiferido) {
+        this(repositorioClientes, repositorioContas, proximoNumeroConta, rendimentoDiferido, LivroRazao.DESATIVADO);
+    }
+
+    /**
+     * Construtor com livro razão e cache de idempotência próprio.
+     *
+     * @param repositorioClientes Repositório de clientes
+     * @param repositorioContas Repositório de contas
+     * @param proximoNumeroConta Próximo número de conta a ser gerado
+     * @param rendimentoDiferido true para o rendimento diferido (ver construtor de 4 parâmetros)
+     * @param livroRazao Livro em que cada mutação bem-sucedida é registrada
+     *                   ({@link LivroRazao#DESATIVADO} para não registrar)
+     */
+    public BancoServico(IRepositorioClientes repositorioClientes,
+                        IRepositorioContas repositorioContas,
+                        int proximoNumeroConta,
+                        boolean rendimentoDiferido,
+                        LivroRazao livroRazao) {
+        this(repositorioClientes, repositorioContas, proximoNumeroConta, rendimentoDiferido, livroRazao,
+                new CacheIdempotencia(Constantes.CAPACIDADE_CACHE_IDEMPOTENCIA,
+                        TimeUnit.MINUTES.toMillis(Constantes.JANELA_IDEMPOTENCIA_MINUTOS)));
+    }
+
+    /**
+     * Construtor completo.
+     * Boa Prática: decoradores que também deduplicam por chave recebem o mesmo cache,
+     * para que uma chave tenha um único resultado qualquer que seja a camada chamada.
+     *
+     * @param repositorioClientes Repositório de clientes
+     * @param repositorioContas Repositório de contas
+     * @param proximoNumeroConta Próximo número de conta a ser gerado
+     * @param rendimentoDiferido true para o rendimento diferido (ver construtor de 4 parâmetros)
+     * @param livroRazao Livro em que cada mutação bem-sucedida é registrada
+     *                   ({@link LivroRazao#DESATIVADO} para não registrar)
+     * @param cacheIdempotencia Cache que deduplica as operações com chave
+     */
+    public BancoServico(IRepositorioClientes repositorioClientes,
+                        IRepositorioContas repositorioContas,
+                        int proximoNumeroConta,
+                        boolean rendimentoDiferido,
+                        LivroRazao livroRazao,
+                        CacheIdempotencia cacheIdempotencia) {
+        if (proximoNumeroConta < Constantes.NUMERO_CONTA_INICIAL) {
+            throw new IllegalArgumentException("Próximo número de conta inválido: " + proximoNumeroConta);
+        }
         this.repositorioClientes = Objects.requireNonNull(repositorioClientes,
                 "Repositório de clientes não pode ser nulo");
         this.repositorioContas = Objects.requireNonNull(repositorioContas,
                 "Repositório de contas não pode ser nulo");
-        this.proximoNumeroConta = Constantes.NUMERO_CONTA_INICIAL;
+        this.livroRazao = Objects.requireNonNull(livroRazao, "Livro razão não pode ser nulo");
+        this.cacheIdempotencia = Objects.requireNonNull(cacheIdempotencia,
+                "Cache de idempotência não pode ser nulo");
+        this.motorRendimento = new MotorRendimento(ForkJoinPool.commonPool(),
+                livroRazao.isAtivo() ? livroRazao : null);
+        this.rendimentoDiferido = rendimentoDiferido;
+        this.proximoNumeroConta = proximoNumeroConta;
     }
 
     @Override
@@ -60,6 +154,10 @@ public class BancoServico implements IOperacoesBancarias {
 
         // Adiciona ao repositório
         repositorioContas.adicionar(novaConta);
+        if (novaConta.getSaldoCentavos() > 0) {
+            livroRazao.registrar(TipoMovimento.ABERTURA, numeroConta, novaConta.getSaldoCentavos(),
+                    Movimento.SEM_CONTRAPARTE);
+        }
 
         return novaConta;
     }
@@ -69,6 +167,7 @@ public class BancoServico implements IOperacoesBancarias {
             throws ContaNaoEncontradaException, ValorInvalidoException {
         Conta conta = buscarContaOuLancarExcecao(numeroConta);
         conta.depositar(valor);
+        livroRazao.registrar(TipoMovimento.DEPOSITO, numeroConta, Centavos.deReais(valor), Movimento.SEM_CONTRAPARTE);
     }
 
     @Override
@@ -76,6 +175,7 @@ public class BancoServico implements IOperacoesBancarias {
             throws ContaNaoEncontradaException, ValorInvalidoException, SaldoInsuficienteException {
         Conta conta = buscarContaOuLancarExcecao(numeroConta);
         conta.sacar(valor);
+        livroRazao.registrar(TipoMovimento.SAQUE, numeroConta, Centavos.deReais(valor), Movimento.SEM_CONTRAPARTE);
     }
 
     @Override
@@ -90,6 +190,75 @@ public class BancoServico implements IOperacoesBancarias {
         Conta contaDestino = buscarContaOuLancarExcecao(numeroContaDestino);
 
         contaOrigem.transferir(contaDestino, valor);
+        livroRazao.registrarTransferencia(numeroContaOrigem, numeroContaDestino, Centavos.deReais(valor));
+    }
+
+    @Override
+    public StatusOperacao tentarDepositar(int numeroConta, double valor) {
+        return executarOperacao(OperacaoLote.deposito(numeroConta, valor), null);
+    }
+
+    @Override
+    public StatusOperacao tentarSacar(int numeroConta, double valor) {
+        return executarOperacao(OperacaoLote.saque(numeroConta, valor), null);
+    }
+
+    @Override
+    public StatusOperacao tentarTransferir(int numeroContaOrigem, int numeroContaDestino, double valor) {
+        return executarOperacao(OperacaoLote.transferencia(numeroContaOrigem, numeroContaDestino, valor), null);
+    }
+
+    @Override
+    public StatusOperacao tentarDepositar(long chaveIdempotencia, int numeroConta, double valor) {
+        return cacheIdempotencia.executar(chaveIdempotencia, OperacaoLote.deposito(numeroConta, valor),
+                () -> tentarDepositar(numeroConta, valor));
+    }
+
+    @Override
+    public StatusOperacao tentarSacar(long chaveIdempotencia, int numeroConta, double valor) {
+        return cacheIdempotencia.executar(chaveIdempotencia, OperacaoLote.saque(numeroConta, valor),
+                () -> tentarSacar(numeroConta, valor));
+    }
+
+    @Override
+    public StatusOperacao tentarTransferir(long chaveIdempotencia, int numeroContaOrigem,
+                                           int numeroContaDestino, double valor) {
+        return cacheIdempotencia.executar(chaveIdempotencia,
+                OperacaoLote.transferencia(numeroContaOrigem, numeroContaDestino, valor),
+                () -> tentarTransferir(numeroContaOrigem, numeroContaDestino, valor));
+    }
+
+    @Override
+    public ResultadoLote executarLote(List<OperacaoLote> operacoes) {
+        Objects.requireNonNull(operacoes, "Lista de operações não pode ser nula");
+
+        // Cada conta é resolvida no repositório uma única vez por lote
+        Map<Integer, Conta> contasDoLote = new HashMap<>();
+        StatusOperacao[] status = new StatusOperacao[operacoes.size()];
+        for (int i = 0; i < status.length; i++) {
+            status[i] = executarOperacao(operacoes.get(i), contasDoLote);
+        }
+        return new ResultadoLote(status);
+    }
+
+    @Override
+    public ResultadoCadastroLote cadastrarLote(List<CadastroLote> cadastros) {
+        Objects.requireNonNull(cadastros, "Lista de cadastros não pode ser nula");
+
+        BancoException[] falhas = new BancoException[cadastros.size()];
+        for (int i = 0; i < falhas.length; i++) {
+            CadastroLote cadastro = cadastros.get(i);
+            try {
+                if (cadastro.getTipo() == CadastroLote.Tipo.CLIENTE) {
+                    cadastrarCliente(cadastro.getNome(), cadastro.getCpf());
+                } else {
+                    cadastrarConta(cadastro.getCpf(), cadastro.getTipoConta(), cadastro.getSaldoInicial());
+                }
+            } catch (BancoException e) {
+                falhas[i] = e;
+            }
+        }
+        return new ResultadoCadastroLote(falhas);
     }
 
     @Override
@@ -100,18 +269,36 @@ public class BancoServico implements IOperacoesBancarias {
 
     @Override
     public int aplicarRendimentoPoupancas(double percentual) throws ValorInvalidoException {
-        List<Conta> contasPoupanca = repositorioContas.listarContasPoupanca();
-
-        int contasAtualizadas = 0;
-        for (Conta conta : contasPoupanca) {
-            if (conta instanceof ContaPoupanca) {
-                ContaPoupanca poupanca = (ContaPoupanca) conta;
-                poupanca.aplicarRendimento(percentual);
-                contasAtualizadas++;
-            }
+        return aplicarRendimentoPoupancas(percentual, ProgressoRendimento.NENHUM);
+    }
+
+    @Override
+    public int aplicarRendimentoPoupancas(double percentual, ProgressoRendimento progresso)
+            throws ValorInvalidoException {
+        // Validação antes de dividir o trabalho entre threads
+        ContaValidator.validarPercentualRendimento(percentual);
+
+        if (rendimentoDiferido) {
+            // Nenhuma conta é percorrida: cada poupança aplica a época no próximo acesso
+            int contasPoupanca = repositorioContas.abrirEpocaRendimentoPoupancas(percentual);
+            progresso.atualizar(contasPoupanca, contasPoupanca);
+            return contasPoupanca;
         }
+        return repositorioContas.executarComTotaisCongelados(() ->
+                motorRendimento.aplicar(repositorioContas.listarContasPoupanca(), percentual, progresso));
+    }
 
-        return contasAtualizadas;
+    @Override
+    public ContasDoCliente consultarContasDoCliente(String cpf) throws ClienteNaoEncontradoException {
+        Cliente cliente = repositorioClientes.buscarPorCpf(cpf)
+                .orElseThrow(() -> new ClienteNaoEncontradoException(cpf));
+
+        List<Conta> contas = repositorioContas.listarPorCliente(cliente.getCpf());
+        long saldoTotalCentavos = 0;
+        for (Conta conta : contas) {
+            saldoTotalCentavos += conta.getSaldoCentavos();
+        }
+        return new ContasDoCliente(cliente, contas, saldoTotalCentavos);
     }
 
     @Override
@@ -119,11 +306,110 @@ public class BancoServico implements IOperacoesBancarias {
         return repositorioContas.listarOrdenadasPorSaldo();
     }
 
+    @Override
+    public List<Conta> listarContasOrdenadasPorSaldo(int inicio, int quantidade) {
+        return repositorioContas.listarPorSaldo(inicio, quantidade);
+    }
+
+    @Override
+    public int consultarPosicaoPorSaldo(int numeroConta) throws ContaNaoEncontradaException {
+        return repositorioContas.posicaoPorSaldo(numeroConta)
+                .orElseThrow(() -> new ContaNaoEncontradaException(numeroConta));
+    }
+
+    @Override
+    public List<Movimento> consultarExtrato(int numeroConta, int quantidade) throws ContaNaoEncontradaException {
+        buscarContaOuLancarExcecao(numeroConta);
+        return livroRazao.ultimos(numeroConta, quantidade);
+    }
+
+    @Override
+    public List<Movimento> consultarExtratoPorPeriodo(int numeroConta, long inicio, long fim)
+            throws ContaNaoEncontradaException {
+        buscarContaOuLancarExcecao(numeroConta);
+        return livroRazao.porPeriodo(numeroConta, inicio, fim);
+    }
+
+    @Override
+    public List<Movimento> consultarExtratoPorSequencia(int numeroConta, long primeira, long ultima)
+            throws ContaNaoEncontradaException {
+        buscarContaOuLancarExcecao(numeroConta);
+        return livroRazao.porSequencia(numeroConta, primeira, ultima);
+    }
+
     @Override
     public List<Cliente> listarClientes() {
         return repositorioClientes.listarTodos();
     }
 
+    /**
+     * Aplica uma operação sem lançar exceções de negócio.
+     *
+     * @param operacao Operação a aplicar
+     * @param contasDoLote Contas já resolvidas neste lote (null fora de lote)
+     * @return Status da operação
+     */
+    private StatusOperacao executarOperacao(OperacaoLote operacao, Map<Integer, Conta> contasDoLote) {
+        if (!ContaValidator.isValorOperacaoValido(operacao.getValor())) {
+            return StatusOperacao.VALOR_INVALIDO;
+        }
+        Conta conta = resolverConta(operacao.getNumeroConta(), contasDoLote);
+        if (conta == null) {
+            return StatusOperacao.CONTA_NAO_ENCONTRADA;
+        }
+        long centavos = Centavos.deReais(operacao.getValor());
+
+        switch (operacao.getTipo()) {
+            case DEPOSITO:
+                conta.creditar(centavos);
+                livroRazao.registrar(TipoMovimento.DEPOSITO, conta.getNumero(), centavos, Movimento.SEM_CONTRAPARTE);
+                return StatusOperacao.SUCESSO;
+
+            case SAQUE:
+                if (!conta.tentarDebitar(centavos)) {
+                    return StatusOperacao.SALDO_INSUFICIENTE;
+                }
+                livroRazao.registrar(TipoMovimento.SAQUE, conta.getNumero(), centavos, Movimento.SEM_CONTRAPARTE);
+                return StatusOperacao.SUCESSO;
+
+            case TRANSFERENCIA:
+                if (operacao.getNumeroConta() == operacao.getNumeroContaDestino()) {
+                    return StatusOperacao.CONTAS_IGUAIS;
+                }
+                Conta contaDestino = resolverConta(operacao.getNumeroContaDestino(), contasDoLote);
+                if (contaDestino == null) {
+                    return StatusOperacao.CONTA_NAO_ENCONTRADA;
+                }
+                if (!conta.tentarTransferir(contaDestino, centavos)) {
+                    return StatusOperacao.SALDO_INSUFICIENTE;
+                }
+                livroRazao.registrarTransferencia(conta.getNumero(), contaDestino.getNumero(), centavos);
+                return StatusOperacao.SUCESSO;
+
+            default:
+                throw new IllegalArgumentException("Tipo de operação não suportado: " + operacao.getTipo());
+        }
+    }
+
+    /**
+     * Resolve conta usando o cache do lote, se houver.
+     *
+     * @return Conta encontrada ou null
+     */
+    private Conta resolverConta(int numeroConta, Map<Integer, Conta> contasDoLote) {
+        if (contasDoLote == null) {
+            return repositorioContas.buscarPorNumero(numeroConta).orElse(null);
+        }
+        Conta conta = contasDoLote.get(numeroConta);
+        if (conta == null) {
+            conta = repositorioContas.buscarPorNumero(numeroConta).orElse(null);
+            if (conta != null) {
+                contasDoLote.put(numeroConta, conta);
+            }
+        }
+        return conta;
+    }
+
     /**
      * Busca conta ou lança exceção se não encontrada.
      * Boa Prática: Método privado para evitar duplicação.
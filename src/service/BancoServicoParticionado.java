@@ -0,0 +1,357 @@
+package service;
+
+import constants.Constantes;
+import exception.*;
+import model.Centavos;
+import model.Cliente;
+import model.Conta;
+import model.Movimento;
+import model.TipoMovimento;
+import repository.IRepositorioContas;
+import repository.LivroRazao;
+import validator.ContaValidator;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decorador que executa as mutações de saldo no {@link MotorParticionado}.
+ * Boa Prática: Open/Closed - BancoServico não conhece o modo de execução.
+ *
+ * Depósitos, saques e transferências (avulsos ou em lote) são validados e têm as
+ * contas resolvidas na thread de quem chama; só a alteração do saldo vai para a
+ * partição dona da conta; depois que a partição confirma, quem chama registra o
+ * movimento no livro razão recebido (o mesmo do serviço decorado, para que o extrato
+ * enxergue os dois caminhos). As operações com chave de idempotência são deduplicadas
+ * no cache recebido (o mesmo do serviço decorado, quando houver). Cadastros, consultas e rendimento
+ * seguem para o serviço decorado: as contas continuam usando compare-and-set, então
+ * essas alterações fora das partições permanecem corretas.
+ */
+public class BancoServicoParticionado implements IOperacoesBancarias, AutoCloseable {
+    private final IOperacoesBancarias operacoes;
+    private final IRepositorioContas repositorioContas;
+    private final LivroRazao livroRazao;
+    private final CacheIdempotencia cacheIdempotencia;
+    private final MotorParticionado motor;
+
+    /**
+     * Construtor com injeção de dependências.
+     *
+     * @param operacoes Serviço bancário decorado
+     * @param quantidadeParticoes Quantidade de partições (threads escritoras)
+     * @throws IllegalArgumentException se a quantidade de partições não for positiva
+     */
+    public BancoServicoParticionado(IOperacoesBancarias operacoes, int quantidadeParticoes) {
+        this(operacoes, quantidadeParticoes, LivroRazao.DESATIVADO);
+    }
+
+    /**
+     * Construtor que registra as mutações no livro razão.
+     *
+     * @param operacoes Serviço bancário decorado
+     * @param quantidadeParticoes Quantidade de partições (threads escritoras)
+     * @param livroRazao Livro razão do serviço decorado
+     *                   ({@link LivroRazao#DESATIVADO} para não registrar)
+     * @throws IllegalArgumentException se a quantidade de partições não for positiva
+     */
+    public BancoServicoParticionado(IOperacoesBancarias operacoes, int quantidadeParticoes,
+                                    LivroRazao livroRazao) {
+        this(operacoes, quantidadeParticoes, livroRazao,
+                new CacheIdempotencia(Constantes.CAPACIDADE_CACHE_IDEMPOTENCIA,
+                        TimeUnit.MINUTES.toMillis(Constantes.JANELA_IDEMPOTENCIA_MINUTOS)));
+    }
+
+    /**
+     * Construtor completo.
+     *
+     * @param operacoes Serviço bancário decorado
+     * @param quantidadeParticoes Quantidade de partições (threads escritoras)
+     * @param livroRazao Livro razão do serviço decorado
+     *                   ({@link LivroRazao#DESATIVADO} para não registrar)
+     * @param cacheIdempotencia Cache de idempotência do serviço decorado
+     * @throws IllegalArgumentException se a quantidade de partições não for positiva
+     */
+    public BancoServicoParticionado(IOperacoesBancarias operacoes, int quantidadeParticoes,
+                                    LivroRazao livroRazao, CacheIdempotencia cacheIdempotencia) {
+        this.operacoes = Objects.requireNonNull(operacoes, "Operações bancárias não podem ser nulas");
+        this.repositorioContas = operacoes.getRepositorioContas();
+        this.livroRazao = Objects.requireNonNull(livroRazao, "Livro razão não pode ser nulo");
+        this.cacheIdempotencia = Objects.requireNonNull(cacheIdempotencia,
+                "Cache de idempotência não pode ser nulo");
+        this.motor = new MotorParticionado(quantidadeParticoes);
+    }
+
+    /**
+     * @return Quantidade de partições
+     */
+    public int getQuantidadeParticoes() {
+        return motor.getQuantidadeParticoes();
+    }
+
+    @Override
+    public Cliente cadastrarCliente(String nome, String cpf)
+            throws DadosInvalidosException, CpfInvalidoException, ClienteJaExisteException {
+        return operacoes.cadastrarCliente(nome, cpf);
+    }
+
+    @Override
+    public Conta cadastrarConta(String cpfCliente, String tipoConta, double saldoInicial)
+            throws ClienteNaoEncontradoException, TipoContaInvalidoException, DadosInvalidosException {
+        return operacoes.cadastrarConta(cpfCliente, tipoConta, saldoInicial);
+    }
+
+    @Override
+    public void depositar(int numeroConta, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException {
+        Conta conta = buscarContaOuLancarExcecao(numeroConta);
+        ContaValidator.validarValorOperacao(valor, "Valor do depósito");
+        long centavos = Centavos.deReais(valor);
+        motor.creditar(conta, centavos).aguardar();
+        livroRazao.registrar(TipoMovimento.DEPOSITO, numeroConta, centavos, Movimento.SEM_CONTRAPARTE);
+    }
+
+    @Override
+    public void sacar(int numeroConta, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException, SaldoInsuficienteException {
+        Conta conta = buscarContaOuLancarExcecao(numeroConta);
+        ContaValidator.validarValorOperacao(valor, "Valor do saque");
+        long centavos = Centavos.deReais(valor);
+        if (!motor.debitar(conta, centavos).aguardar().isSucesso()) {
+            throw new SaldoInsuficienteException(numeroConta, conta.getSaldo(), valor);
+        }
+        livroRazao.registrar(TipoMovimento.SAQUE, numeroConta, centavos, Movimento.SEM_CONTRAPARTE);
+    }
+
+    @Override
+    public void transferir(int numeroContaOrigem, int numeroContaDestino, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException, SaldoInsuficienteException {
+        if (numeroContaOrigem == numeroContaDestino) {
+            throw new IllegalArgumentException("Conta origem e destino não podem ser iguais");
+        }
+        Conta contaOrigem = buscarContaOuLancarExcecao(numeroContaOrigem);
+        Conta contaDestino = buscarContaOuLancarExcecao(numeroContaDestino);
+        ContaValidator.validarValorOperacao(valor, "Valor da transferência");
+        long centavos = Centavos.deReais(valor);
+        if (!motor.transferir(contaOrigem, contaDestino, centavos).aguardar().isSucesso()) {
+            throw new SaldoInsuficienteException(numeroContaOrigem, contaOrigem.getSaldo(), valor);
+        }
+        livroRazao.registrarTransferencia(numeroContaOrigem, numeroContaDestino, centavos);
+    }
+
+    @Override
+    public StatusOperacao tentarDepositar(int numeroConta, double valor) {
+        return executar(OperacaoLote.deposito(numeroConta, valor));
+    }
+
+    @Override
+    public StatusOperacao tentarSacar(int numeroConta, double valor) {
+        return executar(OperacaoLote.saque(numeroConta, valor));
+    }
+
+    @Override
+    public StatusOperacao tentarTransferir(int numeroContaOrigem, int numeroContaDestino, double valor) {
+        return executar(OperacaoLote.transferencia(numeroContaOrigem, numeroContaDestino, valor));
+    }
+
+    @Override
+    public StatusOperacao tentarDepositar(long chaveIdempotencia, int numeroConta, double valor) {
+        OperacaoLote operacao = OperacaoLote.deposito(numeroConta, valor);
+        return cacheIdempotencia.executar(chaveIdempotencia, operacao, () -> executar(operacao));
+    }
+
+    @Override
+    public StatusOperacao tentarSacar(long chaveIdempotencia, int numeroConta, double valor) {
+        OperacaoLote operacao = OperacaoLote.saque(numeroConta, valor);
+        return cacheIdempotencia.executar(chaveIdempotencia, operacao, () -> executar(operacao));
+    }
+
+    @Override
+    public StatusOperacao tentarTransferir(long chaveIdempotencia, int numeroContaOrigem,
+                                           int numeroContaDestino, double valor) {
+        OperacaoLote operacao = OperacaoLote.transferencia(numeroContaOrigem, numeroContaDestino, valor);
+        return cacheIdempotencia.executar(chaveIdempotencia, operacao, () -> executar(operacao));
+    }
+
+    /**
+     * Envia as operações do lote sem esperar cada uma, e aguarda todas no final.
+     * A ordem por conta é a do lote: operações de uma mesma conta vão para a mesma
+     * fila. A exceção é a transferência entre partições, cujo crédito chega depois
+     * ao destino - por isso ela é aguardada antes de enviar a operação seguinte.
+     */
+    @Override
+    public ResultadoLote executarLote(List<OperacaoLote> lote) {
+        Objects.requireNonNull(lote, "Lista de operações não pode ser nula");
+
+        MotorParticionado.Operacao[] enviadas = new MotorParticionado.Operacao[lote.size()];
+        for (int i = 0; i < enviadas.length; i++) {
+            OperacaoLote operacao = lote.get(i);
+            enviadas[i] = submeter(operacao);
+            if (operacao.getTipo() == OperacaoLote.Tipo.TRANSFERENCIA
+                    && motor.isEntreParticoes(operacao.getNumeroConta(), operacao.getNumeroContaDestino())) {
+                enviadas[i].aguardar();
+            }
+        }
+        StatusOperacao[] status = new StatusOperacao[enviadas.length];
+        for (int i = 0; i < status.length; i++) {
+            status[i] = enviadas[i].aguardar();
+            registrarSeSucesso(lote.get(i), status[i]);
+        }
+        return new ResultadoLote(status);
+    }
+
+    @Override
+    public ResultadoCadastroLote cadastrarLote(List<CadastroLote> cadastros) {
+        return operacoes.cadastrarLote(cadastros);
+    }
+
+    @Override
+    public double consultarSaldo(int numeroConta) throws ContaNaoEncontradaException {
+        return operacoes.consultarSaldo(numeroConta);
+    }
+
+    @Override
+    public int aplicarRendimentoPoupancas(double percentual) throws ValorInvalidoException {
+        return operacoes.aplicarRendimentoPoupancas(percentual);
+    }
+
+    @Override
+    public int aplicarRendimentoPoupancas(double percentual, ProgressoRendimento progresso)
+            throws ValorInvalidoException {
+        return operacoes.aplicarRendimentoPoupancas(percentual, progresso);
+    }
+
+    @Override
+    public ContasDoCliente consultarContasDoCliente(String cpf) throws ClienteNaoEncontradoException {
+        return operacoes.consultarContasDoCliente(cpf);
+    }
+
+    @Override
+    public List<Conta> listarContasOrdenadasPorSaldo() {
+        return operacoes.listarContasOrdenadasPorSaldo();
+    }
+
+    @Override
+    public List<Conta> listarContasOrdenadasPorSaldo(int inicio, int quantidade) {
+        return operacoes.listarContasOrdenadasPorSaldo(inicio, quantidade);
+    }
+
+    @Override
+    public int consultarPosicaoPorSaldo(int numeroConta) throws ContaNaoEncontradaException {
+        return operacoes.consultarPosicaoPorSaldo(numeroConta);
+    }
+
+    @Override
+    public List<Movimento> consultarExtrato(int numeroConta, int quantidade) throws ContaNaoEncontradaException {
+        return operacoes.consultarExtrato(numeroConta, quantidade);
+    }
+
+    @Override
+    public List<Movimento> consultarExtratoPorPeriodo(int numeroConta, long inicio, long fim)
+            throws ContaNaoEncontradaException {
+        return operacoes.consultarExtratoPorPeriodo(numeroConta, inicio, fim);
+    }
+
+    @Override
+    public List<Movimento> consultarExtratoPorSequencia(int numeroConta, long primeira, long ultima)
+            throws ContaNaoEncontradaException {
+        return operacoes.consultarExtratoPorSequencia(numeroConta, primeira, ultima);
+    }
+
+    @Override
+    public List<Cliente> listarClientes() {
+        return operacoes.listarClientes();
+    }
+
+    @Override
+    public IRepositorioContas getRepositorioContas() {
+        return repositorioContas;
+    }
+
+    /**
+     * Encerra as partições depois de executarem as operações já enviadas.
+     */
+    @Override
+    public void close() {
+        motor.close();
+    }
+
+    private StatusOperacao executar(OperacaoLote operacao) {
+        StatusOperacao status = submeter(operacao).aguardar();
+        registrarSeSucesso(operacao, status);
+        return status;
+    }
+
+    private void registrarSeSucesso(OperacaoLote operacao, StatusOperacao status) {
+        if (!status.isSucesso()) {
+            return;
+        }
+        long centavos = Centavos.deReais(operacao.getValor());
+        switch (operacao.getTipo()) {
+            case DEPOSITO:
+                livroRazao.registrar(TipoMovimento.DEPOSITO, operacao.getNumeroConta(), centavos,
+                        Movimento.SEM_CONTRAPARTE);
+                break;
+
+            case SAQUE:
+                livroRazao.registrar(TipoMovimento.SAQUE, operacao.getNumeroConta(), centavos,
+                        Movimento.SEM_CONTRAPARTE);
+                break;
+
+            case TRANSFERENCIA:
+                livroRazao.registrarTransferencia(operacao.getNumeroConta(), operacao.getNumeroContaDestino(),
+                        centavos);
+                break;
+
+            default:
+                throw new IllegalArgumentException("Tipo de operação não suportado: " + operacao.getTipo());
+        }
+    }
+
+    /**
+     * Valida a operação e a envia à partição da conta (origem, se transferência),
+     * com os mesmos status e a mesma ordem de verificação do BancoServico.
+     *
+     * @return Operação a aguardar (já concluída se a validação falhou)
+     */
+    private MotorParticionado.Operacao submeter(OperacaoLote operacao) {
+        if (!ContaValidator.isValorOperacaoValido(operacao.getValor())) {
+            return MotorParticionado.Operacao.concluida(StatusOperacao.VALOR_INVALIDO);
+        }
+        Conta conta = repositorioContas.buscarPorNumero(operacao.getNumeroConta()).orElse(null);
+        if (conta == null) {
+            return MotorParticionado.Operacao.concluida(StatusOperacao.CONTA_NAO_ENCONTRADA);
+        }
+        long centavos = Centavos.deReais(operacao.getValor());
+
+        switch (operacao.getTipo()) {
+            case DEPOSITO:
+                return motor.creditar(conta, centavos);
+
+            case SAQUE:
+                return motor.debitar(conta, centavos);
+
+            case TRANSFERENCIA:
+                if (operacao.getNumeroConta() == operacao.getNumeroContaDestino()) {
+                    return MotorParticionado.Operacao.concluida(StatusOperacao.CONTAS_IGUAIS);
+                }
+                Conta contaDestino = repositorioContas.buscarPorNumero(operacao.getNumeroContaDestino())
+                        .orElse(null);
+                if (contaDestino == null) {
+                    return MotorParticionado.Operacao.concluida(StatusOperacao.CONTA_NAO_ENCONTRADA);
+                }
+                return motor.transferir(conta, contaDestino, centavos);
+
+            default:
+                throw new IllegalArgumentException("Tipo de operação não suportado: " + operacao.getTipo());
+        }
+    }
+
+    /**
+     * Busca conta ou lança exceção se não encontrada.
+     */
+    private Conta buscarContaOuLancarExcecao(int numeroConta) throws ContaNaoEncontradaException {
+        return repositorioContas.buscarPorNumero(numeroConta)
+                .orElseThrow(() -> new ContaNaoEncontradaException(numeroConta));
+    }
+}
@@ -0,0 +1,303 @@
+package service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache de deduplicação por chave de idempotência.
+ * Boa Prática: Uma requisição repetida (ex: reenvio após timeout) devolve o resultado
+ * original em O(1), sem aplicar a operação de novo.
+ *
+ * As chaves são divididas em faixas, cada uma com sua própria trava, então
+ * requisições com chaves diferentes quase nunca disputam a mesma trava. Cada faixa
+ * guarda as chaves em ordem de chegada: as que passaram da janela de tempo saem pela
+ * frente, e a faixa cheia descarta a mais antiga já concluída - a memória fica
+ * limitada à capacidade mais as operações em andamento.
+ *
+ * Uma repetição que chega enquanto a original ainda executa espera por ela e recebe
+ * o mesmo resultado. Se a original falhar com exceção, quem esperava recebe a mesma
+ * exceção e a chave é liberada para uma nova tentativa. A chave reutilizada com outra
+ * operação é recusada com {@link StatusOperacao#CHAVE_REUTILIZADA}.
+ *
+ * As chaves valem por conta (a de origem, nas transferências): clientes de contas
+ * diferentes podem escolher a mesma chave sem que uma requisição bloqueie a outra.
+ *
+ * Uma chave descartada por capacidade antes do fim da janela deixa de ser
+ * reconhecida: a capacidade deve cobrir as requisições com chave esperadas na janela.
+ * O cache fica em memória; quem persiste as operações (ver
+ * {@code BancoServicoPersistente}) registra as chaves e as devolve com
+ * {@link #restaurar} ao reiniciar.
+ */
+public final class CacheIdempotencia {
+    private static final int BITS_FAIXAS = 6;
+    private static final int QUANTIDADE_FAIXAS = 1 << BITS_FAIXAS;
+
+    private final Faixa[] faixas;
+    private final long janelaNanos;
+    private final long janelaMillis;
+
+    /**
+     * @param capacidade Quantidade máxima de chaves concluídas guardadas
+     * @param janelaMillis Tempo durante o qual uma chave é reconhecida
+     * @throws IllegalArgumentException se a capacidade for menor que a quantidade de
+     *                                  faixas, ou se a janela não for positiva
+     */
+    public CacheIdempotencia(int capacidade, long janelaMillis) {
+        if (capacidade < QUANTIDADE_FAIXAS) {
+            throw new IllegalArgumentException(
+                    "Capacidade do cache de idempotência deve ser ao menos " + QUANTIDADE_FAIXAS);
+        }
+        if (janelaMillis <= 0) {
+            throw new IllegalArgumentException("Janela de idempotência deve ser positiva");
+        }
+        this.janelaMillis = janelaMillis;
+        this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(janelaMillis);
+        this.faixas = new Faixa[QUANTIDADE_FAIXAS];
+        for (int i = 0; i < QUANTIDADE_FAIXAS; i++) {
+            faixas[i] = new Faixa(capacidade / QUANTIDADE_FAIXAS);
+        }
+    }
+
+    /**
+     * Executa a operação uma única vez por chave (na conta da operação) dentro da janela.
+     *
+     * @param chave Chave de idempotência escolhida pelo cliente
+     * @param operacao Descrição da operação (uma repetição deve descrever a mesma)
+     * @param execucao Execução da operação, chamada só na primeira vez
+     * @return Resultado da primeira execução, ou {@link StatusOperacao#CHAVE_REUTILIZADA}
+     */
+    public StatusOperacao executar(long chave, OperacaoLote operacao, Supplier<StatusOperacao> execucao) {
+        Objects.requireNonNull(operacao, "Operação não pode ser nula");
+        Objects.requireNonNull(execucao, "Execução não pode ser nula");
+
+        ChaveConta chaveConta = new ChaveConta(operacao.getNumeroConta(), chave);
+        Faixa faixa = faixas[faixa(chaveConta)];
+        Entrada entrada;
+        CountDownLatch conclusao;
+        synchronized (faixa) {
+            long agora = System.nanoTime();
+            faixa.expirar(agora - janelaNanos);
+            entrada = faixa.entradas.get(chaveConta);
+            if (entrada == null) {
+                entrada = new Entrada(operacao, agora);
+                faixa.inserir(chaveConta, entrada);
+                conclusao = null;
+            } else if (!entrada.operacao.equals(operacao)) {
+                return StatusOperacao.CHAVE_REUTILIZADA;
+            } else if (entrada.concluida) {
+                return entrada.resultado();
+            } else {
+                if (entrada.conclusao == null) {
+                    entrada.conclusao = new CountDownLatch(1);
+                }
+                conclusao = entrada.conclusao;
+            }
+        }
+
+        if (conclusao != null) {
+            aguardar(conclusao);
+            return entrada.resultado();
+        }
+        return executar(faixa, chaveConta, entrada, execucao);
+    }
+
+    /**
+     * Devolve ao cache uma chave já concluída (ex: lida do diário ao reiniciar).
+     * Chamado antes de o serviço receber requisições, na ordem em que as chaves foram usadas.
+     *
+     * @param chave Chave de idempotência
+     * @param operacao Operação executada com a chave
+     * @param status Resultado da execução
+     * @param idadeMillis Tempo desde a execução; chaves fora da janela são ignoradas
+     */
+    public void restaurar(long chave, OperacaoLote operacao, StatusOperacao status, long idadeMillis) {
+        Objects.requireNonNull(operacao, "Operação não pode ser nula");
+        Objects.requireNonNull(status, "Resultado da operação não pode ser nulo");
+        if (idadeMillis >= janelaMillis) {
+            return;
+        }
+        ChaveConta chaveConta = new ChaveConta(operacao.getNumeroConta(), chave);
+        Faixa faixa = faixas[faixa(chaveConta)];
+        Entrada entrada = new Entrada(operacao,
+                System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(Math.max(0, idadeMillis)));
+        entrada.status = status;
+        entrada.concluida = true;
+        synchronized (faixa) {
+            faixa.inserir(chaveConta, entrada);
+        }
+    }
+
+    /**
+     * @return Tempo durante o qual uma chave é reconhecida, em milissegundos
+     */
+    public long getJanelaMillis() {
+        return janelaMillis;
+    }
+
+    /**
+     * @return Quantidade de chaves guardadas (inclui as em andamento)
+     */
+    public int getQuantidade() {
+        int quantidade = 0;
+        for (Faixa faixa : faixas) {
+            synchronized (faixa) {
+                quantidade += faixa.entradas.size();
+            }
+        }
+        return quantidade;
+    }
+
+    private static StatusOperacao executar(Faixa faixa, ChaveConta chave, Entrada entrada,
+                                           Supplier<StatusOperacao> execucao) {
+        StatusOperacao status;
+        try {
+            status = Objects.requireNonNull(execucao.get(), "Resultado da operação não pode ser nulo");
+        } catch (RuntimeException e) {
+            synchronized (faixa) {
+                faixa.entradas.remove(chave, entrada);
+            }
+            concluir(faixa, entrada, null, e);
+            throw e;
+        }
+        concluir(faixa, entrada, status, null);
+        return status;
+    }
+
+    private static void concluir(Faixa faixa, Entrada entrada, StatusOperacao status, RuntimeException falha) {
+        CountDownLatch conclusao;
+        synchronized (faixa) {
+            entrada.status = status;
+            entrada.falha = falha;
+            entrada.concluida = true;
+            conclusao = entrada.conclusao;
+        }
+        if (conclusao != null) {
+            conclusao.countDown();
+        }
+    }
+
+    /**
+     * Espera a execução original, sem abandonar a espera se interrompido
+     * (a interrupção é restaurada no final).
+     */
+    private static void aguardar(CountDownLatch conclusao) {
+        boolean interrompida = false;
+        while (true) {
+            try {
+                conclusao.await();
+                break;
+            } catch (InterruptedException e) {
+                interrompida = true;
+            }
+        }
+        if (interrompida) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int faixa(ChaveConta chave) {
+        long espalhada = (chave.chave ^ ((long) chave.numeroConta << 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (espalhada >>> (Long.SIZE - BITS_FAIXAS));
+    }
+
+    /**
+     * Chave do cliente qualificada pela conta da operação.
+     */
+    private static final class ChaveConta {
+        private final int numeroConta;
+        private final long chave;
+
+        private ChaveConta(int numeroConta, long chave) {
+            this.numeroConta = numeroConta;
+            this.chave = chave;
+        }
+
+        @Override
+        public boolean equals(Object objeto) {
+            if (!(objeto instanceof ChaveConta)) {
+                return false;
+            }
+            ChaveConta outra = (ChaveConta) objeto;
+            return numeroConta == outra.numeroConta && chave == outra.chave;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * numeroConta + Long.hashCode(chave);
+        }
+    }
+
+    /**
+     * Chave em andamento ou concluída. Campos protegidos pela trava da faixa
+     * (ou publicados pela contagem de {@link #conclusao}).
+     */
+    private static final class Entrada {
+        private final OperacaoLote operacao;
+        private final long criadaEm;
+        private StatusOperacao status;
+        private RuntimeException falha;
+        private boolean concluida;
+        private CountDownLatch conclusao;
+
+        private Entrada(OperacaoLote operacao, long criadaEm) {
+            this.operacao = operacao;
+            this.criadaEm = criadaEm;
+        }
+
+        private StatusOperacao resultado() {
+            if (falha != null) {
+                throw falha;
+            }
+            return status;
+        }
+    }
+
+    /**
+     * Parte das chaves, em ordem de chegada.
+     */
+    private static final class Faixa {
+        private final LinkedHashMap<ChaveConta, Entrada> entradas;
+        private final int capacidade;
+
+        private Faixa(int capacidade) {
+            this.entradas = new LinkedHashMap<>();
+            this.capacidade = capacidade;
+        }
+
+        /**
+         * Remove as chaves concluídas criadas antes do limite (as mais antigas ficam na frente).
+         */
+        private void expirar(long limite) {
+            Iterator<Entrada> iterador = entradas.values().iterator();
+            while (iterador.hasNext()) {
+                Entrada entrada = iterador.next();
+                if (entrada.criadaEm - limite >= 0) {
+                    return;
+                }
+                if (entrada.concluida) {
+                    iterador.remove();
+                }
+            }
+        }
+
+        /**
+         * Insere a chave, descartando a mais antiga já concluída se a faixa estiver cheia.
+         */
+        private void inserir(ChaveConta chave, Entrada entrada) {
+            if (entradas.size() >= capacidade) {
+                Iterator<Entrada> iterador = entradas.values().iterator();
+                while (iterador.hasNext()) {
+                    if (iterador.next().concluida) {
+                        iterador.remove();
+                        break;
+                    }
+                }
+            }
+            entradas.put(chave, entrada);
+        }
+    }
+}
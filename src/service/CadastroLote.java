@@ -0,0 +1,79 @@
+package service;
+
+import java.util.Objects;
+
+/**
+ * Cadastro individual de um lote (cliente ou conta).
+ * Boa Prática: Objeto de valor imutável com métodos de fábrica nomeados.
+ */
+public final class CadastroLote {
+
+    /**
+     * Tipos de cadastro aceitos em lote.
+     */
+    public enum Tipo {
+        CLIENTE,
+        CONTA
+    }
+
+    private final Tipo tipo;
+    private final String nome;
+    private final String cpf;
+    private final String tipoConta;
+    private final double saldoInicial;
+
+    private CadastroLote(Tipo tipo, String nome, String cpf, String tipoConta, double saldoInicial) {
+        this.tipo = Objects.requireNonNull(tipo, "Tipo de cadastro não pode ser nulo");
+        this.nome = nome;
+        this.cpf = cpf;
+        this.tipoConta = tipoConta;
+        this.saldoInicial = saldoInicial;
+    }
+
+    public static CadastroLote cliente(String nome, String cpf) {
+        return new CadastroLote(Tipo.CLIENTE, nome, cpf, null, 0.0);
+    }
+
+    public static CadastroLote conta(String cpfCliente, String tipoConta, double saldoInicial) {
+        return new CadastroLote(Tipo.CONTA, null, cpfCliente, tipoConta, saldoInicial);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    /**
+     * @return Nome do cliente (apenas cadastro de cliente)
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * @return CPF do cliente cadastrado ou do titular da conta
+     */
+    public String getCpf() {
+        return cpf;
+    }
+
+    /**
+     * @return Tipo da conta (apenas cadastro de conta)
+     */
+    public String getTipoConta() {
+        return tipoConta;
+    }
+
+    /**
+     * @return Saldo inicial (apenas cadastro de conta)
+     */
+    public double getSaldoInicial() {
+        return saldoInicial;
+    }
+
+    @Override
+    public String toString() {
+        return tipo == Tipo.CLIENTE
+                ? String.format("%s{%s, %s}", tipo, nome, cpf)
+                : String.format("%s{%s, %s, R$ %.2f}", tipo, cpf, tipoConta, saldoInicial);
+    }
+}
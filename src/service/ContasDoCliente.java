@@ -0,0 +1,48 @@
+package service;
+
+import model.Centavos;
+import model.Cliente;
+import model.Conta;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Contas de um cliente e o saldo somado delas (posição consolidada do cliente).
+ */
+public final class ContasDoCliente {
+    private final Cliente cliente;
+    private final List<Conta> contas;
+    private final long saldoTotalCentavos;
+
+    /**
+     * @param cliente Titular
+     * @param contas Contas do titular, em ordem de cadastro
+     * @param saldoTotalCentavos Soma dos saldos, lidos uma única vez
+     */
+    public ContasDoCliente(Cliente cliente, List<Conta> contas, long saldoTotalCentavos) {
+        this.cliente = Objects.requireNonNull(cliente, "Cliente não pode ser nulo");
+        this.contas = Collections.unmodifiableList(Objects.requireNonNull(contas, "Contas não podem ser nulas"));
+        this.saldoTotalCentavos = saldoTotalCentavos;
+    }
+
+    public Cliente getCliente() {
+        return cliente;
+    }
+
+    /**
+     * @return Contas do titular, em ordem de cadastro (lista imutável)
+     */
+    public List<Conta> getContas() {
+        return contas;
+    }
+
+    public long getSaldoTotalCentavos() {
+        return saldoTotalCentavos;
+    }
+
+    public double getSaldoTotal() {
+        return Centavos.paraReais(saldoTotalCentavos);
+    }
+}
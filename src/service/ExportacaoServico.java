@@ -0,0 +1,417 @@
+package service;
+
+import exception.ContaNaoEncontradaException;
+import model.Conta;
+import model.Movimento;
+import repository.CursorMovimentos;
+import repository.LivroRazao;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+/**
+ * Serviço de exportação de contas e extratos em CSV ou binário.
+ * Boa Prática: Memória constante - as linhas são codificadas direto em um buffer
+ * reutilizável e gravadas no canal a cada 64 KB; movimentos são lidos do livro
+ * razão em lotes ({@link CursorMovimentos}) e contas, em páginas do ranking por
+ * saldo. Nenhuma exportação monta a lista completa nem formata com String.format.
+ *
+ * O destino é qualquer {@link WritableByteChannel} (ex: {@code FileChannel}, ou
+ * {@code Channels.newChannel(outputStream)}) e não é fechado pelo serviço.
+ *
+ * CSV (UTF-8, ponto decimal; textos com vírgula ou aspas vão entre aspas):
+ * <pre>
+ * sequencia,instante_ms,conta,tipo,valor,contraparte
+ * posicao,numero,tipo,cpf,titular,saldo
+ * </pre>
+ * Binário (big-endian; textos como [int tamanho][bytes UTF-8]):
+ * <pre>
+ * [magico][versao][byte conteudo]
+ * {[byte 1] movimento: long sequencia, long instante, int conta, byte tipo, long centavos, int contraparte}
+ * {[byte 1] conta: int numero, long cpf, texto tipo, texto titular, long saldo em centavos}
+ * [byte 0][long quantidade de registros][int crc32 de tudo o que veio antes]
+ * </pre>
+ * O tipo do movimento é o ordinal de {@link model.TipoMovimento}.
+ */
+public class ExportacaoServico {
+    public static final int TAMANHO_LOTE_PADRAO = 8192;
+
+    public static final int MAGICO = 0x45585052; // "EXPR"
+    public static final int VERSAO = 1;
+    public static final byte CONTEUDO_MOVIMENTOS = 1;
+    public static final byte CONTEUDO_CONTAS = 2;
+
+    private static final byte REGISTRO = 1;
+    private static final byte FIM = 0;
+    private static final int TAMANHO_BUFFER = 1 << 16;
+    private static final String CABECALHO_MOVIMENTOS = "sequencia,instante_ms,conta,tipo,valor,contraparte\n";
+    private static final String CABECALHO_CONTAS = "posicao,numero,tipo,cpf,titular,saldo\n";
+
+    private final IOperacoesBancarias operacoesBancarias;
+    private final LivroRazao livroRazao;
+    private final int tamanhoLote;
+
+    /**
+     * Construtor com injeção de dependências.
+     *
+     * @param operacoesBancarias Serviço cujos dados são exportados
+     * @param livroRazao Livro razão em que o serviço registra os movimentos
+     */
+    public ExportacaoServico(IOperacoesBancarias operacoesBancarias, LivroRazao livroRazao) {
+        this(operacoesBancarias, livroRazao, TAMANHO_LOTE_PADRAO);
+    }
+
+    /**
+     * @param operacoesBancarias Serviço cujos dados são exportados
+     * @param livroRazao Livro razão em que o serviço registra os movimentos
+     * @param tamanhoLote Movimentos ou contas lidos por vez (limita a memória usada)
+     */
+    public ExportacaoServico(IOperacoesBancarias operacoesBancarias, LivroRazao livroRazao, int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser positivo");
+        }
+        this.operacoesBancarias = Objects.requireNonNull(operacoesBancarias,
+                "Operações bancárias não podem ser nulas");
+        this.livroRazao = Objects.requireNonNull(livroRazao, "Livro razão não pode ser nulo");
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Exporta o extrato de uma conta em um período, em ordem cronológica.
+     *
+     * @param numeroConta Número da conta
+     * @param inicio Início do período (inclusivo, milissegundos desde a época Unix)
+     * @param fim Fim do período (exclusivo)
+     * @param formato Formato de saída
+     * @param destino Canal de saída
+     * @return Quantidade de movimentos exportados
+     * @throws ContaNaoEncontradaException se a conta não existir
+     * @throws IOException se a gravação falhar
+     */
+    public long exportarExtrato(int numeroConta, long inicio, long fim, FormatoExportacao formato,
+                                WritableByteChannel destino) throws ContaNaoEncontradaException, IOException {
+        if (!operacoesBancarias.getRepositorioContas().existe(numeroConta)) {
+            throw new ContaNaoEncontradaException(numeroConta);
+        }
+        CursorMovimentos cursor = livroRazao.cursorPorPeriodo(numeroConta, inicio, fim, tamanhoLote);
+        return exportarMovimentos(cursor, formato, destino);
+    }
+
+    /**
+     * Exporta todos os movimentos do livro razão, em ordem de sequência.
+     *
+     * @param formato Formato de saída
+     * @param destino Canal de saída
+     * @return Quantidade de movimentos exportados
+     * @throws IOException se a gravação falhar
+     */
+    public long exportarLivroRazao(FormatoExportacao formato, WritableByteChannel destino) throws IOException {
+        CursorMovimentos cursor = livroRazao.cursor(LivroRazao.TODAS_AS_CONTAS, tamanhoLote);
+        return exportarMovimentos(cursor, formato, destino);
+    }
+
+    /**
+     * Exporta as contas do maior para o menor saldo.
+     * As páginas do ranking são lidas uma a uma: com o banco em movimento, uma conta
+     * cujo saldo muda durante a exportação pode trocar de página (aparecer duas vezes
+     * ou nenhuma). Para uma foto exata, exporte com o banco parado.
+     *
+     * @param formato Formato de saída
+     * @param destino Canal de saída
+     * @return Quantidade de contas exportadas
+     * @throws IOException se a gravação falhar
+     */
+    public long exportarContas(FormatoExportacao formato, WritableByteChannel destino) throws IOException {
+        Saida saida = new Saida(destino);
+        iniciar(saida, formato, CONTEUDO_CONTAS, CABECALHO_CONTAS);
+
+        long quantidade = 0;
+        List<Conta> pagina;
+        do {
+            pagina = operacoesBancarias.listarContasOrdenadasPorSaldo((int) quantidade, tamanhoLote);
+            for (Conta conta : pagina) {
+                quantidade++;
+                if (formato == FormatoExportacao.CSV) {
+                    escreverContaCsv(saida, quantidade, conta);
+                } else {
+                    escreverContaBinario(saida, conta);
+                }
+            }
+        } while (pagina.size() == tamanhoLote && quantidade < Integer.MAX_VALUE);
+
+        finalizar(saida, formato, quantidade);
+        return quantidade;
+    }
+
+    private static long exportarMovimentos(CursorMovimentos cursor, FormatoExportacao formato,
+                                           WritableByteChannel destino) throws IOException {
+        Saida saida = new Saida(destino);
+        iniciar(saida, formato, CONTEUDO_MOVIMENTOS, CABECALHO_MOVIMENTOS);
+
+        long quantidade = 0;
+        while (cursor.avancar()) {
+            for (int i = 0; i < cursor.getQuantidade(); i++) {
+                if (formato == FormatoExportacao.CSV) {
+                    escreverMovimentoCsv(saida, cursor, i);
+                } else {
+                    escreverMovimentoBinario(saida, cursor, i);
+                }
+            }
+            quantidade += cursor.getQuantidade();
+        }
+
+        finalizar(saida, formato, quantidade);
+        return quantidade;
+    }
+
+    private static void iniciar(Saida saida, FormatoExportacao formato, byte conteudo, String cabecalhoCsv)
+            throws IOException {
+        Objects.requireNonNull(formato, "Formato não pode ser nulo");
+        switch (formato) {
+            case CSV:
+                saida.escreverAscii(cabecalhoCsv);
+                break;
+
+            case BINARIO:
+                saida.garantir(Integer.BYTES * 2 + 1);
+                saida.buffer.putInt(MAGICO).putInt(VERSAO).put(conteudo);
+                break;
+
+            default:
+                throw new IllegalArgumentException("Formato não suportado: " + formato);
+        }
+    }
+
+    private static void finalizar(Saida saida, FormatoExportacao formato, long quantidade) throws IOException {
+        if (formato == FormatoExportacao.BINARIO) {
+            saida.garantir(1 + Long.BYTES);
+            saida.buffer.put(FIM).putLong(quantidade);
+            saida.escreverCrc();
+        }
+        saida.descarregar();
+    }
+
+    private static void escreverMovimentoCsv(Saida saida, CursorMovimentos cursor, int i) throws IOException {
+        saida.escreverDecimal(cursor.getSequencia(i));
+        saida.escreverByte(',');
+        saida.escreverDecimal(cursor.getInstante(i));
+        saida.escreverByte(',');
+        saida.escreverDecimal(cursor.getNumeroConta(i));
+        saida.escreverByte(',');
+        saida.escreverAscii(cursor.getTipo(i).name());
+        saida.escreverByte(',');
+        saida.escreverCentavos(cursor.getValorCentavos(i));
+        saida.escreverByte(',');
+        if (cursor.getContraparte(i) != Movimento.SEM_CONTRAPARTE) {
+            saida.escreverDecimal(cursor.getContraparte(i));
+        }
+        saida.escreverByte('\n');
+    }
+
+    private static void escreverMovimentoBinario(Saida saida, CursorMovimentos cursor, int i) throws IOException {
+        saida.garantir(1 + Long.BYTES * 3 + Integer.BYTES * 2 + 1);
+        saida.buffer.put(REGISTRO)
+                .putLong(cursor.getSequencia(i))
+                .putLong(cursor.getInstante(i))
+                .putInt(cursor.getNumeroConta(i))
+                .put((byte) cursor.getTipo(i).ordinal())
+                .putLong(cursor.getValorCentavos(i))
+                .putInt(cursor.getContraparte(i));
+    }
+
+    private static void escreverContaCsv(Saida saida, long posicao, Conta conta) throws IOException {
+        saida.escreverDecimal(posicao);
+        saida.escreverByte(',');
+        saida.escreverDecimal(conta.getNumero());
+        saida.escreverByte(',');
+        saida.escreverTextoCsv(conta.getTipo());
+        saida.escreverByte(',');
+        saida.escreverAscii(conta.getCliente().getCpf());
+        saida.escreverByte(',');
+        saida.escreverTextoCsv(conta.getNomeCliente());
+        saida.escreverByte(',');
+        saida.escreverCentavos(conta.getSaldoCentavos());
+        saida.escreverByte('\n');
+    }
+
+    private static void escreverContaBinario(Saida saida, Conta conta) throws IOException {
+        saida.garantir(1 + Integer.BYTES + Long.BYTES);
+        saida.buffer.put(REGISTRO)
+                .putInt(conta.getNumero())
+                .putLong(Long.parseLong(conta.getCliente().getCpf()));
+        saida.escreverTextoBinario(conta.getTipo());
+        saida.escreverTextoBinario(conta.getNomeCliente());
+        saida.garantir(Long.BYTES);
+        saida.buffer.putLong(conta.getSaldoCentavos());
+    }
+
+    /**
+     * Buffer de saída reutilizável: codifica números e textos sem alocar por linha
+     * e calcula o CRC32 do que é gravado.
+     */
+    private static final class Saida {
+        private static final int MAXIMO_BYTES_CARACTERE = 4;
+
+        private final WritableByteChannel destino;
+        private final ByteBuffer buffer;
+        private final CRC32 crc;
+        private final byte[] digitos;
+
+        private Saida(WritableByteChannel destino) {
+            this.destino = Objects.requireNonNull(destino, "Destino não pode ser nulo");
+            this.buffer = ByteBuffer.allocate(TAMANHO_BUFFER);
+            this.crc = new CRC32();
+            this.digitos = new byte[20];
+        }
+
+        /**
+         * Garante espaço no buffer, gravando o conteúdo atual se necessário.
+         */
+        private void garantir(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                descarregar();
+            }
+        }
+
+        private void descarregar() throws IOException {
+            buffer.flip();
+            crc.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                destino.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Grava o CRC32 de tudo o que foi escrito até aqui (o próprio CRC fica fora da conta).
+         */
+        private void escreverCrc() throws IOException {
+            descarregar();
+            buffer.putInt((int) crc.getValue());
+        }
+
+        private void escreverByte(char caractere) throws IOException {
+            garantir(1);
+            buffer.put((byte) caractere);
+        }
+
+        /**
+         * Texto que já se sabe ASCII (cabeçalhos, nomes de enum, CPF).
+         */
+        private void escreverAscii(String texto) throws IOException {
+            for (int i = 0; i < texto.length(); i++) {
+                escreverByte(texto.charAt(i));
+            }
+        }
+
+        private void escreverDecimal(long valor) throws IOException {
+            garantir(digitos.length);
+            if (valor < 0) {
+                buffer.put((byte) '-');
+                valor = -valor;
+            }
+            int inicio = digitos.length;
+            do {
+                digitos[--inicio] = (byte) ('0' + valor % 10);
+                valor /= 10;
+            } while (valor > 0);
+            buffer.put(digitos, inicio, digitos.length - inicio);
+        }
+
+        /**
+         * Valor em reais com duas casas decimais (ex: 1234 -> "12.34").
+         */
+        private void escreverCentavos(long centavos) throws IOException {
+            if (centavos < 0) {
+                escreverByte('-');
+                centavos = -centavos;
+            }
+            escreverDecimal(centavos / 100);
+            garantir(3);
+            buffer.put((byte) '.')
+                    .put((byte) ('0' + centavos % 100 / 10))
+                    .put((byte) ('0' + centavos % 10));
+        }
+
+        /**
+         * Campo CSV em UTF-8, entre aspas (com aspas dobradas) se contiver separador,
+         * aspas ou quebra de linha.
+         */
+        private void escreverTextoCsv(String texto) throws IOException {
+            boolean entreAspas = false;
+            for (int i = 0; i < texto.length() && !entreAspas; i++) {
+                char caractere = texto.charAt(i);
+                entreAspas = caractere == ',' || caractere == '"' || caractere == '\n' || caractere == '\r';
+            }
+            if (entreAspas) {
+                escreverByte('"');
+            }
+            escreverUtf8(texto, entreAspas);
+            if (entreAspas) {
+                escreverByte('"');
+            }
+        }
+
+        private void escreverTextoBinario(String texto) throws IOException {
+            int tamanho = 0;
+            for (int i = 0; i < texto.length(); ) {
+                int codigo = codigoValido(texto, i);
+                tamanho += bytesUtf8(codigo);
+                i += Character.charCount(codigo);
+            }
+            garantir(Integer.BYTES);
+            buffer.putInt(tamanho);
+            escreverUtf8(texto, false);
+        }
+
+        private void escreverUtf8(String texto, boolean dobrarAspas) throws IOException {
+            for (int i = 0; i < texto.length(); ) {
+                int codigo = codigoValido(texto, i);
+                i += Character.charCount(codigo);
+                garantir(MAXIMO_BYTES_CARACTERE + 1);
+                if (codigo < 0x80) {
+                    if (dobrarAspas && codigo == '"') {
+                        buffer.put((byte) '"');
+                    }
+                    buffer.put((byte) codigo);
+                } else if (codigo < 0x800) {
+                    buffer.put((byte) (0xC0 | codigo >> 6))
+                            .put((byte) (0x80 | codigo & 0x3F));
+                } else if (codigo < 0x10000) {
+                    buffer.put((byte) (0xE0 | codigo >> 12))
+                            .put((byte) (0x80 | codigo >> 6 & 0x3F))
+                            .put((byte) (0x80 | codigo & 0x3F));
+                } else {
+                    buffer.put((byte) (0xF0 | codigo >> 18))
+                            .put((byte) (0x80 | codigo >> 12 & 0x3F))
+                            .put((byte) (0x80 | codigo >> 6 & 0x3F))
+                            .put((byte) (0x80 | codigo & 0x3F));
+                }
+            }
+        }
+
+        /**
+         * Código do caractere na posição; metade de par substituto isolada vira '?'.
+         */
+        private static int codigoValido(String texto, int posicao) {
+            int codigo = texto.codePointAt(posicao);
+            return Character.isSurrogate((char) codigo) && codigo < Character.MIN_SUPPLEMENTARY_CODE_POINT
+                    ? '?'
+                    : codigo;
+        }
+
+        private static int bytesUtf8(int codigo) {
+            if (codigo < 0x80) {
+                return 1;
+            }
+            if (codigo < 0x800) {
+                return 2;
+            }
+            return codigo < 0x10000 ? 3 : MAXIMO_BYTES_CARACTERE;
+        }
+    }
+}
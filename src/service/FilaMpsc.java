@@ -0,0 +1,80 @@
+package service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Fila sem trava com vários produtores e um único consumidor (MPSC).
+ * Boa Prática: Cada produtor paga uma única troca atômica no fim da fila; o consumidor
+ * não usa nenhuma operação atômica, porque ninguém mais mexe no início da fila.
+ *
+ * Só a thread consumidora pode chamar {@link #retirar()}.
+ *
+ * @param <T> Tipo dos elementos
+ */
+final class FilaMpsc<T> {
+    private static final VarHandle FIM;
+    private static final VarHandle PROXIMO;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            FIM = lookup.findVarHandle(FilaMpsc.class, "fim", No.class);
+            PROXIMO = lookup.findVarHandle(No.class, "proximo", No.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Nó sentinela: o primeiro elemento é o seu sucessor. Só o consumidor o altera. */
+    private No<T> inicio;
+    @SuppressWarnings("unused") // Acessado via FIM
+    private volatile No<T> fim;
+
+    FilaMpsc() {
+        No<T> sentinela = new No<>(null);
+        this.inicio = sentinela;
+        this.fim = sentinela;
+    }
+
+    /**
+     * Enfileira um elemento (qualquer thread).
+     *
+     * @param elemento Elemento não nulo
+     */
+    void adicionar(T elemento) {
+        No<T> novo = new No<>(elemento);
+        @SuppressWarnings("unchecked")
+        No<T> anterior = (No<T>) FIM.getAndSet(this, novo);
+        // Entre a troca e o encadeamento o consumidor vê a fila momentaneamente vazia
+        PROXIMO.setVolatile(anterior, novo);
+    }
+
+    /**
+     * Retira o primeiro elemento (somente a thread consumidora).
+     *
+     * @return Elemento, ou null se a fila estiver vazia
+     */
+    T retirar() {
+        @SuppressWarnings("unchecked")
+        No<T> primeiro = (No<T>) PROXIMO.getVolatile(inicio);
+        if (primeiro == null) {
+            return null;
+        }
+        T elemento = primeiro.elemento;
+        // O nó retirado vira a nova sentinela
+        primeiro.elemento = null;
+        inicio = primeiro;
+        return elemento;
+    }
+
+    private static final class No<T> {
+        private T elemento;
+        @SuppressWarnings("unused") // Acessado via PROXIMO
+        private volatile No<T> proximo;
+
+        private No(T elemento) {
+            this.elemento = elemento;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package service;
+
+/**
+ * Formatos de exportação de contas e movimentos.
+ */
+public enum FormatoExportacao {
+    /** Texto UTF-8 com cabeçalho, vírgula como separador e ponto decimal. */
+    CSV("csv"),
+    /** Registros binários de tamanho fixo (exceto textos), com CRC32 ao final. */
+    BINARIO("bin");
+
+    private final String extensao;
+
+    FormatoExportacao(String extensao) {
+        this.extensao = extensao;
+    }
+
+    /**
+     * @return Extensão de arquivo sugerida (sem ponto)
+     */
+    public String getExtensao() {
+        return extensao;
+    }
+}
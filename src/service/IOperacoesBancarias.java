@@ -3,6 +3,7 @@ package service;
 import exception.*;
 import model.Cliente;
 import model.Conta;
+import model.Movimento;
 
 import java.util.List;
 
@@ -75,6 +76,148 @@ public interface IOperacoesBancarias {
     void transferir(int numeroContaOrigem, int numeroContaDestino, double valor)
             throws ContaNaoEncontradaException, ValorInvalidoException, SaldoInsuficienteException;
 
+    /**
+     * Realiza depósito sem lançar exceções de negócio.
+     * Boa Prática: Caminho barato para falhas esperadas sob carga.
+     *
+     * @param numeroConta Número da conta
+     * @param valor Valor do depósito
+     * @return Status da operação
+     */
+    StatusOperacao tentarDepositar(int numeroConta, double valor);
+
+    /**
+     * Realiza saque sem lançar exceções de negócio.
+     *
+     * @param numeroConta Número da conta
+     * @param valor Valor do saque
+     * @return Status da operação (ex: SALDO_INSUFICIENTE)
+     */
+    StatusOperacao tentarSacar(int numeroConta, double valor);
+
+    /**
+     * Realiza transferência sem lançar exceções de negócio.
+     *
+     * @param numeroContaOrigem Número da conta origem
+     * @param numeroContaDestino Número da conta destino
+     * @param valor Valor da transferência
+     * @return Status da operação
+     */
+    StatusOperacao tentarTransferir(int numeroContaOrigem, int numeroContaDestino, double valor);
+
+    /**
+     * Realiza depósito no máximo uma vez por chave de idempotência.
+     * Boa Prática: Cada camada que acrescenta efeitos (ex: o diário) deduplica a
+     * própria operação; as demais apenas repassam a chave.
+     * A chave vale por conta: contas diferentes podem repetir a mesma chave.
+     *
+     * @param chaveIdempotencia Chave escolhida pelo cliente, repetida nos reenvios
+     * @param numeroConta Número da conta
+     * @param valor Valor do depósito
+     * @return Status da primeira execução com essa chave
+     */
+    StatusOperacao tentarDepositar(long chaveIdempotencia, int numeroConta, double valor);
+
+    /**
+     * Realiza saque no máximo uma vez por chave de idempotência.
+     *
+     * @param chaveIdempotencia Chave escolhida pelo cliente, repetida nos reenvios
+     * @param numeroConta Número da conta
+     * @param valor Valor do saque
+     * @return Status da primeira execução com essa chave
+     */
+    StatusOperacao tentarSacar(long chaveIdempotencia, int numeroConta, double valor);
+
+    /**
+     * Realiza transferência no máximo uma vez por chave de idempotência (na conta origem).
+     *
+     * @param chaveIdempotencia Chave escolhida pelo cliente, repetida nos reenvios
+     * @param numeroContaOrigem Número da conta origem
+     * @param numeroContaDestino Número da conta destino
+     * @param valor Valor da transferência
+     * @return Status da primeira execução com essa chave
+     */
+    StatusOperacao tentarTransferir(long chaveIdempotencia, int numeroContaOrigem,
+                                    int numeroContaDestino, double valor);
+
+    /**
+     * Realiza depósito no máximo uma vez por chave de idempotência, com exceções de negócio.
+     * Um reenvio recebe a mesma exceção (ou o mesmo sucesso) da primeira execução.
+     *
+     * @param chaveIdempotencia Chave escolhida pelo cliente, repetida nos reenvios
+     * @param numeroConta Número da conta
+     * @param valor Valor do depósito
+     * @throws ContaNaoEncontradaException se conta não existe
+     * @throws ValorInvalidoException se valor for inválido
+     * @throws IllegalStateException se a chave já foi usada por outra operação
+     */
+    default void depositar(long chaveIdempotencia, int numeroConta, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException {
+        lancarFalha(tentarDepositar(chaveIdempotencia, numeroConta, valor), numeroConta, numeroConta, valor);
+    }
+
+    /**
+     * Realiza saque no máximo uma vez por chave de idempotência, com exceções de negócio.
+     *
+     * @param chaveIdempotencia Chave escolhida pelo cliente, repetida nos reenvios
+     * @param numeroConta Número da conta
+     * @param valor Valor do saque
+     * @throws ContaNaoEncontradaException se conta não existe
+     * @throws ValorInvalidoException se valor for inválido
+     * @throws SaldoInsuficienteException se saldo for insuficiente
+     * @throws IllegalStateException se a chave já foi usada por outra operação
+     */
+    default void sacar(long chaveIdempotencia, int numeroConta, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException, SaldoInsuficienteException {
+        StatusOperacao status = tentarSacar(chaveIdempotencia, numeroConta, valor);
+        if (status == StatusOperacao.SALDO_INSUFICIENTE) {
+            throw new SaldoInsuficienteException(numeroConta, consultarSaldo(numeroConta), valor);
+        }
+        lancarFalha(status, numeroConta, numeroConta, valor);
+    }
+
+    /**
+     * Realiza transferência no máximo uma vez por chave de idempotência, com exceções de negócio.
+     *
+     * @param chaveIdempotencia Chave escolhida pelo cliente, repetida nos reenvios
+     * @param numeroContaOrigem Número da conta origem
+     * @param numeroContaDestino Número da conta destino
+     * @param valor Valor da transferência
+     * @throws ContaNaoEncontradaException se alguma conta não existe
+     * @throws ValorInvalidoException se valor for inválido
+     * @throws SaldoInsuficienteException se saldo for insuficiente
+     * @throws IllegalArgumentException se origem e destino forem a mesma conta
+     * @throws IllegalStateException se a chave já foi usada por outra operação
+     */
+    default void transferir(long chaveIdempotencia, int numeroContaOrigem, int numeroContaDestino, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException, SaldoInsuficienteException {
+        StatusOperacao status = tentarTransferir(chaveIdempotencia, numeroContaOrigem, numeroContaDestino, valor);
+        if (status == StatusOperacao.SALDO_INSUFICIENTE) {
+            throw new SaldoInsuficienteException(numeroContaOrigem, consultarSaldo(numeroContaOrigem), valor);
+        }
+        lancarFalha(status, numeroContaOrigem, numeroContaDestino, valor);
+    }
+
+    /**
+     * Executa um lote de depósitos, saques e transferências.
+     * Falhas de negócio não interrompem o lote nem lançam exceção:
+     * cada operação recebe seu próprio status.
+     *
+     * @param operacoes Operações na ordem de aplicação
+     * @return Status de cada operação
+     */
+    ResultadoLote executarLote(List<OperacaoLote> operacoes);
+
+    /**
+     * Executa um lote de cadastros de clientes e contas, na ordem recebida.
+     * Cada item falha com a mesma exceção do cadastro individual
+     * (ex: ClienteJaExisteException), sem interromper o lote.
+     *
+     * @param cadastros Cadastros na ordem de aplicação
+     * @return Falha de cada cadastro (ou nenhuma)
+     */
+    ResultadoCadastroLote cadastrarLote(List<CadastroLote> cadastros);
+
     /**
      * Consulta saldo de uma conta.
      *
@@ -93,6 +236,28 @@ public interface IOperacoesBancarias {
      */
     int aplicarRendimentoPoupancas(double percentual) throws ValorInvalidoException;
 
+    /**
+     * Aplica rendimento em todas as contas poupança, informando o andamento.
+     * Os totais consolidados mudam de uma só vez, ao final.
+     *
+     * @param percentual Percentual de rendimento
+     * @param progresso Recebe o andamento (pode ser chamado de várias threads)
+     * @return Quantidade de contas atualizadas
+     * @throws ValorInvalidoException se percentual for inválido
+     */
+    int aplicarRendimentoPoupancas(double percentual, ProgressoRendimento progresso)
+            throws ValorInvalidoException;
+
+    /**
+     * Consulta as contas de um cliente e o saldo somado delas.
+     * Boa Prática: Índice por titular - custo proporcional às contas do cliente.
+     *
+     * @param cpf CPF do cliente
+     * @return Contas e saldo total do cliente
+     * @throws ClienteNaoEncontradoException se cliente não existir
+     */
+    ContasDoCliente consultarContasDoCliente(String cpf) throws ClienteNaoEncontradoException;
+
     /**
      * Lista todas as contas ordenadas por saldo.
      *
@@ -100,6 +265,62 @@ public interface IOperacoesBancarias {
      */
     List<Conta> listarContasOrdenadasPorSaldo();
 
+    /**
+     * Lista uma página das contas ordenadas por saldo (decrescente).
+     * Boa Prática: Custo proporcional à página, não ao total de contas.
+     *
+     * @param inicio Posição inicial (0 = maior saldo)
+     * @param quantidade Quantidade máxima de contas
+     * @return Contas da página
+     * @throws IllegalArgumentException se início ou quantidade forem negativos
+     */
+    List<Conta> listarContasOrdenadasPorSaldo(int inicio, int quantidade);
+
+    /**
+     * Consulta a posição da conta no ranking por saldo.
+     *
+     * @param numeroConta Número da conta
+     * @return Posição (1 = maior saldo)
+     * @throws ContaNaoEncontradaException se conta não existir
+     */
+    int consultarPosicaoPorSaldo(int numeroConta) throws ContaNaoEncontradaException;
+
+    /**
+     * Consulta os últimos movimentos de uma conta (extrato).
+     * Boa Prática: Custo proporcional aos movimentos pedidos, não ao tamanho do livro.
+     *
+     * @param numeroConta Número da conta
+     * @param quantidade Quantidade máxima de movimentos
+     * @return Movimentos, do mais antigo para o mais recente
+     * @throws ContaNaoEncontradaException se conta não existir
+     * @throws IllegalArgumentException se a quantidade for negativa
+     */
+    List<Movimento> consultarExtrato(int numeroConta, int quantidade) throws ContaNaoEncontradaException;
+
+    /**
+     * Consulta os movimentos de uma conta em um período.
+     *
+     * @param numeroConta Número da conta
+     * @param inicio Início do período (inclusivo, milissegundos desde a época Unix)
+     * @param fim Fim do período (exclusivo)
+     * @return Movimentos, do mais antigo para o mais recente
+     * @throws ContaNaoEncontradaException se conta não existir
+     */
+    List<Movimento> consultarExtratoPorPeriodo(int numeroConta, long inicio, long fim)
+            throws ContaNaoEncontradaException;
+
+    /**
+     * Consulta os movimentos de uma conta em uma faixa de sequências do livro razão.
+     *
+     * @param numeroConta Número da conta
+     * @param primeira Primeira sequência (inclusiva)
+     * @param ultima Última sequência (inclusiva)
+     * @return Movimentos, do mais antigo para o mais recente
+     * @throws ContaNaoEncontradaException se conta não existir
+     */
+    List<Movimento> consultarExtratoPorSequencia(int numeroConta, long primeira, long ultima)
+            throws ContaNaoEncontradaException;
+
     /**
      * Lista todos os clientes.
      *
@@ -114,4 +335,28 @@ public interface IOperacoesBancarias {
      * @return Repositório de contas
      */
     repository.IRepositorioContas getRepositorioContas();
+
+    /**
+     * Converte o status de uma operação com chave na exceção equivalente à da
+     * variante sem chave (saldo insuficiente é tratado por quem chama).
+     */
+    private void lancarFalha(StatusOperacao status, int numeroContaOrigem, int numeroContaDestino, double valor)
+            throws ContaNaoEncontradaException, ValorInvalidoException {
+        switch (status) {
+            case SUCESSO:
+                return;
+            case CONTA_NAO_ENCONTRADA:
+                throw new ContaNaoEncontradaException(getRepositorioContas().existe(numeroContaOrigem)
+                        ? numeroContaDestino
+                        : numeroContaOrigem);
+            case VALOR_INVALIDO:
+                throw new ValorInvalidoException(String.format("Valor inválido para a operação: R$ %.2f", valor));
+            case CONTAS_IGUAIS:
+                throw new IllegalArgumentException("Conta origem e destino não podem ser iguais");
+            case CHAVE_REUTILIZADA:
+                throw new IllegalStateException("Chave de idempotência já usada por outra operação");
+            default:
+                throw new IllegalStateException("Status inesperado: " + status);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,397 @@
+package service;
+
+import exception.BancoException;
+import validator.ClienteValidator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+/**
+ * Serviço de importação em massa de clientes e contas a partir de CSV.
+ * Boa Prática: Memória limitada - o arquivo é lido em lotes de tamanho fixo, e a
+ * validação de um lote (em paralelo, em todos os núcleos) acontece enquanto o
+ * lote anterior é cadastrado. O cadastro segue a ordem do arquivo, com as mesmas
+ * regras do cadastro individual (ex: ClienteJaExisteException).
+ *
+ * Formato (linhas vazias e iniciadas por '#' são ignoradas; decimais com ponto):
+ * <pre>
+ * cliente,&lt;nome&gt;,&lt;cpf&gt;
+ * conta,&lt;cpf do titular&gt;,&lt;tipo&gt;,&lt;saldo inicial&gt;
+ * </pre>
+ * Uma conta deve vir depois do cadastro de seu titular. Cada linha rejeitada é
+ * gravada no arquivo de rejeitados como {@code <número da linha>;<motivo>;<linha original>}.
+ *
+ * Programação Defensiva: linhas com mais de {@link #TAMANHO_MAXIMO_LINHA} caracteres
+ * são rejeitadas sem serem montadas inteiras (só o início vai para os rejeitados),
+ * então um arquivo sem quebras de linha não esgota a memória.
+ *
+ * Memória: os dois lotes (o que é cadastrado e o que é lido e validado) são
+ * reutilizados durante toda a importação, e os campos de cada linha são guardados
+ * como posições numa coluna do lote - só os campos usados viram texto.
+ */
+public class ImportacaoCsvServico {
+    public static final int TAMANHO_LOTE_PADRAO = 8192;
+    /** Comprimento máximo de uma linha, sem o fim de linha (bem acima do maior registro válido). */
+    public static final int TAMANHO_MAXIMO_LINHA = 1024;
+
+    private static final char SEPARADOR = ',';
+    private static final char SEPARADOR_REJEITADOS = ';';
+    private static final char COMENTARIO = '#';
+    /** Campos guardados por linha; o maior registro válido (conta) tem 4. */
+    private static final int MAXIMO_CAMPOS = 4;
+    private static final int TAMANHO_BLOCO_LEITURA = 1 << 16;
+    private static final String RETICENCIAS = "...";
+    private static final String REGISTRO_CLIENTE = "cliente";
+    private static final String REGISTRO_CONTA = "conta";
+
+    private final IOperacoesBancarias operacoesBancarias;
+    private final int tamanhoLote;
+
+    /**
+     * Construtor com injeção de dependências.
+     *
+     * @param operacoesBancarias Serviço que recebe os cadastros
+     */
+    public ImportacaoCsvServico(IOperacoesBancarias operacoesBancarias) {
+        this(operacoesBancarias, TAMANHO_LOTE_PADRAO);
+    }
+
+    /**
+     * @param operacoesBancarias Serviço que recebe os cadastros
+     * @param tamanhoLote Linhas por lote (limita a memória usada)
+     */
+    public ImportacaoCsvServico(IOperacoesBancarias operacoesBancarias, int tamanhoLote) {
+        if (tamanhoLote <= 0) {
+            throw new IllegalArgumentException("Tamanho do lote deve ser positivo");
+        }
+        this.operacoesBancarias = Objects.requireNonNull(operacoesBancarias,
+                "Operações bancárias não podem ser nulas");
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Importa o arquivo CSV.
+     *
+     * @param arquivoCsv Arquivo de entrada (UTF-8)
+     * @param arquivoRejeitados Arquivo que recebe as linhas rejeitadas (sobrescrito)
+     * @return Resumo da importação
+     * @throws IOException se algum dos arquivos não puder ser lido ou gravado
+     */
+    public ResultadoImportacao importar(Path arquivoCsv, Path arquivoRejeitados) throws IOException {
+        Objects.requireNonNull(arquivoCsv, "Arquivo CSV não pode ser nulo");
+        Objects.requireNonNull(arquivoRejeitados, "Arquivo de rejeitados não pode ser nulo");
+
+        Contadores contadores = new Contadores();
+        try (BufferedReader entrada = Files.newBufferedReader(arquivoCsv, StandardCharsets.UTF_8);
+             BufferedWriter rejeitados = Files.newBufferedWriter(arquivoRejeitados, StandardCharsets.UTF_8)) {
+
+            LeitorLinhas leitor = new LeitorLinhas(entrada);
+            // Enquanto um lote é cadastrado, o outro é lido e validado
+            LoteCsv[] lotes = {new LoteCsv(tamanhoLote), new LoteCsv(tamanhoLote)};
+            LoteCsv primeiro = lerLote(leitor, lotes[0], 0);
+            CompletableFuture<LoteCsv> validacao = validarEmParalelo(primeiro);
+            int atual = 0;
+            while (validacao != null) {
+                LoteCsv lote = validacao.join();
+                atual ^= 1;
+                LoteCsv proximo = lerLote(leitor, lotes[atual], lote.ultimaLinha);
+                validacao = proximo.quantidade == 0 ? null : validarEmParalelo(proximo);
+                cadastrar(lote, rejeitados, contadores);
+            }
+        }
+        return new ResultadoImportacao(contadores.linhasLidas, contadores.clientes,
+                contadores.contas, contadores.rejeitadas);
+    }
+
+    /**
+     * Lê até {@link #tamanhoLote} registros no lote informado (descartando o conteúdo
+     * anterior), ignorando linhas vazias e comentários.
+     */
+    private LoteCsv lerLote(LeitorLinhas leitor, LoteCsv lote, long ultimaLinhaLida) throws IOException {
+        lote.limpar();
+        long numeroLinha = ultimaLinhaLida;
+        while (lote.quantidade < tamanhoLote && leitor.proximaLinha()) {
+            numeroLinha++;
+            if (leitor.isLinhaMuitoLonga()) {
+                lote.motivos[lote.quantidade] = "Linha excede " + TAMANHO_MAXIMO_LINHA + " caracteres";
+                lote.linhas[lote.quantidade] = leitor.linhaAtual() + RETICENCIAS;
+            } else if (leitor.isLinhaIgnorada()) {
+                continue;
+            } else {
+                lote.linhas[lote.quantidade] = leitor.linhaAtual();
+            }
+            lote.numerosLinha[lote.quantidade] = numeroLinha;
+            lote.quantidade++;
+        }
+        lote.ultimaLinha = numeroLinha;
+        return lote;
+    }
+
+    private static CompletableFuture<LoteCsv> validarEmParalelo(LoteCsv lote) {
+        if (lote.quantidade == 0) {
+            return null;
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            IntStream.range(0, lote.quantidade).parallel().forEach(i -> validarLinha(lote, i));
+            return lote;
+        });
+    }
+
+    /**
+     * Converte a linha em cadastro, ou registra o motivo da rejeição.
+     * Sem estado compartilhado: roda em paralelo com as demais linhas do lote.
+     */
+    private static void validarLinha(LoteCsv lote, int indice) {
+        if (lote.motivos[indice] != null) {
+            // Já rejeitada na leitura (linha longa demais)
+            return;
+        }
+        int quantidadeCampos = lote.separarCampos(indice);
+        String tipo = lote.campo(indice, 0);
+        try {
+            switch (tipo.toLowerCase(Locale.ROOT)) {
+                case REGISTRO_CLIENTE:
+                    exigirCampos(tipo, quantidadeCampos, 3);
+                    String nome = lote.campo(indice, 1);
+                    String cpf = lote.campo(indice, 2);
+                    ClienteValidator.validarNome(nome);
+                    ClienteValidator.validarCpf(cpf);
+                    lote.cadastros[indice] = CadastroLote.cliente(nome, ClienteValidator.normalizarCpf(cpf));
+                    break;
+
+                case REGISTRO_CONTA:
+                    exigirCampos(tipo, quantidadeCampos, 4);
+                    String cpfTitular = lote.campo(indice, 1);
+                    ClienteValidator.validarCpf(cpfTitular);
+                    lote.cadastros[indice] = CadastroLote.conta(ClienteValidator.normalizarCpf(cpfTitular),
+                            lote.campo(indice, 2), lerSaldo(lote.campo(indice, 3)));
+                    break;
+
+                default:
+                    lote.motivos[indice] = "Tipo de registro desconhecido: " + tipo;
+            }
+        } catch (BancoException | IllegalArgumentException e) {
+            lote.motivos[indice] = e.getMessage();
+        }
+    }
+
+    private static void exigirCampos(String tipo, int encontrados, int quantidade) {
+        if (encontrados != quantidade) {
+            throw new IllegalArgumentException(String.format(
+                    "Registro %s deve ter %d campos, encontrados %d", tipo, quantidade, encontrados));
+        }
+    }
+
+    private static double lerSaldo(String campo) {
+        try {
+            return Double.parseDouble(campo);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Saldo inicial inválido: " + campo);
+        }
+    }
+
+    /**
+     * Cadastra os registros válidos do lote em uma única chamada e grava os rejeitados,
+     * na ordem do arquivo.
+     */
+    private void cadastrar(LoteCsv lote, BufferedWriter rejeitados, Contadores contadores) throws IOException {
+        List<CadastroLote> cadastros = new ArrayList<>(lote.quantidade);
+        for (int i = 0; i < lote.quantidade; i++) {
+            if (lote.cadastros[i] != null) {
+                cadastros.add(lote.cadastros[i]);
+            }
+        }
+        ResultadoCadastroLote resultado = operacoesBancarias.cadastrarLote(cadastros);
+
+        int posicaoCadastro = 0;
+        for (int i = 0; i < lote.quantidade; i++) {
+            String motivo = lote.motivos[i];
+            if (lote.cadastros[i] != null) {
+                BancoException falha = resultado.getFalha(posicaoCadastro++);
+                if (falha != null) {
+                    motivo = falha.getMessage();
+                } else if (lote.cadastros[i].getTipo() == CadastroLote.Tipo.CLIENTE) {
+                    contadores.clientes++;
+                } else {
+                    contadores.contas++;
+                }
+            }
+            if (motivo != null) {
+                gravarRejeitado(rejeitados, lote.numerosLinha[i], motivo, lote.linhas[i]);
+                contadores.rejeitadas++;
+            }
+        }
+        contadores.linhasLidas += lote.quantidade;
+    }
+
+    private static void gravarRejeitado(BufferedWriter rejeitados, long numeroLinha,
+                                        String motivo, String linha) throws IOException {
+        rejeitados.write(Long.toString(numeroLinha));
+        rejeitados.write(SEPARADOR_REJEITADOS);
+        rejeitados.write(motivo.replace(SEPARADOR_REJEITADOS, SEPARADOR));
+        rejeitados.write(SEPARADOR_REJEITADOS);
+        rejeitados.write(linha);
+        rejeitados.newLine();
+    }
+
+    /**
+     * Linhas de um lote e o resultado de sua validação, por posição.
+     * Reutilizado de um lote para o outro; cada linha só é escrita pela thread que a valida.
+     */
+    private static final class LoteCsv {
+        private final String[] linhas;
+        private final long[] numerosLinha;
+        private final CadastroLote[] cadastros;
+        private final String[] motivos;
+        /** Posição de cada separador, {@link #MAXIMO_CAMPOS} - 1 por linha. */
+        private final int[] separadores;
+        private final int[] quantidadesCampos;
+        private int quantidade;
+        private long ultimaLinha;
+
+        private LoteCsv(int capacidade) {
+            this.linhas = new String[capacidade];
+            this.numerosLinha = new long[capacidade];
+            this.cadastros = new CadastroLote[capacidade];
+            this.motivos = new String[capacidade];
+            this.separadores = new int[capacidade * (MAXIMO_CAMPOS - 1)];
+            this.quantidadesCampos = new int[capacidade];
+        }
+
+        private void limpar() {
+            Arrays.fill(linhas, 0, quantidade, null);
+            Arrays.fill(cadastros, 0, quantidade, null);
+            Arrays.fill(motivos, 0, quantidade, null);
+            quantidade = 0;
+        }
+
+        /**
+         * Guarda as posições dos separadores da linha (até {@link #MAXIMO_CAMPOS} campos).
+         *
+         * @return Quantidade de campos da linha (inclusive os que passam do máximo)
+         */
+        private int separarCampos(int indice) {
+            String linha = linhas[indice];
+            int base = indice * (MAXIMO_CAMPOS - 1);
+            int quantidadeCampos = 1;
+            int fim = -1;
+            while ((fim = linha.indexOf(SEPARADOR, fim + 1)) >= 0) {
+                if (quantidadeCampos < MAXIMO_CAMPOS) {
+                    separadores[base + quantidadeCampos - 1] = fim;
+                }
+                quantidadeCampos++;
+            }
+            quantidadesCampos[indice] = quantidadeCampos;
+            return quantidadeCampos;
+        }
+
+        /**
+         * Texto de um campo já separado, sem espaços nas pontas.
+         */
+        private String campo(int indice, int posicao) {
+            String linha = linhas[indice];
+            int base = indice * (MAXIMO_CAMPOS - 1);
+            int inicio = posicao == 0 ? 0 : separadores[base + posicao - 1] + 1;
+            int fim = posicao + 1 < Math.min(quantidadesCampos[indice], MAXIMO_CAMPOS)
+                    ? separadores[base + posicao]
+                    : linha.length();
+            return linha.substring(inicio, fim).trim();
+        }
+    }
+
+    /**
+     * Lê linhas em blocos para um buffer de tamanho fixo, sem montar linhas longas demais.
+     * Como {@link BufferedReader#readLine()}, aceita "\n" ou "\r\n" e uma última linha
+     * sem terminador.
+     */
+    private static final class LeitorLinhas {
+        private final Reader entrada;
+        private final char[] bloco;
+        private final char[] linha;
+        private int posicao;
+        private int limite;
+        private int tamanho;
+        private boolean muitoLonga;
+
+        private LeitorLinhas(Reader entrada) {
+            this.entrada = entrada;
+            this.bloco = new char[TAMANHO_BLOCO_LEITURA];
+            this.linha = new char[TAMANHO_MAXIMO_LINHA];
+        }
+
+        /**
+         * Avança para a próxima linha; se ela passar do máximo, o excesso é descartado.
+         *
+         * @return false no fim do arquivo
+         */
+        private boolean proximaLinha() throws IOException {
+            tamanho = 0;
+            muitoLonga = false;
+            boolean leuAlgo = false;
+            while (true) {
+                if (posicao == limite) {
+                    limite = entrada.read(bloco, 0, bloco.length);
+                    posicao = 0;
+                    if (limite <= 0) {
+                        limite = 0;
+                        return leuAlgo;
+                    }
+                }
+                leuAlgo = true;
+                char caractere = bloco[posicao++];
+                if (caractere == '\n') {
+                    if (!muitoLonga && tamanho > 0 && linha[tamanho - 1] == '\r') {
+                        tamanho--;
+                    }
+                    return true;
+                }
+                if (tamanho < linha.length) {
+                    linha[tamanho++] = caractere;
+                } else {
+                    muitoLonga = true;
+                }
+            }
+        }
+
+        private boolean isLinhaMuitoLonga() {
+            return muitoLonga;
+        }
+
+        /**
+         * @return true para linha vazia (só espaços) ou comentário
+         */
+        private boolean isLinhaIgnorada() {
+            int inicio = 0;
+            while (inicio < tamanho && Character.isWhitespace(linha[inicio])) {
+                inicio++;
+            }
+            return inicio == tamanho || linha[0] == COMENTARIO;
+        }
+
+        /**
+         * @return Linha atual (só o início, se for longa demais)
+         */
+        private String linhaAtual() {
+            return new String(linha, 0, tamanho);
+        }
+    }
+
+    private static final class Contadores {
+        private long linhasLidas;
+        private long clientes;
+        private long contas;
+        private long rejeitadas;
+    }
+}
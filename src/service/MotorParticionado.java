@@ -0,0 +1,319 @@
+package service;
+
+import model.Conta;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Motor de execução particionado: cada conta pertence a uma única partição
+ * (pelo número da conta), e cada partição tem uma única thread que altera saldos.
+ * Boa Prática: Escritor único - as operações de uma conta nunca disputam o saldo
+ * entre threads, então o compare-and-set da conta sempre acerta de primeira e a
+ * linha de cache do saldo fica no núcleo da partição.
+ *
+ * Cada partição consome uma {@link FilaMpsc}; quem solicita a operação espera o
+ * resultado sem trava (park/unpark). Transferência entre partições usa duas fases:
+ * a partição da origem debita e, só se houver saldo, repassa o crédito à partição
+ * do destino. Um crédito recusado (estouro) devolve o débito à origem, então o
+ * valor nunca é perdido nem criado.
+ */
+final class MotorParticionado implements AutoCloseable {
+    /** Voltas de espera ativa antes de uma partição ociosa dormir (nenhuma com um só processador). */
+    private static final int GIROS_ANTES_DE_DORMIR = Runtime.getRuntime().availableProcessors() > 1 ? 1 << 8 : 1;
+
+    private final Particao[] particoes;
+    private volatile boolean encerrado;
+
+    /**
+     * Cria e inicia as partições.
+     *
+     * @param quantidadeParticoes Quantidade de partições (threads escritoras)
+     * @throws IllegalArgumentException se a quantidade não for positiva
+     */
+    MotorParticionado(int quantidadeParticoes) {
+        if (quantidadeParticoes < 1) {
+            throw new IllegalArgumentException("Quantidade de partições deve ser positiva");
+        }
+        this.particoes = new Particao[quantidadeParticoes];
+        for (int i = 0; i < quantidadeParticoes; i++) {
+            particoes[i] = new Particao(i);
+        }
+        for (Particao particao : particoes) {
+            particao.thread.start();
+        }
+    }
+
+    /**
+     * @return Quantidade de partições
+     */
+    int getQuantidadeParticoes() {
+        return particoes.length;
+    }
+
+    /**
+     * @param numeroConta Número de uma conta
+     * @param numeroOutraConta Número da outra conta
+     * @return true se as duas contas pertencem a partições diferentes
+     */
+    boolean isEntreParticoes(int numeroConta, int numeroOutraConta) {
+        return particaoDe(numeroConta) != particaoDe(numeroOutraConta);
+    }
+
+    /**
+     * Enfileira um crédito já validado.
+     *
+     * @return Operação a aguardar
+     */
+    Operacao creditar(Conta conta, long centavos) {
+        Operacao operacao = new Operacao(Etapa.CREDITO, conta, null, centavos);
+        submeter(conta.getNumero(), operacao);
+        return operacao;
+    }
+
+    /**
+     * Enfileira um débito já validado.
+     *
+     * @return Operação a aguardar
+     */
+    Operacao debitar(Conta conta, long centavos) {
+        Operacao operacao = new Operacao(Etapa.DEBITO, conta, null, centavos);
+        submeter(conta.getNumero(), operacao);
+        return operacao;
+    }
+
+    /**
+     * Enfileira uma transferência já validada (contas diferentes).
+     *
+     * @return Operação a aguardar
+     */
+    Operacao transferir(Conta origem, Conta destino, long centavos) {
+        Operacao operacao = new Operacao(Etapa.DEBITO_TRANSFERENCIA, origem, destino, centavos);
+        submeter(origem.getNumero(), operacao);
+        return operacao;
+    }
+
+    /**
+     * Recusa novas operações e encerra as partições depois de executarem as já
+     * enfileiradas. Deve ser chamado depois que os solicitantes pararam: uma
+     * operação enviada durante o encerramento pode não ser executada.
+     */
+    @Override
+    public void close() {
+        encerrado = true;
+        // Primeira rodada: toda operação enfileirada fez sua primeira fase.
+        // Segunda rodada: todo crédito de segunda fase repassado entre partições terminou.
+        for (int rodada = 0; rodada < 2; rodada++) {
+            Operacao[] marcadores = new Operacao[particoes.length];
+            for (int i = 0; i < particoes.length; i++) {
+                marcadores[i] = new Operacao(Etapa.MARCADOR, null, null, 0);
+                particoes[i].enfileirar(marcadores[i]);
+            }
+            for (Operacao marcador : marcadores) {
+                marcador.aguardar();
+            }
+        }
+        for (Particao particao : particoes) {
+            particao.encerrada = true;
+            LockSupport.unpark(particao.thread);
+        }
+        for (Particao particao : particoes) {
+            try {
+                particao.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void submeter(int numeroConta, Operacao operacao) {
+        if (encerrado) {
+            throw new IllegalStateException("Motor particionado encerrado");
+        }
+        particaoDe(numeroConta).enfileirar(operacao);
+    }
+
+    private Particao particaoDe(int numeroConta) {
+        return particoes[Math.floorMod(numeroConta, particoes.length)];
+    }
+
+    private enum Etapa {
+        CREDITO,
+        DEBITO,
+        DEBITO_TRANSFERENCIA,
+        CREDITO_TRANSFERENCIA,
+        MARCADOR
+    }
+
+    /**
+     * Operação em andamento: executada pelas partições, aguardada por quem a solicitou.
+     */
+    static final class Operacao {
+        private final Conta conta;
+        private final Conta destino;
+        private final long centavos;
+        private final Thread solicitante;
+        private Etapa etapa;
+        private RuntimeException falha;
+        private volatile StatusOperacao status;
+
+        private Operacao(Etapa etapa, Conta conta, Conta destino, long centavos) {
+            this.etapa = etapa;
+            this.conta = conta;
+            this.destino = destino;
+            this.centavos = centavos;
+            this.solicitante = Thread.currentThread();
+        }
+
+        /**
+         * Operação resolvida sem passar por partição (ex: conta inexistente).
+         *
+         * @param status Resultado
+         * @return Operação já concluída
+         */
+        static Operacao concluida(StatusOperacao status) {
+            Operacao operacao = new Operacao(null, null, null, 0);
+            operacao.status = status;
+            return operacao;
+        }
+
+        /**
+         * Bloqueia (só a thread solicitante) até a operação terminar.
+         *
+         * @return Resultado da operação
+         */
+        StatusOperacao aguardar() {
+            StatusOperacao resultado;
+            while ((resultado = status) == null) {
+                LockSupport.park(this);
+            }
+            if (falha != null) {
+                throw falha;
+            }
+            return resultado;
+        }
+
+        private void executar(MotorParticionado motor) {
+            try {
+                switch (etapa) {
+                    case CREDITO:
+                        conta.creditar(centavos);
+                        concluir(StatusOperacao.SUCESSO);
+                        break;
+
+                    case DEBITO:
+                        concluir(conta.tentarDebitar(centavos)
+                                ? StatusOperacao.SUCESSO
+                                : StatusOperacao.SALDO_INSUFICIENTE);
+                        break;
+
+                    case DEBITO_TRANSFERENCIA:
+                        if (!conta.tentarDebitar(centavos)) {
+                            concluir(StatusOperacao.SALDO_INSUFICIENTE);
+                        } else if (motor.isEntreParticoes(conta.getNumero(), destino.getNumero())) {
+                            // Segunda fase na partição dona do destino
+                            etapa = Etapa.CREDITO_TRANSFERENCIA;
+                            motor.particaoDe(destino.getNumero()).enfileirar(this);
+                        } else {
+                            creditarDestinoOuDevolver();
+                            concluir(StatusOperacao.SUCESSO);
+                        }
+                        break;
+
+                    case CREDITO_TRANSFERENCIA:
+                        creditarDestinoOuDevolver();
+                        concluir(StatusOperacao.SUCESSO);
+                        break;
+
+                    case MARCADOR:
+                        concluir(StatusOperacao.SUCESSO);
+                        break;
+
+                    default:
+                        throw new IllegalStateException("Etapa não suportada: " + etapa);
+                }
+            } catch (RuntimeException e) {
+                // A partição continua viva; a falha é relançada para quem aguarda
+                falha = e;
+                concluir(StatusOperacao.VALOR_INVALIDO);
+            }
+        }
+
+        /**
+         * Credita o destino de uma transferência já debitada; se o crédito for
+         * recusado (estouro), o débito volta à origem antes de a falha ser relançada.
+         */
+        private void creditarDestinoOuDevolver() {
+            try {
+                destino.creditar(centavos);
+            } catch (RuntimeException e) {
+                conta.creditar(centavos);
+                throw e;
+            }
+        }
+
+        private void concluir(StatusOperacao resultado) {
+            status = resultado;
+            LockSupport.unpark(solicitante);
+        }
+    }
+
+    /**
+     * Partição: uma thread escritora consumindo sua fila.
+     */
+    private final class Particao implements Runnable {
+        private final FilaMpsc<Operacao> fila;
+        private final Thread thread;
+        private volatile boolean dormindo;
+        private volatile boolean encerrada;
+
+        private Particao(int indice) {
+            this.fila = new FilaMpsc<>();
+            this.thread = new Thread(this, "banco-particao-" + indice);
+            this.thread.setDaemon(true);
+        }
+
+        private void enfileirar(Operacao operacao) {
+            fila.adicionar(operacao);
+            // Lido depois de enfileirar: ou a partição vê a operação, ou nós a vemos dormindo
+            if (dormindo) {
+                LockSupport.unpark(thread);
+            }
+        }
+
+        @Override
+        public void run() {
+            int giros = 0;
+            while (true) {
+                Operacao operacao = fila.retirar();
+                if (operacao != null) {
+                    operacao.executar(MotorParticionado.this);
+                    giros = 0;
+                } else if (encerrada) {
+                    return;
+                } else if (++giros < GIROS_ANTES_DE_DORMIR) {
+                    Thread.onSpinWait();
+                } else {
+                    dormir();
+                    giros = 0;
+                }
+            }
+        }
+
+        /**
+         * Dorme até um produtor acordar a partição (ou até o encerramento).
+         */
+        private void dormir() {
+            dormindo = true;
+            // Confere de novo depois de anunciar: evita dormir com operação recém-chegada
+            Operacao operacao = fila.retirar();
+            if (operacao == null && !encerrada) {
+                LockSupport.park(this);
+            }
+            dormindo = false;
+            if (operacao != null) {
+                operacao.executar(MotorParticionado.this);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package service;
+
+import exception.ValorInvalidoException;
+import model.Conta;
+import model.ContaPoupanca;
+import model.Movimento;
+import model.TipoMovimento;
+import repository.LivroRazao;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aplica rendimento a contas poupança em paralelo.
+ * Boa Prática: Dividir e conquistar - a lista é partida recursivamente em faixas
+ * processadas por um ForkJoinPool, usando todos os núcleos.
+ * Cada conta continua sendo atualizada por compare-and-set, então operações
+ * concorrentes na mesma conta não perdem valores.
+ * Com livro razão, o rendimento creditado em cada conta vira um movimento.
+ */
+public class MotorRendimento {
+    /** Tamanho de faixa abaixo do qual a tarefa não é mais dividida. */
+    private static final int LIMITE_SEQUENCIAL = 4096;
+
+    private final ForkJoinPool pool;
+    private final LivroRazao livroRazao;
+
+    /**
+     * Motor sobre o pool comum do ForkJoin.
+     */
+    public MotorRendimento() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param pool Pool que executa as faixas
+     */
+    public MotorRendimento(ForkJoinPool pool) {
+        this(pool, null);
+    }
+
+    /**
+     * @param pool Pool que executa as faixas
+     * @param livroRazao Livro em que cada rendimento é registrado (null para não registrar)
+     */
+    public MotorRendimento(ForkJoinPool pool, LivroRazao livroRazao) {
+        this.pool = Objects.requireNonNull(pool, "Pool não pode ser nulo");
+        this.livroRazao = livroRazao;
+    }
+
+    /**
+     * Aplica o rendimento a todas as contas da lista.
+     *
+     * @param contasPoupanca Contas poupança (lista com acesso aleatório)
+     * @param percentual Percentual de rendimento (já validado)
+     * @param progresso Recebe o andamento a cada faixa concluída
+     * @return Quantidade de contas atualizadas
+     */
+    public int aplicar(List<Conta> contasPoupanca, double percentual, ProgressoRendimento progresso) {
+        Objects.requireNonNull(contasPoupanca, "Lista de contas não pode ser nula");
+        Objects.requireNonNull(progresso, "Progresso não pode ser nulo");
+        if (contasPoupanca.isEmpty()) {
+            return 0;
+        }
+
+        AtomicLong processadas = new AtomicLong();
+        return pool.invoke(new FaixaRendimento(contasPoupanca, 0, contasPoupanca.size(),
+                percentual, progresso, processadas, livroRazao));
+    }
+
+    /**
+     * Faixa [inicio, fim) da lista de contas (tarefa local, nunca serializada).
+     */
+    @SuppressWarnings("serial")
+    private static final class FaixaRendimento extends RecursiveTask<Integer> {
+        private final List<Conta> contas;
+        private final int inicio;
+        private final int fim;
+        private final double percentual;
+        private final ProgressoRendimento progresso;
+        private final AtomicLong processadas;
+        private final LivroRazao livroRazao;
+
+        private FaixaRendimento(List<Conta> contas, int inicio, int fim, double percentual,
+                                ProgressoRendimento progresso, AtomicLong processadas, LivroRazao livroRazao) {
+            this.contas = contas;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.percentual = percentual;
+            this.progresso = progresso;
+            this.processadas = processadas;
+            this.livroRazao = livroRazao;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (fim - inicio <= LIMITE_SEQUENCIAL) {
+                return aplicarSequencial();
+            }
+            int meio = (inicio + fim) >>> 1;
+            FaixaRendimento esquerda = new FaixaRendimento(contas, inicio, meio, percentual,
+                    progresso, processadas, livroRazao);
+            FaixaRendimento direita = new FaixaRendimento(contas, meio, fim, percentual,
+                    progresso, processadas, livroRazao);
+            esquerda.fork();
+            int atualizadasDireita = direita.compute();
+            return esquerda.join() + atualizadasDireita;
+        }
+
+        private int aplicarSequencial() {
+            int atualizadas = 0;
+            for (int i = inicio; i < fim; i++) {
+                Conta conta = contas.get(i);
+                if (conta instanceof ContaPoupanca) {
+                    try {
+                        long rendimento = ((ContaPoupanca) conta).aplicarRendimento(percentual);
+                        if (livroRazao != null && rendimento > 0) {
+                            livroRazao.registrar(TipoMovimento.RENDIMENTO, conta.getNumero(), rendimento,
+                                    Movimento.SEM_CONTRAPARTE);
+                        }
+                    } catch (ValorInvalidoException e) {
+                        // Percentual validado antes de iniciar o motor
+                        throw new IllegalStateException(e.getMessage(), e);
+                    }
+                    atualizadas++;
+                }
+            }
+            progresso.atualizar(processadas.addAndGet(fim - inicio), contas.size());
+            return atualizadas;
+        }
+    }
+}
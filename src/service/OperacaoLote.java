@@ -0,0 +1,92 @@
+package service;
+
+import java.util.Objects;
+
+/**
+ * Operação individual de um lote (depósito, saque ou transferência).
+ * Boa Prática: Objeto de valor imutável com métodos de fábrica nomeados.
+ */
+public final class OperacaoLote {
+
+    /**
+     * Tipos de operação aceitos em lote.
+     */
+    public enum Tipo {
+        DEPOSITO,
+        SAQUE,
+        TRANSFERENCIA
+    }
+
+    private final Tipo tipo;
+    private final int numeroConta;
+    private final int numeroContaDestino;
+    private final double valor;
+
+    private OperacaoLote(Tipo tipo, int numeroConta, int numeroContaDestino, double valor) {
+        this.tipo = Objects.requireNonNull(tipo, "Tipo de operação não pode ser nulo");
+        this.numeroConta = numeroConta;
+        this.numeroContaDestino = numeroContaDestino;
+        this.valor = valor;
+    }
+
+    public static OperacaoLote deposito(int numeroConta, double valor) {
+        return new OperacaoLote(Tipo.DEPOSITO, numeroConta, 0, valor);
+    }
+
+    public static OperacaoLote saque(int numeroConta, double valor) {
+        return new OperacaoLote(Tipo.SAQUE, numeroConta, 0, valor);
+    }
+
+    public static OperacaoLote transferencia(int numeroContaOrigem, int numeroContaDestino, double valor) {
+        return new OperacaoLote(Tipo.TRANSFERENCIA, numeroContaOrigem, numeroContaDestino, valor);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    /**
+     * @return Conta da operação (origem, no caso de transferência)
+     */
+    public int getNumeroConta() {
+        return numeroConta;
+    }
+
+    /**
+     * @return Conta destino (apenas transferências)
+     */
+    public int getNumeroContaDestino() {
+        return numeroContaDestino;
+    }
+
+    public double getValor() {
+        return valor;
+    }
+
+    @Override
+    public boolean equals(Object objeto) {
+        if (this == objeto) {
+            return true;
+        }
+        if (!(objeto instanceof OperacaoLote)) {
+            return false;
+        }
+        OperacaoLote outra = (OperacaoLote) objeto;
+        return tipo == outra.tipo
+                && numeroConta == outra.numeroConta
+                && numeroContaDestino == outra.numeroContaDestino
+                && Double.compare(valor, outra.valor) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tipo, numeroConta, numeroContaDestino, valor);
+    }
+
+    @Override
+    public String toString() {
+        return tipo == Tipo.TRANSFERENCIA
+                ? String.format("%s{%d -> %d, R$ %.2f}", tipo, numeroConta, numeroContaDestino, valor)
+                : String.format("%s{%d, R$ %.2f}", tipo, numeroConta, valor);
+    }
+}
@@ -0,0 +1,18 @@
+package service;
+
+/**
+ * Recebe o andamento da aplicação de rendimento.
+ * Pode ser chamado de várias threads ao mesmo tempo; implementações devem ser thread-safe.
+ */
+@FunctionalInterface
+public interface ProgressoRendimento {
+
+    /** Ignora o andamento. */
+    ProgressoRendimento NENHUM = (processadas, total) -> { };
+
+    /**
+     * @param processadas Contas já atualizadas
+     * @param total Total de contas a atualizar
+     */
+    void atualizar(long processadas, long total);
+}
@@ -1,11 +1,10 @@
 package service;
 
-import model.Conta;
+import model.Centavos;
+import model.ResumoTipoConta;
 import repository.IRepositorioContas;
 
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 /**
  * Serviço para geração de relatórios.
@@ -15,50 +14,37 @@ public class RelatorioServico {
 
     /**
      * Gera relatório de consolidação do banco.
+     * Boa Prática: Usa os totais por tipo mantidos pelo repositório -
+     * custo proporcional à quantidade de tipos, não de contas.
      *
      * @param repositorioContas Repositório de contas
      */
     public void gerarRelatorioConsolidacao(IRepositorioContas repositorioContas) {
-        List<Conta> contas = repositorioContas.listarTodas();
+        List<ResumoTipoConta> resumos = repositorioContas.consolidarPorTipo();
 
-        if (contas.isEmpty()) {
+        if (resumos.isEmpty()) {
             System.out.println("\n=== RELATÓRIO DE CONSOLIDAÇÃO ===");
             System.out.println("Nenhuma conta cadastrada.");
             System.out.println("==================================\n");
             return;
         }
 
-        // Agrupa contas por tipo
-        Map<String, List<Conta>> contasPorTipo = contas.stream()
-                .collect(Collectors.groupingBy(Conta::getTipo));
-
         System.out.println("\n=== RELATÓRIO DE CONSOLIDAÇÃO ===");
 
-        // Exibe informações por tipo
-        contasPorTipo.forEach((tipo, contasDoTipo) -> {
-            double saldoTotalTipo = calcularSaldoTotal(contasDoTipo);
+        // Exibe informações por tipo e acumula os totais gerais
+        long quantidadeTotal = 0;
+        long saldoTotalCentavos = 0;
+        for (ResumoTipoConta resumo : resumos) {
             System.out.printf("%-15s | Quantidade: %3d | Saldo Total: R$ %12.2f%n",
-                    tipo, contasDoTipo.size(), saldoTotalTipo);
-        });
+                    resumo.getTipo(), resumo.getQuantidade(), resumo.getSaldo());
+            quantidadeTotal += resumo.getQuantidade();
+            saldoTotalCentavos += resumo.getSaldoCentavos();
+        }
 
         // Exibe totais gerais
-        double saldoTotalBanco = calcularSaldoTotal(contas);
         System.out.println("-".repeat(60));
         System.out.printf("%-15s | Quantidade: %3d | Saldo Total: R$ %12.2f%n",
-                "TOTAL GERAL", contas.size(), saldoTotalBanco);
+                "TOTAL GERAL", quantidadeTotal, Centavos.paraReais(saldoTotalCentavos));
         System.out.println("==================================\n");
     }
-
-    /**
-     * Calcula saldo total de uma lista de contas.
-     * Boa Prática: Método privado reutilizável.
-     *
-     * @param contas Lista de contas
-     * @return Saldo total
-     */
-    private double calcularSaldoTotal(List<Conta> contas) {
-        return contas.stream()
-                .mapToDouble(Conta::getSaldo)
-                .sum();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,53 @@
+package service;
+
+import exception.BancoException;
+
+import java.util.Objects;
+
+/**
+ * Resultado de um lote de cadastros: para cada item, na ordem recebida,
+ * a exceção que o rejeitou (ex: ClienteJaExisteException) ou nenhuma.
+ */
+public final class ResultadoCadastroLote {
+    private final BancoException[] falhas;
+    private final int quantidadeSucessos;
+
+    public ResultadoCadastroLote(BancoException[] falhas) {
+        this.falhas = Objects.requireNonNull(falhas, "Falhas não podem ser nulas").clone();
+        int sucessos = 0;
+        for (BancoException falha : this.falhas) {
+            if (falha == null) {
+                sucessos++;
+            }
+        }
+        this.quantidadeSucessos = sucessos;
+    }
+
+    /**
+     * @param indice Posição do cadastro no lote
+     * @return true se o cadastro foi realizado
+     */
+    public boolean isSucesso(int indice) {
+        return falhas[indice] == null;
+    }
+
+    /**
+     * @param indice Posição do cadastro no lote
+     * @return Exceção que rejeitou o cadastro, ou null se foi realizado
+     */
+    public BancoException getFalha(int indice) {
+        return falhas[indice];
+    }
+
+    public int getQuantidade() {
+        return falhas.length;
+    }
+
+    public int getQuantidadeSucessos() {
+        return quantidadeSucessos;
+    }
+
+    public int getQuantidadeFalhas() {
+        return falhas.length - quantidadeSucessos;
+    }
+}
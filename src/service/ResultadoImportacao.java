@@ -0,0 +1,44 @@
+package service;
+
+/**
+ * Resumo de uma importação em massa.
+ */
+public final class ResultadoImportacao {
+    private final long linhasLidas;
+    private final long clientesImportados;
+    private final long contasImportadas;
+    private final long linhasRejeitadas;
+
+    public ResultadoImportacao(long linhasLidas, long clientesImportados,
+                               long contasImportadas, long linhasRejeitadas) {
+        this.linhasLidas = linhasLidas;
+        this.clientesImportados = clientesImportados;
+        this.contasImportadas = contasImportadas;
+        this.linhasRejeitadas = linhasRejeitadas;
+    }
+
+    /**
+     * @return Registros lidos (sem contar linhas vazias e comentários)
+     */
+    public long getLinhasLidas() {
+        return linhasLidas;
+    }
+
+    public long getClientesImportados() {
+        return clientesImportados;
+    }
+
+    public long getContasImportadas() {
+        return contasImportadas;
+    }
+
+    public long getLinhasRejeitadas() {
+        return linhasRejeitadas;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d linha(s) lida(s): %d cliente(s) e %d conta(s) importado(s), %d rejeitada(s)",
+                linhasLidas, clientesImportados, contasImportadas, linhasRejeitadas);
+    }
+}
@@ -0,0 +1,42 @@
+package service;
+
+import java.util.Objects;
+
+/**
+ * Resultado de um lote: um status por operação, na ordem recebida.
+ */
+public final class ResultadoLote {
+    private final StatusOperacao[] status;
+    private final int quantidadeSucessos;
+
+    public ResultadoLote(StatusOperacao[] status) {
+        this.status = Objects.requireNonNull(status, "Status não pode ser nulo").clone();
+        int sucessos = 0;
+        for (StatusOperacao item : this.status) {
+            if (item.isSucesso()) {
+                sucessos++;
+            }
+        }
+        this.quantidadeSucessos = sucessos;
+    }
+
+    /**
+     * @param indice Posição da operação no lote
+     * @return Status da operação
+     */
+    public StatusOperacao getStatus(int indice) {
+        return status[indice];
+    }
+
+    public int getQuantidade() {
+        return status.length;
+    }
+
+    public int getQuantidadeSucessos() {
+        return quantidadeSucessos;
+    }
+
+    public int getQuantidadeFalhas() {
+        return status.length - quantidadeSucessos;
+    }
+}
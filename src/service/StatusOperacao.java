@@ -0,0 +1,22 @@
+package service;
+
+/**
+ * Resultado de uma operação sem exceção (ex: item de lote).
+ * Boa Prática: Falhas esperadas de negócio como valores, não como exceções.
+ */
+public enum StatusOperacao {
+    SUCESSO,
+    CONTA_NAO_ENCONTRADA,
+    VALOR_INVALIDO,
+    SALDO_INSUFICIENTE,
+    CONTAS_IGUAIS,
+    /** Chave de idempotência já usada por uma operação diferente (nada foi aplicado). */
+    CHAVE_REUTILIZADA;
+
+    /**
+     * @return true se a operação foi aplicada
+     */
+    public boolean isSucesso() {
+        return this == SUCESSO;
+    }
+}
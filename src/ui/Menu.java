@@ -2,23 +2,50 @@ package ui;
 
 import constants.Constantes;
 import exception.*;
+import metricas.MetricasBanco;
 import model.Cliente;
 import model.Conta;
+import model.Movimento;
 import repository.IRepositorioContas;
+import service.ContasDoCliente;
+import service.ExportacaoServico;
+import service.FormatoExportacao;
 import service.IOperacoesBancarias;
+import service.ImportacaoCsvServico;
+import service.ProgressoRendimento;
 import service.RelatorioServico;
-
+import service.ResultadoImportacao;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Classe responsável pela interface do usuário.
  * Boa Prática: SRP - Responsabilidade única de UI.
  */
 public class Menu {
+    private static final String SUFIXO_REJEITADOS = ".rejeitados";
+    private static final int PASSOS_PROGRESSO = 10;
+    private static final int CONTAS_POR_PAGINA = 20;
+    private static final int MOVIMENTOS_EXTRATO = 20;
+    private static final DateTimeFormatter FORMATO_INSTANTE =
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss").withZone(ZoneId.systemDefault());
+
     private final IOperacoesBancarias operacoesBancarias;
     private final RelatorioServico relatorioServico;
+    private final ImportacaoCsvServico importacaoServico;
+    private final ExportacaoServico exportacaoServico;
+    private final MetricasBanco metricas;
     private final Scanner scanner;
 
     /**
@@ -26,10 +53,18 @@ public class Menu {
      *
      * @param operacoesBancarias Serviço de operações bancárias
      * @param relatorioServico Serviço de relatórios
+     * @param importacaoServico Serviço de importação em massa
+     * @param exportacaoServico Serviço de exportação de contas e extratos
+     * @param metricas Métricas das operações bancárias
      */
-    public Menu(IOperacoesBancarias operacoesBancarias, RelatorioServico relatorioServico) {
+    public Menu(IOperacoesBancarias operacoesBancarias, RelatorioServico relatorioServico,
+                ImportacaoCsvServico importacaoServico, ExportacaoServico exportacaoServico,
+                MetricasBanco metricas) {
         this.operacoesBancarias = operacoesBancarias;
         this.relatorioServico = relatorioServico;
+        this.importacaoServico = importacaoServico;
+        this.exportacaoServico = exportacaoServico;
+        this.metricas = metricas;
         this.scanner = new Scanner(System.in);
     }
 
@@ -73,6 +108,11 @@ public class Menu {
         System.out.println("│ 7. Aplicar Rendimento         │");
         System.out.println("│ 8. Listar Contas              │");
         System.out.println("│ 9. Relatório Consolidado      │");
+        System.out.println("│10. Importar CSV               │");
+        System.out.println("│11. Contas do Cliente          │");
+        System.out.println("│12. Extrato da Conta           │");
+        System.out.println("│13. Exportar Dados             │");
+        System.out.println("│14. Métricas de Operações      │");
         System.out.println("│ 0. Sair                       │");
         System.out.println("└───────────────────────────────┘");
         System.out.print("Escolha uma opção: ");
@@ -106,6 +146,11 @@ public class Menu {
                 case 7: aplicarRendimento(); break;
                 case 8: listarContas(); break;
                 case 9: exibirRelatorio(); break;
+                case 10: importarCsv(); break;
+                case 11: consultarContasDoCliente(); break;
+                case 12: consultarExtrato(); break;
+                case 13: exportarDados(); break;
+                case 14: exibirMetricas(); break;
                 default: System.out.println("Opção inválida!");
             }
         } catch (Exception e) {
@@ -304,6 +349,59 @@ public class Menu {
         }
     }
 
+    private void consultarExtrato() {
+        System.out.println("\n=== EXTRATO DA CONTA ===");
+
+        try {
+            System.out.print("Número da conta: ");
+            int numero = lerInt();
+
+            List<Movimento> movimentos = operacoesBancarias.consultarExtrato(numero, MOVIMENTOS_EXTRATO);
+            if (movimentos.isEmpty()) {
+                System.out.println("Nenhum movimento registrado para esta conta.");
+                return;
+            }
+            System.out.println("Últimos " + movimentos.size() + " movimentos:");
+            for (Movimento movimento : movimentos) {
+                System.out.printf("  %s │ %-22s │ %s R$ %10.2f%s%n",
+                        FORMATO_INSTANTE.format(Instant.ofEpochMilli(movimento.getInstante())),
+                        movimento.getTipo().getDescricao(),
+                        movimento.getTipo().isCredito() ? "+" : "-",
+                        movimento.getValor(),
+                        movimento.getContraparte() == Movimento.SEM_CONTRAPARTE
+                                ? "" : " │ conta " + movimento.getContraparte());
+            }
+            System.out.printf("Saldo atual: R$ %.2f%n", operacoesBancarias.consultarSaldo(numero));
+
+        } catch (BancoException e) {
+            System.out.println("Erro " + e.getMessage());
+        }
+    }
+
+    private void consultarContasDoCliente() {
+        System.out.println("\n=== CONTAS DO CLIENTE ===");
+
+        try {
+            System.out.print("CPF do cliente: ");
+            String cpf = scanner.nextLine();
+
+            ContasDoCliente contasDoCliente = operacoesBancarias.consultarContasDoCliente(cpf);
+            System.out.println("Cliente: " + contasDoCliente.getCliente().getNome());
+            if (contasDoCliente.getContas().isEmpty()) {
+                System.out.println("Nenhuma conta cadastrada para este cliente.");
+                return;
+            }
+            for (Conta conta : contasDoCliente.getContas()) {
+                System.out.printf("  Nº %4d │ %-15s │ R$ %10.2f%n",
+                        conta.getNumero(), conta.getTipo(), conta.getSaldo());
+            }
+            System.out.printf("Saldo total: R$ %.2f%n", contasDoCliente.getSaldoTotal());
+
+        } catch (BancoException e) {
+            System.out.println("Erro " + e.getMessage());
+        }
+    }
+
     private void aplicarRendimento() {
         System.out.println("\n=== APLICAR RENDIMENTO ===");
 
@@ -311,7 +409,7 @@ public class Menu {
             System.out.print("Taxa de rendimento (%): ");
             double taxa = lerDouble();
 
-            int contasAtualizadas = operacoesBancarias.aplicarRendimentoPoupancas(taxa);
+            int contasAtualizadas = operacoesBancarias.aplicarRendimentoPoupancas(taxa, exibirProgresso());
             System.out.printf("Rendimento de %.2f%% aplicado em %d conta(s)!%n",
                     taxa, contasAtualizadas);
 
@@ -320,10 +418,93 @@ public class Menu {
         }
     }
 
+    /**
+     * Exibe o andamento em passos de 10%.
+     * Concorrência: chamado por várias threads; cada passo é impresso uma única vez.
+     */
+    private ProgressoRendimento exibirProgresso() {
+        AtomicInteger ultimoPasso = new AtomicInteger();
+        return (processadas, total) -> {
+            int passo = (int) (processadas * PASSOS_PROGRESSO / total);
+            if (ultimoPasso.getAndAccumulate(passo, Math::max) < passo) {
+                System.out.printf("Progresso: %d%% (%d/%d contas)%n",
+                        passo * 100 / PASSOS_PROGRESSO, processadas, total);
+            }
+        };
+    }
+
+    /**
+     * Importa clientes e contas de um arquivo CSV.
+     * As linhas rejeitadas vão para um arquivo ao lado do original.
+     */
+    private void importarCsv() {
+        System.out.println("\n=== IMPORTAR CSV ===");
+
+        System.out.print("Caminho do arquivo: ");
+        Path arquivoCsv = Paths.get(scanner.nextLine().trim());
+        Path arquivoRejeitados = Paths.get(arquivoCsv + SUFIXO_REJEITADOS);
+
+        try {
+            ResultadoImportacao resultado = importacaoServico.importar(arquivoCsv, arquivoRejeitados);
+            System.out.println("Importação concluída: " + resultado);
+            if (resultado.getLinhasRejeitadas() > 0) {
+                System.out.println("Linhas rejeitadas em: " + arquivoRejeitados);
+            }
+        } catch (IOException e) {
+            System.out.println("Erro ao importar arquivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exporta contas, o extrato de uma conta ou o livro razão inteiro para arquivo.
+     * Boa Prática: O serviço grava direto no canal do arquivo, em memória constante.
+     */
+    private void exportarDados() {
+        System.out.println("\n=== EXPORTAR DADOS ===");
+        System.out.println("1. Contas (ordenadas por saldo)");
+        System.out.println("2. Extrato de uma conta");
+        System.out.println("3. Livro razão completo");
+        System.out.print("Escolha: ");
+        int conteudo = lerInt();
+        int numeroConta = 0;
+        if (conteudo == 2) {
+            System.out.print("Número da conta: ");
+            numeroConta = lerInt();
+        } else if (conteudo != 1 && conteudo != 3) {
+            System.out.println("Opção inválida!");
+            return;
+        }
+
+        System.out.print("Formato (1. CSV, 2. Binário): ");
+        FormatoExportacao formato = lerInt() == 2 ? FormatoExportacao.BINARIO : FormatoExportacao.CSV;
+        System.out.print("Caminho do arquivo (." + formato.getExtensao() + "): ");
+        Path arquivo = Paths.get(scanner.nextLine().trim());
+
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long registros;
+            switch (conteudo) {
+                case 1: registros = exportacaoServico.exportarContas(formato, canal); break;
+                case 2: registros = exportacaoServico.exportarExtrato(numeroConta, Long.MIN_VALUE,
+                        Long.MAX_VALUE, formato, canal); break;
+                default: registros = exportacaoServico.exportarLivroRazao(formato, canal); break;
+            }
+            System.out.println(registros + " registros exportados para " + arquivo);
+        } catch (BancoException e) {
+            System.out.println("Erro " + e.getMessage());
+        } catch (IOException e) {
+            System.out.println("Erro ao exportar arquivo: " + e.getMessage());
+        }
+    }
+
     // ========== MÉTODOS DE CONSULTA ==========
 
+    /**
+     * Lista contas por saldo, uma página por vez.
+     * Boa Prática: Cada página é buscada no índice ordenado, sem carregar todas as contas.
+     */
     private void listarContas() {
-        List<Conta> contas = operacoesBancarias.listarContasOrdenadasPorSaldo();
+        List<Conta> contas = operacoesBancarias.listarContasOrdenadasPorSaldo(0, CONTAS_POR_PAGINA);
 
         if (contas.isEmpty()) {
             System.out.println("\nNenhuma conta cadastrada.");
@@ -331,11 +512,24 @@ public class Menu {
         }
 
         System.out.println("\n╔═══ CONTAS CADASTRADAS (ordenadas por saldo) ═══╗");
-        for (int i = 0; i < contas.size(); i++) {
-            Conta conta = contas.get(i);
-            System.out.printf("│ %2d │ %-15s │ Nº %4d │ %-20s │ R$ %10.2f │%n",
-                    (i + 1), conta.getTipo(), conta.getNumero(),
-                    conta.getNomeCliente(), conta.getSaldo());
+        int posicao = 0;
+        while (true) {
+            for (Conta conta : contas) {
+                System.out.printf("│ %2d │ %-15s │ Nº %4d │ %-20s │ R$ %10.2f │%n",
+                        ++posicao, conta.getTipo(), conta.getNumero(),
+                        conta.getNomeCliente(), conta.getSaldo());
+            }
+            if (contas.size() < CONTAS_POR_PAGINA) {
+                break;
+            }
+            System.out.print("│ Enter para mais contas, qualquer texto para voltar: ");
+            if (!scanner.nextLine().isEmpty()) {
+                break;
+            }
+            contas = operacoesBancarias.listarContasOrdenadasPorSaldo(posicao, CONTAS_POR_PAGINA);
+            if (contas.isEmpty()) {
+                break;
+            }
         }
         System.out.println("╚═══════════════════════════════════════════════════════════════╝");
     }
@@ -353,6 +547,14 @@ public class Menu {
         }
     }
 
+    /**
+     * Mostra chamadas, falhas e percentis de latência de cada operação.
+     */
+    private void exibirMetricas() {
+        System.out.println("\n=== MÉTRICAS DE OPERAÇÕES ===");
+        System.out.print(metricas.relatorio());
+    }
+
     // ========== MÉTODOS AUXILIARES ==========
 
     /**
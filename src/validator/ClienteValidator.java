@@ -11,6 +11,10 @@ import java.util.Objects;
  * Boa Prática: Separação de responsabilidades (SRP) e Programação Defensiva.
  */
 public final class ClienteValidator {
+    private static final int CPF_VALIDO = 0;
+    private static final int CPF_TAMANHO_INVALIDO = 1;
+    private static final int CPF_DIGITOS_IGUAIS = 2;
+    private static final int CPF_VERIFICADORES_INCORRETOS = 3;
 
     /**
      * Construtor privado para prevenir instanciação.
@@ -63,67 +67,151 @@ public final class ClienteValidator {
     public static void validarCpf(String cpf) throws CpfInvalidoException {
         Objects.requireNonNull(cpf, Constantes.ERRO_CPF_NULO);
 
-        // Remove caracteres não numéricos
-        String cpfLimpo = cpf.replaceAll("[^0-9]", "");
-
-        // Verifica tamanho
-        if (cpfLimpo.length() != Constantes.CPF_TAMANHO) {
-            throw new CpfInvalidoException(
-                    String.format("CPF deve ter %d dígitos", Constantes.CPF_TAMANHO)
-            );
+        switch (verificarCpf(cpf)) {
+            case CPF_VALIDO:
+                return;
+            case CPF_TAMANHO_INVALIDO:
+                throw new CpfInvalidoException(
+                        String.format("CPF deve ter %d dígitos", Constantes.CPF_TAMANHO)
+                );
+            case CPF_DIGITOS_IGUAIS:
+                throw new CpfInvalidoException("CPF não pode ter todos os dígitos iguais");
+            default:
+                throw new CpfInvalidoException("CPF inválido: dígitos verificadores incorretos");
         }
+    }
+
+    /**
+     * Verifica o CPF sem lançar exceção nem alocar memória.
+     *
+     * @param cpf CPF, com ou sem formatação
+     * @return true se o CPF for válido
+     */
+    public static boolean isCpfValido(CharSequence cpf) {
+        return cpf != null && verificarCpf(cpf) == CPF_VALIDO;
+    }
 
-        // Verifica se todos os dígitos são iguais
-        if (cpfLimpo.matches("(\\d)\\1{10}")) {
-            throw new CpfInvalidoException("CPF não pode ter todos os dígitos iguais");
+    /**
+     * Valida um lote de CPFs sem alocação por item.
+     * Boa Prática: O chamador fornece o vetor de resultados e pode reaproveitá-lo entre lotes.
+     *
+     * @param cpfs CPFs a validar (posições nulas são consideradas inválidas)
+     * @param resultado Recebe, na mesma posição, se cada CPF é válido
+     * @return Quantidade de CPFs válidos
+     */
+    public static int validarCpfs(CharSequence[] cpfs, boolean[] resultado) {
+        Objects.requireNonNull(cpfs, "Lista de CPFs não pode ser nula");
+        Objects.requireNonNull(resultado, "Vetor de resultados não pode ser nulo");
+        if (resultado.length < cpfs.length) {
+            throw new IllegalArgumentException("Vetor de resultados menor que a lista de CPFs");
         }
 
-        // Valida dígitos verificadores
-        if (!validarDigitosVerificadores(cpfLimpo)) {
-            throw new CpfInvalidoException("CPF inválido: dígitos verificadores incorretos");
+        int validos = 0;
+        for (int i = 0; i < cpfs.length; i++) {
+            resultado[i] = isCpfValido(cpfs[i]);
+            if (resultado[i]) {
+                validos++;
+            }
         }
+        return validos;
     }
 
     /**
-     * Valida os dígitos verificadores do CPF usando o algoritmo oficial.
+     * Verifica tamanho, dígitos repetidos e dígitos verificadores em uma
+     * única passada, ignorando caracteres não numéricos (pontuação).
+     * Boa Prática: Sem expressões regulares nem Strings intermediárias.
      *
-     * @param cpf CPF com 11 dígitos numéricos
-     * @return true se dígitos verificadores estão corretos
+     * @param cpf CPF, com ou sem formatação
+     * @return Código do resultado (CPF_VALIDO ou o motivo da rejeição)
      */
-    private static boolean validarDigitosVerificadores(String cpf) {
-        try {
-            // Calcula primeiro dígito verificador
-            int soma = 0;
-            for (int i = 0; i < 9; i++) {
-                soma += Character.getNumericValue(cpf.charAt(i)) * (10 - i);
+    private static int verificarCpf(CharSequence cpf) {
+        int quantidadeDigitos = 0;
+        int primeiroDigito = -1;
+        boolean todosIguais = true;
+        int somaPrimeiroVerificador = 0;
+        int somaSegundoVerificador = 0;
+        int primeiroVerificador = 0;
+        int segundoVerificador = 0;
+
+        for (int i = 0; i < cpf.length(); i++) {
+            char caractere = cpf.charAt(i);
+            if (caractere < '0' || caractere > '9') {
+                continue;
             }
-            int primeiroDigito = 11 - (soma % 11);
-            if (primeiroDigito >= 10) primeiroDigito = 0;
-
-            // Calcula segundo dígito verificador
-            soma = 0;
-            for (int i = 0; i < 10; i++) {
-                soma += Character.getNumericValue(cpf.charAt(i)) * (11 - i);
+            int digito = caractere - '0';
+            if (quantidadeDigitos < 9) {
+                somaPrimeiroVerificador += digito * (10 - quantidadeDigitos);
             }
-            int segundoDigito = 11 - (soma % 11);
-            if (segundoDigito >= 10) segundoDigito = 0;
-
-            // Verifica se os dígitos calculados conferem
-            return Character.getNumericValue(cpf.charAt(9)) == primeiroDigito
-                    && Character.getNumericValue(cpf.charAt(10)) == segundoDigito;
+            if (quantidadeDigitos < 10) {
+                somaSegundoVerificador += digito * (11 - quantidadeDigitos);
+            }
+            if (quantidadeDigitos == 9) {
+                primeiroVerificador = digito;
+            } else if (quantidadeDigitos == 10) {
+                segundoVerificador = digito;
+            }
+            if (primeiroDigito < 0) {
+                primeiroDigito = digito;
+            } else if (digito != primeiroDigito) {
+                todosIguais = false;
+            }
+            quantidadeDigitos++;
+        }
 
-        } catch (Exception e) {
-            return false;
+        if (quantidadeDigitos != Constantes.CPF_TAMANHO) {
+            return CPF_TAMANHO_INVALIDO;
         }
+        if (todosIguais) {
+            return CPF_DIGITOS_IGUAIS;
+        }
+        return primeiroVerificador == calcularVerificador(somaPrimeiroVerificador)
+                && segundoVerificador == calcularVerificador(somaSegundoVerificador)
+                ? CPF_VALIDO
+                : CPF_VERIFICADORES_INCORRETOS;
+    }
+
+    /**
+     * Dígito verificador pelo algoritmo oficial (módulo 11).
+     *
+     * @param soma Soma ponderada dos dígitos anteriores
+     * @return Dígito verificador esperado
+     */
+    private static int calcularVerificador(int soma) {
+        int digito = 11 - (soma % 11);
+        return digito >= 10 ? 0 : digito;
     }
 
     /**
      * Normaliza o CPF removendo caracteres especiais.
+     * CPF já normalizado é devolvido sem cópia.
      *
      * @param cpf CPF a ser normalizado
      * @return CPF apenas com números
      */
     public static String normalizarCpf(String cpf) {
-        return cpf == null ? "" : cpf.replaceAll("[^0-9]", "");
+        if (cpf == null) {
+            return "";
+        }
+
+        int quantidadeDigitos = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char caractere = cpf.charAt(i);
+            if (caractere >= '0' && caractere <= '9') {
+                quantidadeDigitos++;
+            }
+        }
+        if (quantidadeDigitos == cpf.length()) {
+            return cpf;
+        }
+
+        char[] digitos = new char[quantidadeDigitos];
+        int posicao = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char caractere = cpf.charAt(i);
+            if (caractere >= '0' && caractere <= '9') {
+                digitos[posicao++] = caractere;
+            }
+        }
+        return new String(digitos);
     }
 }
@@ -70,6 +70,20 @@ public final class ContaValidator {
         }
     }
 
+    /**
+     * Verifica valor de operação sem lançar exceção.
+     * Boa Prática: Mesmas regras de {@link #validarValorOperacao(double, String)},
+     * para caminhos em que valor inválido é um resultado esperado (lotes).
+     *
+     * @param valor Valor a ser verificado
+     * @return true se valor for válido
+     */
+    public static boolean isValorOperacaoValido(double valor) {
+        return !Double.isNaN(valor)
+                && valor >= Constantes.VALOR_MINIMO_OPERACAO
+                && valor <= Constantes.VALOR_MAXIMO_OPERACAO;
+    }
+
     /**
      * Valida percentual de rendimento.
      *
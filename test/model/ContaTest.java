@@ -0,0 +1,160 @@
+package model;
+
+import constants.Constantes;
+import exception.BancoException;
+import exception.SaldoInsuficienteException;
+import factory.ContaFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Saldo da conta: compare-and-set sob disputa, limites de crédito e débito,
+ * transferência e restauração.
+ */
+class ContaTest {
+    private static final int THREADS = 8;
+    private static final int OPERACOES_POR_THREAD = 20_000;
+
+    @Test
+    void creditosConcorrentesNaoPerdemAtualizacoes() throws Exception {
+        Conta conta = novaConta(Constantes.NUMERO_CONTA_INICIAL, 0.0);
+
+        executarEmParalelo(() -> {
+            for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                conta.creditar(1);
+            }
+        });
+
+        assertEquals((long) THREADS * OPERACOES_POR_THREAD, conta.getSaldoCentavos());
+    }
+
+    @Test
+    void debitosConcorrentesNuncaDeixamSaldoNegativo() throws Exception {
+        long saldoInicial = OPERACOES_POR_THREAD;
+        Conta conta = novaConta(Constantes.NUMERO_CONTA_INICIAL, 0.0);
+        conta.creditar(saldoInicial);
+        AtomicInteger debitosAceitos = new AtomicInteger();
+
+        executarEmParalelo(() -> {
+            for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                if (conta.tentarDebitar(1)) {
+                    debitosAceitos.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(saldoInicial, debitosAceitos.get());
+        assertEquals(0, conta.getSaldoCentavos());
+    }
+
+    @Test
+    void creditoQueEstourariaSaldoNaoAlteraConta() throws BancoException {
+        Conta conta = novaConta(Constantes.NUMERO_CONTA_INICIAL, 0.0);
+        conta.restaurarSaldoCentavos(Long.MAX_VALUE - 10);
+
+        assertThrows(IllegalArgumentException.class, () -> conta.creditar(11));
+        assertEquals(Long.MAX_VALUE - 10, conta.getSaldoCentavos());
+    }
+
+    @Test
+    void transferenciaMoveValorEntreContas() throws BancoException {
+        Conta origem = novaConta(Constantes.NUMERO_CONTA_INICIAL, 100.0);
+        Conta destino = novaConta(Constantes.NUMERO_CONTA_INICIAL + 1, 0.0);
+
+        origem.transferir(destino, 40.0);
+
+        assertEquals(6_000, origem.getSaldoCentavos());
+        assertEquals(4_000, destino.getSaldoCentavos());
+    }
+
+    @Test
+    void transferenciaSemSaldoNaoAlteraContas() throws BancoException {
+        Conta origem = novaConta(Constantes.NUMERO_CONTA_INICIAL, 10.0);
+        Conta destino = novaConta(Constantes.NUMERO_CONTA_INICIAL + 1, 0.0);
+
+        assertThrows(SaldoInsuficienteException.class, () -> origem.transferir(destino, 10.01));
+        assertEquals(1_000, origem.getSaldoCentavos());
+        assertEquals(0, destino.getSaldoCentavos());
+    }
+
+    @Test
+    void transferenciaComCreditoRecusadoDevolveDebito() throws BancoException {
+        Conta origem = novaConta(Constantes.NUMERO_CONTA_INICIAL, 10.0);
+        Conta destino = novaConta(Constantes.NUMERO_CONTA_INICIAL + 1, 0.0);
+        destino.restaurarSaldoCentavos(Long.MAX_VALUE);
+
+        assertThrows(IllegalArgumentException.class, () -> origem.tentarTransferir(destino, 500));
+        assertEquals(1_000, origem.getSaldoCentavos());
+        assertEquals(Long.MAX_VALUE, destino.getSaldoCentavos());
+    }
+
+    @Test
+    void transferenciasCruzadasConservamTotal() throws Exception {
+        Conta a = novaConta(Constantes.NUMERO_CONTA_INICIAL, 0.0);
+        Conta b = novaConta(Constantes.NUMERO_CONTA_INICIAL + 1, 0.0);
+        a.creditar(1_000);
+        b.creditar(1_000);
+        AtomicInteger indice = new AtomicInteger();
+
+        executarEmParalelo(() -> {
+            boolean par = indice.getAndIncrement() % 2 == 0;
+            Conta origem = par ? a : b;
+            Conta destino = par ? b : a;
+            for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                origem.tentarTransferir(destino, 7);
+            }
+        });
+
+        assertEquals(2_000, a.getSaldoCentavos() + b.getSaldoCentavos());
+        assertTrue(a.getSaldoCentavos() >= 0 && b.getSaldoCentavos() >= 0);
+    }
+
+    @Test
+    void restauracaoInformaVariacaoExataAoAcumulador() throws BancoException {
+        AcumuladorSaldo acumulador = new AcumuladorSaldo();
+        Conta conta = novaConta(Constantes.NUMERO_CONTA_INICIAL, 25.0);
+        acumulador.registrarConta(conta);
+
+        conta.restaurarSaldoCentavos(9_999);
+
+        assertEquals(9_999, acumulador.resumir(conta.getTipo()).getSaldoCentavos());
+        assertThrows(IllegalArgumentException.class, () -> conta.restaurarSaldoCentavos(-1));
+        assertFalse(conta.tentarDebitar(10_000));
+    }
+
+    private static Conta novaConta(int numero, double saldoInicial) throws BancoException {
+        return ContaFactory.criarConta(numero, new Cliente("Titular Teste", "52998224725"),
+                Constantes.TIPO_CONTA_CORRENTE, saldoInicial);
+    }
+
+    /**
+     * Executa a tarefa em {@link #THREADS} threads liberadas ao mesmo tempo.
+     */
+    private static void executarEmParalelo(Runnable tarefa) throws InterruptedException {
+        CountDownLatch largada = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    largada.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                tarefa.run();
+            });
+            threads[i].start();
+        }
+        largada.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
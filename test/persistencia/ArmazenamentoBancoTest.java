@@ -0,0 +1,315 @@
+package persistencia;
+
+import constants.Constantes;
+import exception.BancoException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repository.IRepositorioContas;
+import repository.RepositorioClientesIndexado;
+import repository.RepositorioContasIndexado;
+import service.BancoServico;
+import service.CacheIdempotencia;
+import service.OperacaoLote;
+import service.ResultadoLote;
+import service.StatusOperacao;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recuperação a partir do disco: reprodução do diário, compactação em snapshot,
+ * chaves de idempotência e escrita concorrente seguida de reinício.
+ */
+class ArmazenamentoBancoTest {
+    private static final String CPF = "52998224725";
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void reinicioReproduzDiario() throws Exception {
+        try (Banco banco = Banco.abrir(diretorio)) {
+            banco.servico.cadastrarCliente("Titular Teste", CPF);
+            banco.servico.cadastrarConta(CPF, Constantes.TIPO_CONTA_CORRENTE, 100.0);
+            banco.servico.cadastrarConta(CPF, Constantes.TIPO_CONTA_POUPANCA, 200.0);
+            banco.servico.depositar(1001, 50.0);
+            banco.servico.sacar(1002, 20.0);
+            banco.servico.transferir(1001, 1002, 30.0);
+            banco.servico.aplicarRendimentoPoupancas(10.0);
+        }
+
+        try (Banco banco = Banco.abrir(diretorio)) {
+            assertEquals(120.0, banco.servico.consultarSaldo(1001));
+            assertEquals(231.0, banco.servico.consultarSaldo(1002));
+            assertEquals(1003, banco.servico.cadastrarConta(CPF, Constantes.TIPO_CONTA_CORRENTE, 0.0).getNumero());
+        }
+    }
+
+    @Test
+    void compactacaoPreservaEstadoEOperacoesPosteriores() throws Exception {
+        try (Banco banco = Banco.abrir(diretorio)) {
+            banco.servico.cadastrarCliente("Titular Teste", CPF);
+            banco.servico.cadastrarConta(CPF, Constantes.TIPO_CONTA_CORRENTE, 100.0);
+            banco.armazenamento.compactar(banco.servico);
+            banco.servico.depositar(1001, 5.0);
+            banco.armazenamento.compactar(banco.servico);
+            banco.servico.sacar(1001, 1.0);
+        }
+
+        try (Banco banco = Banco.abrir(diretorio)) {
+            assertEquals(104.0, banco.servico.consultarSaldo(1001));
+        }
+    }
+
+    @Test
+    void compactacaoSemRegistrosNovosNaoGiraDiario() throws Exception {
+        try (Banco banco = Banco.abrir(diretorio)) {
+            banco.servico.cadastrarCliente("Titular Teste", CPF);
+            banco.armazenamento.compactar(banco.servico);
+            List<String> arquivos = arquivosDoDiretorio();
+
+            banco.armazenamento.compactar(banco.servico);
+            assertEquals(arquivos, arquivosDoDiretorio());
+
+            banco.servico.cadastrarConta(CPF, Constantes.TIPO_CONTA_CORRENTE, 10.0);
+            banco.armazenamento.compactar(banco.servico);
+            assertNotEquals(arquivos, arquivosDoDiretorio());
+        }
+    }
+
+    @Test
+    void loteSemSucessosNaoTocaODiario() throws Exception {
+        try (Banco banco = Banco.abrir(diretorio)) {
+            banco.servico.cadastrarCliente("Titular Teste", CPF);
+            banco.servico.cadastrarConta(CPF, Constantes.TIPO_CONTA_CORRENTE, 10.0);
+            Path segmento = diretorio.resolve("diario-000001.log");
+            long tamanho = Files.size(segmento);
+
+            ResultadoLote resultado = banco.servico.executarLote(List.of(
+                    OperacaoLote.saque(1001, 50.0), OperacaoLote.deposito(9999, 1.0)));
+
+            assertEquals(0, resultado.getQuantidadeSucessos());
+            assertEquals(tamanho, Files.size(segmento));
+        }
+    }
+
+    @Test
+    void chaveDeIdempotenciaSobreviveAoReinicioEACompactacao() throws Exception {
+        try (Banco banco = Banco.abrir(diretorio)) {
+            banco.servico.cadastrarCliente("Titular Teste", CPF);
+            banco.servico.cadastrarConta(CPF, Constantes.TIPO_CONTA_CORRENTE, 100.0);
+            banco.servico.cadastrarConta(CPF, Constantes.TIPO_CONTA_CORRENTE, 0.0);
+            banco.servico.depositar(7L, 1001, 50.0);
+            assertEquals(StatusOperacao.SALDO_INSUFICIENTE, banco.servico.tentarSacar(8L, 1002, 1.0));
+        }
+
+        try (Banco banco = Banco.abrir(diretorio)) {
+            banco.servico.depositar(7L, 1001, 50.0);
+            assertEquals(StatusOperacao.SALDO_INSUFICIENTE, banco.servico.tentarSacar(8L, 1002, 1.0));
+            assertEquals(150.0, banco.servico.consultarSaldo(1001));
+            banco.servico.transferir(9L, 1001, 1002, 30.0);
+            banco.armazenamento.compactar(banco.servico);
+        }
+
+        try (Banco banco = Banco.abrir(diretorio)) {
+            assertEquals(StatusOperacao.SUCESSO, banco.servico.tentarTransferir(9L, 1001, 1002, 30.0));
+            assertEquals(StatusOperacao.CHAVE_REUTILIZADA, banco.servico.tentarDepositar(7L, 1001, 1.0));
+            assertEquals(120.0, banco.servico.consultarSaldo(1001));
+            assertEquals(30.0, banco.servico.consultarSaldo(1002));
+            // A mesma chave em outra conta é outra requisição
+            banco.servico.depositar(7L, 1002, 1.0);
+            assertEquals(31.0, banco.servico.consultarSaldo(1002));
+        }
+    }
+
+    @Test
+    void escritaConcorrenteRecuperaMesmosSaldos() throws Exception {
+        int contas = 16;
+        long[] saldosAntes = new long[contas];
+        try (Banco banco = Banco.abrir(diretorio)) {
+            banco.servico.cadastrarCliente("Titular Teste", CPF);
+            for (int i = 0; i < contas; i++) {
+                banco.servico.cadastrarConta(CPF, Constantes.TIPO_CONTA_CORRENTE, 10.0);
+            }
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                Random aleatorio = new Random(t);
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        int conta = 1001 + aleatorio.nextInt(contas);
+                        int outra = 1001 + aleatorio.nextInt(contas);
+                        double valor = (1 + aleatorio.nextInt(2_000)) / 100.0;
+                        switch (aleatorio.nextInt(3)) {
+                            case 0:
+                                banco.servico.tentarDepositar(conta, valor);
+                                break;
+                            case 1:
+                                banco.servico.tentarSacar(conta, valor);
+                                break;
+                            default:
+                                banco.servico.tentarTransferir(conta, outra, valor);
+                        }
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            for (int i = 0; i < contas; i++) {
+                saldosAntes[i] = saldoCentavos(banco.contas, 1001 + i);
+            }
+        }
+
+        try (Banco banco = Banco.abrir(diretorio)) {
+            for (int i = 0; i < contas; i++) {
+                assertEquals(saldosAntes[i], saldoCentavos(banco.contas, 1001 + i), "Conta " + (1001 + i));
+            }
+        }
+    }
+
+    @Test
+    void movimentoSemCriacaoDaContaImpedeAbertura() throws Exception {
+        try (ArmazenamentoBanco armazenamento = ArmazenamentoBanco.abrir(diretorio)) {
+            Diario diario = armazenamento.getDiario();
+            diario.anexar(RegistroDiario.cliente("Titular Teste", CPF));
+            diario.anexar(RegistroDiario.deposito(1001, 700));
+            diario.anexar(RegistroDiario.conta(1001, CPF, Constantes.TIPO_CONTA_CORRENTE, 0));
+        }
+        long tamanho = Files.size(diretorio.resolve("diario-000001.log"));
+
+        DiarioCorrompidoException erro = assertThrows(DiarioCorrompidoException.class,
+                () -> ArmazenamentoBanco.abrir(diretorio));
+        assertTrue(erro.getMessage().contains("registro 2"), erro.getMessage());
+        assertTrue(erro.getMessage().contains("conta 1001"), erro.getMessage());
+        // Nada é gravado para "corrigir" o diário
+        assertEquals(tamanho, Files.size(diretorio.resolve("diario-000001.log")));
+    }
+
+    @Test
+    void saldoNegativoNaReproducaoImpedeAbertura() throws Exception {
+        try (ArmazenamentoBanco armazenamento = ArmazenamentoBanco.abrir(diretorio)) {
+            Diario diario = armazenamento.getDiario();
+            diario.anexar(RegistroDiario.cliente("Titular Teste", CPF));
+            diario.anexar(RegistroDiario.conta(1001, CPF, Constantes.TIPO_CONTA_CORRENTE, 100));
+            diario.anexar(RegistroDiario.saque(1001, 50_000));
+        }
+
+        DiarioCorrompidoException erro = assertThrows(DiarioCorrompidoException.class,
+                () -> ArmazenamentoBanco.abrir(diretorio));
+        assertTrue(erro.getMessage().contains("registro 3"), erro.getMessage());
+        assertTrue(erro.getMessage().contains("conta 1001"), erro.getMessage());
+    }
+
+    @Test
+    void fimCortadoDoSegmentoAtivoEDescartado() throws Exception {
+        criarContaComDeposito();
+        Path segmento = diretorio.resolve("diario-000001.log");
+        // Cabeçalho de um registro de 100 bytes do qual só 3 chegaram ao disco
+        byte[] cortado = {0, 0, 0, 100, 1, 2, 3, 4, 9, 9, 9};
+        Files.write(segmento, cortado, StandardOpenOption.APPEND);
+
+        try (Banco banco = Banco.abrir(diretorio)) {
+            assertEquals(150.0, banco.servico.consultarSaldo(1001));
+            banco.servico.depositar(1001, 1.0);
+        }
+        try (Banco banco = Banco.abrir(diretorio)) {
+            assertEquals(151.0, banco.servico.consultarSaldo(1001));
+        }
+    }
+
+    @Test
+    void registroCorrompidoNoMeioDoSegmentoAtivoImpedeAbertura() throws Exception {
+        criarContaComDeposito();
+        Path segmento = diretorio.resolve("diario-000001.log");
+        byte[] conteudo = Files.readAllBytes(segmento);
+        // Último byte do primeiro registro (cliente): CRC não confere, e há registros depois
+        conteudo[8 + conteudo[3] - 1] ^= 1;
+        Files.write(segmento, conteudo);
+
+        assertThrows(DiarioCorrompidoException.class, () -> ArmazenamentoBanco.abrir(diretorio));
+    }
+
+    @Test
+    void segmentoEncerradoCortadoImpedeAbertura() throws Exception {
+        try (Banco banco = Banco.abrir(diretorio)) {
+            banco.servico.cadastrarCliente("Titular Teste", CPF);
+            banco.servico.cadastrarConta(CPF, Constantes.TIPO_CONTA_CORRENTE, 100.0);
+            banco.servico.rotacionarDiario(diretorio.resolve("diario-000002.log"));
+            banco.servico.depositar(1001, 50.0);
+        }
+        Path encerrado = diretorio.resolve("diario-000001.log");
+        byte[] conteudo = Files.readAllBytes(encerrado);
+        Files.write(encerrado, Arrays.copyOf(conteudo, conteudo.length - 3));
+
+        DiarioCorrompidoException erro = assertThrows(DiarioCorrompidoException.class,
+                () -> ArmazenamentoBanco.abrir(diretorio));
+        assertTrue(erro.getMessage().contains("diario-000001.log"));
+    }
+
+    private void criarContaComDeposito() throws Exception {
+        try (Banco banco = Banco.abrir(diretorio)) {
+            banco.servico.cadastrarCliente("Titular Teste", CPF);
+            banco.servico.cadastrarConta(CPF, Constantes.TIPO_CONTA_CORRENTE, 100.0);
+            banco.servico.depositar(1001, 50.0);
+        }
+    }
+
+    private List<String> arquivosDoDiretorio() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.map(arquivo -> arquivo.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static long saldoCentavos(IRepositorioContas contas, int numeroConta) {
+        return contas.buscarPorNumero(numeroConta).orElseThrow().getSaldoCentavos();
+    }
+
+    /**
+     * Banco montado como em Main: estado recuperado, serviço e decorador persistente.
+     */
+    private static final class Banco implements AutoCloseable {
+        private final ArmazenamentoBanco armazenamento;
+        private final IRepositorioContas contas;
+        private final BancoServicoPersistente servico;
+
+        private Banco(ArmazenamentoBanco armazenamento, IRepositorioContas contas, BancoServicoPersistente servico) {
+            this.armazenamento = armazenamento;
+            this.contas = contas;
+            this.servico = servico;
+        }
+
+        static Banco abrir(Path diretorio) throws IOException, BancoException {
+            ArmazenamentoBanco armazenamento = ArmazenamentoBanco.abrir(diretorio);
+            RepositorioClientesIndexado clientes = new RepositorioClientesIndexado();
+            RepositorioContasIndexado contas = new RepositorioContasIndexado();
+            CacheIdempotencia cache = new CacheIdempotencia(Constantes.CAPACIDADE_CACHE_IDEMPOTENCIA,
+                    TimeUnit.MINUTES.toMillis(Constantes.JANELA_IDEMPOTENCIA_MINUTOS));
+            int proximoNumeroConta = armazenamento.materializar(clientes, contas, cache);
+            BancoServico servico = new BancoServico(clientes, contas, proximoNumeroConta);
+            return new Banco(armazenamento, contas,
+                    new BancoServicoPersistente(servico, armazenamento.getDiario(), cache));
+        }
+
+        @Override
+        public void close() throws IOException {
+            armazenamento.close();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package repository;
+
+import constants.Constantes;
+import exception.BancoException;
+import factory.ContaFactory;
+import model.Cliente;
+import model.Conta;
+import model.ResumoTipoConta;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Totais por tipo: variações informadas pelas contas e congelamento durante blocos.
+ */
+class ConsolidacaoContasTest {
+
+    @Test
+    void totaisAcompanhamVariacoesDasContas() throws BancoException {
+        ConsolidacaoContas consolidacao = new ConsolidacaoContas(conta -> { });
+        Conta corrente = novaConta(Constantes.NUMERO_CONTA_INICIAL, Constantes.TIPO_CONTA_CORRENTE, 10.0);
+        Conta poupanca = novaConta(Constantes.NUMERO_CONTA_INICIAL + 1, Constantes.TIPO_CONTA_POUPANCA, 20.0);
+        consolidacao.registrar(corrente);
+        consolidacao.registrar(poupanca);
+
+        corrente.creditar(500);
+        poupanca.tentarDebitar(300);
+
+        assertEquals(1_500, saldoDo(consolidacao.resumir(), corrente.getTipo()));
+        assertEquals(1_700, saldoDo(consolidacao.resumir(), poupanca.getTipo()));
+    }
+
+    @Test
+    void rendimentoDiferidoVoltaASomaExataQuandoTodasAsContasAplicam() throws Exception {
+        ConsolidacaoContas consolidacao = new ConsolidacaoContas(conta -> { });
+        Conta[] contas = new Conta[8];
+        for (int i = 0; i < contas.length; i++) {
+            contas[i] = novaConta(Constantes.NUMERO_CONTA_INICIAL + i, Constantes.TIPO_CONTA_POUPANCA, 10.01);
+            consolidacao.registrar(contas[i]);
+        }
+        AtomicBoolean parar = new AtomicBoolean();
+        AtomicReference<Throwable> falha = new AtomicReference<>();
+
+        // Depósitos em paralelo às aberturas deslocam a projeção enquanto há contas pendentes
+        Thread[] depositantes = new Thread[4];
+        for (int t = 0; t < depositantes.length; t++) {
+            int deslocamento = t;
+            depositantes[t] = new Thread(() -> {
+                try {
+                    for (int i = deslocamento; !parar.get(); i++) {
+                        contas[i % contas.length].creditar(100_001);
+                    }
+                } catch (Throwable e) {
+                    falha.compareAndSet(null, e);
+                }
+            });
+            depositantes[t].start();
+        }
+        for (int epoca = 0; epoca < 2_000; epoca++) {
+            consolidacao.abrirEpocaRendimentoPoupancas(0.01);
+        }
+        parar.set(true);
+        for (Thread depositante : depositantes) {
+            depositante.join();
+        }
+
+        assertNull(falha.get());
+        long soma = 0;
+        for (Conta conta : contas) {
+            soma += conta.getSaldoCentavos();
+        }
+        assertEquals(soma, saldoDo(consolidacao.resumir(), contas[0].getTipo()));
+    }
+
+    @Test
+    void blocoMostraTotaisDoInicioAteTerminar() throws BancoException {
+        ConsolidacaoContas consolidacao = new ConsolidacaoContas(conta -> { });
+        Conta conta = novaConta(Constantes.NUMERO_CONTA_INICIAL, Constantes.TIPO_CONTA_CORRENTE, 10.0);
+        consolidacao.registrar(conta);
+
+        long saldoDuranteBloco = consolidacao.executarComTotaisCongelados(() -> {
+            conta.creditar(5_000);
+            return saldoDo(consolidacao.resumir(), conta.getTipo());
+        });
+
+        assertEquals(1_000, saldoDuranteBloco);
+        assertEquals(6_000, saldoDo(consolidacao.resumir(), conta.getTipo()));
+    }
+
+    @Test
+    void leitoresConcorrentesComBlocosNuncaRecebemResumoNulo() throws Exception {
+        ConsolidacaoContas consolidacao = new ConsolidacaoContas(conta -> { });
+        Conta conta = novaConta(Constantes.NUMERO_CONTA_INICIAL, Constantes.TIPO_CONTA_CORRENTE, 10.0);
+        consolidacao.registrar(conta);
+        AtomicBoolean parar = new AtomicBoolean();
+        AtomicReference<Throwable> falha = new AtomicReference<>();
+
+        Thread[] leitores = new Thread[4];
+        for (int i = 0; i < leitores.length; i++) {
+            leitores[i] = new Thread(() -> {
+                try {
+                    while (!parar.get()) {
+                        List<ResumoTipoConta> resumo = consolidacao.resumir();
+                        assertNotNull(resumo);
+                        assertEquals(1, resumo.size());
+                    }
+                } catch (Throwable t) {
+                    falha.compareAndSet(null, t);
+                }
+            });
+            leitores[i].start();
+        }
+        for (int i = 0; i < 20_000; i++) {
+            consolidacao.executarComTotaisCongelados(() -> {
+                conta.creditar(1);
+                return null;
+            });
+        }
+        parar.set(true);
+        for (Thread leitor : leitores) {
+            leitor.join();
+        }
+
+        assertNull(falha.get());
+        assertEquals(1_000 + 20_000, saldoDo(consolidacao.resumir(), conta.getTipo()));
+    }
+
+    private static long saldoDo(List<ResumoTipoConta> resumos, String tipo) {
+        for (ResumoTipoConta resumo : resumos) {
+            if (resumo.getTipo().equals(tipo)) {
+                return resumo.getSaldoCentavos();
+            }
+        }
+        throw new AssertionError("Tipo ausente do resumo: " + tipo);
+    }
+
+    private static Conta novaConta(int numero, String tipo, double saldoInicial) throws BancoException {
+        return ContaFactory.criarConta(numero, new Cliente("Titular Teste", "52998224725"), tipo, saldoInicial);
+    }
+}
@@ -0,0 +1,140 @@
+package repository;
+
+import constants.Constantes;
+import exception.BancoException;
+import factory.ContaFactory;
+import model.Cliente;
+import model.Conta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Ranking por saldo: páginas e posições do índice conferidas contra uma ordenação completa,
+ * antes e depois de variações de saldo e de épocas de rendimento (inclusive com
+ * poupanças que ainda não aplicaram a época), com contas no heap
+ * e no arquivo mapeado (índice que guarda só os números das contas).
+ */
+class IndiceSaldosTest {
+    private static final int CONTAS = 2_000;
+    private static final Comparator<Conta> ORDEM_RANKING = Comparator
+            .comparingLong(Conta::getSaldoCentavos).reversed()
+            .thenComparingInt(Conta::getNumero);
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void posicaoEPaginasAcompanhamVariacoesDeSaldo() throws BancoException {
+        exercitar(new RepositorioContasIndexado());
+    }
+
+    @Test
+    void indiceDoArquivoMapeadoAcompanhaVariacoesDeSaldo() throws BancoException, IOException {
+        try (RepositorioContasMapeado repositorio = new RepositorioContasMapeado(diretorio.resolve("contas.dat"))) {
+            exercitar(repositorio);
+        }
+    }
+
+    @Test
+    void contaInexistenteNaoTemPosicao() {
+        RepositorioContasIndexado repositorio = new RepositorioContasIndexado();
+
+        assertFalse(repositorio.posicaoPorSaldo(Constantes.NUMERO_CONTA_INICIAL).isPresent());
+    }
+
+    private static void exercitar(IRepositorioContas repositorio) throws BancoException {
+        Random aleatorio = new Random(42);
+        for (int i = 0; i < CONTAS; i++) {
+            String tipo = i % 2 == 0 ? Constantes.TIPO_CONTA_CORRENTE : Constantes.TIPO_CONTA_POUPANCA;
+            repositorio.adicionar(ContaFactory.criarConta(Constantes.NUMERO_CONTA_INICIAL + i,
+                    new Cliente("Titular Teste", "52998224725"), tipo, aleatorio.nextInt(1_000)));
+        }
+        conferir(repositorio);
+
+        for (int rodada = 0; rodada < 5; rodada++) {
+            for (int i = 0; i < CONTAS / 10; i++) {
+                Conta conta = repositorio.buscarPorNumero(Constantes.NUMERO_CONTA_INICIAL + aleatorio.nextInt(CONTAS))
+                        .orElseThrow();
+                if (aleatorio.nextBoolean()) {
+                    conta.creditar(1 + aleatorio.nextInt(50_000));
+                } else {
+                    conta.tentarDebitar(1 + aleatorio.nextInt(50_000));
+                }
+            }
+            conferir(repositorio);
+        }
+
+        repositorio.abrirEpocaRendimentoPoupancas(1.5);
+        conferir(repositorio);
+
+        for (int epoca = 0; epoca < 3; epoca++) {
+            repositorio.abrirEpocaRendimentoPoupancas(0.7 + epoca);
+            // Algumas contas aplicam a época já; as demais só depois das consultas
+            for (int i = 0; i < CONTAS / 20; i++) {
+                repositorio.buscarPorNumero(Constantes.NUMERO_CONTA_INICIAL + aleatorio.nextInt(CONTAS))
+                        .orElseThrow().creditar(1 + aleatorio.nextInt(50_000));
+            }
+            conferirAntesDeAplicarEpocas(repositorio);
+        }
+    }
+
+    /**
+     * Consulta o índice antes de as poupanças aplicarem as épocas abertas e só então
+     * lê os saldos (que as aplicam) para montar a ordem esperada.
+     */
+    private static void conferirAntesDeAplicarEpocas(IRepositorioContas repositorio) {
+        List<Integer> ranking = numeros(repositorio.listarOrdenadasPorSaldo());
+        List<Integer> pagina = numeros(repositorio.listarPorSaldo(700, 50));
+        List<Integer> menores = numeros(reverso(repositorio.listarMenoresSaldos(10)));
+        int numero = ranking.get(1_234);
+        int posicao = repositorio.posicaoPorSaldo(numero).getAsInt();
+
+        List<Conta> esperado = new ArrayList<>(repositorio.listarTodas());
+        esperado.sort(ORDEM_RANKING);
+        List<Integer> numerosEsperados = numeros(esperado);
+        assertEquals(numerosEsperados, ranking);
+        assertEquals(numerosEsperados.subList(700, 750), pagina);
+        assertEquals(numerosEsperados.subList(CONTAS - 10, CONTAS), menores);
+        assertEquals(numerosEsperados.indexOf(numero) + 1, posicao);
+    }
+
+    private static void conferir(IRepositorioContas repositorio) {
+        List<Conta> esperado = new ArrayList<>(repositorio.listarTodas());
+        esperado.sort(ORDEM_RANKING);
+        List<Integer> numerosEsperados = numeros(esperado);
+
+        assertEquals(numerosEsperados.subList(0, 10), numeros(repositorio.listarMaioresSaldos(10)));
+        assertEquals(numerosEsperados.subList(500, 550), numeros(repositorio.listarPorSaldo(500, 50)));
+        assertEquals(numerosEsperados.subList(CONTAS - 10, CONTAS),
+                numeros(reverso(repositorio.listarMenoresSaldos(10))));
+        for (int posicao = 0; posicao < CONTAS; posicao += 97) {
+            int numero = numerosEsperados.get(posicao);
+            assertEquals(posicao + 1, repositorio.posicaoPorSaldo(numero).getAsInt(), "Posição da conta " + numero);
+        }
+    }
+
+    private static List<Integer> numeros(List<Conta> contas) {
+        List<Integer> numeros = new ArrayList<>(contas.size());
+        for (Conta conta : contas) {
+            numeros.add(conta.getNumero());
+        }
+        return numeros;
+    }
+
+    private static List<Conta> reverso(List<Conta> contas) {
+        List<Conta> reverso = new ArrayList<>(contas);
+        Collections.reverse(reverso);
+        return reverso;
+    }
+}
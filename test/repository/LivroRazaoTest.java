@@ -0,0 +1,81 @@
+package repository;
+
+import model.Movimento;
+import model.TipoMovimento;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Livro razão: cadeias por conta com anexação concorrente, descarte dos movimentos
+ * mais antigos ao encher e livro desativado.
+ */
+class LivroRazaoTest {
+    private static final int CONTA = 1001;
+
+    @Test
+    void anexacaoConcorrenteMantemCadeiaDeCadaConta() throws Exception {
+        int threads = 8;
+        int movimentosPorThread = 10_000;
+        LivroRazao livro = new LivroRazao(1 << 20);
+        List<Thread> escritores = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int conta = CONTA + t;
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= movimentosPorThread; i++) {
+                    livro.registrar(TipoMovimento.DEPOSITO, conta, i, Movimento.SEM_CONTRAPARTE);
+                }
+            });
+            escritores.add(thread);
+            thread.start();
+        }
+        for (Thread thread : escritores) {
+            thread.join();
+        }
+
+        assertEquals((long) threads * movimentosPorThread, livro.getQuantidadeMovimentos());
+        for (int t = 0; t < threads; t++) {
+            List<Movimento> movimentos = livro.ultimos(CONTA + t, Integer.MAX_VALUE);
+            assertEquals(movimentosPorThread, movimentos.size());
+            for (int i = 0; i < movimentos.size(); i++) {
+                assertEquals(i + 1, movimentos.get(i).getValorCentavos());
+            }
+        }
+        CursorMovimentos cursor = livro.cursor(LivroRazao.TODAS_AS_CONTAS, 1_000);
+        long lidos = 0;
+        while (cursor.avancar()) {
+            lidos += cursor.getQuantidade();
+        }
+        assertEquals((long) threads * movimentosPorThread, lidos);
+    }
+
+    @Test
+    void livroCheioDescartaMovimentosMaisAntigos() {
+        LivroRazao livro = new LivroRazao(16);
+        for (int i = 1; i <= 40; i++) {
+            livro.registrar(TipoMovimento.DEPOSITO, CONTA, i, Movimento.SEM_CONTRAPARTE);
+        }
+
+        List<Movimento> movimentos = livro.ultimos(CONTA, Integer.MAX_VALUE);
+        assertEquals(16, movimentos.size());
+        assertEquals(25, movimentos.get(0).getValorCentavos());
+        assertEquals(40, movimentos.get(15).getValorCentavos());
+        assertEquals(6, livro.porSequencia(CONTA, 0, 29).size());
+    }
+
+    @Test
+    void livroDesativadoNaoRegistra() {
+        LivroRazao livro = LivroRazao.DESATIVADO;
+
+        assertFalse(livro.isAtivo());
+        assertEquals(LivroRazao.SEM_SEQUENCIA,
+                livro.registrar(TipoMovimento.DEPOSITO, CONTA, 100, Movimento.SEM_CONTRAPARTE));
+        assertTrue(livro.ultimos(CONTA, 10).isEmpty());
+        assertFalse(livro.cursor(CONTA, 10).avancar());
+    }
+}
@@ -0,0 +1,119 @@
+package repository;
+
+import constants.Constantes;
+import exception.BancoException;
+import factory.ContaFactory;
+import model.Cliente;
+import model.Conta;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache de contas: acertos, escrita direta no repositório decorado, admissão e
+ * despejo por frequência e buscas concorrentes sempre com a conta pedida.
+ */
+class RepositorioContasComCacheTest {
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void contaDoCacheEscreveNoRepositorioDecorado() throws Exception {
+        try (RepositorioContasMapeado mapeado = new RepositorioContasMapeado(diretorio.resolve("contas.dat"))) {
+            RepositorioContasComCache cache = new RepositorioContasComCache(mapeado, 16);
+            cache.adicionar(novaConta(Constantes.NUMERO_CONTA_INICIAL));
+
+            Conta conta = cache.buscarPorNumero(Constantes.NUMERO_CONTA_INICIAL).orElseThrow();
+            assertSame(conta, cache.buscarPorNumero(Constantes.NUMERO_CONTA_INICIAL).orElseThrow());
+            conta.creditar(250);
+
+            assertEquals(1_250, mapeado.buscarPorNumero(Constantes.NUMERO_CONTA_INICIAL).orElseThrow()
+                    .getSaldoCentavos());
+            assertEquals(1, cache.getAcertos());
+            assertEquals(1, cache.getFaltas());
+            assertEquals(0.5, cache.getTaxaAcerto());
+        }
+    }
+
+    @Test
+    void varreduraNaoExpulsaContasFrequentes() throws BancoException {
+        RepositorioContasIndexado indexado = new RepositorioContasIndexado();
+        int contas = 8_192;
+        int quentes = 64;
+        for (int i = 0; i < contas; i++) {
+            indexado.adicionar(novaConta(Constantes.NUMERO_CONTA_INICIAL + i));
+        }
+        RepositorioContasComCache cache = new RepositorioContasComCache(indexado, 256);
+        for (int rodada = 0; rodada < 20; rodada++) {
+            for (int i = 0; i < quentes; i++) {
+                cache.buscarPorNumero(Constantes.NUMERO_CONTA_INICIAL + i);
+            }
+        }
+
+        // Varredura: cada conta fria é buscada uma única vez, entre buscas às quentes
+        for (int i = quentes; i < contas; i++) {
+            cache.buscarPorNumero(Constantes.NUMERO_CONTA_INICIAL + i);
+            cache.buscarPorNumero(Constantes.NUMERO_CONTA_INICIAL + i % quentes);
+        }
+        long acertosAntes = cache.getAcertos();
+        for (int i = 0; i < quentes; i++) {
+            cache.buscarPorNumero(Constantes.NUMERO_CONTA_INICIAL + i);
+        }
+
+        assertTrue(cache.getRecusas() > 0);
+        assertTrue(cache.getAcertos() - acertosAntes >= quentes * 9 / 10,
+                "Acertos nas contas frequentes: " + (cache.getAcertos() - acertosAntes));
+    }
+
+    @Test
+    void buscasConcorrentesDevolvemSempreAContaPedida() throws Exception {
+        RepositorioContasIndexado indexado = new RepositorioContasIndexado();
+        int contas = 4_096;
+        for (int i = 0; i < contas; i++) {
+            indexado.adicionar(novaConta(Constantes.NUMERO_CONTA_INICIAL + i));
+        }
+        RepositorioContasComCache cache = new RepositorioContasComCache(indexado, 256);
+        AtomicReference<Throwable> falha = new AtomicReference<>();
+        int buscasPorThread = 50_000;
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                try {
+                    ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                    for (int i = 0; i < buscasPorThread; i++) {
+                        // Metade das buscas num conjunto quente de 64 contas
+                        int numero = Constantes.NUMERO_CONTA_INICIAL
+                                + (aleatorio.nextBoolean() ? aleatorio.nextInt(64) : aleatorio.nextInt(contas));
+                        assertEquals(numero, cache.buscarPorNumero(numero).orElseThrow().getNumero());
+                        if (i % 1_000 == 0) {
+                            cache.invalidar(numero);
+                        }
+                    }
+                } catch (Throwable e) {
+                    falha.compareAndSet(null, e);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertNull(falha.get());
+        assertEquals((long) threads.length * buscasPorThread, cache.getAcertos() + cache.getFaltas());
+        assertTrue(cache.getTaxaAcerto() > 0.3, "Taxa de acerto: " + cache.getTaxaAcerto());
+    }
+
+    private static Conta novaConta(int numero) throws BancoException {
+        return ContaFactory.criarConta(numero, new Cliente("Titular Teste", "52998224725"), Constantes.TIPO_CONTA_CORRENTE, 10.0);
+    }
+}
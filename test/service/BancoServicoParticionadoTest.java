@@ -0,0 +1,136 @@
+package service;
+
+import constants.Constantes;
+import exception.BancoException;
+import exception.SaldoInsuficienteException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.LivroRazao;
+import repository.RepositorioClientesIndexado;
+import repository.RepositorioContasIndexado;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Motor particionado: transferências entre partições em duas fases e
+ * conservação do total com solicitantes concorrentes.
+ */
+class BancoServicoParticionadoTest {
+    private static final int PARTICOES = 4;
+    private static final int CONTAS = 16;
+    private static final double SALDO_INICIAL = 1_000.0;
+
+    private BancoServico servico;
+    private BancoServicoParticionado particionado;
+
+    @BeforeEach
+    void preparar() throws BancoException {
+        servico = new BancoServico(new RepositorioClientesIndexado(), new RepositorioContasIndexado());
+        servico.cadastrarCliente("Titular Teste", "52998224725");
+        for (int i = 0; i < CONTAS; i++) {
+            servico.cadastrarConta("52998224725", Constantes.TIPO_CONTA_CORRENTE, SALDO_INICIAL);
+        }
+        particionado = new BancoServicoParticionado(servico, PARTICOES);
+    }
+
+    @AfterEach
+    void encerrar() {
+        particionado.close();
+    }
+
+    @Test
+    void transferenciaEntreParticoesCreditaDestino() throws BancoException {
+        int origem = Constantes.NUMERO_CONTA_INICIAL;
+        int destino = origem + 1;
+
+        particionado.transferir(origem, destino, 250.0);
+
+        assertEquals(750.0, particionado.consultarSaldo(origem));
+        assertEquals(1_250.0, particionado.consultarSaldo(destino));
+    }
+
+    @Test
+    void transferenciaSemSaldoNaoCreditaDestino() throws BancoException {
+        int origem = Constantes.NUMERO_CONTA_INICIAL;
+        int destino = origem + 1;
+
+        assertThrows(SaldoInsuficienteException.class, () -> particionado.transferir(origem, destino, 1_000.01));
+        assertEquals(StatusOperacao.SALDO_INSUFICIENTE, particionado.tentarTransferir(origem, destino, 1_000.01));
+        assertEquals(SALDO_INICIAL, particionado.consultarSaldo(origem));
+        assertEquals(SALDO_INICIAL, particionado.consultarSaldo(destino));
+    }
+
+    @Test
+    void chaveDeduplicadaPeloCacheCompartilhadoComOServicoDecorado() throws BancoException {
+        CacheIdempotencia cache = new CacheIdempotencia(Constantes.CAPACIDADE_CACHE_IDEMPOTENCIA, 60_000);
+        BancoServico base = new BancoServico(new RepositorioClientesIndexado(), new RepositorioContasIndexado(),
+                Constantes.NUMERO_CONTA_INICIAL, false, LivroRazao.DESATIVADO, cache);
+        base.cadastrarCliente("Titular Teste", "52998224725");
+        int conta = base.cadastrarConta("52998224725", Constantes.TIPO_CONTA_CORRENTE, 0.0).getNumero();
+
+        try (BancoServicoParticionado camada = new BancoServicoParticionado(base, PARTICOES,
+                LivroRazao.DESATIVADO, cache)) {
+            assertEquals(StatusOperacao.SUCESSO, base.tentarDepositar(42L, conta, 10.0));
+            // Mesma chave pela outra camada: o resultado vem do cache, sem novo depósito
+            assertEquals(StatusOperacao.SUCESSO, camada.tentarDepositar(42L, conta, 10.0));
+        }
+        assertEquals(10.0, base.consultarSaldo(conta));
+    }
+
+    @Test
+    void loteComTransferenciasEntreParticoesRespeitaOrdem() throws BancoException {
+        int a = Constantes.NUMERO_CONTA_INICIAL;
+        int b = a + 1;
+        int c = a + 2;
+        // O segundo passo só tem saldo se o crédito do primeiro já chegou a b
+        List<OperacaoLote> lote = List.of(
+                OperacaoLote.transferencia(a, b, 1_000.0),
+                OperacaoLote.transferencia(b, c, 2_000.0));
+
+        ResultadoLote resultado = particionado.executarLote(lote);
+
+        assertEquals(2, resultado.getQuantidadeSucessos());
+        assertEquals(0.0, particionado.consultarSaldo(a));
+        assertEquals(0.0, particionado.consultarSaldo(b));
+        assertEquals(3_000.0, particionado.consultarSaldo(c));
+    }
+
+    @Test
+    void transferenciasConcorrentesConservamTotal() throws Exception {
+        int threads = 8;
+        int operacoesPorThread = 5_000;
+        List<Thread> solicitantes = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int semente = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < operacoesPorThread; i++) {
+                    int origem = Constantes.NUMERO_CONTA_INICIAL + (semente * 7 + i * 3) % CONTAS;
+                    int destino = Constantes.NUMERO_CONTA_INICIAL + (semente * 5 + i * 11 + 1) % CONTAS;
+                    if (origem != destino) {
+                        particionado.tentarTransferir(origem, destino, 1.0 + (i % 400));
+                    }
+                }
+            });
+            solicitantes.add(thread);
+            thread.start();
+        }
+        for (Thread thread : solicitantes) {
+            thread.join();
+        }
+
+        long total = 0;
+        for (int i = 0; i < CONTAS; i++) {
+            long saldo = servico.getRepositorioContas()
+                    .buscarPorNumero(Constantes.NUMERO_CONTA_INICIAL + i).orElseThrow().getSaldoCentavos();
+            assertTrue(saldo >= 0, "Saldo negativo na conta " + (Constantes.NUMERO_CONTA_INICIAL + i));
+            total += saldo;
+        }
+        assertEquals(CONTAS * 100_000L, total);
+    }
+}
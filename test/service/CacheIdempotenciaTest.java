@@ -0,0 +1,135 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deduplicação por chave: repetição, chave reutilizada, falha, espera pela
+ * execução original e limite de capacidade.
+ */
+class CacheIdempotenciaTest {
+    private static final long JANELA_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    private static final OperacaoLote DEPOSITO = OperacaoLote.deposito(1001, 10.0);
+
+    @Test
+    void repeticaoDevolveResultadoSemExecutarDeNovo() {
+        CacheIdempotencia cache = new CacheIdempotencia(1 << 10, JANELA_MILLIS);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        StatusOperacao primeira = cache.executar(7L, DEPOSITO, () -> {
+            execucoes.incrementAndGet();
+            return StatusOperacao.SALDO_INSUFICIENTE;
+        });
+        StatusOperacao repetida = cache.executar(7L, DEPOSITO, () -> {
+            execucoes.incrementAndGet();
+            return StatusOperacao.SUCESSO;
+        });
+
+        assertEquals(StatusOperacao.SALDO_INSUFICIENTE, primeira);
+        assertEquals(StatusOperacao.SALDO_INSUFICIENTE, repetida);
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void chaveReutilizadaComOutraOperacaoERecusada() {
+        CacheIdempotencia cache = new CacheIdempotencia(1 << 10, JANELA_MILLIS);
+        cache.executar(7L, DEPOSITO, () -> StatusOperacao.SUCESSO);
+
+        StatusOperacao status = cache.executar(7L, OperacaoLote.saque(1001, 10.0), () -> {
+            throw new AssertionError("Operação diferente não pode executar");
+        });
+
+        assertEquals(StatusOperacao.CHAVE_REUTILIZADA, status);
+    }
+
+    @Test
+    void mesmaChaveEmContasDiferentesExecutaAmbas() {
+        CacheIdempotencia cache = new CacheIdempotencia(1 << 10, JANELA_MILLIS);
+        AtomicInteger execucoes = new AtomicInteger();
+
+        cache.executar(7L, DEPOSITO, () -> StatusOperacao.SUCESSO);
+        StatusOperacao outraConta = cache.executar(7L, OperacaoLote.saque(1002, 10.0), () -> {
+            execucoes.incrementAndGet();
+            return StatusOperacao.SUCESSO;
+        });
+
+        assertEquals(StatusOperacao.SUCESSO, outraConta);
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void chaveRestauradaNaoExecutaDeNovo() {
+        CacheIdempotencia cache = new CacheIdempotencia(1 << 10, JANELA_MILLIS);
+        cache.restaurar(7L, DEPOSITO, StatusOperacao.SUCESSO, 1_000);
+        cache.restaurar(8L, DEPOSITO, StatusOperacao.SUCESSO, JANELA_MILLIS);
+
+        assertEquals(StatusOperacao.SUCESSO, cache.executar(7L, DEPOSITO, () -> {
+            throw new AssertionError("Chave restaurada não pode executar");
+        }));
+        assertEquals(StatusOperacao.VALOR_INVALIDO, cache.executar(8L, DEPOSITO, () -> StatusOperacao.VALOR_INVALIDO));
+    }
+
+    @Test
+    void falhaLiberaChaveParaNovaTentativa() {
+        CacheIdempotencia cache = new CacheIdempotencia(1 << 10, JANELA_MILLIS);
+
+        assertThrows(IllegalStateException.class, () -> cache.executar(7L, DEPOSITO, () -> {
+            throw new IllegalStateException("falha simulada");
+        }));
+
+        assertEquals(StatusOperacao.SUCESSO, cache.executar(7L, DEPOSITO, () -> StatusOperacao.SUCESSO));
+    }
+
+    @Test
+    void repeticaoConcorrenteEsperaExecucaoOriginal() throws Exception {
+        CacheIdempotencia cache = new CacheIdempotencia(1 << 10, JANELA_MILLIS);
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        Thread original = new Thread(() -> cache.executar(7L, DEPOSITO, () -> {
+            execucoes.incrementAndGet();
+            emExecucao.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return StatusOperacao.SUCESSO;
+        }));
+        original.start();
+        emExecucao.await();
+
+        StatusOperacao[] repetida = new StatusOperacao[1];
+        Thread repeticao = new Thread(() -> repetida[0] = cache.executar(7L, DEPOSITO, () -> {
+            execucoes.incrementAndGet();
+            return StatusOperacao.SALDO_INSUFICIENTE;
+        }));
+        repeticao.start();
+        liberar.countDown();
+        original.join();
+        repeticao.join();
+
+        assertEquals(StatusOperacao.SUCESSO, repetida[0]);
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    void quantidadeFicaLimitadaACapacidade() {
+        int capacidade = 1 << 10;
+        CacheIdempotencia cache = new CacheIdempotencia(capacidade, JANELA_MILLIS);
+
+        for (long chave = 1; chave <= capacidade * 4L; chave++) {
+            cache.executar(chave, DEPOSITO, () -> StatusOperacao.SUCESSO);
+        }
+
+        assertTrue(cache.getQuantidade() <= capacidade, "Quantidade: " + cache.getQuantidade());
+    }
+}
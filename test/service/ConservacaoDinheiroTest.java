@@ -0,0 +1,121 @@
+package service;
+
+import constants.Constantes;
+import exception.BancoException;
+import model.ResumoTipoConta;
+import org.junit.jupiter.api.Test;
+import repository.IRepositorioContas;
+import repository.RepositorioClientesIndexado;
+import repository.RepositorioContasIndexado;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de carga: muitas threads depositando, sacando, transferindo e executando
+ * lotes sobre poucas contas. Ao final, a soma dos saldos deve ser exatamente o
+ * saldo inicial mais os depósitos menos os saques aceitos, nenhuma conta pode
+ * ficar negativa e os totais consolidados devem bater com a soma das contas.
+ */
+class ConservacaoDinheiroTest {
+    private static final int THREADS = 8;
+    private static final int OPERACOES_POR_THREAD = 20_000;
+    private static final int CONTAS = 32;
+    private static final double SALDO_INICIAL = 500.0;
+
+    @Test
+    void operacoesConcorrentesConservamDinheiro() throws Exception {
+        BancoServico servico = new BancoServico(new RepositorioClientesIndexado(), new RepositorioContasIndexado());
+        servico.cadastrarCliente("Titular Teste", "52998224725");
+        for (int i = 0; i < CONTAS; i++) {
+            String tipo = i % 2 == 0 ? Constantes.TIPO_CONTA_CORRENTE : Constantes.TIPO_CONTA_POUPANCA;
+            servico.cadastrarConta("52998224725", tipo, SALDO_INICIAL);
+        }
+        AtomicLong entradasCentavos = new AtomicLong();
+        AtomicLong saidasCentavos = new AtomicLong();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random aleatorio = new Random(t);
+            Thread thread = new Thread(() -> {
+                try {
+                    largada.await();
+                    for (int i = 0; i < OPERACOES_POR_THREAD; i++) {
+                        executarOperacaoAleatoria(servico, aleatorio, entradasCentavos, saidasCentavos);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        largada.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        IRepositorioContas contas = servico.getRepositorioContas();
+        long soma = 0;
+        for (int i = 0; i < CONTAS; i++) {
+            long saldo = contas.buscarPorNumero(Constantes.NUMERO_CONTA_INICIAL + i).orElseThrow().getSaldoCentavos();
+            assertTrue(saldo >= 0, "Saldo negativo na conta " + (Constantes.NUMERO_CONTA_INICIAL + i));
+            soma += saldo;
+        }
+        long esperado = CONTAS * 50_000L + entradasCentavos.get() - saidasCentavos.get();
+        assertEquals(esperado, soma);
+
+        long consolidado = 0;
+        for (ResumoTipoConta resumo : contas.consolidarPorTipo()) {
+            consolidado += resumo.getSaldoCentavos();
+        }
+        assertEquals(esperado, consolidado);
+    }
+
+    private static void executarOperacaoAleatoria(BancoServico servico, Random aleatorio,
+                                                  AtomicLong entradasCentavos, AtomicLong saidasCentavos) {
+        int conta = Constantes.NUMERO_CONTA_INICIAL + aleatorio.nextInt(CONTAS);
+        int outraConta = Constantes.NUMERO_CONTA_INICIAL + aleatorio.nextInt(CONTAS);
+        int centavos = 1 + aleatorio.nextInt(20_000);
+        double valor = centavos / 100.0;
+        try {
+            switch (aleatorio.nextInt(5)) {
+                case 0:
+                    servico.depositar(conta, valor);
+                    entradasCentavos.addAndGet(centavos);
+                    break;
+                case 1:
+                    if (servico.tentarSacar(conta, valor).isSucesso()) {
+                        saidasCentavos.addAndGet(centavos);
+                    }
+                    break;
+                case 2:
+                    servico.transferir(conta, outraConta, valor);
+                    break;
+                case 3:
+                    servico.tentarTransferir(conta, outraConta, valor);
+                    break;
+                default:
+                    ResultadoLote resultado = servico.executarLote(List.of(
+                            OperacaoLote.deposito(conta, valor),
+                            OperacaoLote.saque(outraConta, valor),
+                            OperacaoLote.transferencia(outraConta, conta, valor)));
+                    if (resultado.getStatus(0).isSucesso()) {
+                        entradasCentavos.addAndGet(centavos);
+                    }
+                    if (resultado.getStatus(1).isSucesso()) {
+                        saidasCentavos.addAndGet(centavos);
+                    }
+            }
+        } catch (BancoException | IllegalArgumentException e) {
+            // Saldo insuficiente ou contas iguais: nada foi aplicado
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import repository.RepositorioClientesIndexado;
+import repository.RepositorioContasIndexado;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Importação CSV: lotes reutilizados, linhas ignoradas, rejeições na ordem do
+ * arquivo e linha longa demais rejeitada sem ser montada inteira.
+ */
+class ImportacaoCsvServicoTest {
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void importaValidosERejeitaRestanteNaOrdemDoArquivo() throws Exception {
+        Path csv = diretorio.resolve("entrada.csv");
+        Path rejeitados = diretorio.resolve("rejeitados.txt");
+        Files.writeString(csv, String.join("\n",
+                "# comentário",
+                "cliente, Titular Teste ,52998224725\r",
+                "",
+                "   ",
+                "conta,52998224725,corrente,10.5",
+                "conta,52998224725,corrente,abc",
+                "conta,52998224725,corrente,1,2",
+                "cliente," + "A".repeat(ImportacaoCsvServico.TAMANHO_MAXIMO_LINHA) + ",11144477735",
+                "cliente,Outro Titular,11144477735"), StandardCharsets.UTF_8);
+        BancoServico servico = new BancoServico(new RepositorioClientesIndexado(), new RepositorioContasIndexado());
+
+        // Lotes de 2 linhas: os dois lotes reutilizados se alternam várias vezes
+        ResultadoImportacao resultado = new ImportacaoCsvServico(servico, 2).importar(csv, rejeitados);
+
+        assertEquals(6, resultado.getLinhasLidas());
+        assertEquals(2, resultado.getClientesImportados());
+        assertEquals(1, resultado.getContasImportadas());
+        assertEquals(3, resultado.getLinhasRejeitadas());
+        assertEquals("Titular Teste", servico.listarClientes().get(0).getNome());
+        assertEquals(10.5, servico.consultarSaldo(1001));
+
+        List<String> linhas = Files.readAllLines(rejeitados, StandardCharsets.UTF_8);
+        assertEquals(3, linhas.size());
+        assertTrue(linhas.get(0).startsWith("6;Saldo inicial inválido"));
+        assertTrue(linhas.get(1).startsWith("7;Registro conta deve ter 4 campos, encontrados 5"));
+        assertTrue(linhas.get(2).startsWith("8;Linha excede " + ImportacaoCsvServico.TAMANHO_MAXIMO_LINHA));
+        assertTrue(linhas.get(2).length() < 2 * ImportacaoCsvServico.TAMANHO_MAXIMO_LINHA);
+    }
+}